@@ -26,10 +26,12 @@ package org.spongepowered.despector;
 
 import org.spongepowered.despector.ast.SourceSet;
 import org.spongepowered.despector.ast.type.TypeEntry;
-import org.spongepowered.despector.config.ConfigBase.CleanupConfigSection;
+import org.spongepowered.despector.config.ConfigBase;
 import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.config.LibraryConfiguration;
+import org.spongepowered.despector.decompiler.AttributeProfile;
 import org.spongepowered.despector.decompiler.BaseDecompiler;
+import org.spongepowered.despector.decompiler.ClasspathIndexLoader;
 import org.spongepowered.despector.decompiler.Decompiler;
 import org.spongepowered.despector.decompiler.Decompilers;
 import org.spongepowered.despector.decompiler.DirectoryWalker;
@@ -39,23 +41,24 @@ import org.spongepowered.despector.emitter.Emitters;
 import org.spongepowered.despector.emitter.format.EmitterFormat;
 import org.spongepowered.despector.emitter.format.FormatLoader;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
+import org.spongepowered.despector.parallel.ArchiveWriter;
 import org.spongepowered.despector.parallel.Timing;
-import org.spongepowered.despector.transform.TypeTransformer;
-import org.spongepowered.despector.transform.cleanup.CleanupOperations;
+import org.spongepowered.despector.transform.TransformerPhase;
+import org.spongepowered.despector.transform.verify.VerificationPhase;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -67,6 +70,12 @@ public final class Despector {
 
     public static Language LANGUAGE = Language.ANY;
 
+    private static boolean archive_store = false;
+    private static boolean emit_bytecode = false;
+    private static int verify_percent = -1;
+    private static final List<Path> classpath = new ArrayList<>();
+    private static Path classpath_cache = Paths.get(System.getProperty("java.io.tmpdir"), "despector-classpath");
+
     static {
         flags.put("--config=", (arg) -> {
             String config = arg.substring(9);
@@ -87,6 +96,64 @@ public final class Despector {
                 System.exit(0);
             }
         });
+        flags.put("--include=", (arg) -> {
+            for (String glob : arg.substring(10).split(",")) {
+                if (!glob.isEmpty()) {
+                    LibraryConfiguration.filter.include(glob);
+                }
+            }
+        });
+        flags.put("--exclude=", (arg) -> {
+            for (String glob : arg.substring(10).split(",")) {
+                if (!glob.isEmpty()) {
+                    LibraryConfiguration.filter.exclude(glob);
+                }
+            }
+        });
+        flags.put("--attributes=", (arg) -> {
+            String name = arg.substring(13);
+            AttributeProfile profile = AttributeProfile.fromName(name);
+            if (profile == null) {
+                System.err.println("Unknown attribute profile: " + name);
+                System.err.println("Options are: full, no-annotations, no-debug-info, signatures-only");
+                System.exit(0);
+            }
+            LibraryConfiguration.attribute_profile = profile;
+        });
+        flags.put("--lazy", (arg) -> {
+            LibraryConfiguration.lazy = true;
+        });
+        flags.put("--store", (arg) -> {
+            archive_store = true;
+        });
+        flags.put("--emit=", (arg) -> {
+            String emit = arg.substring(7);
+            if ("bytecode".equalsIgnoreCase(emit)) {
+                emit_bytecode = true;
+            } else if ("source".equalsIgnoreCase(emit)) {
+                emit_bytecode = false;
+            } else {
+                System.err.println("Unknown emit mode: " + emit);
+                System.err.println("Options are: source, bytecode");
+                System.exit(0);
+            }
+        });
+        flags.put("--classpath=", (arg) -> {
+            for (String entry : arg.substring(12).split(File.pathSeparator)) {
+                if (!entry.isEmpty()) {
+                    classpath.add(Paths.get(entry));
+                }
+            }
+        });
+        flags.put("--classpath-cache=", (arg) -> {
+            classpath_cache = Paths.get(arg.substring(18));
+        });
+        flags.put("--verify=", (arg) -> {
+            verify_percent = Integer.parseInt(arg.substring(9));
+        });
+        flags.put("--max-warnings=", (arg) -> {
+            DespectorEngine.global().getDiagnostics().setLimit(Integer.parseInt(arg.substring(15)));
+        });
     }
 
     /**
@@ -154,8 +221,26 @@ public final class Despector {
      * The main entrance point.
      */
     public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            if (arg.startsWith("--daemon")) {
+                runDaemon(args);
+                return;
+            }
+            if (arg.startsWith("--benchmark")) {
+                runBenchmark(args);
+                return;
+            }
+        }
         if (args.length < 2) {
-            System.out.println("Usage: java -jar Despector.jar [sources...] [destination]");
+            System.out.println("Usage: java -jar Despector.jar [sources...] [destination directory, jar or zip]");
+            System.out.println("       java -jar Despector.jar --daemon[=port]");
+            System.out.println("       java -jar Despector.jar --benchmark=<jar or directory of jars> [--warmup=n] [--iterations=n] [--report=<json>]"
+                    + " [--baseline=<json>] [--threshold=<percent>]");
+            System.out.println("Flags: --config=<path> --lang=<java|kotlin|any> --include=<glob>[,<glob>] --exclude=<glob>[,<glob>] --lazy --store");
+            System.out.println("       --classpath=<jar or directory of jars>[" + File.pathSeparator + "...] --classpath-cache=<dir>");
+            System.out.println("       --emit=<source|bytecode> --verify=<percent of classes to verify>");
+            System.out.println("       --attributes=<full|no-annotations|no-debug-info|signatures-only>");
+            System.out.println("       --max-warnings=<distinct warnings of each kind to print before only counting them>");
             return;
         }
 
@@ -174,26 +259,34 @@ public final class Despector {
             }
         }
         String destination = args[args.length - 1];
+        if (emit_bytecode) {
+            recompile(sources, destination);
+            return;
+        }
         Path output = Paths.get(destination).toAbsolutePath();
-        if (!Files.exists(output)) {
+        // a jar or zip destination is written as a single sources archive
+        boolean archive = destination.endsWith(".jar") || destination.endsWith(".zip");
+        if (archive) {
+            if (output.getParent() != null && !Files.exists(output.getParent())) {
+                Files.createDirectories(output.getParent());
+            }
+        } else if (!Files.exists(output)) {
             Files.createDirectories(output);
         }
-        EmitterFormat formatter = EmitterFormat.defaults();
-        formatter.loadFrom(ConfigManager.getConfig().formatter);
-        Path formatter_path = Paths.get(".").resolve(ConfigManager.getConfig().emitter.formatting_path);
-        Path importorder_path = Paths.get(".").resolve(ConfigManager.getConfig().emitter.imports_path);
-        if (Files.exists(formatter_path) && Files.exists(importorder_path)) {
-            FormatLoader formatter_loader = FormatLoader.getLoader(ConfigManager.getConfig().emitter.formatting_type);
-            formatter_loader.load(formatter, formatter_path, importorder_path);
-        }
+        EmitterFormat formatter = loadFormatter();
 
         Decompiler decompiler = Decompilers.get(LANGUAGE);
 
-        if (LibraryConfiguration.parallel) {
+        if (LibraryConfiguration.parallel && !LibraryConfiguration.lazy) {
             System.out.println("Running parallel decompile with " + Runtime.getRuntime().availableProcessors() + " workers");
         }
 
         SourceSet source = new SourceSet();
+        ClasspathIndexLoader loader = null;
+        if (!classpath.isEmpty()) {
+            loader = new ClasspathIndexLoader(ClasspathIndexLoader.expand(classpath), classpath_cache);
+            source.setLoader(loader);
+        }
         for (String s : sources) {
             Path path = Paths.get(s);
             if (!Files.exists(path)) {
@@ -220,68 +313,59 @@ public final class Despector {
         }
 
         if (source.getAllClasses().isEmpty()) {
+            DespectorEngine.global().getDiagnostics().flush();
             System.err.println("No sources found.");
             return;
         }
 
-        List<TypeTransformer> transformers = new ArrayList<>();
-        for (String operation : ConfigManager.getConfig().cleanup.operations) {
-            TypeTransformer transformer = CleanupOperations.getOperation(operation);
-            if (transformer == null) {
-                System.err.println("Unknown cleanup operation: " + operation);
-            } else {
-                transformers.add(transformer);
+        applyCleanup(source, ConfigManager.getConfig(), DespectorEngine.global());
+
+        if (verify_percent >= 0) {
+            VerificationPhase verification = new VerificationPhase();
+            verification.setPercent(verify_percent);
+            verification.apply(source, DespectorEngine.global());
+        }
+
+        Emitter<JavaEmitterContext> emitter = Emitters.get(LANGUAGE);
+        List<TypeEntry> types = new ArrayList<>();
+        for (TypeEntry type : source.getAllClasses()) {
+            if (!type.isStub()) {
+                types.add(type);
             }
         }
-        Map<String, Set<TypeTransformer>> targeted_transformers = new HashMap<>();
-        for (CleanupConfigSection section : ConfigManager.getConfig().cleanup_sections) {
-            List<TypeTransformer> trans = new ArrayList<>();
-            for (String operation : section.operations) {
-                TypeTransformer transformer = CleanupOperations.getOperation(operation);
-                if (transformer == null) {
-                    System.err.println("Unknown cleanup operation: " + operation);
-                } else {
-                    trans.add(transformer);
+
+        if (archive) {
+            types.sort((a, b) -> a.getName().compareTo(b.getName()));
+            try (ArchiveWriter writer = new ArchiveWriter(Files.newOutputStream(output), !archive_store, Runtime.getRuntime().availableProcessors())) {
+                for (TypeEntry type : types) {
+                    if (type.isInnerClass() || type.isAnonType()) {
+                        continue;
+                    }
+                    StringWriter text = new StringWriter();
+                    JavaEmitterContext ctx = new JavaEmitterContext(text, formatter);
+                    emitter.emit(ctx, type);
+                    writer.add(type.getName() + LANGUAGE.getExtension(type), text.toString());
                 }
             }
-            for (String target : section.targets) {
-                Set<TypeTransformer> target_trans = targeted_transformers.get(target);
-                if (target_trans == null) {
-                    target_trans = new HashSet<>();
-                    targeted_transformers.put(target, target_trans);
+        } else {
+            for (TypeEntry type : types) {
+                if (type.isInnerClass() || type.isAnonType()) {
+                    continue;
                 }
-                target_trans.addAll(trans);
-            }
-        }
-        if (!transformers.isEmpty() || !targeted_transformers.isEmpty()) {
-            for (TypeEntry type : source.getAllClasses()) {
-                for (TypeTransformer transformer : transformers) {
-                    transformer.transform(type);
+                Path out = output.resolve(type.getName() + LANGUAGE.getExtension(type));
+                if (!Files.exists(out.getParent())) {
+                    Files.createDirectories(out.getParent());
                 }
-                Set<TypeTransformer> targetted = targeted_transformers.get(type.getName());
-                if (targetted != null) {
-                    for (TypeTransformer transformer : targetted) {
-                        transformer.transform(type);
-                    }
+                try (FileWriter writer = new FileWriter(out.toFile())) {
+                    JavaEmitterContext ctx = new JavaEmitterContext(writer, formatter);
+                    emitter.emit(ctx, type);
                 }
             }
         }
-
-        Emitter<JavaEmitterContext> emitter = Emitters.get(LANGUAGE);
-
-        for (TypeEntry type : source.getAllClasses()) {
-            if (type.isInnerClass() || type.isAnonType()) {
-                continue;
-            }
-            Path out = output.resolve(type.getName() + LANGUAGE.getExtension(type));
-            if (!Files.exists(out.getParent())) {
-                Files.createDirectories(out.getParent());
-            }
-            try (FileWriter writer = new FileWriter(out.toFile())) {
-                JavaEmitterContext ctx = new JavaEmitterContext(writer, formatter);
-                emitter.emit(ctx, type);
-            }
+        if (loader != null) {
+            loader.close();
         }
+        DespectorEngine.global().getDiagnostics().printSummary(System.err);
 
         if (LibraryConfiguration.print_times) {
             System.out.println("Time spend decompiling: " + (Timing.time_decompiling / 1000000) + "ms");
@@ -292,6 +376,142 @@ public final class Despector {
 
     }
 
+    /**
+     * Recompiles the given source jar to the destination jar by emitting each
+     * class back to bytecode.
+     */
+    private static void recompile(List<String> sources, String destination) throws IOException {
+        if (sources.size() != 1 || !sources.get(0).endsWith(".jar") || !destination.endsWith(".jar")) {
+            System.err.println("Bytecode emit requires a single source jar and a destination jar");
+            return;
+        }
+        Path output = Paths.get(destination).toAbsolutePath();
+        if (output.getParent() != null && !Files.exists(output.getParent())) {
+            Files.createDirectories(output.getParent());
+        }
+        long start = System.nanoTime();
+        DespectorRecompiler recompiler = new DespectorRecompiler(DespectorEngine.global());
+        if (verify_percent >= 0) {
+            recompiler.setVerifyPercent(verify_percent);
+        }
+        recompiler.setCompressed(!archive_store);
+        recompiler.recompile(Paths.get(sources.get(0)), output);
+        System.out.println("Recompiled " + recompiler.getRecompiledCount() + " classes, copied " + recompiler.getCopiedCount() + " unchanged in "
+                + ((System.nanoTime() - start) / 1000000) + "ms");
+        DespectorEngine.global().getDiagnostics().printSummary(System.err);
+    }
+
+    private static EmitterFormat loadFormatter() throws IOException {
+        EmitterFormat formatter = EmitterFormat.defaults();
+        formatter.loadFrom(ConfigManager.getConfig().formatter);
+        Path formatter_path = Paths.get(".").resolve(ConfigManager.getConfig().emitter.formatting_path);
+        Path importorder_path = Paths.get(".").resolve(ConfigManager.getConfig().emitter.imports_path);
+        if (Files.exists(formatter_path) && Files.exists(importorder_path)) {
+            FormatLoader formatter_loader = FormatLoader.getLoader(ConfigManager.getConfig().emitter.formatting_type);
+            formatter_loader.load(formatter, formatter_path, importorder_path);
+        }
+        return formatter;
+    }
+
+    /**
+     * Runs a warm daemon serving requests from stdin, or from a local socket
+     * if a port is given as --daemon=port.
+     */
+    private static void runDaemon(String[] args) throws IOException {
+        int port = -1;
+        outer: for (String arg : args) {
+            if (arg.startsWith("--daemon")) {
+                if (arg.startsWith("--daemon=")) {
+                    port = Integer.parseInt(arg.substring(9));
+                }
+                continue;
+            }
+            for (String flag : flags.keySet()) {
+                if (arg.startsWith(flag)) {
+                    flags.get(flag).accept(arg);
+                    continue outer;
+                }
+            }
+            System.err.println("Unknown daemon argument: " + arg);
+        }
+        DespectorDaemon daemon = new DespectorDaemon(ConfigManager.getConfig(), loadFormatter(), Runtime.getRuntime().availableProcessors());
+        daemon.setDefaultLanguage(LANGUAGE);
+        if (port >= 0) {
+            System.err.println("Despector daemon listening on port " + port);
+            daemon.serveSocket(port);
+        } else {
+            daemon.serveStdin();
+        }
+    }
+
+    /**
+     * Runs the benchmark over the corpus given as --benchmark=path, writes
+     * the report and exits with a non zero status if any metric regressed
+     * from the baseline.
+     */
+    private static void runBenchmark(String[] args) throws IOException {
+        Path corpus = null;
+        Path report_path = null;
+        Path baseline_path = null;
+        double threshold = 10;
+        int warmup = 2;
+        int iterations = 5;
+        outer: for (String arg : args) {
+            if (arg.startsWith("--benchmark=")) {
+                corpus = Paths.get(arg.substring(12));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring(9));
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring(13));
+            } else if (arg.startsWith("--report=")) {
+                report_path = Paths.get(arg.substring(9));
+            } else if (arg.startsWith("--baseline=")) {
+                baseline_path = Paths.get(arg.substring(11));
+            } else if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring(12));
+            } else {
+                for (String flag : flags.keySet()) {
+                    if (arg.startsWith(flag)) {
+                        flags.get(flag).accept(arg);
+                        continue outer;
+                    }
+                }
+                System.err.println("Unknown benchmark argument: " + arg);
+            }
+        }
+        if (corpus == null) {
+            System.err.println("No benchmark corpus given, use --benchmark=<jar or directory of jars>");
+            return;
+        }
+        DespectorBenchmark benchmark = new DespectorBenchmark(ConfigManager.getConfig(), loadFormatter(), Runtime.getRuntime().availableProcessors());
+        benchmark.setWarmup(warmup);
+        benchmark.setIterations(iterations);
+        DespectorBenchmark.Report report = benchmark.run(corpus);
+        String json = report.toJson();
+        System.out.print(json);
+        if (report_path != null) {
+            Files.write(report_path, json.getBytes(StandardCharsets.UTF_8));
+        }
+        if (baseline_path != null) {
+            List<String> regressions = DespectorBenchmark.compare(DespectorBenchmark.readReport(baseline_path), report.toValues(), threshold);
+            for (String regression : regressions) {
+                System.err.println("Regression " + regression);
+            }
+            if (!regressions.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Applies the cleanup operations from the given configuration to all types
+     * in the given source set, running independent transformers on the worker
+     * pool of the given engine.
+     */
+    static void applyCleanup(SourceSet source, ConfigBase config, DespectorEngine engine) {
+        TransformerPhase.fromConfig(config, engine.getDiagnostics()).apply(source, engine);
+    }
+
     private Despector() {
     }
 
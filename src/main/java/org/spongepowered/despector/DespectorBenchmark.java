@@ -0,0 +1,351 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.decompiler.JarWalker;
+import org.spongepowered.despector.emitter.format.EmitterFormat;
+import org.spongepowered.despector.parallel.DecompileStats;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures end to end decompilation throughput over a corpus of jars. Each
+ * iteration decompiles, transforms and emits every jar in the corpus with a
+ * warm engine; the statistics of the measured iterations are combined into a
+ * {@link Report}.
+ */
+public class DespectorBenchmark {
+
+    private static final Pattern JSON_NUMBER = Pattern.compile("\"([a-z0-9_]+)\"\\s*:\\s*(-?[0-9.eE+-]+)");
+
+    private final ConfigBase config;
+    private final EmitterFormat format;
+    private final int workers;
+    private int warmup = 2;
+    private int iterations = 5;
+
+    public DespectorBenchmark(ConfigBase config, EmitterFormat format, int workers) {
+        this.config = checkNotNull(config, "config");
+        this.format = checkNotNull(format, "format");
+        this.workers = Math.max(1, workers);
+    }
+
+    public int getWarmup() {
+        return this.warmup;
+    }
+
+    public void setWarmup(int warmup) {
+        checkArgument(warmup >= 0, "Warmup must not be negative");
+        this.warmup = warmup;
+    }
+
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    public void setIterations(int iterations) {
+        checkArgument(iterations > 0, "Iterations must be positive");
+        this.iterations = iterations;
+    }
+
+    /**
+     * Runs the benchmark over all jars in the given directory, or over the
+     * given jar.
+     */
+    public Report run(Path corpus) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        if (Files.isDirectory(corpus)) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(corpus, "*.jar")) {
+                for (Path jar : dir) {
+                    jars.add(jar);
+                }
+            }
+            Collections.sort(jars);
+        } else {
+            jars.add(corpus);
+        }
+        if (jars.isEmpty()) {
+            throw new IOException("No jars found in " + corpus.toAbsolutePath());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(this.workers, (r) -> {
+            Thread thread = new Thread(r, "despector-benchmark");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            DespectorEngine engine = new DespectorEngine(this.config, pool, this.workers);
+            engine.copyLoadSettings(DespectorEngine.global());
+            engine.setQuiet(true);
+            engine.setParallel(this.workers > 1);
+            DecompileStats stats = new DecompileStats();
+            engine.setStats(stats);
+
+            Report report = new Report();
+            for (int i = 0; i < this.warmup; i++) {
+                iterate(engine, jars, null);
+            }
+            stats.reset();
+            for (MemoryPoolMXBean memory : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (memory.getType() == MemoryType.HEAP) {
+                    memory.resetPeakUsage();
+                }
+            }
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < this.iterations; i++) {
+                iterate(engine, jars, report);
+            }
+            report.wall_time = System.nanoTime() - start;
+            report.allocated_bytes = allocated < 0 ? -1 : allocatedBytes() - allocated;
+            for (MemoryPoolMXBean memory : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (memory.getType() == MemoryType.HEAP) {
+                    report.peak_heap += memory.getPeakUsage().getUsed();
+                }
+            }
+            report.iterations = this.iterations;
+            report.jars = jars.size();
+            report.classes = stats.getClassCount();
+            report.methods = stats.getMethodCount();
+            report.failures = stats.getFailureCount();
+            report.loading_time = stats.getLoadingTime();
+            report.method_time = stats.getMethodTime();
+            report.latency_p50 = stats.getLatencyPercentile(50);
+            report.latency_p99 = stats.getLatencyPercentile(99);
+            report.latency_max = stats.getLatencyPercentile(100);
+            return report;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void iterate(DespectorEngine engine, List<Path> jars, Report report) throws IOException {
+        SourceSet source = engine.createSourceSet();
+        long start = System.nanoTime();
+        for (Path jar : jars) {
+            new JarWalker(jar).walk(source, engine.getDecompiler(engine.getLanguage()));
+        }
+        engine.flushTasks();
+        long decompiled = System.nanoTime();
+        Despector.applyCleanup(source, this.config, engine);
+        long transformed = System.nanoTime();
+        for (TypeEntry type : source.getAllClasses()) {
+            if (type.isInnerClass() || type.isAnonType()) {
+                continue;
+            }
+            engine.emit(type, new StringWriter(), this.format);
+        }
+        long emitted = System.nanoTime();
+        if (report != null) {
+            report.decompile_time += decompiled - start;
+            report.transform_time += transformed - decompiled;
+            report.emit_time += emitted - transformed;
+        }
+    }
+
+    /**
+     * Gets the bytes allocated by all live threads, or -1 if the jvm does not
+     * support allocation accounting.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sun_threads = (com.sun.management.ThreadMXBean) threads;
+        if (!sun_threads.isThreadAllocatedMemorySupported() || !sun_threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : sun_threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Compares the given report against the given baseline and returns a
+     * description of each metric which regressed by more than the given
+     * percentage. A metric with a negative baseline was not measured and is
+     * skipped.
+     */
+    public static List<String> compare(Map<String, Double> baseline, Map<String, Double> current, double threshold_percent) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> e : current.entrySet()) {
+            Double base = baseline.get(e.getKey());
+            Boolean higher_is_better = Report.HIGHER_IS_BETTER.get(e.getKey());
+            if (base == null || higher_is_better == null || base < 0) {
+                continue;
+            }
+            if (base == 0) {
+                // no relative change exists from a zero baseline, so any
+                // increase of a lower is better metric such as the failure
+                // count is a regression
+                if (!higher_is_better && e.getValue() > 0) {
+                    regressions.add(String.format(Locale.ROOT, "%s: %.2f -> %.2f (up from zero)", e.getKey(), base, e.getValue()));
+                }
+                continue;
+            }
+            double change = (e.getValue() - base) / base * 100.0;
+            boolean regressed = higher_is_better ? change < -threshold_percent : change > threshold_percent;
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.2f -> %.2f (%+.1f%%)", e.getKey(), base, e.getValue(), change));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads the numeric values of a flat json report.
+     */
+    public static Map<String, Double> readReport(Path path) throws IOException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Map<String, Double> values = new LinkedHashMap<>();
+        Matcher matcher = JSON_NUMBER.matcher(json);
+        while (matcher.find()) {
+            values.put(matcher.group(1), Double.valueOf(matcher.group(2)));
+        }
+        return values;
+    }
+
+    /**
+     * The results of a benchmark run. Times are in nanoseconds and summed
+     * over all measured iterations.
+     */
+    public static class Report {
+
+        static final Map<String, Boolean> HIGHER_IS_BETTER = new LinkedHashMap<>();
+
+        static {
+            HIGHER_IS_BETTER.put("classes_per_sec", true);
+            HIGHER_IS_BETTER.put("methods_per_sec", true);
+            HIGHER_IS_BETTER.put("latency_p50_us", false);
+            HIGHER_IS_BETTER.put("latency_p99_us", false);
+            HIGHER_IS_BETTER.put("latency_max_us", false);
+            HIGHER_IS_BETTER.put("decompile_ms", false);
+            HIGHER_IS_BETTER.put("transform_ms", false);
+            HIGHER_IS_BETTER.put("emit_ms", false);
+            HIGHER_IS_BETTER.put("peak_heap_mb", false);
+            HIGHER_IS_BETTER.put("allocated_mb", false);
+            HIGHER_IS_BETTER.put("failures", false);
+        }
+
+        public int iterations;
+        public int jars;
+        public long classes;
+        public long methods;
+        public long failures;
+        public long wall_time;
+        public long decompile_time;
+        public long loading_time;
+        public long method_time;
+        public long transform_time;
+        public long emit_time;
+        public long latency_p50;
+        public long latency_p99;
+        public long latency_max;
+        public long peak_heap;
+        public long allocated_bytes;
+
+        /**
+         * Gets the metrics of this report as a flat map, with rates per second
+         * and times per iteration.
+         */
+        public Map<String, Double> toValues() {
+            Map<String, Double> values = new LinkedHashMap<>();
+            double seconds = this.wall_time / 1e9;
+            double per_iteration = Math.max(1, this.iterations) * 1e6;
+            values.put("iterations", (double) this.iterations);
+            values.put("jars", (double) this.jars);
+            values.put("classes", (double) this.classes);
+            values.put("methods", (double) this.methods);
+            values.put("failures", (double) this.failures);
+            values.put("classes_per_sec", seconds > 0 ? this.classes / seconds : 0);
+            values.put("methods_per_sec", seconds > 0 ? this.methods / seconds : 0);
+            values.put("latency_p50_us", this.latency_p50 / 1e3);
+            values.put("latency_p99_us", this.latency_p99 / 1e3);
+            values.put("latency_max_us", this.latency_max / 1e3);
+            values.put("decompile_ms", this.decompile_time / per_iteration);
+            values.put("loading_ms", this.loading_time / per_iteration);
+            values.put("method_cpu_ms", this.method_time / per_iteration);
+            values.put("transform_ms", this.transform_time / per_iteration);
+            values.put("emit_ms", this.emit_time / per_iteration);
+            values.put("peak_heap_mb", this.peak_heap / (1024.0 * 1024.0));
+            values.put("allocated_mb", this.allocated_bytes < 0 ? -1 : this.allocated_bytes / (1024.0 * 1024.0));
+            return values;
+        }
+
+        /**
+         * Gets this report as a flat json object.
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\n");
+            boolean first = true;
+            for (Map.Entry<String, Double> e : toValues().entrySet()) {
+                if (!first) {
+                    json.append(",\n");
+                }
+                first = false;
+                json.append("  \"").append(e.getKey()).append("\": ");
+                double value = e.getValue();
+                if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                    json.append((long) value);
+                } else {
+                    json.append(String.format(Locale.ROOT, "%.3f", value));
+                }
+            }
+            return json.append("\n}\n").toString();
+        }
+
+    }
+
+}
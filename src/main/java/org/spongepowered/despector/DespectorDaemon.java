@@ -0,0 +1,404 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.decompiler.BaseDecompiler;
+import org.spongepowered.despector.decompiler.DirectoryWalker;
+import org.spongepowered.despector.decompiler.JarWalker;
+import org.spongepowered.despector.emitter.format.EmitterFormat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long running decompiler which keeps warm engines alive between requests
+ * and serves requests over a line based protocol on either stdin/stdout or a
+ * local socket.
+ *
+ * <p>Each request is a single line of whitespace separated tokens. A token
+ * may be wrapped in double quotes, in whole or in part, to include
+ * whitespace such as in {@code out="my sources"} and within a token a
+ * backslash followed by a double quote or another backslash stands for that
+ * character. Any other backslash is kept as is so unquoted windows paths do
+ * not need to be escaped.</p>
+ *
+ * <pre>
+ * &lt;id&gt; decompile &lt;input&gt; [out=&lt;dir&gt;] [lang=java|kotlin|any]
+ * &lt;id&gt; ping
+ * &lt;id&gt; shutdown
+ * </pre>
+ *
+ * <p>The input may be a class file, a jar, a directory or {@code base64:}
+ * followed by the base64 encoded bytes of a single class file. If an output
+ * directory is given the sources are written there and a {@code wrote} line
+ * is sent for each file, otherwise each type is streamed back as a
+ * {@code source <type> <line count>} line followed by that many lines of
+ * source. The path of a {@code wrote} line is the remainder of that line and
+ * is not quoted. Every request is finished by either a {@code done <count>} or an
+ * {@code error <message>} line, all response lines are prefixed by the
+ * request id. Requests are processed concurrently and the responses of
+ * different requests may arrive in any order, however the lines of a single
+ * response are never interleaved.</p>
+ */
+public class DespectorDaemon {
+
+    private final ConfigBase config;
+    private final EmitterFormat format;
+    private final ExecutorService requests;
+    private final EnumMap<Language, Queue<DespectorEngine>> idle_engines = new EnumMap<>(Language.class);
+
+    private Language default_lang = Language.ANY;
+    private volatile boolean running = true;
+    private ServerSocket server;
+
+    /**
+     * Creates a new daemon processing up to the given number of requests
+     * concurrently.
+     */
+    public DespectorDaemon(ConfigBase config, EmitterFormat format, int workers) {
+        this.config = checkNotNull(config, "config");
+        this.format = checkNotNull(format, "format");
+        this.requests = Executors.newFixedThreadPool(Math.max(1, workers));
+        for (Language lang : Language.values()) {
+            this.idle_engines.put(lang, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Sets the language used for requests which do not specify one.
+     */
+    public void setDefaultLanguage(Language lang) {
+        this.default_lang = checkNotNull(lang, "lang");
+    }
+
+    /**
+     * Gets if this daemon is still accepting requests.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Serves requests from stdin and writes responses to stdout until the
+     * input is closed or a shutdown request is received.
+     */
+    public void serveStdin() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        serve(in, out);
+        shutdown();
+    }
+
+    /**
+     * Serves requests from connections to the given port on the loopback
+     * address until a shutdown request is received. Each connection is
+     * served on its own thread.
+     */
+    public void serveSocket(int port) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        try {
+            while (this.running) {
+                Socket socket;
+                try {
+                    socket = this.server.accept();
+                } catch (IOException e) {
+                    if (!this.running) {
+                        break;
+                    }
+                    throw e;
+                }
+                Thread connection = new Thread(() -> {
+                    try (Socket s = socket) {
+                        BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                        Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8);
+                        serve(in, out);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }, "despector-daemon-connection");
+                connection.setDaemon(true);
+                connection.start();
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Serves requests read from the given reader, writing responses to the
+     * given writer. Returns once the input is closed or a shutdown request is
+     * received and all requests from this input have been answered.
+     */
+    public void serve(BufferedReader in, Writer out) throws IOException {
+        List<Future<?>> pending = new ArrayList<>();
+        String shutdown_id = null;
+        String line;
+        while (this.running && (line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] args;
+            try {
+                args = tokenize(line);
+            } catch (IllegalArgumentException e) {
+                respond(out, line.split("\\s+", 2)[0] + " error " + e.getMessage() + "\n");
+                continue;
+            }
+            if (args.length < 2) {
+                respond(out, args[0] + " error Missing command\n");
+                continue;
+            }
+            String id = args[0];
+            String command = args[1];
+            if ("ping".equals(command)) {
+                respond(out, id + " pong\n");
+            } else if ("shutdown".equals(command)) {
+                this.running = false;
+                shutdown_id = id;
+                if (this.server != null) {
+                    this.server.close();
+                }
+                break;
+            } else if ("decompile".equals(command)) {
+                try {
+                    pending.add(this.requests.submit(() -> respond(out, handleDecompile(id, args))));
+                } catch (RejectedExecutionException e) {
+                    respond(out, id + " error Daemon is shutting down\n");
+                }
+            } else {
+                respond(out, id + " error Unknown command: " + command + "\n");
+            }
+        }
+        for (Future<?> request : pending) {
+            try {
+                request.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        if (shutdown_id != null) {
+            respond(out, shutdown_id + " bye\n");
+        }
+    }
+
+    /**
+     * Stops accepting requests and waits for all running requests to finish.
+     */
+    public void shutdown() {
+        this.running = false;
+        this.requests.shutdown();
+        try {
+            this.requests.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Splits a request line into its tokens, see the class documentation for
+     * the quoting rules.
+     */
+    private static String[] tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean in_token = false;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                token.append(line.charAt(++i));
+                in_token = true;
+            } else if (c == '"') {
+                quoted = !quoted;
+                in_token = true;
+            } else if (!quoted && Character.isWhitespace(c)) {
+                if (in_token) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    in_token = false;
+                }
+            } else {
+                token.append(c);
+                in_token = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (in_token) {
+            tokens.add(token.toString());
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    private static void respond(Writer out, String response) {
+        synchronized (out) {
+            try {
+                out.write(response);
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private String handleDecompile(String id, String[] args) {
+        if (args.length < 3) {
+            return id + " error Missing input\n";
+        }
+        String input = args[2];
+        Path output = null;
+        Language lang = this.default_lang;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith("out=")) {
+                output = Paths.get(args[i].substring(4)).toAbsolutePath();
+            } else if (args[i].startsWith("lang=")) {
+                String name = args[i].substring(5);
+                if ("kotlin".equalsIgnoreCase(name)) {
+                    lang = Language.KOTLIN;
+                } else if ("java".equalsIgnoreCase(name)) {
+                    lang = Language.JAVA;
+                } else if ("any".equalsIgnoreCase(name)) {
+                    lang = Language.ANY;
+                } else {
+                    return id + " error Unknown language: " + name + "\n";
+                }
+            } else {
+                return id + " error Unknown option: " + args[i] + "\n";
+            }
+        }
+        DespectorEngine engine = borrowEngine(lang);
+        try {
+            return decompile(engine, id, input, output);
+        } catch (Exception e) {
+            String msg = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            return id + " error " + msg.replace('\n', ' ') + "\n";
+        } finally {
+            this.idle_engines.get(lang).offer(engine);
+        }
+    }
+
+    private DespectorEngine borrowEngine(Language lang) {
+        DespectorEngine engine = this.idle_engines.get(lang).poll();
+        if (engine == null) {
+            // requests are already run concurrently so each engine decompiles
+            // its own request on the calling thread
+            engine = new DespectorEngine(this.config);
+            engine.copyLoadSettings(DespectorEngine.global());
+            engine.setQuiet(true);
+            engine.setParallel(false);
+            engine.setLanguage(lang);
+        }
+        return engine;
+    }
+
+    private String decompile(DespectorEngine engine, String id, String input, Path output) throws IOException {
+        SourceSet source = engine.createSourceSet();
+        BaseDecompiler decompiler = engine.getDecompiler(engine.getLanguage());
+        if (input.startsWith("base64:")) {
+            byte[] data = Base64.getDecoder().decode(input.substring(7));
+            decompiler.decompile(new ByteArrayInputStream(data), source);
+        } else {
+            Path path = Paths.get(input);
+            if (!Files.exists(path)) {
+                return id + " error Unknown source: " + path.toAbsolutePath() + "\n";
+            } else if (input.endsWith(".jar")) {
+                new JarWalker(path).walk(source, decompiler);
+            } else if (Files.isDirectory(path)) {
+                new DirectoryWalker(path).walk(source, decompiler);
+            } else {
+                decompiler.decompile(path, source);
+            }
+        }
+        engine.flushTasks();
+        Despector.applyCleanup(source, this.config, engine);
+
+        StringBuilder response = new StringBuilder();
+        int count = 0;
+        for (TypeEntry type : source.getAllClasses()) {
+            // inner types are emitted as part of their outer type unless the
+            // outer type was not part of this request
+            if (type.isInnerClass()) {
+                int outer = type.getName().lastIndexOf('$');
+                if (outer != -1 && source.get(type.getName().substring(0, outer)) != null) {
+                    continue;
+                }
+            }
+            count++;
+            if (output != null) {
+                Path out = output.resolve(type.getName() + engine.getLanguage().getExtension(type));
+                Files.createDirectories(out.getParent());
+                try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                    engine.emit(type, writer, this.format);
+                }
+                response.append(id).append(" wrote ").append(out.toString()).append('\n');
+            } else {
+                StringWriter writer = new StringWriter();
+                engine.emit(type, writer, this.format);
+                String[] lines = writer.toString().split("\r?\n", -1);
+                int line_count = lines.length;
+                if (line_count > 0 && lines[line_count - 1].isEmpty()) {
+                    line_count--;
+                }
+                response.append(id).append(" source ").append(type.getName()).append(' ').append(line_count).append('\n');
+                for (int i = 0; i < line_count; i++) {
+                    response.append(lines[i]).append('\n');
+                }
+            }
+        }
+        response.append(id).append(" done ").append(count).append('\n');
+        return response.toString();
+    }
+
+}
@@ -0,0 +1,461 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.config.ConfigManager;
+import org.spongepowered.despector.config.LibraryConfiguration;
+import org.spongepowered.despector.decompiler.AttributeProfile;
+import org.spongepowered.despector.decompiler.BaseDecompiler;
+import org.spongepowered.despector.decompiler.DecompilerFilter;
+import org.spongepowered.despector.decompiler.Decompilers;
+import org.spongepowered.despector.decompiler.method.MethodDecompiler;
+import org.spongepowered.despector.emitter.Emitter;
+import org.spongepowered.despector.emitter.EmitterSet;
+import org.spongepowered.despector.emitter.Emitters;
+import org.spongepowered.despector.emitter.WildEmitter;
+import org.spongepowered.despector.emitter.bytecode.BytecodeEmitter;
+import org.spongepowered.despector.emitter.bytecode.BytecodeEmitterContext;
+import org.spongepowered.despector.emitter.format.EmitterFormat;
+import org.spongepowered.despector.emitter.java.JavaEmitter;
+import org.spongepowered.despector.emitter.java.JavaEmitterContext;
+import org.spongepowered.despector.emitter.kotlin.KotlinEmitter;
+import org.spongepowered.despector.parallel.DecompileStats;
+import org.spongepowered.despector.parallel.Diagnostics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+/**
+ * An isolated decompiler instance. Each engine owns its configuration,
+ * decompilers, schedulers and emitter sets so that any number of engines with
+ * different settings may be used concurrently within one JVM. Engines may
+ * share a common worker pool by being created with the same {@link Executor}.
+ *
+ * <p>A single engine should only be driven from one thread at a time.</p>
+ */
+public class DespectorEngine {
+
+    private static final DespectorEngine GLOBAL = new DespectorEngine();
+
+    /**
+     * Gets the global engine. This engine is a view over the static
+     * {@link LibraryConfiguration}, {@link ConfigManager} and the standard
+     * {@link Decompilers} and {@link Emitters}.
+     */
+    public static DespectorEngine global() {
+        return GLOBAL;
+    }
+
+    private final boolean is_global;
+    private final ConfigBase config;
+    private final Executor worker_pool;
+    private final int worker_count;
+
+    private boolean quiet = false;
+    private boolean parallel = true;
+    private boolean force_lang = false;
+    private boolean lazy = false;
+    private DecompilerFilter filter = new DecompilerFilter();
+    private AttributeProfile attribute_profile = AttributeProfile.FULL;
+    private volatile DecompileStats stats;
+    private volatile Diagnostics diagnostics = new Diagnostics();
+    private Language language = Language.ANY;
+
+    private final EnumMap<Language, BaseDecompiler> decompilers = new EnumMap<>(Language.class);
+    private final MethodDecompiler java_method;
+    private final MethodDecompiler kotlin_method;
+
+    private final EmitterSet java_set;
+    private final EmitterSet kotlin_set;
+    private final EmitterSet bytecode_set;
+    private final EnumMap<Language, Emitter<JavaEmitterContext>> emitters = new EnumMap<>(Language.class);
+    private final Emitter<BytecodeEmitterContext> bytecode_emitter;
+
+    private DespectorEngine() {
+        this.is_global = true;
+        this.config = null;
+        this.worker_pool = null;
+        this.worker_count = Runtime.getRuntime().availableProcessors();
+        this.java_method = null;
+        this.kotlin_method = null;
+        this.java_set = null;
+        this.kotlin_set = null;
+        this.bytecode_set = null;
+        this.bytecode_emitter = null;
+    }
+
+    /**
+     * Creates a new engine with the given configuration which starts its own
+     * threads for parallel runs.
+     */
+    public DespectorEngine(ConfigBase config) {
+        this(config, null, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new engine with the given configuration. If a worker pool is
+     * given then parallel decompilation is run on that pool, otherwise each
+     * parallel run starts its own threads.
+     */
+    public DespectorEngine(ConfigBase config, @Nullable Executor worker_pool, int worker_count) {
+        this.is_global = false;
+        this.config = checkNotNull(config, "config");
+        this.worker_pool = worker_pool;
+        this.worker_count = worker_count;
+
+        this.java_method = Decompilers.createJavaMethodDecompiler(this);
+        this.kotlin_method = Decompilers.createKotlinMethodDecompiler(this);
+        this.decompilers.put(Language.JAVA, new BaseDecompiler(Language.JAVA, this));
+        this.decompilers.put(Language.KOTLIN, new BaseDecompiler(Language.KOTLIN, this));
+        this.decompilers.put(Language.ANY, new BaseDecompiler(Language.ANY, this));
+
+        this.java_set = Emitters.createJavaSet();
+        this.kotlin_set = Emitters.createKotlinSet(this.java_set);
+        this.bytecode_set = Emitters.createBytecodeSet();
+        Emitter<JavaEmitterContext> java = new JavaEmitter(this.java_set);
+        Emitter<JavaEmitterContext> kotlin = new KotlinEmitter(this.kotlin_set);
+        this.emitters.put(Language.JAVA, java);
+        this.emitters.put(Language.KOTLIN, kotlin);
+        this.emitters.put(Language.ANY, new WildEmitter(java, kotlin));
+        this.bytecode_emitter = new BytecodeEmitter(this.bytecode_set);
+    }
+
+    /**
+     * Gets if this is the global engine.
+     */
+    public boolean isGlobal() {
+        return this.is_global;
+    }
+
+    /**
+     * Gets the configuration of this engine.
+     */
+    public ConfigBase getConfig() {
+        if (this.is_global) {
+            return ConfigManager.getConfig();
+        }
+        return this.config;
+    }
+
+    /**
+     * Gets the shared worker pool of this engine, or null if parallel runs
+     * start their own threads.
+     */
+    @Nullable
+    public Executor getWorkerPool() {
+        return this.worker_pool;
+    }
+
+    /**
+     * Gets the number of workers used for parallel decompilation.
+     */
+    public int getWorkerCount() {
+        return this.worker_count;
+    }
+
+    public boolean isQuiet() {
+        if (this.is_global) {
+            return LibraryConfiguration.quiet;
+        }
+        return this.quiet;
+    }
+
+    public void setQuiet(boolean state) {
+        if (this.is_global) {
+            LibraryConfiguration.quiet = state;
+        }
+        this.quiet = state;
+    }
+
+    public boolean isParallel() {
+        if (this.is_global) {
+            return LibraryConfiguration.parallel;
+        }
+        return this.parallel;
+    }
+
+    public void setParallel(boolean state) {
+        if (this.is_global) {
+            LibraryConfiguration.parallel = state;
+        }
+        this.parallel = state;
+    }
+
+    /**
+     * Gets if the language of decompiled types is forced to the language of
+     * the decompiler rather than being detected.
+     */
+    public boolean isForceLang() {
+        if (this.is_global) {
+            return LibraryConfiguration.force_lang;
+        }
+        return this.force_lang;
+    }
+
+    public void setForceLang(boolean state) {
+        if (this.is_global) {
+            LibraryConfiguration.force_lang = state;
+        }
+        this.force_lang = state;
+    }
+
+    /**
+     * Gets if method bodies are decompiled on first access rather than when
+     * their type is loaded.
+     */
+    public boolean isLazy() {
+        if (this.is_global) {
+            return LibraryConfiguration.lazy;
+        }
+        return this.lazy;
+    }
+
+    public void setLazy(boolean state) {
+        if (this.is_global) {
+            LibraryConfiguration.lazy = state;
+        }
+        this.lazy = state;
+    }
+
+    /**
+     * Gets the filter selecting which types and method bodies are decompiled.
+     */
+    public DecompilerFilter getFilter() {
+        if (this.is_global) {
+            return LibraryConfiguration.filter;
+        }
+        return this.filter;
+    }
+
+    public void setFilter(DecompilerFilter filter) {
+        checkNotNull(filter, "filter");
+        if (this.is_global) {
+            LibraryConfiguration.filter = filter;
+        }
+        this.filter = filter;
+    }
+
+    /**
+     * Gets the profile selecting which optional class file attributes are
+     * parsed when loading types.
+     */
+    public AttributeProfile getAttributeProfile() {
+        if (this.is_global) {
+            return LibraryConfiguration.attribute_profile;
+        }
+        return this.attribute_profile;
+    }
+
+    public void setAttributeProfile(AttributeProfile profile) {
+        checkNotNull(profile, "profile");
+        if (this.is_global) {
+            LibraryConfiguration.attribute_profile = profile;
+        }
+        this.attribute_profile = profile;
+    }
+
+    /**
+     * Copies the settings selecting what is loaded and how, the forced
+     * language, laziness, filter and attribute profile, from the given engine.
+     */
+    public void copyLoadSettings(DespectorEngine other) {
+        setForceLang(other.isForceLang());
+        setLazy(other.isLazy());
+        setFilter(other.getFilter());
+        setAttributeProfile(other.getAttributeProfile());
+    }
+
+    /**
+     * Gets the statistics recorded by the decompilers of this engine, or null
+     * if statistics are not being collected.
+     */
+    @Nullable
+    public DecompileStats getStats() {
+        return this.stats;
+    }
+
+    public void setStats(@Nullable DecompileStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Gets the sink which the decompilers of this engine report warnings,
+     * errors and progress to.
+     */
+    public Diagnostics getDiagnostics() {
+        return this.diagnostics;
+    }
+
+    public void setDiagnostics(Diagnostics diagnostics) {
+        this.diagnostics = checkNotNull(diagnostics, "diagnostics");
+    }
+
+    /**
+     * Gets the language that input is decompiled as.
+     */
+    public Language getLanguage() {
+        if (this.is_global) {
+            return Despector.LANGUAGE;
+        }
+        return this.language;
+    }
+
+    public void setLanguage(Language lang) {
+        checkNotNull(lang, "lang");
+        if (this.is_global) {
+            Despector.LANGUAGE = lang;
+        }
+        this.language = lang;
+    }
+
+    /**
+     * Gets the decompiler of this engine for the given language.
+     */
+    public BaseDecompiler getDecompiler(Language lang) {
+        if (this.is_global) {
+            return (BaseDecompiler) Decompilers.get(lang);
+        }
+        return this.decompilers.get(lang);
+    }
+
+    /**
+     * Gets the method decompiler of this engine for the given language.
+     */
+    public MethodDecompiler getMethodDecompiler(Language lang) {
+        if (this.is_global) {
+            return lang == Language.KOTLIN ? Decompilers.KOTLIN_METHOD : Decompilers.JAVA_METHOD;
+        }
+        return lang == Language.KOTLIN ? this.kotlin_method : this.java_method;
+    }
+
+    /**
+     * Gets the emitter set of this engine for the given language.
+     */
+    public EmitterSet getEmitterSet(Language lang) {
+        if (this.is_global) {
+            return lang == Language.KOTLIN ? Emitters.KOTLIN_SET : Emitters.JAVA_SET;
+        }
+        return lang == Language.KOTLIN ? this.kotlin_set : this.java_set;
+    }
+
+    /**
+     * Gets the bytecode emitter set of this engine.
+     */
+    public EmitterSet getBytecodeEmitterSet() {
+        if (this.is_global) {
+            return Emitters.BYTECODE_SET;
+        }
+        return this.bytecode_set;
+    }
+
+    /**
+     * Gets the source emitter of this engine for the given language.
+     */
+    public Emitter<JavaEmitterContext> getEmitter(Language lang) {
+        if (this.is_global) {
+            return Emitters.get(lang);
+        }
+        return this.emitters.get(lang);
+    }
+
+    /**
+     * Gets the bytecode emitter of this engine.
+     */
+    public Emitter<BytecodeEmitterContext> getBytecodeEmitter() {
+        if (this.is_global) {
+            return Emitters.BYTECODE;
+        }
+        return this.bytecode_emitter;
+    }
+
+    /**
+     * Creates a new source set which decompiles any types resolved through
+     * its loader with this engine.
+     */
+    public SourceSet createSourceSet() {
+        SourceSet set = new SourceSet();
+        set.setDecompiler(getDecompiler(Language.ANY));
+        return set;
+    }
+
+    /**
+     * Decompiles the given class data into the given source set. If this
+     * engine is parallel then the method bodies are not complete until
+     * {@link #flushTasks()} is called. Returns null if the type is excluded
+     * by the filter of this engine.
+     */
+    @Nullable
+    public TypeEntry decompile(InputStream input, SourceSet source) throws IOException {
+        return getDecompiler(getLanguage()).decompile(input, source);
+    }
+
+    /**
+     * Completes all pending parallel decompilation tasks.
+     */
+    public void flushTasks() {
+        for (Language lang : Language.values()) {
+            getDecompiler(lang).flushTasks();
+        }
+    }
+
+    /**
+     * Creates a new emitter context using the configuration of this engine.
+     */
+    public JavaEmitterContext createEmitterContext(Writer output, EmitterFormat format) {
+        JavaEmitterContext ctx = new JavaEmitterContext(output, format);
+        ctx.setConfig(getConfig());
+        return ctx;
+    }
+
+    /**
+     * Emits the given type to the given writer.
+     */
+    public void emit(TypeEntry type, Writer output, EmitterFormat format) {
+        JavaEmitterContext ctx = createEmitterContext(output, format);
+        getEmitter(type.getLanguage()).emit(ctx, type);
+        ctx.flush();
+    }
+
+    /**
+     * Emits the given type to a string.
+     */
+    public String emitToString(TypeEntry type) {
+        StringWriter writer = new StringWriter();
+        emit(type, writer, EmitterFormat.defaults());
+        return writer.toString();
+    }
+
+}
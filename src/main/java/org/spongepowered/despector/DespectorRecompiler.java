@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.emitter.bytecode.BytecodeEmitterContext;
+import org.spongepowered.despector.parallel.ArchiveWriter;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
+import org.spongepowered.despector.parallel.Scheduler;
+import org.spongepowered.despector.transform.verify.VerifySample;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Recompiles a jar by decompiling each class, applying the configured
+ * cleanup transformations and emitting the result back to bytecode. Classes
+ * are emitted in parallel on the worker pool of the engine.
+ *
+ * <p>Classes which cannot be emitted, or which are excluded by the filter of
+ * the engine, are copied to the output unchanged along with all other jar
+ * entries.</p>
+ */
+public class DespectorRecompiler {
+
+    private final DespectorEngine engine;
+    private int verify_percent = 100;
+    private boolean compress = true;
+
+    private int recompiled_count;
+    private int copied_count;
+
+    public DespectorRecompiler(DespectorEngine engine) {
+        this.engine = checkNotNull(engine, "engine");
+    }
+
+    /**
+     * Gets the percentage of classes which are checked by the verifier after
+     * being emitted.
+     */
+    public int getVerifyPercent() {
+        return this.verify_percent;
+    }
+
+    public void setVerifyPercent(int percent) {
+        this.verify_percent = VerifySample.checkPercent(percent);
+    }
+
+    public boolean isCompressed() {
+        return this.compress;
+    }
+
+    public void setCompressed(boolean state) {
+        this.compress = state;
+    }
+
+    /**
+     * Gets the number of classes recompiled by the last run.
+     */
+    public int getRecompiledCount() {
+        return this.recompiled_count;
+    }
+
+    /**
+     * Gets the number of classes copied unchanged by the last run.
+     */
+    public int getCopiedCount() {
+        return this.copied_count;
+    }
+
+    /**
+     * Gets if the class with the given name is verified after being emitted.
+     */
+    public boolean shouldVerify(String name) {
+        return VerifySample.includes(name, this.verify_percent);
+    }
+
+    /**
+     * Recompiles the given input jar into the given output jar.
+     */
+    public void recompile(Path input, Path output) throws IOException {
+        try (InputStream in = Files.newInputStream(input); OutputStream out = Files.newOutputStream(output)) {
+            recompile(in, out);
+        }
+    }
+
+    /**
+     * Recompiles the jar read from the given input stream into the given
+     * output stream. Entries are written in the order of the input.
+     */
+    public void recompile(InputStream input, OutputStream output) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream jar = new ZipInputStream(input)) {
+            ZipEntry entry;
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            while ((entry = jar.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                buffer.reset();
+                int len;
+                while ((len = jar.read(chunk)) != -1) {
+                    buffer.write(chunk, 0, len);
+                }
+                entries.put(entry.getName(), buffer.toByteArray());
+            }
+        }
+
+        // no loader is set so the source set is only read while emitting on
+        // the worker threads
+        SourceSet source = this.engine.createSourceSet();
+        List<ClassTask> tasks = new ArrayList<>();
+        for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+            if (!e.getKey().endsWith(".class")) {
+                continue;
+            }
+            TypeEntry type = this.engine.decompile(new ByteArrayInputStream(e.getValue()), source);
+            tasks.add(new ClassTask(e.getKey(), type, e.getValue()));
+        }
+        this.engine.flushTasks();
+        Despector.applyCleanup(source, this.engine.getConfig(), this.engine);
+
+        Scheduler<ClassTask> scheduler = new Scheduler<>(this.engine.getWorkerCount(), this.engine.getWorkerPool());
+        for (ClassTask task : tasks) {
+            scheduler.add(task);
+        }
+        scheduler.execute();
+
+        this.recompiled_count = 0;
+        this.copied_count = 0;
+        int next_task = 0;
+        try (ArchiveWriter writer = new ArchiveWriter(output, this.compress, this.engine.getWorkerPool(), this.engine.getWorkerCount())) {
+            for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+                if (!e.getKey().endsWith(".class")) {
+                    writer.add(e.getKey(), e.getValue());
+                    continue;
+                }
+                ClassTask task = tasks.get(next_task++);
+                if (task.result != null) {
+                    this.recompiled_count++;
+                    writer.add(e.getKey(), task.result);
+                } else {
+                    this.copied_count++;
+                    writer.add(e.getKey(), task.original);
+                }
+            }
+        }
+    }
+
+    private class ClassTask implements Runnable {
+
+        final String name;
+        final TypeEntry type;
+        final byte[] original;
+        byte[] result;
+
+        ClassTask(String name, TypeEntry type, byte[] original) {
+            this.name = name;
+            this.type = type;
+            this.original = original;
+        }
+
+        @Override
+        public void run() {
+            if (this.type == null) {
+                return;
+            }
+            DespectorEngine engine = DespectorRecompiler.this.engine;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(this.original.length);
+            BytecodeEmitterContext ctx = new BytecodeEmitterContext(out);
+            ctx.setConfig(engine.getConfig());
+            ctx.setVerifying(shouldVerify(this.name));
+            try {
+                engine.getBytecodeEmitter().emit(ctx, this.type);
+                this.result = out.toByteArray();
+            } catch (Exception e) {
+                if (engine.isQuiet()) {
+                    engine.getDiagnostics().record(Level.WARNING, Diagnostics.KIND_RECOMPILE_FAILURE);
+                } else {
+                    engine.getDiagnostics().report(Level.WARNING, Diagnostics.KIND_RECOMPILE_FAILURE,
+                            "Error recompiling " + this.name + ", copying original: " + e);
+                }
+            }
+        }
+
+    }
+
+}
@@ -30,12 +30,15 @@ import org.spongepowered.despector.ast.generic.MethodSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.util.SignatureParser;
+import org.spongepowered.despector.util.TypeHelper;
 import org.spongepowered.despector.util.serialization.MessagePacker;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A tracker of local variables.
@@ -45,6 +48,10 @@ public class Locals {
     private MethodEntry method;
     private Local[] locals;
 
+    // instances of all locals keyed by name, rebuilt when any local changes
+    private Map<String, List<LocalInstance>> names;
+    private int names_version = -1;
+
     public Locals(MethodEntry method) {
         this.locals = new Local[0];
         this.method = method;
@@ -89,30 +96,83 @@ public class Locals {
         for (Local local : this.locals) {
             local.bakeInstances(label_indices);
         }
+        bakeParameters();
+    }
+
+    /**
+     * Creates instances for any parameters which have no local variable table
+     * entry, such as when the class was compiled without debug info or the
+     * table was skipped when loading.
+     */
+    private void bakeParameters() {
+        int index = 0;
+        if (!this.method.isStatic()) {
+            Local local = getLocal(index++);
+            if (local.getParameterInstance() == null) {
+                local.setParameterInstance(new LocalInstance(local, "this", ClassTypeSignature.of("L" + this.method.getOwnerName() + ";"), -1, -1));
+            }
+        }
+        for (String param : TypeHelper.splitSig(this.method.getDescription())) {
+            Local local = getLocal(index);
+            if (local.getParameterInstance() == null) {
+                local.setParameterInstance(new LocalInstance(local, "param" + index, ClassTypeSignature.of(param), -1, -1));
+            }
+            index += ("J".equals(param) || "D".equals(param)) ? 2 : 1;
+        }
     }
 
     /**
      * Gets a name for the variable that does not conflict with any other names.
      */
     public String getNonConflictingName(String name, int index) {
+        Map<String, List<LocalInstance>> names = getNames();
         int i = 1;
-        while (true) {
-            boolean conflict = false;
-            for (Local local : this.locals) {
-                LocalInstance insn = local.getInstance(index);
-                if (insn != null && insn.getName().equals(name)) {
-                    conflict = true;
-                    break;
-                }
-            }
-            if (!conflict) {
-                break;
-            }
+        while (conflicts(names.get(name), index)) {
             name = name + (i++);
         }
         return name;
     }
 
+    private static boolean conflicts(List<LocalInstance> named, int index) {
+        if (named == null) {
+            return false;
+        }
+        for (LocalInstance insn : named) {
+            if (insn.getLocal().peekInstance(index) == insn) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, List<LocalInstance>> getNames() {
+        int version = this.locals.length;
+        for (Local local : this.locals) {
+            version += local.version;
+        }
+        if (this.names != null && this.names_version == version) {
+            return this.names;
+        }
+        Map<String, List<LocalInstance>> names = new HashMap<>();
+        for (Local local : this.locals) {
+            for (LocalInstance insn : local.getInstances()) {
+                addName(names, insn);
+            }
+            if (local.getParameterInstance() != null) {
+                addName(names, local.getParameterInstance());
+            }
+        }
+        this.names = names;
+        this.names_version = version;
+        return names;
+    }
+
+    private static void addName(Map<String, List<LocalInstance>> names, LocalInstance insn) {
+        if (insn.getName() != null) {
+            names.computeIfAbsent(insn.getName(), (k) -> new ArrayList<>(2)).add(insn);
+        }
+    }
+
     /**
      * Fines a local from the given start point with the given type.
      */
@@ -172,7 +232,10 @@ public class Locals {
         private final int index;
         private LocalInstance parameter_instance = null;
         private final List<LVT> lvt = Lists.newArrayList();
+        private final Map<Integer, LVT> lvt_by_start = new HashMap<>();
         private final List<LocalInstance> instances = Lists.newArrayList();
+        private InstanceIndex index_cache;
+        int version;
 
         public Local(Locals locals, int i, boolean is_static) {
             this.locals = locals;
@@ -189,16 +252,17 @@ public class Locals {
         }
 
         public void addLVT(int s, int l, String n, String d) {
-            this.lvt.add(new LVT(s, l, n, d));
+            LVT entry = new LVT(s, l, n, d);
+            this.lvt.add(entry);
+            this.lvt_by_start.putIfAbsent(s, entry);
         }
 
         public LVT getLVT(int s) {
-            for (LVT l : this.lvt) {
-                if (l.start_pc == s) {
-                    return l;
-                }
+            LVT l = this.lvt_by_start.get(s);
+            if (l == null) {
+                throw new IllegalStateException();
             }
-            throw new IllegalStateException();
+            return l;
         }
 
         /**
@@ -206,11 +270,11 @@ public class Locals {
          */
         public void bakeInstances(List<Integer> label_indices) {
             for (LVT l : this.lvt) {
-                int start = label_indices.indexOf(l.start_pc);
+                int start = indexOf(label_indices, l.start_pc);
                 if (start == -1) {
                     start = 0;
                 }
-                int end = label_indices.indexOf(l.start_pc + l.length);
+                int end = indexOf(label_indices, l.start_pc + l.length);
                 if (end == -1 && !label_indices.isEmpty()) {
                     end = label_indices.get(label_indices.size() - 1);
                 }
@@ -232,19 +296,34 @@ public class Locals {
                     this.instances.add(insn);
                 }
             }
+            this.version++;
         }
 
         /**
-         * Gets the local instance for the given index.
+         * Gets the first position of the given offset in the ascending label
+         * indices, or -1 if it is not a label.
          */
-        public LocalInstance getInstance(int index) {
-            for (LocalInstance insn : this.instances) {
-                if (index >= insn.getStart() - 1 && index <= insn.getEnd()) {
-                    return insn;
+        private static int indexOf(List<Integer> label_indices, int offset) {
+            int lo = 0;
+            int hi = label_indices.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (label_indices.get(mid) < offset) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
                 }
             }
-            if (this.parameter_instance != null) {
-                return this.parameter_instance;
+            return lo < label_indices.size() && label_indices.get(lo) == offset ? lo : -1;
+        }
+
+        /**
+         * Gets the local instance for the given index.
+         */
+        public LocalInstance getInstance(int index) {
+            LocalInstance found = peekInstance(index);
+            if (found != null) {
+                return found;
             }
             // No LVT entry for this local!
             String n = "param" + this.index;
@@ -257,9 +336,54 @@ public class Locals {
             }
             LocalInstance insn = new LocalInstance(this, n, null, -1, Integer.MAX_VALUE);
             this.instances.add(insn);
+            this.version++;
             return insn;
         }
 
+        /**
+         * Gets the first instance in declaration order whose range covers the
+         * given index, or the parameter instance, without creating a fallback
+         * instance.
+         */
+        LocalInstance peekInstance(int index) {
+            InstanceIndex idx = index();
+            LocalInstance found = null;
+            int best = Integer.MAX_VALUE;
+            // scan back from the last instance opening at or before the index
+            // until no earlier instance can still be open
+            int k = idx.lastOpenBefore(index);
+            for (; k >= 0 && idx.max_end[k] >= index; k--) {
+                LocalInstance insn = idx.sorted[k];
+                if (insn.getEnd() != Integer.MAX_VALUE && index <= insn.getEnd() && idx.order[k] < best) {
+                    found = insn;
+                    best = idx.order[k];
+                }
+            }
+            for (int o : idx.unbounded) {
+                if (o > best) {
+                    break;
+                }
+                LocalInstance insn = this.instances.get(o);
+                if (index >= insn.getStart() - 1) {
+                    found = insn;
+                    break;
+                }
+            }
+            if (found != null) {
+                return found;
+            }
+            return this.parameter_instance;
+        }
+
+        private InstanceIndex index() {
+            InstanceIndex idx = this.index_cache;
+            if (idx == null || idx.count != this.instances.size()) {
+                idx = new InstanceIndex(this.instances);
+                this.index_cache = idx;
+            }
+            return idx;
+        }
+
         /**
          * Adds the given instance to this local.
          */
@@ -269,6 +393,7 @@ public class Locals {
             } else {
                 this.instances.add(insn);
             }
+            this.version++;
         }
 
         public LocalInstance getParameterInstance() {
@@ -277,6 +402,7 @@ public class Locals {
 
         public void setParameterInstance(LocalInstance insn) {
             this.parameter_instance = insn;
+            this.version++;
         }
 
         /**
@@ -286,14 +412,17 @@ public class Locals {
             if (start == -1 && this.parameter_instance != null) {
                 return this.parameter_instance;
             }
-            for (LocalInstance local : this.instances) {
-                if (local.getStart() == start) {
-                    if (local.getType() == null || (local.getType().getDescriptor().equals(type))) {
-                        return local;
-                    }
+            InstanceIndex idx = index();
+            LocalInstance found = null;
+            int best = Integer.MAX_VALUE;
+            for (int k = idx.lastOpenBefore(start - 1); k >= 0 && idx.sorted[k].getStart() == start; k--) {
+                LocalInstance local = idx.sorted[k];
+                if (idx.order[k] < best && (local.getType() == null || local.getType().getDescriptor().equals(type))) {
+                    found = local;
+                    best = idx.order[k];
                 }
             }
-            return null;
+            return found;
         }
 
         public List<LocalInstance> getInstances() {
@@ -307,6 +436,75 @@ public class Locals {
 
     }
 
+    /**
+     * The instances of a local sorted by start, with the running maximum end
+     * so that the instances covering an index can be found by binary search.
+     */
+    private static class InstanceIndex {
+
+        final int count;
+        final LocalInstance[] sorted;
+        final int[] order;
+        final int[] max_end;
+        final int[] unbounded;
+
+        InstanceIndex(List<LocalInstance> instances) {
+            this.count = instances.size();
+            Integer[] by_start = new Integer[this.count];
+            int unbounded_count = 0;
+            for (int i = 0; i < this.count; i++) {
+                by_start[i] = i;
+                if (instances.get(i).getEnd() == Integer.MAX_VALUE) {
+                    unbounded_count++;
+                }
+            }
+            Arrays.sort(by_start, (a, b) -> {
+                int c = Integer.compare(instances.get(a).getStart(), instances.get(b).getStart());
+                return c != 0 ? c : Integer.compare(a, b);
+            });
+            this.sorted = new LocalInstance[this.count];
+            this.order = new int[this.count];
+            this.max_end = new int[this.count];
+            // unbounded instances are kept apart so they do not disable the
+            // running maximum
+            this.unbounded = new int[unbounded_count];
+            int max = Integer.MIN_VALUE;
+            for (int k = 0; k < this.count; k++) {
+                LocalInstance insn = instances.get(by_start[k]);
+                this.sorted[k] = insn;
+                this.order[k] = by_start[k];
+                if (insn.getEnd() != Integer.MAX_VALUE) {
+                    max = Math.max(max, insn.getEnd());
+                }
+                this.max_end[k] = max;
+            }
+            for (int i = 0, u = 0; i < this.count; i++) {
+                if (instances.get(i).getEnd() == Integer.MAX_VALUE) {
+                    this.unbounded[u++] = i;
+                }
+            }
+        }
+
+        /**
+         * Gets the position of the last instance whose range opens at or
+         * before the given index, or -1 if there is none.
+         */
+        int lastOpenBefore(int index) {
+            int lo = 0;
+            int hi = this.count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (this.sorted[mid].getStart() - 1 <= index) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+
+    }
+
     /**
      * An instance of a local.
      */
@@ -346,6 +544,7 @@ public class Locals {
 
         public void setName(String name) {
             this.name = name;
+            this.local.version++;
         }
 
         public TypeSignature getType() {
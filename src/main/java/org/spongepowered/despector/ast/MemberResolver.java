@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.ast;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.ast.type.FieldEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves member references to the type which declares them. A reference is
+ * resolved by searching the owner type, then its superclasses and then its
+ * interfaces, loading types from the source set as they are needed. Both found
+ * and missing members are cached so repeated lookups of the same reference
+ * are cheap.
+ *
+ * <p>The cache must be {@link #invalidate() invalidated} if members are added
+ * to or removed from types after they have been resolved.</p>
+ */
+public class MemberResolver {
+
+    private final SourceSet source;
+
+    private final Map<String, Optional<TypeEntry>> types = new ConcurrentHashMap<>();
+    private final Map<String, Optional<MethodEntry>> methods = new ConcurrentHashMap<>();
+    private final Map<String, Optional<MethodEntry>> static_methods = new ConcurrentHashMap<>();
+    private final Map<String, Optional<FieldEntry>> fields = new ConcurrentHashMap<>();
+    private final Map<String, Optional<FieldEntry>> static_fields = new ConcurrentHashMap<>();
+
+    public MemberResolver(SourceSet source) {
+        this.source = checkNotNull(source, "source");
+    }
+
+    /**
+     * Gets the type with the given internal name, or null if it cannot be
+     * found.
+     */
+    @Nullable
+    public TypeEntry getType(String name) {
+        checkNotNull(name, "name");
+        Optional<TypeEntry> result = this.types.get(name);
+        if (result == null) {
+            result = Optional.ofNullable(this.source.get(name));
+            this.types.put(name, result);
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Resolves the instance method with the given name and descriptor
+     * referenced from the given owner, or null if no declaration is found.
+     */
+    @Nullable
+    public MethodEntry resolveMethod(String owner, String name, String desc) {
+        checkNotNull(owner, "owner");
+        checkNotNull(name, "name");
+        checkNotNull(desc, "desc");
+        String key = owner + '.' + name + desc;
+        Optional<MethodEntry> result = this.methods.get(key);
+        if (result == null) {
+            MethodEntry found = null;
+            for (TypeEntry type : new Hierarchy(owner, name.charAt(0) == '<')) {
+                found = type.getMethod(name, desc);
+                if (found != null) {
+                    break;
+                }
+            }
+            result = Optional.ofNullable(found);
+            this.methods.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Resolves the static method with the given name and descriptor
+     * referenced from the given owner, or null if no declaration is found.
+     */
+    @Nullable
+    public MethodEntry resolveStaticMethod(String owner, String name, String desc) {
+        checkNotNull(owner, "owner");
+        checkNotNull(name, "name");
+        checkNotNull(desc, "desc");
+        String key = owner + '.' + name + desc;
+        Optional<MethodEntry> result = this.static_methods.get(key);
+        if (result == null) {
+            MethodEntry found = null;
+            for (TypeEntry type : new Hierarchy(owner, name.charAt(0) == '<')) {
+                found = type.getStaticMethod(name, desc);
+                if (found != null) {
+                    break;
+                }
+            }
+            result = Optional.ofNullable(found);
+            this.static_methods.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Resolves the instance field with the given name referenced from the
+     * given owner, or null if no declaration is found.
+     */
+    @Nullable
+    public FieldEntry resolveField(String owner, String name) {
+        checkNotNull(owner, "owner");
+        checkNotNull(name, "name");
+        String key = owner + '.' + name;
+        Optional<FieldEntry> result = this.fields.get(key);
+        if (result == null) {
+            FieldEntry found = null;
+            for (TypeEntry type : new Hierarchy(owner, false)) {
+                found = type.getField(name);
+                if (found != null) {
+                    break;
+                }
+            }
+            result = Optional.ofNullable(found);
+            this.fields.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Resolves the static field with the given name referenced from the given
+     * owner, or null if no declaration is found.
+     */
+    @Nullable
+    public FieldEntry resolveStaticField(String owner, String name) {
+        checkNotNull(owner, "owner");
+        checkNotNull(name, "name");
+        String key = owner + '.' + name;
+        Optional<FieldEntry> result = this.static_fields.get(key);
+        if (result == null) {
+            FieldEntry found = null;
+            for (TypeEntry type : new Hierarchy(owner, false)) {
+                found = type.getStaticField(name);
+                if (found != null) {
+                    break;
+                }
+            }
+            result = Optional.ofNullable(found);
+            this.static_fields.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Gets the number of cached references, including those which could not
+     * be resolved.
+     */
+    public int size() {
+        return this.types.size() + this.methods.size() + this.static_methods.size() + this.fields.size() + this.static_fields.size();
+    }
+
+    /**
+     * Notifies this resolver that the given type was added to the source set.
+     * References which previously could not be resolved are dropped as they
+     * may resolve to the new type.
+     */
+    public void onTypeAdded(String name) {
+        if (this.types.remove(name) == null) {
+            return;
+        }
+        this.methods.values().removeIf(r -> !r.isPresent());
+        this.static_methods.values().removeIf(r -> !r.isPresent());
+        this.fields.values().removeIf(r -> !r.isPresent());
+        this.static_fields.values().removeIf(r -> !r.isPresent());
+    }
+
+    /**
+     * Clears all cached references.
+     */
+    public void invalidate() {
+        this.types.clear();
+        this.methods.clear();
+        this.static_methods.clear();
+        this.fields.clear();
+        this.static_fields.clear();
+    }
+
+    /**
+     * Iterates over a type and its supertypes, visiting the superclass chain
+     * before any interfaces. Supertypes are only loaded as the iteration
+     * reaches them so a search that ends at the owner loads nothing else.
+     * Initializers are not inherited so their search is limited to the owner.
+     */
+    private class Hierarchy implements Iterable<TypeEntry> {
+
+        private final String owner;
+        private final boolean owner_only;
+
+        Hierarchy(String owner, boolean owner_only) {
+            this.owner = owner;
+            this.owner_only = owner_only;
+        }
+
+        @Override
+        public Iterator<TypeEntry> iterator() {
+            return new Iterator<TypeEntry>() {
+
+                private final Deque<String> interfaces = new ArrayDeque<>();
+                private final Set<String> seen = new HashSet<>();
+                private String next_class = Hierarchy.this.owner;
+                private TypeEntry next = advance();
+
+                private TypeEntry advance() {
+                    while (this.next_class != null) {
+                        TypeEntry type = getType(this.next_class);
+                        this.next_class = null;
+                        if (type != null) {
+                            if (Hierarchy.this.owner_only) {
+                                return type;
+                            }
+                            if (type instanceof ClassEntry && ((ClassEntry) type).getSuperclass() != null) {
+                                this.next_class = ((ClassEntry) type).getSuperclassName();
+                            }
+                            this.interfaces.addAll(type.getInterfaces());
+                            return type;
+                        }
+                    }
+                    while (!this.interfaces.isEmpty()) {
+                        String name = this.interfaces.poll();
+                        if (!this.seen.add(name)) {
+                            continue;
+                        }
+                        TypeEntry type = getType(name);
+                        if (type != null) {
+                            this.interfaces.addAll(type.getInterfaces());
+                            return type;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.next != null;
+                }
+
+                @Override
+                public TypeEntry next() {
+                    if (this.next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    TypeEntry result = this.next;
+                    this.next = advance();
+                    return result;
+                }
+            };
+        }
+    }
+
+}
@@ -30,6 +30,7 @@ import org.spongepowered.despector.Language;
 import org.spongepowered.despector.ast.type.EnumEntry;
 import org.spongepowered.despector.ast.type.InterfaceEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.decompiler.Decompiler;
 import org.spongepowered.despector.decompiler.Decompilers;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
@@ -41,21 +42,30 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A source set for types which are part of the obfuscated source being mapped.
+ *
+ * <p>Types may be added and looked up concurrently, types which are resolved
+ * through the loader are loaded one at a time.</p>
  */
 public class SourceSet {
 
     private Loader loader;
+    private Decompiler decompiler;
     private final Set<String> load_failed_cache = new HashSet<>();
 
-    private final Map<String, TypeEntry> classes = new HashMap<>();
-    private final Map<String, EnumEntry> enums = new HashMap<>();
-    private final Map<String, InterfaceEntry> interfaces = new HashMap<>();
+    // types may be added and looked up from several worker threads at once
+    private final Map<String, TypeEntry> classes = new ConcurrentHashMap<>();
+    private final Map<String, EnumEntry> enums = new ConcurrentHashMap<>();
+    private final Map<String, InterfaceEntry> interfaces = new ConcurrentHashMap<>();
 
     private final Map<String, AnnotationType> annotations = new HashMap<>();
 
+    private final SwitchMapIndex switch_maps = new SwitchMapIndex(this);
+    private final MemberResolver members = new MemberResolver(this);
+
     public SourceSet() {
     }
 
@@ -67,6 +77,23 @@ public class SourceSet {
         this.loader = loader;
     }
 
+    /**
+     * Gets the decompiler used for types resolved through the loader.
+     */
+    public Decompiler getDecompiler() {
+        if (this.decompiler == null) {
+            return Decompilers.get(Language.ANY);
+        }
+        return this.decompiler;
+    }
+
+    /**
+     * Sets the decompiler used for types resolved through the loader.
+     */
+    public void setDecompiler(Decompiler decompiler) {
+        this.decompiler = decompiler;
+    }
+
     /**
      * Inserts the given type into this source set.
      */
@@ -78,6 +105,7 @@ public class SourceSet {
             this.interfaces.put(e.getName(), (InterfaceEntry) e);
         }
         this.classes.put(e.getName(), e);
+        this.members.onTypeAdded(e.getName());
     }
 
     /**
@@ -92,22 +120,73 @@ public class SourceSet {
             return get(name.substring(0, name.length() - 2));
         }
         TypeEntry entry = this.classes.get(name);
-        if (entry == null && this.loader != null && !this.load_failed_cache.contains(name)) {
-            InputStream data = this.loader.find(name);
+        if (entry == null && this.loader != null) {
+            return load(name);
+        }
+        return entry;
+    }
+
+    /**
+     * Loads the type with the given name through the loader. Loading is
+     * serialized so that each type is only loaded once when it is requested
+     * from several threads.
+     */
+    private synchronized TypeEntry load(String name) {
+        TypeEntry entry = this.classes.get(name);
+        if (entry != null || this.load_failed_cache.contains(name)) {
+            return entry;
+        }
+        try {
+            entry = this.loader.load(name, this);
+            if (entry == null) {
+                InputStream data = this.loader.find(name);
+                if (data == null) {
+                    this.load_failed_cache.add(name);
+                    return null;
+                }
+                entry = getDecompiler().decompileStub(data, this);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            this.load_failed_cache.add(name);
+            return null;
+        }
+        add(entry);
+        return entry;
+    }
+
+    /**
+     * Upgrades the type with the given name to a full entry if it is currently
+     * a stub.
+     */
+    public void upgrade(String name) {
+        TypeEntry entry = this.classes.get(name);
+        if (entry != null && entry.isStub()) {
+            upgrade(entry);
+        }
+    }
+
+    /**
+     * Upgrades the given stub type to a full entry by decompiling its method
+     * bodies from the class data provided by the loader.
+     */
+    public void upgrade(TypeEntry entry) {
+        synchronized (entry) {
+            if (!entry.isStub()) {
+                return;
+            }
+            InputStream data = this.loader == null ? null : this.loader.find(entry.getName());
             if (data == null) {
-                this.load_failed_cache.add(name);
-                return null;
+                entry.setStub(false);
+                return;
             }
             try {
-                entry = Decompilers.get(Language.ANY).decompile(data, this);
+                getDecompiler().decompileBodies(data, entry);
             } catch (IOException e) {
                 e.printStackTrace();
-                this.load_failed_cache.add(name);
-                return null;
+                entry.setStub(false);
             }
-            add(entry);
         }
-        return entry;
     }
 
     public EnumEntry getEnum(String name) {
@@ -142,14 +221,14 @@ public class SourceSet {
         return this.interfaces.values();
     }
 
-    public void addAnnotation(AnnotationType anno) {
+    public synchronized void addAnnotation(AnnotationType anno) {
         this.annotations.put(anno.getName(), anno);
     }
 
     /**
      * Gets the annotation type with the given internal name.
      */
-    public AnnotationType getAnnotationType(String name) {
+    public synchronized AnnotationType getAnnotationType(String name) {
         AnnotationType anno = this.annotations.get(name);
         if (anno == null) {
             anno = new AnnotationType(name);
@@ -158,6 +237,21 @@ public class SourceSet {
         return anno;
     }
 
+    /**
+     * Gets the index of enum switch maps for the types in this source set.
+     */
+    public SwitchMapIndex getSwitchMaps() {
+        return this.switch_maps;
+    }
+
+    /**
+     * Gets the {@link MemberResolver} which resolves member references
+     * against the types of this source set.
+     */
+    public MemberResolver getMembers() {
+        return this.members;
+    }
+
     public Collection<AnnotationType> getAllAnnotations() {
         return this.annotations.values();
     }
@@ -174,6 +268,7 @@ public class SourceSet {
     public void writeTo(MessagePacker pack) throws IOException {
         pack.startMap(2);
         pack.writeString("version").writeInt(AstSerializer.VERSION);
+        pack.enableTables();
         pack.writeString("classes");
         pack.startArray(this.classes.size());
         for (TypeEntry type : this.classes.values()) {
@@ -188,8 +283,21 @@ public class SourceSet {
      */
     public static interface Loader {
 
+        /**
+         * Finds the class file data for the given type, or null if the type
+         * is not known to this loader.
+         */
         InputStream find(String name);
 
+        /**
+         * Loads the given type directly if this loader holds already
+         * decompiled types, returns null to fall back to decompiling the
+         * class data from {@link #find(String)}.
+         */
+        default TypeEntry load(String name, SourceSet set) throws IOException {
+            return null;
+        }
+
     }
 
 }
@@ -0,0 +1,269 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.ast;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ForwardingList;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * The cached structural hash of an ast node. Each node which caches its hash
+ * holds one of these and computes its hash through {@link #get}.
+ *
+ * <p>Nodes do not reference their parents so a mutation cannot clear the
+ * hashes cached by the ancestors of the changed node. Instead mutations
+ * advance a modification count and a cached hash is only reused while the
+ * counts it was computed with are unchanged. While a method body is being
+ * decompiled its mutations only advance the count of the {@link Scope} of
+ * that body, so the decompilation of one method neither contends with nor
+ * invalidates the hashes of the methods decompiled on other threads. All
+ * other mutations advance a shared count.</p>
+ *
+ * <p>A node may only be mutated by one thread at a time and may be hashed by
+ * several threads once its construction has been published. The nodes of a
+ * method body must not be shared with other method bodies while it is being
+ * decompiled.</p>
+ */
+public final class StructuralHash {
+
+    private static final AtomicLong SHARED = new AtomicLong();
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    /**
+     * Starts a new modification scope on the current thread for the
+     * decompilation of a method body. Returns the previous scope which must
+     * be restored with {@link #exitScope} once the body is complete.
+     */
+    @Nullable
+    public static Scope enterScope() {
+        Scope previous = SCOPE.get();
+        SCOPE.set(new Scope());
+        return previous;
+    }
+
+    /**
+     * Ends the current modification scope and restores the given previous
+     * scope of the current thread.
+     */
+    public static void exitScope(@Nullable Scope previous) {
+        if (previous == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(previous);
+        }
+    }
+
+    /**
+     * Invalidates the cached structural hashes which may depend on a value
+     * being modified. Called by every mutator of a value which contributes
+     * to the structural hash of a node.
+     */
+    public static void invalidate() {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.count++;
+        } else {
+            SHARED.incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidates all cached structural hashes. Called by mutators of values
+     * such as type signatures which may be shared between method bodies.
+     */
+    public static void invalidateAll() {
+        SHARED.incrementAndGet();
+    }
+
+    /**
+     * Wraps the given list of child nodes such that any modification of it
+     * invalidates the cached structural hashes. Modifications made directly
+     * to the given list are not tracked.
+     */
+    public static <E> List<E> track(List<E> list) {
+        return new TrackedList<>(checkNotNull(list, "list"));
+    }
+
+    // the hash and the counts it was computed with are held in one immutable
+    // object so that a racing read never sees a hash with the wrong counts
+    private Stamp stamp;
+
+    /**
+     * Gets the cached structural hash, computing it with the given function
+     * if the ast was modified since it was last computed.
+     */
+    public int get(IntSupplier compute) {
+        Stamp current = this.stamp;
+        if (current == null || !current.isValid()) {
+            Scope scope = SCOPE.get();
+            long scope_count = scope == null ? 0 : scope.count;
+            long shared = SHARED.get();
+            current = new Stamp(compute.getAsInt(), scope, scope_count, shared);
+            this.stamp = current;
+        }
+        return current.hash;
+    }
+
+    /**
+     * The modification count of a method body which is being decompiled.
+     * Only the thread decompiling the body modifies the count.
+     */
+    public static final class Scope {
+
+        volatile long count;
+
+        Scope() {
+        }
+    }
+
+    private static final class Stamp {
+
+        final int hash;
+        final Scope scope;
+        final long scope_count;
+        final long shared;
+
+        Stamp(int hash, @Nullable Scope scope, long scope_count, long shared) {
+            this.hash = hash;
+            this.scope = scope;
+            this.scope_count = scope_count;
+            this.shared = shared;
+        }
+
+        boolean isValid() {
+            return this.shared == SHARED.get() && (this.scope == null || this.scope_count == this.scope.count);
+        }
+    }
+
+    /**
+     * A list which invalidates cached hashes when modified. Iterators and
+     * sublists are implemented on top of the methods of this list so that no
+     * modification bypasses the tracking.
+     */
+    private static class TrackedList<E> extends ForwardingList<E> {
+
+        private final List<E> delegate;
+
+        TrackedList(List<E> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected List<E> delegate() {
+            return this.delegate;
+        }
+
+        @Override
+        public boolean add(E element) {
+            invalidate();
+            return this.delegate.add(element);
+        }
+
+        @Override
+        public void add(int index, E element) {
+            invalidate();
+            this.delegate.add(index, element);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> collection) {
+            invalidate();
+            return this.delegate.addAll(collection);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> elements) {
+            invalidate();
+            return this.delegate.addAll(index, elements);
+        }
+
+        @Override
+        public E set(int index, E element) {
+            invalidate();
+            return this.delegate.set(index, element);
+        }
+
+        @Override
+        public E remove(int index) {
+            invalidate();
+            return this.delegate.remove(index);
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            invalidate();
+            return this.delegate.remove(object);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> collection) {
+            invalidate();
+            return this.delegate.removeAll(collection);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> collection) {
+            invalidate();
+            return this.delegate.retainAll(collection);
+        }
+
+        @Override
+        public void clear() {
+            invalidate();
+            this.delegate.clear();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return standardIterator();
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return standardListIterator();
+        }
+
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            return standardListIterator(index);
+        }
+
+        @Override
+        public List<E> subList(int from, int to) {
+            return standardSubList(from, to);
+        }
+
+    }
+
+}
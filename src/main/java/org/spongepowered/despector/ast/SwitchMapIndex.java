@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.ast;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.insn.cst.IntConstant;
+import org.spongepowered.despector.ast.insn.var.FieldAccess;
+import org.spongepowered.despector.ast.insn.var.StaticFieldAccess;
+import org.spongepowered.despector.ast.stmt.Statement;
+import org.spongepowered.despector.ast.stmt.StatementBlock;
+import org.spongepowered.despector.ast.stmt.assign.ArrayAssignment;
+import org.spongepowered.despector.ast.stmt.branch.TryCatch;
+import org.spongepowered.despector.ast.stmt.invoke.InstanceMethodInvoke;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of the synthetic switch maps which compilers generate for
+ * switches over enum values. Each map is extracted once from the method which
+ * initializes it and is keyed by the holder type, the initializing method and
+ * the name of the map field.
+ *
+ * <p>Two patterns are supported, the javac {@code $SwitchMap$...} fields
+ * initialized in the static initializer of a synthetic holder type and the
+ * eclipse {@code $SWITCH_TABLE$...} methods. The tables of the eclipse pattern
+ * are keyed by the name of the method.</p>
+ */
+public class SwitchMapIndex {
+
+    private final SourceSet source;
+    private final Map<String, Map<String, Map<Integer, String>>> index = new ConcurrentHashMap<>();
+
+    public SwitchMapIndex(SourceSet source) {
+        this.source = checkNotNull(source, "source");
+    }
+
+    /**
+     * Gets the table mapping switch indices to enum constant names for the
+     * given switch map, extracting the maps of the initializing method if it
+     * has not yet been indexed. Returns null if no such map could be found.
+     */
+    @Nullable
+    public Map<Integer, String> getTable(String holder, String method, String field) {
+        String key = holder + "." + method;
+        Map<String, Map<Integer, String>> tables = this.index.get(key);
+        if (tables == null) {
+            TypeEntry type = this.source.get(holder);
+            MethodEntry mth = type == null ? null : type.getStaticMethod(method);
+            if (mth == null) {
+                return null;
+            }
+            tables = index(holder, mth);
+        }
+        return tables.get(field);
+    }
+
+    /**
+     * Extracts and stores all switch maps initialized by the given method of
+     * the given holder type.
+     */
+    public Map<String, Map<Integer, String>> index(String holder, MethodEntry mth) {
+        StatementBlock block = mth.getInstructions();
+        if (block == null) {
+            // not decompiled yet, so nothing is stored and the method will be
+            // indexed again on a later lookup
+            return Collections.emptyMap();
+        }
+        Map<String, Map<Integer, String>> tables = extract(block, mth.getName().startsWith("$SWITCH_TABLE$") ? mth.getName() : null);
+        this.index.put(holder + "." + mth.getName(), tables);
+        return tables;
+    }
+
+    /**
+     * Gets if the given method may initialize switch maps and should be
+     * indexed.
+     */
+    public static boolean isSwitchMapInitializer(MethodEntry mth) {
+        return "<clinit>".equals(mth.getName()) || mth.getName().startsWith("$SWITCH_TABLE$");
+    }
+
+    private static Map<String, Map<Integer, String>> extract(StatementBlock block, @Nullable String table_name) {
+        Map<String, Map<Integer, String>> tables = new HashMap<>();
+        for (Statement stmt : block.getStatements()) {
+            if (!(stmt instanceof TryCatch)) {
+                continue;
+            }
+            TryCatch next = (TryCatch) stmt;
+            if (next.getTryBlock().getStatementCount() == 0) {
+                continue;
+            }
+            Statement first = next.getTryBlock().getStatements().get(0);
+            if (!(first instanceof ArrayAssignment)) {
+                continue;
+            }
+            ArrayAssignment assign = (ArrayAssignment) first;
+            if (!(assign.getValue() instanceof IntConstant) || !(assign.getIndex() instanceof InstanceMethodInvoke)) {
+                continue;
+            }
+            InstanceMethodInvoke ordinal = (InstanceMethodInvoke) assign.getIndex();
+            if (!(ordinal.getCallee() instanceof StaticFieldAccess)) {
+                continue;
+            }
+            String name = table_name;
+            if (name == null) {
+                if (!(assign.getArray() instanceof FieldAccess)) {
+                    continue;
+                }
+                name = ((FieldAccess) assign.getArray()).getFieldName();
+                if (!name.startsWith("$SwitchMap")) {
+                    continue;
+                }
+            }
+            Map<Integer, String> table = tables.get(name);
+            if (table == null) {
+                table = new HashMap<>();
+                tables.put(name, table);
+            }
+            int jump_index = ((IntConstant) assign.getValue()).getConstant();
+            table.put(jump_index, ((StaticFieldAccess) ordinal.getCallee()).getFieldName());
+        }
+        if (tables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return tables;
+    }
+
+}
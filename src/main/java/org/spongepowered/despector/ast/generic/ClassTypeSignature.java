@@ -26,6 +26,7 @@ package org.spongepowered.despector.ast.generic;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.util.TypeHelper;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
@@ -129,6 +130,7 @@ public class ClassTypeSignature extends TypeSignature {
      */
     public void setType(String type) {
         this.type_name = checkNotNull(type, "type");
+        StructuralHash.invalidateAll();
     }
 
     @Override
@@ -157,6 +159,9 @@ public class ClassTypeSignature extends TypeSignature {
 
     @Override
     public void writeTo(MessagePacker pack) throws IOException {
+        if (pack.writeReference(this)) {
+            return;
+        }
         pack.startMap(2);
         pack.writeString("id").writeInt(AstSerializer.SIGNATURE_ID_TYPECLASS);
         pack.writeString("type").writeString(this.type_name);
@@ -186,4 +191,9 @@ public class ClassTypeSignature extends TypeSignature {
         return c.type_name.equals(this.type_name);
     }
 
+    @Override
+    public int hashCode() {
+        return this.type_name.hashCode();
+    }
+
 }
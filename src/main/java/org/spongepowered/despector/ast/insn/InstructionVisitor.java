@@ -38,6 +38,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -98,6 +99,8 @@ public interface InstructionVisitor extends AstVisitor {
 
     void visitStaticMethodInvoke(StaticMethodInvoke insn);
 
+    void visitStringConcat(StringConcat insn);
+
     void visitStringConstant(StringConstant insn);
 
     void visitTernary(Ternary insn);
@@ -29,6 +29,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
 
@@ -43,12 +44,12 @@ public class AndCondition extends Condition {
     private final List<Condition> args;
 
     public AndCondition(Condition... args) {
-        this.args = Lists.newArrayList(checkNotNull(args, "args"));
+        this.args = StructuralHash.track(Lists.newArrayList(checkNotNull(args, "args")));
         checkArgument(this.args.size() >= 2, "Not enough operands");
     }
 
     public AndCondition(Iterable<Condition> args) {
-        this.args = Lists.newArrayList(checkNotNull(args, "args"));
+        this.args = StructuralHash.track(Lists.newArrayList(checkNotNull(args, "args")));
         checkArgument(this.args.size() >= 2, "Not enough operands");
     }
 
@@ -121,7 +122,7 @@ public class AndCondition extends Condition {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHash() {
         int h = 1;
         for (Condition cond : this.args) {
             h = h * 37 + cond.hashCode();
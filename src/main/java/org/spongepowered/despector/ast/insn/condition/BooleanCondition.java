@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.condition;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
@@ -58,6 +59,7 @@ public class BooleanCondition extends Condition {
      */
     public void setConditionValue(Instruction insn) {
         this.value = checkNotNull(insn, "value");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -72,6 +74,7 @@ public class BooleanCondition extends Condition {
      */
     public void setInverse(boolean state) {
         this.inverse = state;
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -110,7 +113,7 @@ public class BooleanCondition extends Condition {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.value.hashCode();
         h = h * 37 + (this.inverse ? 0 : 1);
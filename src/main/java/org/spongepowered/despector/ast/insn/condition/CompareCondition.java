@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.condition;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.util.serialization.AstSerializer;
@@ -127,6 +128,7 @@ public class CompareCondition extends Condition {
      */
     public void setLeft(Instruction left) {
         this.left = checkNotNull(left, "left");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -141,6 +143,7 @@ public class CompareCondition extends Condition {
      */
     public void setRight(Instruction right) {
         this.right = checkNotNull(right, "right");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -155,6 +158,7 @@ public class CompareCondition extends Condition {
      */
     public void setOperator(CompareOperator op) {
         this.op = checkNotNull(op, "op");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -196,7 +200,7 @@ public class CompareCondition extends Condition {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.right.hashCode();
         h = h * 37 + this.left.hashCode();
@@ -25,6 +25,7 @@
 package org.spongepowered.despector.ast.insn.condition;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.util.serialization.MessagePacker;
 
 import java.io.IOException;
@@ -34,6 +35,8 @@ import java.io.IOException;
  */
 public abstract class Condition {
 
+    private final StructuralHash hash = new StructuralHash();
+
     /**
      * Passes itself and any child nodes to the given visitor.
      */
@@ -44,9 +47,20 @@ public abstract class Condition {
 
     @Override
     public abstract boolean equals(Object o);
-    
+
+    /**
+     * Gets the structural hash of this condition, which is cached until the
+     * ast is next modified.
+     */
     @Override
-    public abstract int hashCode();
+    public final int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    /**
+     * Computes the structural hash of this condition.
+     */
+    protected abstract int computeHash();
 
     public abstract void writeTo(MessagePacker pack) throws IOException;
 
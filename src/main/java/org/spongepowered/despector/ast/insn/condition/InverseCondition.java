@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.condition;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
 
@@ -55,6 +56,7 @@ public class InverseCondition extends Condition {
      */
     public void setConditionValue(Condition val) {
         this.value = checkNotNull(val, "value");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -92,7 +94,7 @@ public class InverseCondition extends Condition {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.value.hashCode();
         return h;
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.util.serialization.AstSerializer;
 import org.spongepowered.despector.util.serialization.MessagePacker;
 
@@ -42,11 +43,11 @@ public class OrCondition extends Condition {
     private final List<Condition> args;
 
     public OrCondition(Condition... args) {
-        this.args = Lists.newArrayList(checkNotNull(args, "args"));
+        this.args = StructuralHash.track(Lists.newArrayList(checkNotNull(args, "args")));
     }
 
     public OrCondition(List<Condition> args) {
-        this.args = checkNotNull(args, "args");
+        this.args = StructuralHash.track(checkNotNull(args, "args"));
     }
 
     /**
@@ -111,7 +112,7 @@ public class OrCondition extends Condition {
     }
 
     @Override
-    public int hashCode() {
+    protected int computeHash() {
         int h = 1;
         for (Condition arg : this.args) {
             h = h * 37 + arg.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.cst;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -59,6 +60,7 @@ public class IntConstant extends Constant {
      */
     public void setConstant(int cst) {
         this.cst = cst;
+        StructuralHash.invalidate();
     }
 
     public IntFormat getFormat() {
@@ -67,6 +69,7 @@ public class IntConstant extends Constant {
 
     public void setFormat(IntFormat format) {
         this.format = checkNotNull(format, "format");
+        StructuralHash.invalidate();
     }
 
     @Override
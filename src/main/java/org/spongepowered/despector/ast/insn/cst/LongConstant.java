@@ -25,6 +25,7 @@
 package org.spongepowered.despector.ast.insn.cst;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -56,6 +57,7 @@ public class LongConstant extends Constant {
      */
     public void setConstant(long cst) {
         this.cst = cst;
+        StructuralHash.invalidate();
     }
 
     @Override
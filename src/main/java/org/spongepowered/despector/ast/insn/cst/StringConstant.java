@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.cst;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -58,6 +59,7 @@ public class StringConstant extends Constant {
      */
     public void setConstant(String cst) {
         this.cst = checkNotNull(cst, "cst");
+        StructuralHash.invalidate();
     }
 
     @Override
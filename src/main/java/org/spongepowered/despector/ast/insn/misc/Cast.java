@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -44,6 +45,7 @@ public class Cast implements Instruction {
 
     private TypeSignature type;
     private Instruction val;
+    private final StructuralHash hash = new StructuralHash();
 
     public Cast(TypeSignature type, Instruction val) {
         this.type = checkNotNull(type, "type");
@@ -62,6 +64,7 @@ public class Cast implements Instruction {
      */
     public void setType(TypeSignature type) {
         this.type = checkNotNull(type, "type");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -76,6 +79,7 @@ public class Cast implements Instruction {
      */
     public void setValue(Instruction val) {
         this.val = checkNotNull(val, "val");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -121,6 +125,10 @@ public class Cast implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.type.hashCode();
         h = h * 37 + this.val.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
@@ -43,6 +44,7 @@ public class InstanceOf implements Instruction {
 
     private Instruction check;
     private ClassTypeSignature type;
+    private final StructuralHash hash = new StructuralHash();
 
     public InstanceOf(Instruction check, ClassTypeSignature type) {
         this.check = checkNotNull(check, "check");
@@ -61,6 +63,7 @@ public class InstanceOf implements Instruction {
      */
     public void setCheckedValue(Instruction val) {
         this.check = checkNotNull(val, "check");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -79,6 +82,7 @@ public class InstanceOf implements Instruction {
 
     public void setType(ClassTypeSignature type) {
         this.type = checkNotNull(type, "type");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -123,6 +127,10 @@ public class InstanceOf implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.check.hashCode();
         h = h * 37 + this.type.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
@@ -44,6 +45,7 @@ public class MultiNewArray implements Instruction {
 
     private ClassTypeSignature type;
     private Instruction[] sizes;
+    private final StructuralHash hash = new StructuralHash();
 
     public MultiNewArray(ClassTypeSignature type, Instruction[] sizes) {
         this.type = checkNotNull(type, "type");
@@ -62,6 +64,7 @@ public class MultiNewArray implements Instruction {
      */
     public void setType(ClassTypeSignature type) {
         this.type = checkNotNull(type, "type");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -76,6 +79,7 @@ public class MultiNewArray implements Instruction {
      */
     public void setSizes(Instruction[] size) {
         this.sizes = checkNotNull(size, "size");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -132,6 +136,10 @@ public class MultiNewArray implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         for (Instruction size : this.sizes) {
             h = h * 37 + size.hashCode();
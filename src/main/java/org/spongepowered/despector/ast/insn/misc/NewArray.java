@@ -25,8 +25,10 @@
 package org.spongepowered.despector.ast.insn.misc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
@@ -46,6 +48,7 @@ public class NewArray implements Instruction {
     private ClassTypeSignature type;
     private Instruction size;
     private Instruction[] values;
+    private final StructuralHash hash = new StructuralHash();
 
     public NewArray(ClassTypeSignature type, Instruction size, @Nullable Instruction[] values) {
         this.type = checkNotNull(type, "type");
@@ -65,6 +68,7 @@ public class NewArray implements Instruction {
      */
     public void setType(ClassTypeSignature type) {
         this.type = checkNotNull(type, "type");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -79,6 +83,7 @@ public class NewArray implements Instruction {
      */
     public void setSize(Instruction size) {
         this.size = checkNotNull(size, "size");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -94,6 +99,16 @@ public class NewArray implements Instruction {
      */
     public void setInitialValues(@Nullable Instruction... values) {
         this.values = values;
+        StructuralHash.invalidate();
+    }
+
+    /**
+     * Sets the initial value at the given index of the array.
+     */
+    public void setInitialValue(int index, Instruction value) {
+        checkState(this.values != null, "Array has no initializer");
+        this.values[index] = checkNotNull(value, "value");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -172,6 +187,10 @@ public class NewArray implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.size.hashCode();
         h = h * 37 + this.type.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -42,6 +43,7 @@ public class NumberCompare implements Instruction {
 
     protected Instruction left;
     protected Instruction right;
+    private final StructuralHash hash = new StructuralHash();
 
     public NumberCompare(Instruction left, Instruction right) {
         this.left = checkNotNull(left, "left");
@@ -60,6 +62,7 @@ public class NumberCompare implements Instruction {
      */
     public void setLeftOperand(Instruction left) {
         this.left = checkNotNull(left, "left");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -74,6 +77,7 @@ public class NumberCompare implements Instruction {
      */
     public void setRightOperand(Instruction right) {
         this.right = checkNotNull(right, "right");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -120,6 +124,10 @@ public class NumberCompare implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.left.hashCode();
         h = h * 37 + this.right.hashCode();
@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.ast.insn.misc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
+import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.generic.TypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.InstructionVisitor;
+import org.spongepowered.despector.util.serialization.AstSerializer;
+import org.spongepowered.despector.util.serialization.MessagePacker;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A string concatenation of one or more operands. This replaces both the
+ * {@link StringBuilder} append chains and the
+ * {@code StringConcatFactory.makeConcatWithConstants} dynamic invokes which
+ * compilers generate for the string addition operator.
+ */
+public class StringConcat implements Instruction {
+
+    private Instruction[] operands;
+    private final StructuralHash hash = new StructuralHash();
+
+    public StringConcat(Instruction[] operands) {
+        setOperands(operands);
+    }
+
+    /**
+     * Gets the operands of this concatenation in order.
+     */
+    public Instruction[] getOperands() {
+        return this.operands;
+    }
+
+    /**
+     * Sets the operands of this concatenation.
+     */
+    public void setOperands(Instruction[] operands) {
+        this.operands = checkNotNull(operands, "operands");
+        checkArgument(operands.length > 0, "Empty string concatenation");
+        StructuralHash.invalidate();
+    }
+
+    @Override
+    public void accept(AstVisitor visitor) {
+        if (visitor instanceof InstructionVisitor) {
+            ((InstructionVisitor) visitor).visitStringConcat(this);
+        }
+        for (Instruction insn : this.operands) {
+            insn.accept(visitor);
+        }
+    }
+
+    @Override
+    public TypeSignature inferType() {
+        return ClassTypeSignature.STRING;
+    }
+
+    @Override
+    public void writeTo(MessagePacker pack) throws IOException {
+        pack.startMap(2);
+        pack.writeString("id").writeInt(AstSerializer.STATEMENT_ID_STRING_CONCAT);
+        pack.writeString("operands").startArray(this.operands.length);
+        for (Instruction insn : this.operands) {
+            insn.writeTo(pack);
+        }
+        pack.endArray();
+        pack.endMap();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < this.operands.length; i++) {
+            if (i > 0) {
+                result.append(" + ");
+            }
+            result.append(this.operands[i]);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof StringConcat)) {
+            return false;
+        }
+        StringConcat insn = (StringConcat) obj;
+        return Arrays.equals(this.operands, insn.operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
+        return Arrays.hashCode(this.operands);
+    }
+
+}
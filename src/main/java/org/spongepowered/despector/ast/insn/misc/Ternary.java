@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -44,6 +45,7 @@ public class Ternary implements Instruction {
     private Condition condition;
     private Instruction true_val;
     private Instruction false_val;
+    private final StructuralHash hash = new StructuralHash();
 
     public Ternary(Condition cond, Instruction true_val, Instruction false_val) {
         this.condition = checkNotNull(cond, "condition");
@@ -63,6 +65,7 @@ public class Ternary implements Instruction {
      */
     public void setCondition(Condition condition) {
         this.condition = checkNotNull(condition, "condition");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -77,6 +80,7 @@ public class Ternary implements Instruction {
      */
     public void setTrueValue(Instruction val) {
         this.true_val = checkNotNull(val, "true_val");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -91,6 +95,7 @@ public class Ternary implements Instruction {
      */
     public void setFalseValue(Instruction val) {
         this.false_val = checkNotNull(val, "false_val");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -140,6 +145,10 @@ public class Ternary implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.condition.hashCode();
         h = h * 37 + this.true_val.hashCode();
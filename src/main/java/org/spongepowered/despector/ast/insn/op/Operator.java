@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.op;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
@@ -46,6 +47,7 @@ public class Operator implements Instruction {
     protected OperatorType operator;
     protected Instruction left;
     protected Instruction right;
+    private final StructuralHash hash = new StructuralHash();
 
     public Operator(OperatorType type, Instruction left, Instruction right) {
         this.operator = checkNotNull(type, "operator");
@@ -59,6 +61,7 @@ public class Operator implements Instruction {
 
     public void setOperator(OperatorType type) {
         this.operator = checkNotNull(type, "operator");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -73,6 +76,7 @@ public class Operator implements Instruction {
      */
     public void setLeftOperand(Instruction left) {
         this.left = checkNotNull(left, "left");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -87,6 +91,7 @@ public class Operator implements Instruction {
      */
     public void setRightOperand(Instruction right) {
         this.right = checkNotNull(right, "right");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -136,6 +141,10 @@ public class Operator implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.left.hashCode();
         h = h * 37 + this.right.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.var;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -45,6 +46,7 @@ public class ArrayAccess implements Instruction {
     private Instruction array;
     private Instruction index;
     private TypeSignature component = null;
+    private final StructuralHash hash = new StructuralHash();
 
     public ArrayAccess(Instruction array, Instruction index) {
         this.array = checkNotNull(array, "array");
@@ -64,6 +66,7 @@ public class ArrayAccess implements Instruction {
     public void setArrayVar(Instruction array) {
         this.array = checkNotNull(array, "array");
         this.component = null;
+        StructuralHash.invalidate();
     }
 
     /**
@@ -78,6 +81,7 @@ public class ArrayAccess implements Instruction {
      */
     public void setIndex(Instruction index) {
         this.index = checkNotNull(index, "index");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -127,6 +131,10 @@ public class ArrayAccess implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.array.hashCode();
         h = h * 37 + this.index.hashCode();
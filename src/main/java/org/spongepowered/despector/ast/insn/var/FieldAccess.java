@@ -26,6 +26,7 @@ package org.spongepowered.despector.ast.insn.var;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.util.TypeHelper;
@@ -57,6 +58,7 @@ public abstract class FieldAccess implements Instruction {
      */
     public void setFieldName(String name) {
         this.field_name = checkNotNull(name, "name");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -71,6 +73,7 @@ public abstract class FieldAccess implements Instruction {
      */
     public void setTypeDescriptor(TypeSignature desc) {
         this.field_desc = checkNotNull(desc, "desc");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -85,6 +88,7 @@ public abstract class FieldAccess implements Instruction {
      */
     public void setOwnerType(String owner) {
         this.owner_type = checkNotNull(owner, "owner");
+        StructuralHash.invalidate();
     }
 
     /**
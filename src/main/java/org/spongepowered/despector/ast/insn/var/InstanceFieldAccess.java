@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.insn.var;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -41,6 +42,7 @@ import java.io.IOException;
 public class InstanceFieldAccess extends FieldAccess {
 
     protected Instruction owner;
+    private final StructuralHash hash = new StructuralHash();
 
     public InstanceFieldAccess(String name, TypeSignature desc, String owner_type, Instruction owner) {
         super(name, desc, owner_type);
@@ -59,6 +61,7 @@ public class InstanceFieldAccess extends FieldAccess {
      */
     public void setFieldOwner(Instruction owner) {
         this.owner = checkNotNull(owner, "owner");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -102,6 +105,10 @@ public class InstanceFieldAccess extends FieldAccess {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.field_desc.hashCode();
         h = h * 37 + this.field_name.hashCode();
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -59,6 +60,7 @@ public class LocalAccess implements Instruction {
      */
     public void setLocal(LocalInstance local) {
         this.local = checkNotNull(local, "local");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 
 import java.util.Iterator;
@@ -54,15 +55,16 @@ public class StatementBlock implements Iterable<Statement> {
 
     private Type type;
     final List<Statement> statements;
+    private final StructuralHash hash = new StructuralHash();
 
     public StatementBlock(Type type) {
         this.type = checkNotNull(type, "type");
-        this.statements = Lists.newArrayList();
+        this.statements = StructuralHash.track(Lists.newArrayList());
     }
 
     public StatementBlock(StatementBlock block) {
         this.type = block.type;
-        this.statements = Lists.newArrayList(block.statements);
+        this.statements = StructuralHash.track(Lists.newArrayList(block.statements));
     }
 
     /**
@@ -77,6 +79,7 @@ public class StatementBlock implements Iterable<Statement> {
      */
     public void setType(Type t) {
         this.type = checkNotNull(t, "type");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -169,6 +172,10 @@ public class StatementBlock implements Iterable<Statement> {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.type.hashCode();
         for (Statement stmt : this.statements) {
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.assign;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
 import org.spongepowered.despector.util.serialization.AstSerializer;
@@ -43,6 +44,7 @@ public class ArrayAssignment extends Assignment {
 
     private Instruction array;
     private Instruction index;
+    private final StructuralHash hash = new StructuralHash();
 
     public ArrayAssignment(Instruction array, Instruction index, Instruction val) {
         super(val);
@@ -62,6 +64,7 @@ public class ArrayAssignment extends Assignment {
      */
     public void setArray(Instruction array) {
         this.array = checkNotNull(array, "array");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -76,6 +79,7 @@ public class ArrayAssignment extends Assignment {
      */
     public void setIndex(Instruction index) {
         this.index = checkNotNull(index, "index");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -120,6 +124,10 @@ public class ArrayAssignment extends Assignment {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.val.hashCode();
         h = h * 37 + this.array.hashCode();
@@ -26,6 +26,7 @@ package org.spongepowered.despector.ast.stmt.assign;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.Statement;
 
@@ -52,6 +53,7 @@ public abstract class Assignment implements Statement {
      */
     public void setValue(Instruction insn) {
         this.val = checkNotNull(insn, "value");
+        StructuralHash.invalidate();
     }
 
 }
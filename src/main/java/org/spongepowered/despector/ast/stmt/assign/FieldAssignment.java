@@ -26,6 +26,7 @@ package org.spongepowered.despector.ast.stmt.assign;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.util.TypeHelper;
@@ -40,6 +41,7 @@ public abstract class FieldAssignment extends Assignment {
     protected String owner_type;
 
     protected boolean initializer = false;
+    private final StructuralHash hash = new StructuralHash();
 
     public FieldAssignment(String field, TypeSignature type_desc, String owner, Instruction val) {
         super(val);
@@ -60,6 +62,7 @@ public abstract class FieldAssignment extends Assignment {
      */
     public void setFieldName(String name) {
         this.field_name = checkNotNull(name, "name");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -74,6 +77,7 @@ public abstract class FieldAssignment extends Assignment {
      */
     public void setFieldDescription(TypeSignature desc) {
         this.type_desc = checkNotNull(desc, "desc");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -95,6 +99,7 @@ public abstract class FieldAssignment extends Assignment {
      */
     public void setOwner(String owner) {
         this.owner_type = checkNotNull(owner, "owner");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -112,6 +117,7 @@ public abstract class FieldAssignment extends Assignment {
      */
     public void setInitializer(boolean state) {
         this.initializer = state;
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -128,6 +134,10 @@ public abstract class FieldAssignment extends Assignment {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.field_name.hashCode();
         h = h * 37 + this.owner_type.hashCode();
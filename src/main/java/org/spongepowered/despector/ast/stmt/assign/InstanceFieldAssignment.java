@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.assign;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -59,6 +60,7 @@ public class InstanceFieldAssignment extends FieldAssignment {
      */
     public void setOwner(Instruction owner) {
         this.owner = checkNotNull(owner, "owner");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -103,8 +105,8 @@ public class InstanceFieldAssignment extends FieldAssignment {
     }
 
     @Override
-    public int hashCode() {
-        int h = super.hashCode();
+    protected int computeHash() {
+        int h = super.computeHash();
         h = h * 37 + this.val.hashCode();
         h = h * 37 + this.owner.hashCode();
         return h;
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -42,6 +43,7 @@ import java.io.IOException;
 public class LocalAssignment extends Assignment {
 
     private LocalInstance local;
+    private final StructuralHash hash = new StructuralHash();
 
     public LocalAssignment(LocalInstance local, Instruction val) {
         super(val);
@@ -60,6 +62,7 @@ public class LocalAssignment extends Assignment {
      */
     public void setLocal(LocalInstance local) {
         this.local = checkNotNull(local, "local");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -103,6 +106,10 @@ public class LocalAssignment extends Assignment {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.val.hashCode();
         h = h * 37 + this.local.hashCode();
@@ -82,8 +82,8 @@ public class StaticFieldAssignment extends FieldAssignment {
     }
 
     @Override
-    public int hashCode() {
-        int h = super.hashCode();
+    protected int computeHash() {
+        int h = super.computeHash();
         h = h * 37 + this.val.hashCode();
         return h;
     }
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.branch;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.condition.Condition;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
@@ -47,6 +48,7 @@ public class DoWhile implements Statement, Breakable {
     private Condition condition;
     private StatementBlock body;
     private List<Break> breaks = new ArrayList<>();
+    private final StructuralHash hash = new StructuralHash();
 
     public DoWhile(Condition condition, StatementBlock body) {
         this.condition = checkNotNull(condition, "condition");
@@ -65,6 +67,7 @@ public class DoWhile implements Statement, Breakable {
      */
     public void setCondition(Condition condition) {
         this.condition = checkNotNull(condition, "condition");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -79,6 +82,7 @@ public class DoWhile implements Statement, Breakable {
      */
     public void setBody(StatementBlock block) {
         this.body = checkNotNull(block, "block");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -144,6 +148,10 @@ public class DoWhile implements Statement, Breakable {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.condition.hashCode();
         h = h * 37 + this.body.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.branch;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.condition.Condition;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
@@ -51,6 +52,7 @@ public class For implements Statement, Breakable {
     private Statement incr;
     private StatementBlock body;
     private List<Break> breaks = new ArrayList<>();
+    private final StructuralHash hash = new StructuralHash();
 
     public For(@Nullable Statement init, Condition condition, @Nullable Statement incr, StatementBlock body) {
         this.init = init;
@@ -72,6 +74,7 @@ public class For implements Statement, Breakable {
      */
     public void setInit(@Nullable Statement init) {
         this.init = init;
+        StructuralHash.invalidate();
     }
 
     /**
@@ -86,6 +89,7 @@ public class For implements Statement, Breakable {
      */
     public void setCondition(Condition condition) {
         this.condition = checkNotNull(condition, "condition");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -101,6 +105,7 @@ public class For implements Statement, Breakable {
      */
     public void setIncr(@Nullable Statement incr) {
         this.incr = incr;
+        StructuralHash.invalidate();
     }
 
     /**
@@ -115,6 +120,7 @@ public class For implements Statement, Breakable {
      */
     public void setBody(StatementBlock block) {
         this.body = checkNotNull(block, "block");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -220,6 +226,10 @@ public class For implements Statement, Breakable {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + (this.init == null ? 0 : this.init.hashCode());
         h = h * 37 + (this.incr == null ? 0 : this.incr.hashCode());
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 import org.spongepowered.despector.ast.stmt.Statement;
@@ -50,6 +51,7 @@ public class ForEach implements Statement, Breakable {
     private LocalInstance val;
     private StatementBlock body;
     private List<Break> breaks = new ArrayList<>();
+    private final StructuralHash hash = new StructuralHash();
 
     public ForEach(Instruction collection, LocalInstance val, StatementBlock body) {
         this.collection = checkNotNull(collection, "collection");
@@ -69,6 +71,7 @@ public class ForEach implements Statement, Breakable {
      */
     public void setCollectionValue(Instruction collection) {
         this.collection = checkNotNull(collection, "collection");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -83,6 +86,7 @@ public class ForEach implements Statement, Breakable {
      */
     public void setValueAssignment(LocalInstance val) {
         this.val = checkNotNull(val, "val");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -97,6 +101,7 @@ public class ForEach implements Statement, Breakable {
      */
     public void setBody(StatementBlock block) {
         this.body = checkNotNull(block, "block");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -170,6 +175,10 @@ public class ForEach implements Statement, Breakable {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.collection.hashCode();
         h = h * 37 + this.body.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.branch;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.condition.Condition;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
@@ -47,9 +48,10 @@ public class If implements Statement {
 
     private Condition condition;
     private StatementBlock block;
-    private final List<Elif> elif_blocks = new ArrayList<>();
+    private final List<Elif> elif_blocks = StructuralHash.track(new ArrayList<>());
     @Nullable
     private Else else_block;
+    private final StructuralHash hash = new StructuralHash();
 
     public If(Condition condition, StatementBlock insn) {
         this.condition = checkNotNull(condition, "condition");
@@ -68,6 +70,7 @@ public class If implements Statement {
      */
     public void setCondition(Condition condition) {
         this.condition = checkNotNull(condition, "condition");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -82,6 +85,7 @@ public class If implements Statement {
      */
     public void setBody(StatementBlock block) {
         this.block = checkNotNull(block, "block");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -111,6 +115,7 @@ public class If implements Statement {
      */
     public void setElseBlock(@Nullable Else else_block) {
         this.else_block = else_block;
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -208,6 +213,10 @@ public class If implements Statement {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.condition.hashCode();
         h = h * 37 + this.block.hashCode();
@@ -225,6 +234,7 @@ public class If implements Statement {
 
         private StatementBlock block;
         private Condition condition;
+        private final StructuralHash hash = new StructuralHash();
 
         public Elif(Condition cond, StatementBlock block) {
             this.condition = checkNotNull(cond, "condition");
@@ -244,6 +254,7 @@ public class If implements Statement {
          */
         public void setCondition(Condition cond) {
             this.condition = checkNotNull(cond, "condition");
+            StructuralHash.invalidate();
         }
 
         /**
@@ -258,6 +269,7 @@ public class If implements Statement {
          */
         public void setBody(StatementBlock block) {
             this.block = checkNotNull(block, "block");
+            StructuralHash.invalidate();
         }
 
         public void accept(AstVisitor visitor) {
@@ -296,6 +308,10 @@ public class If implements Statement {
 
         @Override
         public int hashCode() {
+            return this.hash.get(this::computeHash);
+        }
+
+        protected int computeHash() {
             int h = 1;
             h = h * 37 + this.condition.hashCode();
             h = h * 37 + this.block.hashCode();
@@ -327,6 +343,7 @@ public class If implements Statement {
          */
         public void setBody(StatementBlock block) {
             this.block = checkNotNull(block, "block");
+            StructuralHash.invalidate();
         }
 
         public void accept(AstVisitor visitor) {
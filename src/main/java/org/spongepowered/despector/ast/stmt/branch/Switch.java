@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
@@ -44,7 +45,8 @@ import java.util.List;
 public class Switch implements Statement {
 
     private Instruction variable;
-    final List<Case> cases = Lists.newArrayList();
+    final List<Case> cases = StructuralHash.track(Lists.newArrayList());
+    private final StructuralHash hash = new StructuralHash();
 
     public Switch(Instruction var) {
         this.variable = checkNotNull(var, "var");
@@ -62,6 +64,7 @@ public class Switch implements Statement {
      */
     public void setSwitchVar(Instruction var) {
         this.variable = checkNotNull(var, "var");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -124,6 +127,10 @@ public class Switch implements Statement {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.variable.hashCode();
         for (Case cs : this.cases) {
@@ -141,12 +148,13 @@ public class Switch implements Statement {
         private boolean breaks;
         private boolean is_default;
         private final List<Integer> indices;
+        private final StructuralHash hash = new StructuralHash();
 
         public Case(StatementBlock block, boolean br, boolean def, List<Integer> indices) {
             this.body = checkNotNull(block, "block");
             this.breaks = br;
             this.is_default = def;
-            this.indices = indices == null ? Lists.newArrayList() : indices;
+            this.indices = StructuralHash.track(indices == null ? Lists.newArrayList() : indices);
             Switch.this.cases.add(this);
         }
 
@@ -162,6 +170,7 @@ public class Switch implements Statement {
          */
         public void setBody(StatementBlock block) {
             this.body = checkNotNull(block, "block");
+            StructuralHash.invalidate();
         }
 
         /**
@@ -176,6 +185,7 @@ public class Switch implements Statement {
          */
         public void setBreak(boolean state) {
             this.breaks = state;
+            StructuralHash.invalidate();
         }
 
         /**
@@ -190,6 +200,7 @@ public class Switch implements Statement {
          */
         public void setDefault(boolean state) {
             this.is_default = state;
+            StructuralHash.invalidate();
         }
 
         /**
@@ -226,6 +237,10 @@ public class Switch implements Statement {
 
         @Override
         public int hashCode() {
+            return this.hash.get(this::computeHash);
+        }
+
+        protected int computeHash() {
             int h = 1;
             h = h * 37 + this.body.hashCode();
             h = h * 37 + this.indices.hashCode();
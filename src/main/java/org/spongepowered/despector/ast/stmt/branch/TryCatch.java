@@ -29,6 +29,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.AstVisitor;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -46,7 +47,8 @@ import javax.annotation.Nullable;
 public class TryCatch implements Statement {
 
     private StatementBlock block;
-    final List<CatchBlock> catch_blocks = Lists.newArrayList();
+    final List<CatchBlock> catch_blocks = StructuralHash.track(Lists.newArrayList());
+    private final StructuralHash hash = new StructuralHash();
 
     public TryCatch(StatementBlock block) {
         this.block = checkNotNull(block, "block");
@@ -64,6 +66,7 @@ public class TryCatch implements Statement {
      */
     public void setBlock(StatementBlock block) {
         this.block = checkNotNull(block, "block");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -136,6 +139,10 @@ public class TryCatch implements Statement {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.block.hashCode();
         for (CatchBlock cat : this.catch_blocks) {
@@ -153,11 +160,12 @@ public class TryCatch implements Statement {
         private StatementBlock block;
         private LocalInstance exception_local;
         private String dummy_name;
+        private final StructuralHash hash = new StructuralHash();
 
         public CatchBlock(LocalInstance exception_local, List<String> ex, StatementBlock block) {
             this.exception_local = checkNotNull(exception_local, "local");
             this.dummy_name = null;
-            this.exceptions = ex;
+            this.exceptions = StructuralHash.track(ex);
             this.block = block;
             TryCatch.this.catch_blocks.add(this);
         }
@@ -165,7 +173,7 @@ public class TryCatch implements Statement {
         public CatchBlock(String dummy_name, List<String> ex, StatementBlock block) {
             this.exception_local = null;
             this.dummy_name = checkNotNull(dummy_name, "name");
-            this.exceptions = ex;
+            this.exceptions = StructuralHash.track(ex);
             this.block = block;
             TryCatch.this.catch_blocks.add(this);
         }
@@ -186,6 +194,7 @@ public class TryCatch implements Statement {
                 throw new IllegalStateException("Cannot have both a null exception local and dummy name in catch block.");
             }
             this.exception_local = local;
+            StructuralHash.invalidate();
         }
 
         /**
@@ -208,6 +217,7 @@ public class TryCatch implements Statement {
                 throw new IllegalStateException("Cannot have both a null exception local and dummy name in catch block.");
             }
             this.dummy_name = name;
+            StructuralHash.invalidate();
         }
 
         /**
@@ -229,6 +239,7 @@ public class TryCatch implements Statement {
          */
         public void setBlock(StatementBlock block) {
             this.block = checkNotNull(block, "block");
+            StructuralHash.invalidate();
         }
 
         /**
@@ -258,6 +269,10 @@ public class TryCatch implements Statement {
 
         @Override
         public int hashCode() {
+            return this.hash.get(this::computeHash);
+        }
+
+        protected int computeHash() {
             int h = 1;
             h = h * 37 + this.exception_local.hashCode();
             h = h * 37 + this.exceptions.hashCode();
@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.invoke;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 import org.spongepowered.despector.util.serialization.AstSerializer;
@@ -64,6 +65,7 @@ public class InstanceMethodInvoke extends MethodInvoke {
      */
     public void setCallee(Instruction callee) {
         this.callee = checkNotNull(callee, "callee");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -118,8 +120,8 @@ public class InstanceMethodInvoke extends MethodInvoke {
     }
 
     @Override
-    public int hashCode() {
-        int h = super.hashCode();
+    protected int computeHash() {
+        int h = super.computeHash();
         h = h * 37 + this.callee.hashCode();
         return h;
     }
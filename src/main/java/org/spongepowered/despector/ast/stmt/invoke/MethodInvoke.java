@@ -28,12 +28,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 import org.spongepowered.despector.util.TypeHelper;
 
+import java.util.List;
+
 /**
  * An abstract statement for making method invocations.
  */
@@ -44,6 +47,12 @@ public abstract class MethodInvoke implements Instruction {
     protected String method_owner;
     protected Instruction[] params;
 
+    // derived from the owner and description on first use
+    private String owner_name;
+    private TypeSignature owner_type;
+    private TypeSignature[] param_types;
+    private final StructuralHash hash = new StructuralHash();
+
     public MethodInvoke(String name, String desc, String owner, Instruction[] args) {
         this.method_name = checkNotNull(name, "name");
         this.method_desc = checkNotNull(desc, "desc");
@@ -65,6 +74,7 @@ public abstract class MethodInvoke implements Instruction {
      */
     public void setMethodName(String name) {
         this.method_name = checkNotNull(name, "name");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -86,6 +96,24 @@ public abstract class MethodInvoke implements Instruction {
      */
     public void setMethodDescription(String desc) {
         this.method_desc = checkNotNull(desc, "desc");
+        this.param_types = null;
+        StructuralHash.invalidate();
+    }
+
+    /**
+     * Gets the type of the parameter at the given index from the description
+     * of the method being invoked.
+     */
+    public TypeSignature getParameterType(int index) {
+        if (this.param_types == null) {
+            List<String> types = TypeHelper.splitSig(this.method_desc);
+            TypeSignature[] param_types = new TypeSignature[types.size()];
+            for (int i = 0; i < param_types.length; i++) {
+                param_types[i] = ClassTypeSignature.of(types.get(i));
+            }
+            this.param_types = param_types;
+        }
+        return this.param_types[index];
     }
 
     /**
@@ -99,7 +127,20 @@ public abstract class MethodInvoke implements Instruction {
      * Gets the internal name of the owner of the method being invoked.
      */
     public String getOwnerName() {
-        return TypeHelper.descToType(this.method_owner);
+        if (this.owner_name == null) {
+            this.owner_name = TypeHelper.descToType(this.method_owner);
+        }
+        return this.owner_name;
+    }
+
+    /**
+     * Gets the type of the owner of the method being invoked.
+     */
+    public TypeSignature getOwnerType() {
+        if (this.owner_type == null) {
+            this.owner_type = ClassTypeSignature.of(this.method_owner);
+        }
+        return this.owner_type;
     }
 
     /**
@@ -107,6 +148,9 @@ public abstract class MethodInvoke implements Instruction {
      */
     public void setOwner(String type) {
         this.method_owner = checkNotNull(type, "owner");
+        this.owner_name = null;
+        this.owner_type = null;
+        StructuralHash.invalidate();
     }
 
     /**
@@ -123,6 +167,7 @@ public abstract class MethodInvoke implements Instruction {
         checkNotNull(args, "args");
         checkArgument(TypeHelper.paramCount(this.method_desc) == args.length);
         this.params = args;
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -162,6 +207,10 @@ public abstract class MethodInvoke implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.method_desc.hashCode();
         h = h * 37 + this.method_name.hashCode();
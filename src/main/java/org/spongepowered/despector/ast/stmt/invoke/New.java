@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.invoke;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
@@ -44,6 +45,7 @@ public class New implements Instruction {
     private TypeSignature type;
     private String ctor;
     private Instruction[] params;
+    private final StructuralHash hash = new StructuralHash();
 
     public New(TypeSignature type, String ctor_desc, Instruction[] args) {
         this.type = checkNotNull(type, "type");
@@ -63,6 +65,7 @@ public class New implements Instruction {
      */
     public void setCtorDescription(String desc) {
         this.ctor = checkNotNull(desc, "ctor_desc");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -77,6 +80,7 @@ public class New implements Instruction {
      */
     public void setType(TypeSignature type) {
         this.type = checkNotNull(type, "type");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -91,6 +95,7 @@ public class New implements Instruction {
      */
     public void setParameters(Instruction... args) {
         this.params = checkNotNull(args, "args");
+        StructuralHash.invalidate();
     }
 
     @Override
@@ -149,6 +154,10 @@ public class New implements Instruction {
 
     @Override
     public int hashCode() {
+        return this.hash.get(this::computeHash);
+    }
+
+    protected int computeHash() {
         int h = 1;
         h = h * 37 + this.type.hashCode();
         h = h * 37 + this.ctor.hashCode();
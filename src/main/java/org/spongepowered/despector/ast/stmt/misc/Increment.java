@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.InstructionVisitor;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -61,6 +62,7 @@ public class Increment implements Statement {
      */
     public void setLocal(LocalInstance local) {
         this.local = checkNotNull(local, "local");
+        StructuralHash.invalidate();
     }
 
     /**
@@ -75,6 +77,7 @@ public class Increment implements Statement {
      */
     public void setIncrementValue(int val) {
         this.val = val;
+        StructuralHash.invalidate();
     }
 
     @Override
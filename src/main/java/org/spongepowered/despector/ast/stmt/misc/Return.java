@@ -25,6 +25,7 @@
 package org.spongepowered.despector.ast.stmt.misc;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -64,6 +65,7 @@ public class Return implements Statement {
      */
     public void setValue(@Nullable Instruction insn) {
         this.value = insn;
+        StructuralHash.invalidate();
     }
 
     @Override
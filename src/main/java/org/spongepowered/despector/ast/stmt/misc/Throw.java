@@ -27,6 +27,7 @@ package org.spongepowered.despector.ast.stmt.misc;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.spongepowered.despector.ast.AstVisitor;
+import org.spongepowered.despector.ast.StructuralHash;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.stmt.StatementVisitor;
@@ -58,6 +59,7 @@ public class Throw implements Statement {
      */
     public void setException(Instruction ex) {
         this.ex = checkNotNull(ex, "ex");
+        StructuralHash.invalidate();
     }
 
     @Override
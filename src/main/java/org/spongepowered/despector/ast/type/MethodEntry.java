@@ -47,6 +47,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a method declaration in a type.
  * 
@@ -78,6 +80,9 @@ public class MethodEntry extends AstEntry {
     protected InsnBlock ir;
     protected Locals locals;
     protected StatementBlock instructions = null;
+    protected volatile Runnable pending_body = null;
+    protected volatile boolean stub_body = false;
+    private boolean completing_body = false;
 
     protected MethodSignature sig;
 
@@ -234,11 +239,15 @@ public class MethodEntry extends AstEntry {
     }
 
     public Locals getLocals() {
+        completeBody();
         return this.locals;
     }
 
     public void setLocals(Locals locals) {
-        this.locals = locals;
+        synchronized (this) {
+            this.locals = locals;
+            clearPendingBody();
+        }
     }
 
     /**
@@ -248,22 +257,106 @@ public class MethodEntry extends AstEntry {
         if (this.is_abstract) {
             return null;
         }
+        completeBody();
+        if (this.instructions == null && this.stub_body) {
+            this.source.upgrade(this.owner);
+        }
         return this.instructions;
     }
 
     /**
-     * Sets the statements of this method.
+     * Sets the statements of this method, replacing any body which is still
+     * pending.
      */
     public void setInstructions(StatementBlock block) {
-        this.instructions = block;
+        synchronized (this) {
+            this.instructions = block;
+            clearPendingBody();
+        }
+    }
+
+    /**
+     * Gets the structural hash of the signature and statements of this
+     * method, for detecting changes to the method within a session. The hash
+     * of the statements is cached until the ast is next modified.
+     *
+     * <p>A pending body is decompiled first, the body of a method of a stub
+     * type is not loaded and is hashed as empty.</p>
+     */
+    public int getStructuralHash() {
+        completeBody();
+        int h = 1;
+        h = h * 37 + this.name.hashCode();
+        h = h * 37 + this.desc.hashCode();
+        h = h * 37 + (this.is_static ? 1 : 0);
+        StatementBlock body = this.instructions;
+        h = h * 37 + (body == null ? 0 : body.hashCode());
+        return h;
     }
 
     public InsnBlock getIR() {
+        completeBody();
         return this.ir;
     }
 
     public void setIR(InsnBlock block) {
-        this.ir = block;
+        synchronized (this) {
+            this.ir = block;
+            clearPendingBody();
+        }
+    }
+
+    /**
+     * Gets if the body of this method is waiting to be decompiled on first
+     * access.
+     */
+    public boolean hasPendingBody() {
+        return this.pending_body != null;
+    }
+
+    /**
+     * Sets a task which decompiles the body of this method. The task is run
+     * once, the first time the locals, ir or statements of this method are
+     * accessed.
+     */
+    public void setPendingBody(@Nullable Runnable body) {
+        this.pending_body = body;
+    }
+
+    /**
+     * Sets if the body of this method is missing because its owning type is a
+     * stub. Native methods never have a body to load.
+     */
+    void setStubBody(boolean state) {
+        this.stub_body = state && !this.is_native && this.source != null;
+    }
+
+    private void clearPendingBody() {
+        // the pending body sets the ir, locals and statements itself while
+        // it runs and is cleared once it has finished
+        if (!this.completing_body) {
+            this.pending_body = null;
+        }
+    }
+
+    private void completeBody() {
+        if (this.pending_body == null) {
+            return;
+        }
+        synchronized (this) {
+            Runnable body = this.pending_body;
+            // the body accesses the locals of this method while it runs
+            if (body == null || this.completing_body) {
+                return;
+            }
+            this.completing_body = true;
+            try {
+                body.run();
+            } finally {
+                this.pending_body = null;
+                this.completing_body = false;
+            }
+        }
     }
 
     public Annotation getAnnotation(AnnotationType type) {
@@ -288,6 +381,7 @@ public class MethodEntry extends AstEntry {
 
     @Override
     public void writeTo(MessagePacker pack) throws IOException {
+        completeBody();
         pack.startMap(18);
         pack.writeString("id").writeInt(AstSerializer.ENTRY_ID_METHOD);
         pack.writeString("access").writeInt(this.access.ordinal());
@@ -329,6 +423,7 @@ public class MethodEntry extends AstEntry {
         if (visitor instanceof TypeVisitor) {
             ((TypeVisitor) visitor).visitMethod(this);
         }
+        completeBody();
         if (this.instructions != null) {
             this.instructions.accept(visitor);
         }
@@ -44,6 +44,8 @@ import org.spongepowered.despector.util.serialization.MessagePacker;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +64,7 @@ public abstract class TypeEntry extends AstEntry {
     protected boolean is_abstract;
     protected boolean is_deprecated;
     protected boolean is_inner_class;
+    protected volatile boolean is_stub;
 
     protected final String name;
 
@@ -73,6 +76,10 @@ public abstract class TypeEntry extends AstEntry {
     protected final Map<String, FieldEntry> fields = new LinkedHashMap<>();
     protected final Multimap<String, MethodEntry> methods = LinkedHashMultimap.create();
 
+    // name -> descriptor -> method, the multimaps above keep declaration order
+    protected final Map<String, Map<String, MethodEntry>> static_method_index = new HashMap<>();
+    protected final Map<String, Map<String, MethodEntry>> method_index = new HashMap<>();
+
     protected final Map<AnnotationType, Annotation> annotations = new LinkedHashMap<>();
     protected final Map<String, InnerClassInfo> inner_classes = new LinkedHashMap<>();
 
@@ -147,6 +154,24 @@ public abstract class TypeEntry extends AstEntry {
         return this.is_inner_class;
     }
 
+    /**
+     * Gets if this type is a stub holding only its header and members, the
+     * method bodies are decompiled on demand by {@link SourceSet#upgrade}.
+     */
+    public boolean isStub() {
+        return this.is_stub;
+    }
+
+    public void setStub(boolean state) {
+        this.is_stub = state;
+        for (MethodEntry mth : this.methods.values()) {
+            mth.setStubBody(state);
+        }
+        for (MethodEntry mth : this.static_methods.values()) {
+            mth.setStubBody(state);
+        }
+    }
+
     /**
      * Gets the type internal name.
      */
@@ -192,25 +217,22 @@ public abstract class TypeEntry extends AstEntry {
     }
 
     protected MethodEntry findMethod(String name, Multimap<String, MethodEntry> map) {
-        MethodEntry ret = null;
-        for (MethodEntry m : map.values()) {
-            if (m.getName().equals(name)) {
-                if (ret != null) {
-                    throw new IllegalStateException("Tried to get ambiguous method " + name);
-                }
-                ret = m;
-            }
+        Collection<MethodEntry> found = map.get(name);
+        if (found.isEmpty()) {
+            return null;
+        }
+        if (found.size() > 1) {
+            throw new IllegalStateException("Tried to get ambiguous method " + name);
         }
-        return ret;
+        return found.iterator().next();
     }
 
-    protected MethodEntry findMethod(String name, String sig, Multimap<String, MethodEntry> map) {
-        for (MethodEntry m : map.values()) {
-            if (m.getName().equals(name) && m.getDescription().equals(sig)) {
-                return m;
-            }
+    protected MethodEntry findMethod(String name, String sig, Map<String, Map<String, MethodEntry>> index) {
+        Map<String, MethodEntry> overloads = index.get(name);
+        if (overloads == null) {
+            return null;
         }
-        return null;
+        return overloads.get(sig);
     }
 
     /**
@@ -228,7 +250,7 @@ public abstract class TypeEntry extends AstEntry {
      */
     public MethodEntry getStaticMethod(String name, String sig) {
         checkNotNull(name);
-        return findMethod(name, sig, this.static_methods);
+        return findMethod(name, sig, this.static_method_index);
     }
 
     /**
@@ -247,7 +269,7 @@ public abstract class TypeEntry extends AstEntry {
     public MethodEntry getMethod(String name, String sig) {
         checkNotNull(name);
         checkNotNull(sig);
-        return findMethod(name, sig, this.methods);
+        return findMethod(name, sig, this.method_index);
     }
 
     /**
@@ -256,20 +278,25 @@ public abstract class TypeEntry extends AstEntry {
     public void addMethod(MethodEntry m) {
         checkNotNull(m);
         if (m.isStatic()) {
-            MethodEntry existing = getStaticMethod(m.getName(), m.getDescription());
-            if (existing != null) {
-                throw new IllegalArgumentException("Duplicate method " + existing);
-            }
-            this.static_methods.put(m.getName(), m);
+            addMethod(m, this.static_methods, this.static_method_index);
         } else {
-            MethodEntry existing = getMethod(m.getName(), m.getDescription());
-            if (existing != null) {
-                throw new IllegalArgumentException("Duplicate method " + existing);
-            }
-            this.methods.put(m.getName(), m);
+            addMethod(m, this.methods, this.method_index);
         }
     }
 
+    private static void addMethod(MethodEntry m, Multimap<String, MethodEntry> map, Map<String, Map<String, MethodEntry>> index) {
+        Map<String, MethodEntry> overloads = index.get(m.getName());
+        if (overloads == null) {
+            overloads = new HashMap<>();
+            index.put(m.getName(), overloads);
+        }
+        MethodEntry existing = overloads.putIfAbsent(m.getDescription(), m);
+        if (existing != null) {
+            throw new IllegalArgumentException("Duplicate method " + existing);
+        }
+        map.put(m.getName(), m);
+    }
+
     public int getMethodCount() {
         return this.methods.size();
     }
@@ -278,12 +305,19 @@ public abstract class TypeEntry extends AstEntry {
         return this.static_methods.size();
     }
 
+    /**
+     * Gets an unmodifiable view of the instance methods of this type, methods
+     * are added through {@link #addMethod} so that they are indexed.
+     */
     public Collection<MethodEntry> getMethods() {
-        return this.methods.values();
+        return Collections.unmodifiableCollection(this.methods.values());
     }
 
+    /**
+     * Gets an unmodifiable view of the static methods of this type.
+     */
     public Collection<MethodEntry> getStaticMethods() {
-        return this.static_methods.values();
+        return Collections.unmodifiableCollection(this.static_methods.values());
     }
 
     /**
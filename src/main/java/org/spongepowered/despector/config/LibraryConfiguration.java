@@ -24,6 +24,9 @@
  */
 package org.spongepowered.despector.config;
 
+import org.spongepowered.despector.decompiler.AttributeProfile;
+import org.spongepowered.despector.decompiler.DecompilerFilter;
+
 /**
  * Static config designed to be set when despector is being used as a library.
  */
@@ -33,5 +36,8 @@ public class LibraryConfiguration {
     public static boolean parallel = true;
     public static boolean print_times = false;
     public static boolean force_lang = false;
+    public static boolean lazy = false;
+    public static DecompilerFilter filter = new DecompilerFilter();
+    public static AttributeProfile attribute_profile = AttributeProfile.FULL;
 
 }
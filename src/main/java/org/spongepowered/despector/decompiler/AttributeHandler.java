@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler;
+
+import org.spongepowered.despector.decompiler.loader.ClassConstantPool;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * A reader for a single class file attribute.
+ *
+ * @param <C> The context the attribute is read into
+ */
+@FunctionalInterface
+public interface AttributeHandler<C> {
+
+    /**
+     * A handler which skips the attribute without reading it.
+     */
+    static <C> AttributeHandler<C> skip() {
+        return (ctx, data, pool, length) -> data.skipBytes(length);
+    }
+
+    /**
+     * Reads the body of the attribute, which is exactly length bytes long,
+     * from the given stream.
+     */
+    void read(C ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException;
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler;
+
+import javax.annotation.Nullable;
+
+/**
+ * A selection of the optional class file attributes which are parsed when
+ * loading a type. Attributes which are not part of the profile are skipped
+ * without being read.
+ */
+public enum AttributeProfile {
+
+    /**
+     * Parses every known attribute.
+     */
+    FULL("full", true, true, true),
+    /**
+     * Skips annotations, parameter annotations and annotation defaults. As
+     * class annotations are not read kotlin types are not detected under this
+     * profile.
+     */
+    NO_ANNOTATIONS("no-annotations", false, true, true),
+    /**
+     * Skips the local variable tables, locals are given generated names.
+     */
+    NO_DEBUG_INFO("no-debug-info", true, false, true),
+    /**
+     * Parses only the structure and generic signatures of the type. Method
+     * code is skipped without being decompiled and every method body is left
+     * empty, annotations and debug info are skipped as well.
+     */
+    SIGNATURES_ONLY("signatures-only", false, false, false);
+
+    private final String name;
+    private final boolean annotations;
+    private final boolean debug_info;
+    private final boolean code;
+
+    AttributeProfile(String name, boolean annotations, boolean debug_info, boolean code) {
+        this.name = name;
+        this.annotations = annotations;
+        this.debug_info = debug_info;
+        this.code = code;
+    }
+
+    /**
+     * Gets the name of this profile as given on the command line.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets if annotation attributes are parsed under this profile.
+     */
+    public boolean includesAnnotations() {
+        return this.annotations;
+    }
+
+    /**
+     * Gets if the local variable tables are parsed under this profile.
+     */
+    public boolean includesDebugInfo() {
+        return this.debug_info;
+    }
+
+    /**
+     * Gets if method code is read and decompiled under this profile.
+     */
+    public boolean includesCode() {
+        return this.code;
+    }
+
+    /**
+     * Gets the profile with the given name, or null if there is none.
+     */
+    @Nullable
+    public static AttributeProfile fromName(String name) {
+        for (AttributeProfile profile : values()) {
+            if (profile.name.equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+}
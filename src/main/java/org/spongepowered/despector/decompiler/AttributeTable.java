@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A table of the attribute handlers for one location in a class file. The
+ * handlers are keyed by the identity of the interned attribute name so
+ * lookups must use a name which has been interned, such as one from
+ * {@link org.spongepowered.despector.decompiler.loader.ClassConstantPool#getInternedUtf8(int)}.
+ *
+ * <p>Handlers should be registered before the table is used for loading as
+ * the table is not safe for concurrent modification.</p>
+ *
+ * @param <C> The context attributes are read into
+ */
+public class AttributeTable<C> {
+
+    private final String location;
+    private final Map<String, AttributeHandler<C>> handlers = new IdentityHashMap<>();
+
+    public AttributeTable(String location) {
+        this.location = checkNotNull(location, "location");
+    }
+
+    /**
+     * Gets the location of the attributes in this table, for example
+     * {@code method}.
+     */
+    public String getLocation() {
+        return this.location;
+    }
+
+    /**
+     * Registers the handler for the attribute with the given name, replacing
+     * any existing handler.
+     */
+    public AttributeTable<C> register(String name, AttributeHandler<C> handler) {
+        this.handlers.put(checkNotNull(name, "name").intern(), checkNotNull(handler, "handler"));
+        return this;
+    }
+
+    /**
+     * Registers the attribute with the given name as known but skipped.
+     */
+    public AttributeTable<C> skip(String name) {
+        return register(name, AttributeHandler.skip());
+    }
+
+    /**
+     * Gets the handler for the attribute with the given interned name, or
+     * null if the attribute is unknown.
+     */
+    @Nullable
+    public AttributeHandler<C> get(String interned_name) {
+        return this.handlers.get(interned_name);
+    }
+
+    public int size() {
+        return this.handlers.size();
+    }
+
+}
@@ -24,6 +24,9 @@
  */
 package org.spongepowered.despector.decompiler;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.DespectorEngine;
 import org.spongepowered.despector.Language;
 import org.spongepowered.despector.ast.AccessModifier;
 import org.spongepowered.despector.ast.Annotation;
@@ -37,6 +40,7 @@ import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.GenericClassTypeSignature;
 import org.spongepowered.despector.ast.generic.MethodSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
+import org.spongepowered.despector.ast.stmt.StatementBlock;
 import org.spongepowered.despector.ast.type.AnnotationEntry;
 import org.spongepowered.despector.ast.type.ClassEntry;
 import org.spongepowered.despector.ast.type.EnumEntry;
@@ -44,13 +48,15 @@ import org.spongepowered.despector.ast.type.FieldEntry;
 import org.spongepowered.despector.ast.type.InterfaceEntry;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
-import org.spongepowered.despector.config.LibraryConfiguration;
 import org.spongepowered.despector.decompiler.error.SourceFormatException;
 import org.spongepowered.despector.decompiler.loader.BytecodeTranslator;
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool;
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool.Entry;
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool.MethodHandleEntry;
 import org.spongepowered.despector.decompiler.method.PartialMethod.TryCatchRegion;
+import org.spongepowered.despector.parallel.DecompileStats;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
 import org.spongepowered.despector.parallel.MethodDecompileTask;
 import org.spongepowered.despector.parallel.Scheduler;
 import org.spongepowered.despector.parallel.Timing;
@@ -61,9 +67,14 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 /**
  * A language decompiler.
@@ -94,15 +105,42 @@ public class BaseDecompiler implements Decompiler {
     private final BytecodeTranslator bytecode = new BytecodeTranslator();
     private final Language lang;
 
-    private Scheduler<MethodDecompileTask> scheduler;
+    private final DespectorEngine engine;
+    private final Scheduler<MethodDecompileTask> scheduler;
+    private final EnumMap<AttributeProfile, Attributes> attributes = new EnumMap<>(AttributeProfile.class);
 
     public BaseDecompiler(Language lang) {
+        this(lang, DespectorEngine.global());
+    }
+
+    /**
+     * Creates a new decompiler for the given language owned by the given
+     * engine.
+     */
+    public BaseDecompiler(Language lang, DespectorEngine engine) {
         this.lang = lang;
-        if (LibraryConfiguration.parallel) {
-            this.scheduler = new Scheduler<>(Runtime.getRuntime().availableProcessors());
+        this.engine = checkNotNull(engine, "engine");
+        this.scheduler = new Scheduler<>(engine.getWorkerCount(), engine.getWorkerPool());
+        for (AttributeProfile profile : AttributeProfile.values()) {
+            this.attributes.put(profile, createAttributes(profile));
         }
     }
 
+    /**
+     * Gets the engine which owns this decompiler.
+     */
+    public DespectorEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Gets the attribute handlers used when loading under the given profile.
+     * Additional handlers may be registered before decompiling.
+     */
+    public Attributes getAttributes(AttributeProfile profile) {
+        return this.attributes.get(checkNotNull(profile, "profile"));
+    }
+
     @Override
     public boolean isValid(String name) {
         return name.endsWith(".class");
@@ -110,8 +148,81 @@ public class BaseDecompiler implements Decompiler {
 
     @Override
     public TypeEntry decompile(InputStream input, SourceSet set) throws IOException {
-        DataInputStream data = (input instanceof DataInputStream) ? (DataInputStream) input : new DataInputStream(input);
         long decompile_start = System.nanoTime();
+        MethodDecompileTask task = load(input, set, false, true);
+        if (task == null) {
+            return null;
+        }
+        TypeEntry entry = task.getEntry();
+        if (this.engine.isLazy()) {
+            task.defer();
+            set.add(entry);
+        } else if (this.engine.isParallel()) {
+            this.scheduler.add(task);
+        } else {
+            long method_decompile_start = System.nanoTime();
+            task.run();
+            set.add(entry);
+            long method_decompile_time = System.nanoTime() - method_decompile_start;
+            Timing.time_decompiling_methods += method_decompile_time;
+        }
+        long decompile_time = System.nanoTime() - decompile_start;
+        Timing.time_decompiling += decompile_time;
+        return entry;
+    }
+
+    @Override
+    public TypeEntry decompileStub(InputStream input, SourceSet set) throws IOException {
+        TypeEntry entry = load(input, set, true, false).getEntry();
+        entry.setStub(true);
+        return entry;
+    }
+
+    @Override
+    public void decompileBodies(InputStream input, TypeEntry stub) throws IOException {
+        MethodDecompileTask task = load(input, stub.getSource(), false, false);
+        long method_decompile_start = System.nanoTime();
+        task.run();
+        long method_decompile_time = System.nanoTime() - method_decompile_start;
+        Timing.time_decompiling_methods += method_decompile_time;
+
+        TypeEntry full = task.getEntry();
+        if (!stub.getName().equals(full.getName())) {
+            throw new IllegalStateException("Class data for " + stub.getName() + " contained " + full.getName());
+        }
+        for (MethodEntry mth : full.getMethods()) {
+            copyBody(mth, stub.getMethod(mth.getName(), mth.getDescription()));
+        }
+        for (MethodEntry mth : full.getStaticMethods()) {
+            copyBody(mth, stub.getStaticMethod(mth.getName(), mth.getDescription()));
+        }
+        if (stub instanceof EnumEntry && full instanceof EnumEntry) {
+            List<String> constants = ((EnumEntry) stub).getEnumConstants();
+            constants.clear();
+            constants.addAll(((EnumEntry) full).getEnumConstants());
+        }
+        stub.setStub(false);
+    }
+
+    private static void copyBody(MethodEntry from, MethodEntry to) {
+        if (to == null) {
+            return;
+        }
+        to.setLocals(from.getLocals());
+        to.setIR(from.getIR());
+        to.setInstructions(from.getInstructions());
+    }
+
+    /**
+     * Reads the class file from the given stream into a new type entry. If
+     * stub is set then method bodies are skipped and the returned task will
+     * have nothing to decompile. If filtered is set then the filter of the
+     * engine is applied and null is returned for an excluded type.
+     */
+    @Nullable
+    private MethodDecompileTask load(InputStream input, SourceSet set, boolean stub, boolean filtered) throws IOException {
+        DataInputStream data = (input instanceof DataInputStream) ? (DataInputStream) input : new DataInputStream(input);
+        long load_start = System.nanoTime();
         int magic = data.readInt();
         if (magic != 0xCAFEBABE) {
             throw new SourceFormatException("Not a java class file");
@@ -128,8 +239,12 @@ public class BaseDecompiler implements Decompiler {
         int access_flags = data.readUnsignedShort();
 
         String name = pool.getClass(data.readUnsignedShort()).name;
-        if (!LibraryConfiguration.quiet) {
-            System.out.println("Decompiling class " + name);
+        DecompilerFilter filter = filtered ? this.engine.getFilter() : null;
+        if (filter != null && !filter.includesType(name)) {
+            return null;
+        }
+        if (!this.engine.isQuiet() && !stub) {
+            this.engine.getDiagnostics().report(Level.INFO, Diagnostics.KIND_PROGRESS, "Decompiling class " + name);
         }
         int super_index = data.readUnsignedShort();
         String supername = super_index != 0 ? "L" + pool.getClass(super_index).name + ";" : "Ljava/lang/Object;";
@@ -141,7 +256,7 @@ public class BaseDecompiler implements Decompiler {
         }
 
         Language actual_lang = Language.JAVA;
-        if (LibraryConfiguration.force_lang && this.lang != Language.ANY) {
+        if (this.engine.isForceLang() && this.lang != Language.ANY) {
             actual_lang = this.lang;
         }
         TypeEntry entry = null;
@@ -161,6 +276,10 @@ public class BaseDecompiler implements Decompiler {
         entry.setAbstract((access_flags & ACC_ABSTRACT) != 0);
         entry.getInterfaces().addAll(interfaces);
 
+        AttributeProfile profile = this.engine.getAttributeProfile();
+        Attributes attributes = this.attributes.get(profile);
+        AttributeContext ctx = new AttributeContext(set, entry, profile, actual_lang, stub);
+
         int field_count = data.readUnsignedShort();
         for (int i = 0; i < field_count; i++) {
             int field_access = data.readUnsignedShort();
@@ -183,37 +302,8 @@ public class BaseDecompiler implements Decompiler {
             field.setType(ClassTypeSignature.of(field_desc));
             entry.addField(field);
 
-            int attribute_count = data.readUnsignedShort();
-            for (int a = 0; a < attribute_count; a++) {
-                String attribute_name = pool.getUtf8(data.readUnsignedShort());
-                int length = data.readInt();
-                if ("ConstantValue".equals(attribute_name)) {
-                    /* int constant_value_index = */ data.readUnsignedShort();
-                } else if ("Synthetic".equals(attribute_name)) {
-                    field.setSynthetic(true);
-                } else if ("Signature".equals(attribute_name)) {
-                    field.setType(SignatureParser.parseFieldTypeSignature(pool.getUtf8(data.readUnsignedShort())));
-                } else if ("Deprecated".equals(attribute_name)) {
-                    field.setDeprecated(true);
-                } else if ("RuntimeVisibleAnnotations".equals(attribute_name)) {
-                    int annotation_count = data.readUnsignedShort();
-                    for (int j = 0; j < annotation_count; j++) {
-                        Annotation anno = readAnnotation(data, pool, set);
-                        field.addAnnotation(anno);
-                        anno.getType().setRuntimeVisible(true);
-                    }
-                } else if ("RuntimeInvisibleAnnotations".equals(attribute_name)) {
-                    int annotation_count = data.readUnsignedShort();
-                    for (int j = 0; j < annotation_count; j++) {
-                        Annotation anno = readAnnotation(data, pool, set);
-                        field.addAnnotation(anno);
-                        anno.getType().setRuntimeVisible(false);
-                    }
-                } else {
-                    System.err.println("Skipping unknown field attribute: " + attribute_name);
-                    data.skipBytes(length);
-                }
-            }
+            ctx.field = field;
+            readAttributes(attributes.field, ctx, data, pool);
         }
         List<UnfinishedMethod> unfinished_methods = new ArrayList<>();
         int method_count = data.readUnsignedShort();
@@ -244,219 +334,31 @@ public class BaseDecompiler implements Decompiler {
             Locals locals = new Locals(method);
             method.setLocals(locals);
 
-            List<String> checked_exceptions = null;
             UnfinishedMethod unfinished = new UnfinishedMethod();
             unfinished_methods.add(unfinished);
             unfinished.mth = method;
-            String method_sig = null;
-            int attribute_count = data.readUnsignedShort();
-            for (int a = 0; a < attribute_count; a++) {
-                String attribute_name = pool.getUtf8(data.readUnsignedShort());
-                int length = data.readInt();
-                if ("Code".equals(attribute_name)) {
-                    /* int max_stack = */ data.readUnsignedShort();
-                    /* int max_locals = */ data.readUnsignedShort();
-                    int code_length = data.readInt();
-                    byte[] code = new byte[code_length];
-                    int offs = 0;
-                    while (code_length > 0) {
-                        int len = data.read(code, offs, code_length);
-                        code_length -= len;
-                        offs += len;
-                    }
-                    List<TryCatchRegion> catch_regions = new ArrayList<>();
-                    int exception_table_length = data.readUnsignedShort();
-                    for (int j = 0; j < exception_table_length; j++) {
-                        int start_pc = data.readUnsignedShort();
-                        int end_pc = data.readUnsignedShort();
-                        int catch_pc = data.readUnsignedShort();
-                        int ex_index = data.readUnsignedShort();
-                        String ex = ex_index != 0 ? pool.getClass(ex_index).name : "";
-                        catch_regions.add(new TryCatchRegion(start_pc, end_pc, catch_pc, ex));
-                    }
-                    unfinished.code = code;
-                    unfinished.catch_regions = catch_regions;
-                    int code_attribute_count = data.readUnsignedShort();
-                    for (int ca = 0; ca < code_attribute_count; ca++) {
-                        String code_attribute_name = pool.getUtf8(data.readUnsignedShort());
-                        int clength = data.readInt();
-                        if ("LocalVariableTable".equals(code_attribute_name)) {
-                            int lvt_length = data.readUnsignedShort();
-                            for (int j = 0; j < lvt_length; j++) {
-                                int start_pc = data.readUnsignedShort();
-                                int local_length = data.readUnsignedShort();
-                                String local_name = pool.getUtf8(data.readUnsignedShort());
-                                String local_desc = pool.getUtf8(data.readUnsignedShort());
-                                int index = data.readUnsignedShort();
-                                Local loc = locals.getLocal(index);
-                                loc.addLVT(start_pc, local_length, local_name, local_desc);
-                            }
-                        } else if ("LineNumberTable".equals(code_attribute_name)) {
-                            data.skipBytes(clength);
-                        } else if ("LocalVariableTypeTable".equals(code_attribute_name)) {
-                            int lvt_length = data.readUnsignedShort();
-                            for (int j = 0; j < lvt_length; j++) {
-                                int start_pc = data.readUnsignedShort();
-                                /* int local_length = */ data.readUnsignedShort();
-                                /* String local_name = */ pool.getUtf8(data.readUnsignedShort());
-                                String local_signature = pool.getUtf8(data.readUnsignedShort());
-                                int index = data.readUnsignedShort();
-                                Local loc = locals.getLocal(index);
-                                loc.getLVT(start_pc).setSignature(local_signature);
-                            }
-                        } else if ("StackMapTable".equals(code_attribute_name)) {
-                            data.skipBytes(clength);
-                        } else {
-                            System.err.println("Skipping unknown code attribute: " + code_attribute_name);
-                            data.skipBytes(clength);
-                        }
-                    }
-                } else if ("Exceptions".equals(attribute_name)) {
-                    checked_exceptions = new ArrayList<>();
-                    int exception_count = data.readUnsignedShort();
-                    for (int j = 0; j < exception_count; j++) {
-                        checked_exceptions.add(pool.getClass(data.readUnsignedShort()).name);
-                    }
-                } else if ("Synthetic".equals(attribute_name)) {
-                    method.setSynthetic(true);
-                } else if ("Signature".equals(attribute_name)) {
-                    method_sig = pool.getUtf8(data.readUnsignedShort());
-                } else if ("Deprecated".equals(attribute_name)) {
-                    method.setDeprecated(true);
-                } else if ("RuntimeVisibleAnnotations".equals(attribute_name)) {
-                    int annotation_count = data.readUnsignedShort();
-                    for (int j = 0; j < annotation_count; j++) {
-                        Annotation anno = readAnnotation(data, pool, set);
-                        method.addAnnotation(anno);
-                        anno.getType().setRuntimeVisible(true);
-                    }
-                } else if ("RuntimeInvisibleAnnotations".equals(attribute_name)) {
-                    int annotation_count = data.readUnsignedShort();
-                    for (int j = 0; j < annotation_count; j++) {
-                        Annotation anno = readAnnotation(data, pool, set);
-                        method.addAnnotation(anno);
-                        anno.getType().setRuntimeVisible(false);
-                    }
-                } else if ("RuntimeVisibleParameterAnnotations".equals(attribute_name)) {
-                    if (unfinished.parameter_annotations == null) {
-                        unfinished.parameter_annotations = new HashMap<>();
-                    }
-                    int num_params = data.readUnsignedByte();
-                    int offs = method.isStatic() ? 0 : 1;
-                    for (int k = offs; k < num_params + offs; k++) {
-                        List<Annotation> annos = unfinished.parameter_annotations.get(k);
-                        if (annos == null) {
-                            annos = new ArrayList<>();
-                            unfinished.parameter_annotations.put(k, annos);
-                        }
-                        int annotation_count = data.readUnsignedShort();
-                        for (int j = 0; j < annotation_count; j++) {
-                            Annotation anno = readAnnotation(data, pool, set);
-                            annos.add(anno);
-                            anno.getType().setRuntimeVisible(true);
-                        }
-                    }
-                } else if ("RuntimeInvisibleParameterAnnotations".equals(attribute_name)) {
-                    if (unfinished.parameter_annotations == null) {
-                        unfinished.parameter_annotations = new HashMap<>();
-                    }
-                    int num_params = data.readUnsignedByte();
-                    int offs = method.isStatic() ? 0 : 1;
-                    for (int k = offs; k < num_params + offs; k++) {
-                        List<Annotation> annos = unfinished.parameter_annotations.get(k);
-                        if (annos == null) {
-                            annos = new ArrayList<>();
-                            unfinished.parameter_annotations.put(k, annos);
-                        }
-                        int annotation_count = data.readUnsignedShort();
-                        for (int j = 0; j < annotation_count; j++) {
-                            Annotation anno = readAnnotation(data, pool, set);
-                            annos.add(anno);
-                            anno.getType().setRuntimeVisible(false);
-                        }
-                    }
-                } else if ("AnnotationDefault".equals(attribute_name)) {
-                    Object val = readElementValue(data, pool, set);
-                    method.setAnnotationValue(val);
-                } else {
-                    System.err.println("Skipping unknown method attribute: " + attribute_name);
-                    data.skipBytes(length);
-                }
-            }
-            if (method_sig != null) {
-                method.setMethodSignature(SignatureParser.parseMethod(method_sig));
+            ctx.method = method;
+            ctx.locals = locals;
+            ctx.unfinished = unfinished;
+            ctx.excluded = filter != null && !filter.includesMethod(name, method_name);
+            ctx.method_sig = null;
+            ctx.checked_exceptions = null;
+            readAttributes(attributes.method, ctx, data, pool);
+            if (ctx.method_sig != null) {
+                method.setMethodSignature(SignatureParser.parseMethod(ctx.method_sig));
             } else {
                 MethodSignature sig = SignatureParser.parseMethod(method_desc);
                 method.setMethodSignature(sig);
-                if (checked_exceptions != null && !checked_exceptions.isEmpty()) {
-                    for (String ex : checked_exceptions) {
+                if (ctx.checked_exceptions != null && !ctx.checked_exceptions.isEmpty()) {
+                    for (String ex : ctx.checked_exceptions) {
                         sig.getThrowsSignature().add(ClassTypeSignature.of("L" + ex + ";"));
                     }
                 }
             }
         }
         List<BootstrapMethod> bootstrap_methods = new ArrayList<>();
-        int class_attribute_count = data.readUnsignedShort();
-        for (int i = 0; i < class_attribute_count; i++) {
-            String attribute_name = pool.getUtf8(data.readUnsignedShort());
-            int length = data.readInt();
-            if ("InnerClasses".equals(attribute_name)) {
-                int number_of_classes = data.readUnsignedShort();
-                for (int j = 0; j < number_of_classes; j++) {
-                    String inner_cls = pool.getClass(data.readUnsignedShort()).name;
-                    int outer_index = data.readUnsignedShort();
-                    String outer_cls = outer_index == 0 ? null : pool.getClass(outer_index).name;
-                    int name_index = data.readUnsignedShort();
-                    String inner_name = name_index == 0 ? null : pool.getUtf8(name_index);
-                    int acc = data.readUnsignedShort();
-                    entry.addInnerClass(inner_cls, inner_name, outer_cls, acc);
-                }
-            } else if ("EnclosingMethod".equals(attribute_name)) {
-                data.skipBytes(length);
-            } else if ("Synthetic".equals(attribute_name)) {
-                entry.setSynthetic(true);
-            } else if ("Signature".equals(attribute_name)) {
-                entry.setSignature(SignatureParser.parse(pool.getUtf8(data.readUnsignedShort())));
-            } else if ("SourceFile".equals(attribute_name)) {
-                data.skipBytes(length);
-            } else if ("SourceDebugExtension".equals(attribute_name)) {
-                data.skipBytes(length);
-            } else if ("Deprecated".equals(attribute_name)) {
-                entry.setDeprecated(true);
-            } else if ("RuntimeVisibleAnnotations".equals(attribute_name)) {
-                int annotation_count = data.readUnsignedShort();
-                for (int j = 0; j < annotation_count; j++) {
-                    Annotation anno = readAnnotation(data, pool, set);
-                    if (this.lang == Language.ANY && anno.getType().getName().startsWith("kotlin")) {
-                        actual_lang = Language.KOTLIN;
-                    }
-                    entry.addAnnotation(anno);
-                    anno.getType().setRuntimeVisible(true);
-                }
-            } else if ("RuntimeInvisibleAnnotations".equals(attribute_name)) {
-                int annotation_count = data.readUnsignedShort();
-                for (int j = 0; j < annotation_count; j++) {
-                    Annotation anno = readAnnotation(data, pool, set);
-                    entry.addAnnotation(anno);
-                    anno.getType().setRuntimeVisible(false);
-                }
-            } else if ("BootstrapMethods".equals(attribute_name)) {
-                int bsm_count = data.readUnsignedShort();
-                for (int j = 0; j < bsm_count; j++) {
-                    BootstrapMethod bsm = new BootstrapMethod();
-                    bootstrap_methods.add(bsm);
-                    bsm.handle = pool.getMethodHandle(data.readUnsignedShort());
-                    int arg_count = data.readUnsignedShort();
-                    bsm.arguments = new Entry[arg_count];
-                    for (int k = 0; k < arg_count; k++) {
-                        bsm.arguments[k] = pool.getEntry(data.readUnsignedShort());
-                    }
-                }
-            } else {
-                System.err.println("Skipping unknown class attribute: " + attribute_name);
-                data.skipBytes(length);
-            }
-        }
+        ctx.bootstrap_methods = bootstrap_methods;
+        readAttributes(attributes.type, ctx, data, pool);
 
         if (entry.getSignature() == null) {
             ClassSignature sig = new ClassSignature();
@@ -467,30 +369,22 @@ public class BaseDecompiler implements Decompiler {
             entry.setSignature(sig);
         }
 
-        long classloading_time = System.nanoTime() - decompile_start;
+        long classloading_time = System.nanoTime() - load_start;
         Timing.time_loading_classes += classloading_time;
-
-        if (!LibraryConfiguration.force_lang) {
-            entry.setLanguage(actual_lang);
+        DecompileStats stats = this.engine.getStats();
+        if (stats != null && !stub) {
+            stats.recordClass(classloading_time);
         }
 
-        MethodDecompileTask task = new MethodDecompileTask(entry, pool, unfinished_methods, this.bytecode, bootstrap_methods);
-        if (LibraryConfiguration.parallel) {
-            this.scheduler.add(task);
-        } else {
-            long method_decompile_start = System.nanoTime();
-            task.run();
-            set.add(entry);
-            long method_decompile_time = System.nanoTime() - method_decompile_start;
-            Timing.time_decompiling_methods += method_decompile_time;
+        if (!this.engine.isForceLang()) {
+            entry.setLanguage(ctx.actual_lang);
         }
-        long decompile_time = System.nanoTime() - decompile_start;
-        Timing.time_decompiling += decompile_time;
-        return entry;
+
+        return new MethodDecompileTask(this.engine, entry, pool, unfinished_methods, this.bytecode, bootstrap_methods);
     }
 
     public void flushTasks() {
-        if (LibraryConfiguration.parallel) {
+        if (this.engine.isParallel()) {
             long start = System.nanoTime();
             this.scheduler.execute();
             for (MethodDecompileTask task : this.scheduler.getTasks()) {
@@ -502,7 +396,225 @@ public class BaseDecompiler implements Decompiler {
         }
     }
 
-    private Annotation readAnnotation(DataInputStream data, ClassConstantPool pool, SourceSet set) throws IOException {
+    private Attributes createAttributes(AttributeProfile profile) {
+        Attributes attr = new Attributes();
+        attr.field.skip("ConstantValue")
+                .register("Synthetic", (ctx, data, pool, length) -> ctx.field.setSynthetic(true))
+                .register("Signature", (ctx, data, pool, length) -> ctx.field
+                        .setType(SignatureParser.parseFieldTypeSignature(pool.getUtf8(data.readUnsignedShort()))))
+                .register("Deprecated", (ctx, data, pool, length) -> ctx.field.setDeprecated(true));
+        attr.method.register("Code", this::readCode)
+                .register("Exceptions", BaseDecompiler::readExceptions)
+                .register("Synthetic", (ctx, data, pool, length) -> ctx.method.setSynthetic(true))
+                .register("Signature", (ctx, data, pool, length) -> ctx.method_sig = pool.getUtf8(data.readUnsignedShort()))
+                .register("Deprecated", (ctx, data, pool, length) -> ctx.method.setDeprecated(true));
+        attr.code.skip("LineNumberTable")
+                .skip("StackMapTable");
+        attr.type.register("InnerClasses", BaseDecompiler::readInnerClasses)
+                .skip("EnclosingMethod")
+                .register("Synthetic", (ctx, data, pool, length) -> ctx.entry.setSynthetic(true))
+                .register("Signature", (ctx, data, pool, length) ->
+                        ctx.entry.setSignature(SignatureParser.parse(pool.getUtf8(data.readUnsignedShort()))))
+                .skip("SourceFile")
+                .skip("SourceDebugExtension")
+                .register("Deprecated", (ctx, data, pool, length) -> ctx.entry.setDeprecated(true))
+                .register("BootstrapMethods", BaseDecompiler::readBootstrapMethods);
+        if (profile.includesAnnotations()) {
+            attr.field.register("RuntimeVisibleAnnotations", (ctx, data, pool, length) ->
+                    readAnnotations(ctx, data, pool, true, ctx.field::addAnnotation))
+                    .register("RuntimeInvisibleAnnotations", (ctx, data, pool, length) ->
+                            readAnnotations(ctx, data, pool, false, ctx.field::addAnnotation));
+            attr.method.register("RuntimeVisibleAnnotations", (ctx, data, pool, length) ->
+                    readAnnotations(ctx, data, pool, true, ctx.method::addAnnotation))
+                    .register("RuntimeInvisibleAnnotations", (ctx, data, pool, length) ->
+                            readAnnotations(ctx, data, pool, false, ctx.method::addAnnotation))
+                    .register("RuntimeVisibleParameterAnnotations", (ctx, data, pool, length) -> readParameterAnnotations(ctx, data, pool, true))
+                    .register("RuntimeInvisibleParameterAnnotations", (ctx, data, pool, length) -> readParameterAnnotations(ctx, data, pool, false))
+                    .register("AnnotationDefault", (ctx, data, pool, length) -> ctx.method.setAnnotationValue(readElementValue(data, pool, ctx.set)));
+            attr.type.register("RuntimeVisibleAnnotations", this::readTypeAnnotations)
+                    .register("RuntimeInvisibleAnnotations", (ctx, data, pool, length) ->
+                            readAnnotations(ctx, data, pool, false, ctx.entry::addAnnotation));
+        } else {
+            attr.field.skip("RuntimeVisibleAnnotations")
+                    .skip("RuntimeInvisibleAnnotations");
+            attr.method.skip("RuntimeVisibleAnnotations")
+                    .skip("RuntimeInvisibleAnnotations")
+                    .skip("RuntimeVisibleParameterAnnotations")
+                    .skip("RuntimeInvisibleParameterAnnotations")
+                    .skip("AnnotationDefault");
+            attr.type.skip("RuntimeVisibleAnnotations")
+                    .skip("RuntimeInvisibleAnnotations");
+        }
+        if (profile.includesDebugInfo()) {
+            attr.code.register("LocalVariableTable", BaseDecompiler::readLocalVariables)
+                    .register("LocalVariableTypeTable", BaseDecompiler::readLocalVariableTypes);
+        } else {
+            attr.code.skip("LocalVariableTable")
+                    .skip("LocalVariableTypeTable");
+        }
+        return attr;
+    }
+
+    /**
+     * Reads a table of attributes, dispatching each to its handler in the
+     * given table and skipping unknown attributes.
+     */
+    private void readAttributes(AttributeTable<AttributeContext> table, AttributeContext ctx, DataInputStream data, ClassConstantPool pool)
+            throws IOException {
+        int attribute_count = data.readUnsignedShort();
+        for (int a = 0; a < attribute_count; a++) {
+            String attribute_name = pool.getInternedUtf8(data.readUnsignedShort());
+            int length = data.readInt();
+            AttributeHandler<AttributeContext> handler = table.get(attribute_name);
+            if (handler != null) {
+                handler.read(ctx, data, pool, length);
+            } else {
+                this.engine.getDiagnostics().report(Level.WARNING, Diagnostics.KIND_UNKNOWN_ATTRIBUTE,
+                        "Skipping unknown " + table.getLocation() + " attribute: " + attribute_name);
+                data.skipBytes(length);
+            }
+        }
+    }
+
+    private void readCode(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        if (ctx.stub) {
+            data.skipBytes(length);
+            return;
+        }
+        if (!ctx.profile.includesCode()) {
+            data.skipBytes(length);
+            ctx.locals.bakeInstances(new MethodSignature(), Collections.emptyList());
+            ctx.method.setInstructions(new StatementBlock(StatementBlock.Type.METHOD));
+            return;
+        }
+        /* int max_stack = */ data.readUnsignedShort();
+        /* int max_locals = */ data.readUnsignedShort();
+        int code_length = data.readInt();
+        byte[] code = new byte[code_length];
+        int offs = 0;
+        while (code_length > 0) {
+            int len = data.read(code, offs, code_length);
+            code_length -= len;
+            offs += len;
+        }
+        List<TryCatchRegion> catch_regions = new ArrayList<>();
+        int exception_table_length = data.readUnsignedShort();
+        for (int j = 0; j < exception_table_length; j++) {
+            int start_pc = data.readUnsignedShort();
+            int end_pc = data.readUnsignedShort();
+            int catch_pc = data.readUnsignedShort();
+            int ex_index = data.readUnsignedShort();
+            String ex = ex_index != 0 ? pool.getClass(ex_index).name : "";
+            catch_regions.add(new TryCatchRegion(start_pc, end_pc, catch_pc, ex));
+        }
+        if (ctx.excluded) {
+            ctx.unfinished.excluded = true;
+        } else {
+            ctx.unfinished.code = code;
+            ctx.unfinished.catch_regions = catch_regions;
+        }
+        readAttributes(this.attributes.get(ctx.profile).code, ctx, data, pool);
+    }
+
+    private static void readLocalVariables(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        int lvt_length = data.readUnsignedShort();
+        for (int j = 0; j < lvt_length; j++) {
+            int start_pc = data.readUnsignedShort();
+            int local_length = data.readUnsignedShort();
+            String local_name = pool.getUtf8(data.readUnsignedShort());
+            String local_desc = pool.getUtf8(data.readUnsignedShort());
+            int index = data.readUnsignedShort();
+            Local loc = ctx.locals.getLocal(index);
+            loc.addLVT(start_pc, local_length, local_name, local_desc);
+        }
+    }
+
+    private static void readLocalVariableTypes(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        int lvt_length = data.readUnsignedShort();
+        for (int j = 0; j < lvt_length; j++) {
+            int start_pc = data.readUnsignedShort();
+            /* int local_length = */ data.readUnsignedShort();
+            /* String local_name = */ pool.getUtf8(data.readUnsignedShort());
+            String local_signature = pool.getUtf8(data.readUnsignedShort());
+            int index = data.readUnsignedShort();
+            Local loc = ctx.locals.getLocal(index);
+            loc.getLVT(start_pc).setSignature(local_signature);
+        }
+    }
+
+    private static void readExceptions(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        ctx.checked_exceptions = new ArrayList<>();
+        int exception_count = data.readUnsignedShort();
+        for (int j = 0; j < exception_count; j++) {
+            ctx.checked_exceptions.add(pool.getClass(data.readUnsignedShort()).name);
+        }
+    }
+
+    private static void readInnerClasses(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        int number_of_classes = data.readUnsignedShort();
+        for (int j = 0; j < number_of_classes; j++) {
+            String inner_cls = pool.getClass(data.readUnsignedShort()).name;
+            int outer_index = data.readUnsignedShort();
+            String outer_cls = outer_index == 0 ? null : pool.getClass(outer_index).name;
+            int name_index = data.readUnsignedShort();
+            String inner_name = name_index == 0 ? null : pool.getUtf8(name_index);
+            int acc = data.readUnsignedShort();
+            ctx.entry.addInnerClass(inner_cls, inner_name, outer_cls, acc);
+        }
+    }
+
+    private static void readBootstrapMethods(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        int bsm_count = data.readUnsignedShort();
+        for (int j = 0; j < bsm_count; j++) {
+            BootstrapMethod bsm = new BootstrapMethod();
+            ctx.bootstrap_methods.add(bsm);
+            bsm.handle = pool.getMethodHandle(data.readUnsignedShort());
+            int arg_count = data.readUnsignedShort();
+            bsm.arguments = new Entry[arg_count];
+            for (int k = 0; k < arg_count; k++) {
+                bsm.arguments[k] = pool.getEntry(data.readUnsignedShort());
+            }
+        }
+    }
+
+    private static void readAnnotations(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, boolean visible,
+            Consumer<Annotation> target) throws IOException {
+        int annotation_count = data.readUnsignedShort();
+        for (int j = 0; j < annotation_count; j++) {
+            Annotation anno = readAnnotation(data, pool, ctx.set);
+            target.accept(anno);
+            anno.getType().setRuntimeVisible(visible);
+        }
+    }
+
+    private void readTypeAnnotations(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, int length) throws IOException {
+        readAnnotations(ctx, data, pool, true, (anno) -> {
+            if (this.lang == Language.ANY && anno.getType().getName().startsWith("kotlin")) {
+                ctx.actual_lang = Language.KOTLIN;
+            }
+            ctx.entry.addAnnotation(anno);
+        });
+    }
+
+    private static void readParameterAnnotations(AttributeContext ctx, DataInputStream data, ClassConstantPool pool, boolean visible)
+            throws IOException {
+        UnfinishedMethod unfinished = ctx.unfinished;
+        if (unfinished.parameter_annotations == null) {
+            unfinished.parameter_annotations = new HashMap<>();
+        }
+        int num_params = data.readUnsignedByte();
+        int offs = ctx.method.isStatic() ? 0 : 1;
+        for (int k = offs; k < num_params + offs; k++) {
+            List<Annotation> annos = unfinished.parameter_annotations.get(k);
+            if (annos == null) {
+                annos = new ArrayList<>();
+                unfinished.parameter_annotations.put(k, annos);
+            }
+            readAnnotations(ctx, data, pool, visible, annos::add);
+        }
+    }
+
+    private static Annotation readAnnotation(DataInputStream data, ClassConstantPool pool, SourceSet set) throws IOException {
         String anno_type_name = pool.getUtf8(data.readUnsignedShort());
         AnnotationType anno_type = set.getAnnotationType(TypeHelper.descToType(anno_type_name));
         Annotation anno = new Annotation(anno_type);
@@ -514,7 +626,7 @@ public class BaseDecompiler implements Decompiler {
         return anno;
     }
 
-    private Object readElementValue(DataInputStream data, ClassConstantPool pool, SourceSet set) throws IOException {
+    private static Object readElementValue(DataInputStream data, ClassConstantPool pool, SourceSet set) throws IOException {
         char element_type_tag = (char) data.readUnsignedByte();
         if (element_type_tag == 's') {
             String value = pool.getUtf8(data.readUnsignedShort());
@@ -571,12 +683,58 @@ public class BaseDecompiler implements Decompiler {
         public Entry[] arguments;
     }
 
+    /**
+     * The attribute tables for each location in a class file.
+     */
+    public static class Attributes {
+
+        public final AttributeTable<AttributeContext> field = new AttributeTable<>("field");
+        public final AttributeTable<AttributeContext> method = new AttributeTable<>("method");
+        public final AttributeTable<AttributeContext> code = new AttributeTable<>("code");
+        public final AttributeTable<AttributeContext> type = new AttributeTable<>("class");
+
+        Attributes() {
+        }
+    }
+
+    /**
+     * The state of the type being loaded which attributes are read into. The
+     * member fields are set to the member whose attributes are being read.
+     */
+    public static class AttributeContext {
+
+        public final SourceSet set;
+        public final TypeEntry entry;
+        public final AttributeProfile profile;
+        public final boolean stub;
+        public Language actual_lang;
+        public List<BootstrapMethod> bootstrap_methods;
+
+        public FieldEntry field;
+
+        public MethodEntry method;
+        public Locals locals;
+        public UnfinishedMethod unfinished;
+        public boolean excluded;
+        public String method_sig;
+        public List<String> checked_exceptions;
+
+        AttributeContext(SourceSet set, TypeEntry entry, AttributeProfile profile, Language actual_lang, boolean stub) {
+            this.set = set;
+            this.entry = entry;
+            this.profile = profile;
+            this.actual_lang = actual_lang;
+            this.stub = stub;
+        }
+    }
+
     public static class UnfinishedMethod {
 
         public MethodEntry mth;
         public byte[] code;
         public List<TryCatchRegion> catch_regions;
         public Map<Integer, List<Annotation>> parameter_annotations;
+        public boolean excluded;
 
         UnfinishedMethod() {
         }
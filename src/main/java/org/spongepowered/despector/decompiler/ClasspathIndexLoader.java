@@ -0,0 +1,423 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link SourceSet.Loader} resolving types from a classpath of jars. The
+ * central directory of each jar is read once into an index of type name to
+ * entry location, class data is then read directly from the memory mapped
+ * jar without scanning.
+ *
+ * <p>If a cache directory is given the index of each jar is stored there and
+ * reused while the size and modification time of the jar are unchanged.</p>
+ */
+public class ClasspathIndexLoader implements SourceSet.Loader, AutoCloseable {
+
+    private static final int CACHE_MAGIC = 0x44534349;
+    private static final int CACHE_VERSION = 1;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int ZIP64_EXTRA = 0x0001;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    /**
+     * Expands the given classpath entries into a list of jars. Directories
+     * are expanded to the jars they directly contain.
+     */
+    public static List<Path> expand(List<Path> classpath) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (Path path : classpath) {
+            if (Files.isDirectory(path)) {
+                List<Path> children = new ArrayList<>();
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "*.jar")) {
+                    for (Path jar : dir) {
+                        children.add(jar);
+                    }
+                }
+                Collections.sort(children);
+                jars.addAll(children);
+            } else if (Files.exists(path)) {
+                jars.add(path);
+            } else {
+                System.err.println("Unknown classpath entry: " + path.toAbsolutePath());
+            }
+        }
+        return jars;
+    }
+
+    private final List<Jar> jars = new ArrayList<>();
+    private final Map<String, IndexEntry> index = new HashMap<>();
+
+    /**
+     * Creates a new loader over the given jars without caching their index.
+     */
+    public ClasspathIndexLoader(List<Path> jars) throws IOException {
+        this(jars, null);
+    }
+
+    /**
+     * Creates a new loader over the given jars. If a type is present in more
+     * than one jar the first jar takes precedence.
+     */
+    public ClasspathIndexLoader(List<Path> jars, @Nullable Path cache_dir) throws IOException {
+        checkNotNull(jars, "jars");
+        if (cache_dir != null) {
+            Files.createDirectories(cache_dir);
+        }
+        try {
+            for (Path path : jars) {
+                Jar jar = new Jar(path);
+                this.jars.add(jar);
+                List<IndexEntry> entries = null;
+                Path cache = cache_dir == null ? null : cache_dir.resolve(cacheName(path));
+                if (cache != null && Files.exists(cache)) {
+                    entries = readCache(cache, jar);
+                }
+                if (entries == null) {
+                    entries = readCentralDirectory(jar);
+                    if (cache != null) {
+                        writeCache(cache, jar, entries);
+                    }
+                }
+                for (IndexEntry entry : entries) {
+                    this.index.putIfAbsent(entry.name, entry);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the names of all types on the classpath.
+     */
+    public Set<String> getTypeNames() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    /**
+     * Gets if the given type is on the classpath.
+     */
+    public boolean contains(String name) {
+        return this.index.containsKey(name);
+    }
+
+    @Override
+    public InputStream find(String name) {
+        IndexEntry entry = this.index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return new ByteArrayInputStream(read(entry));
+        } catch (IOException e) {
+            System.err.println("Error reading " + name + " from " + entry.jar.path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (Jar jar : this.jars) {
+            try {
+                jar.channel.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static byte[] read(IndexEntry entry) throws IOException {
+        ByteBuffer data = entry.jar.data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int header = (int) entry.offset;
+        if (data.getInt(header) != LOCAL_HEADER) {
+            throw new IOException("Bad local header offset");
+        }
+        int data_start = header + 30 + (data.getShort(header + 26) & 0xFFFF) + (data.getShort(header + 28) & 0xFFFF);
+        data.position(data_start);
+        data.limit(data_start + (int) entry.compressed_size);
+        byte[] result = new byte[(int) entry.size];
+        if (entry.method == METHOD_STORED) {
+            data.get(result);
+            return result;
+        }
+        byte[] compressed = new byte[(int) entry.compressed_size];
+        data.get(compressed);
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < result.length && !inflater.finished()) {
+                int read = inflater.inflate(result, length, result.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != result.length) {
+                throw new IOException("Truncated entry");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    private static List<IndexEntry> readCentralDirectory(Jar jar) throws IOException {
+        ByteBuffer data = jar.data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int end = -1;
+        // the end record is followed by a comment of at most 65535 bytes
+        for (int i = data.limit() - 22; i >= Math.max(0, data.limit() - 22 - 0xFFFF); i--) {
+            if (data.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            throw new IOException("Not a jar file: " + jar.path);
+        }
+        long count = data.getShort(end + 10) & 0xFFFF;
+        long offset = data.getInt(end + 16) & 0xFFFFFFFFL;
+        if (end >= 20 && data.getInt(end - 20) == ZIP64_LOCATOR) {
+            int zip64_end = (int) data.getLong(end - 20 + 8);
+            if (data.getInt(zip64_end) != ZIP64_END_OF_CENTRAL_DIRECTORY) {
+                throw new IOException("Bad zip64 end of central directory: " + jar.path);
+            }
+            count = data.getLong(zip64_end + 32);
+            offset = data.getLong(zip64_end + 48);
+        }
+        List<IndexEntry> entries = new ArrayList<>();
+        int pos = (int) offset;
+        for (long i = 0; i < count; i++) {
+            if (data.getInt(pos) != CENTRAL_HEADER) {
+                throw new IOException("Bad central directory entry: " + jar.path);
+            }
+            int method = data.getShort(pos + 10) & 0xFFFF;
+            long compressed_size = data.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = data.getInt(pos + 24) & 0xFFFFFFFFL;
+            int name_length = data.getShort(pos + 28) & 0xFFFF;
+            int extra_length = data.getShort(pos + 30) & 0xFFFF;
+            int comment_length = data.getShort(pos + 32) & 0xFFFF;
+            long local_offset = data.getInt(pos + 42) & 0xFFFFFFFFL;
+            byte[] name_bytes = new byte[name_length];
+            ByteBuffer name_buf = data.duplicate();
+            name_buf.position(pos + 46);
+            name_buf.get(name_bytes);
+            String name = new String(name_bytes, StandardCharsets.UTF_8);
+
+            if (size == 0xFFFFFFFFL || compressed_size == 0xFFFFFFFFL || local_offset == 0xFFFFFFFFL) {
+                int extra = pos + 46 + name_length;
+                int extra_end = extra + extra_length;
+                while (extra + 4 <= extra_end) {
+                    int id = data.getShort(extra) & 0xFFFF;
+                    int length = data.getShort(extra + 2) & 0xFFFF;
+                    if (id == ZIP64_EXTRA) {
+                        int value = extra + 4;
+                        if (size == 0xFFFFFFFFL) {
+                            size = data.getLong(value);
+                            value += 8;
+                        }
+                        if (compressed_size == 0xFFFFFFFFL) {
+                            compressed_size = data.getLong(value);
+                            value += 8;
+                        }
+                        if (local_offset == 0xFFFFFFFFL) {
+                            local_offset = data.getLong(value);
+                        }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+            pos += 46 + name_length + extra_length + comment_length;
+
+            // versioned entries of multi release jars are shadowed by the base
+            // entries
+            if (!name.endsWith(".class") || name.startsWith("META-INF/")) {
+                continue;
+            }
+            if (method != METHOD_STORED && method != METHOD_DEFLATED) {
+                continue;
+            }
+            if (size > Integer.MAX_VALUE || local_offset > Integer.MAX_VALUE) {
+                throw new IOException("Jar entries beyond 2GB are not supported: " + jar.path);
+            }
+            entries.add(new IndexEntry(jar, name.substring(0, name.length() - 6), method, local_offset, compressed_size, size));
+        }
+        return entries;
+    }
+
+    private static String cacheName(Path jar) {
+        String path = jar.toAbsolutePath().normalize().toString();
+        String file = jar.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return file + "-" + Integer.toHexString(path.hashCode()) + ".idx";
+    }
+
+    private static List<IndexEntry> readCache(Path cache, Jar jar) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+            if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION) {
+                return null;
+            }
+            if (!in.readUTF().equals(jar.path.toAbsolutePath().normalize().toString()) || in.readLong() != jar.size
+                    || in.readLong() != jar.modified) {
+                return null;
+            }
+            int count = in.readInt();
+            List<IndexEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int method = in.readUnsignedByte();
+                long offset = in.readLong();
+                long compressed_size = in.readLong();
+                long size = in.readLong();
+                entries.add(new IndexEntry(jar, name, method, offset, compressed_size, size));
+            }
+            return entries;
+        } catch (IOException e) {
+            // a corrupt cache is rebuilt from the jar
+            return null;
+        }
+    }
+
+    private static void writeCache(Path cache, Jar jar, List<IndexEntry> entries) {
+        try {
+            Path temp = Files.createTempFile(cache.getParent(), cache.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CACHE_MAGIC);
+                out.writeInt(CACHE_VERSION);
+                out.writeUTF(jar.path.toAbsolutePath().normalize().toString());
+                out.writeLong(jar.size);
+                out.writeLong(jar.modified);
+                out.writeInt(entries.size());
+                for (IndexEntry entry : entries) {
+                    out.writeUTF(entry.name);
+                    out.writeByte(entry.method);
+                    out.writeLong(entry.offset);
+                    out.writeLong(entry.compressed_size);
+                    out.writeLong(entry.size);
+                }
+            }
+            // written aside and moved so concurrent runs never read a partial
+            // index
+            Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing classpath index cache " + cache + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * An open, memory mapped jar.
+     */
+    private static class Jar {
+
+        final Path path;
+        final long size;
+        final long modified;
+        final FileChannel channel;
+        final MappedByteBuffer data;
+
+        Jar(Path path) throws IOException {
+            this.path = path;
+            this.modified = Files.getLastModifiedTime(path).toMillis();
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = this.channel.size();
+            if (this.size > Integer.MAX_VALUE) {
+                this.channel.close();
+                throw new IOException("Jars larger than 2GB are not supported: " + path);
+            }
+            this.data = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+        }
+
+    }
+
+    /**
+     * The location of the class data of a single type.
+     */
+    private static class IndexEntry {
+
+        final Jar jar;
+        final String name;
+        final int method;
+        final long offset;
+        final long compressed_size;
+        final long size;
+
+        IndexEntry(Jar jar, String name, int method, long offset, long compressed_size, long size) {
+            this.jar = jar;
+            this.name = name;
+            this.method = method;
+            this.offset = offset;
+            this.compressed_size = compressed_size;
+            this.size = size;
+        }
+
+    }
+
+}
@@ -58,8 +58,25 @@ public interface Decompiler {
     }
 
     /**
-     * Decompiles the class file in the given input stream.
+     * Decompiles the class file in the given input stream. Returns null if
+     * the type is excluded by the filter of the decompiler.
      */
     TypeEntry decompile(InputStream cls_path, SourceSet source) throws IOException;
 
+    /**
+     * Loads only the header and members of the class file in the given input
+     * stream, skipping all method bodies. The returned entry is marked as a
+     * stub and may later be completed with
+     * {@link #decompileBodies(InputStream, TypeEntry)}.
+     */
+    default TypeEntry decompileStub(InputStream cls_path, SourceSet source) throws IOException {
+        return decompile(cls_path, source);
+    }
+
+    /**
+     * Decompiles the method bodies of the class file in the given input stream
+     * into the given stub entry and clears its stub flag.
+     */
+    void decompileBodies(InputStream cls_path, TypeEntry stub) throws IOException;
+
 }
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A filter selecting which types and method bodies are decompiled.
+ *
+ * <p>Type patterns are globs over the internal or dotted type name where
+ * {@code *} matches within a package, {@code **} matches across packages and
+ * {@code ?} matches a single character. A pattern containing a {@code #}
+ * selects methods, the part before the {@code #} is a type glob and the part
+ * after is a glob over the method name.</p>
+ *
+ * <p>A type is decompiled if it is not excluded and either no includes are
+ * set or it matches a type include or the type part of a method include. If
+ * any method includes match a type then only the bodies of the matching
+ * methods of that type are decompiled. Excluded method bodies are replaced
+ * with a comment.</p>
+ */
+public class DecompilerFilter {
+
+    private final List<Pattern> type_includes = new ArrayList<>();
+    private final List<Pattern> type_excludes = new ArrayList<>();
+    private final List<Pattern[]> method_includes = new ArrayList<>();
+    private final List<Pattern[]> method_excludes = new ArrayList<>();
+
+    /**
+     * Adds the given glob to the includes of this filter.
+     */
+    public DecompilerFilter include(String glob) {
+        checkNotNull(glob, "glob");
+        int split = glob.indexOf('#');
+        if (split != -1) {
+            this.method_includes.add(new Pattern[] {compileType(glob.substring(0, split)), compileMember(glob.substring(split + 1))});
+        } else {
+            this.type_includes.add(compileType(glob));
+        }
+        return this;
+    }
+
+    /**
+     * Adds the given glob to the excludes of this filter.
+     */
+    public DecompilerFilter exclude(String glob) {
+        checkNotNull(glob, "glob");
+        int split = glob.indexOf('#');
+        if (split != -1) {
+            this.method_excludes.add(new Pattern[] {compileType(glob.substring(0, split)), compileMember(glob.substring(split + 1))});
+        } else {
+            this.type_excludes.add(compileType(glob));
+        }
+        return this;
+    }
+
+    /**
+     * Gets if this filter accepts everything.
+     */
+    public boolean isEmpty() {
+        return this.type_includes.isEmpty() && this.type_excludes.isEmpty() && this.method_includes.isEmpty() && this.method_excludes.isEmpty();
+    }
+
+    /**
+     * Gets if the type with the given internal name should be decompiled.
+     */
+    public boolean includesType(String name) {
+        for (Pattern exclude : this.type_excludes) {
+            if (exclude.matcher(name).matches()) {
+                return false;
+            }
+        }
+        if (this.type_includes.isEmpty() && this.method_includes.isEmpty()) {
+            return true;
+        }
+        for (Pattern include : this.type_includes) {
+            if (include.matcher(name).matches()) {
+                return true;
+            }
+        }
+        for (Pattern[] include : this.method_includes) {
+            if (include[0].matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets if the body of the given method of the given type should be
+     * decompiled.
+     */
+    public boolean includesMethod(String owner, String name) {
+        for (Pattern[] exclude : this.method_excludes) {
+            if (exclude[0].matcher(owner).matches() && exclude[1].matcher(name).matches()) {
+                return false;
+            }
+        }
+        boolean has_includes = false;
+        for (Pattern[] include : this.method_includes) {
+            if (include[0].matcher(owner).matches()) {
+                if (include[1].matcher(name).matches()) {
+                    return true;
+                }
+                has_includes = true;
+            }
+        }
+        return !has_includes;
+    }
+
+    private static Pattern compileType(String glob) {
+        return compile(glob.replace('.', '/'), "[^/]");
+    }
+
+    private static Pattern compileMember(String glob) {
+        return compile(glob, ".");
+    }
+
+    private static Pattern compile(String glob, String segment_char) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char next = glob.charAt(i);
+            if (next == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append(segment_char).append('*');
+                }
+            } else if (next == '?') {
+                regex.append(segment_char);
+            } else {
+                regex.append(Pattern.quote(String.valueOf(next)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+}
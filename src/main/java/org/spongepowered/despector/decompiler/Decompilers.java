@@ -24,6 +24,7 @@
  */
 package org.spongepowered.despector.decompiler;
 
+import org.spongepowered.despector.DespectorEngine;
 import org.spongepowered.despector.Language;
 import org.spongepowered.despector.decompiler.kotlin.method.graph.create.ElvisGraphProducerStep;
 import org.spongepowered.despector.decompiler.kotlin.method.graph.operate.KotlinTernaryPrePassOperation;
@@ -61,57 +62,73 @@ public final class Decompilers {
     public static final BaseDecompiler KOTLIN = new BaseDecompiler(Language.KOTLIN);
     public static final BaseDecompiler WILD = new BaseDecompiler(Language.ANY);
 
-    public static final MethodDecompiler JAVA_METHOD = new MethodDecompiler();
-    public static final MethodDecompiler KOTLIN_METHOD = new MethodDecompiler();
+    public static final MethodDecompiler JAVA_METHOD = createJavaMethodDecompiler(DespectorEngine.global());
+    public static final MethodDecompiler KOTLIN_METHOD = createKotlinMethodDecompiler(DespectorEngine.global());
 
     private static final EnumMap<Language, Decompiler> DECOMPILERS = new EnumMap<>(Language.class);
 
     static {
-        JAVA_METHOD.addGraphProducer(new JumpGraphProducerStep());
-        JAVA_METHOD.addGraphProducer(new SwitchGraphProducerStep());
-        JAVA_METHOD.addGraphProducer(new TryCatchGraphProducerStep());
-        JAVA_METHOD.addCleanupOperation(new JumpSeparateOperation());
-        JAVA_METHOD.addCleanupOperation(new BlockTargetOperation());
-        JAVA_METHOD.addCleanupOperation(new TernaryPrePassOperation());
-        JAVA_METHOD.addCleanupOperation(new BreakPrePassOperation());
-        JAVA_METHOD.addProcessor(new TryCatchBlockProcessor());
-        JAVA_METHOD.addProcessor(new InternalBlockProcessor());
-        JAVA_METHOD.addProcessor(new SwitchBlockProcessor());
-        JAVA_METHOD.addProcessor(new SubRegionBlockProcessor());
-        JAVA_METHOD.addRegionProcessor(new ChildRegionProcessor());
-        JAVA_METHOD.addRegionProcessor(new DoWhileRegionProcessor());
-        JAVA_METHOD.addRegionProcessor(new WhileRegionProcessor());
-        JAVA_METHOD.addRegionProcessor(new IfBlockRegionProcessor());
-        JAVA_METHOD.addPostProcessor(new IfCombiningPostProcessor());
-        JAVA_METHOD.addPostProcessor(new ForFromWhilePostProcessor());
-        JAVA_METHOD.addPostProcessor(new ForEachPostProcessor());
-
-        KOTLIN_METHOD.addGraphProducer(new JumpGraphProducerStep());
-        KOTLIN_METHOD.addGraphProducer(new SwitchGraphProducerStep());
-        KOTLIN_METHOD.addGraphProducer(new TryCatchGraphProducerStep());
-        KOTLIN_METHOD.addGraphProducer(new ElvisGraphProducerStep());
-        KOTLIN_METHOD.addCleanupOperation(new JumpSeparateOperation());
-        KOTLIN_METHOD.addCleanupOperation(new BlockTargetOperation());
-        KOTLIN_METHOD.addCleanupOperation(new BreakPrePassOperation());
-        KOTLIN_METHOD.addCleanupOperation(new KotlinTernaryPrePassOperation());
-        KOTLIN_METHOD.addProcessor(new TryCatchBlockProcessor());
-        KOTLIN_METHOD.addProcessor(new InternalBlockProcessor());
-        KOTLIN_METHOD.addProcessor(new SwitchBlockProcessor());
-        KOTLIN_METHOD.addProcessor(new SubRegionBlockProcessor());
-        KOTLIN_METHOD.addRegionProcessor(new ChildRegionProcessor());
-        KOTLIN_METHOD.addRegionProcessor(new DoWhileRegionProcessor());
-        KOTLIN_METHOD.addRegionProcessor(new WhileRegionProcessor());
-        KOTLIN_METHOD.addRegionProcessor(new IfBlockRegionProcessor());
-        KOTLIN_METHOD.addPostProcessor(new IfCombiningPostProcessor());
-        KOTLIN_METHOD.addPostProcessor(new ForEachPostProcessor());
-        KOTLIN_METHOD.addPostProcessor(new KotlinLocalsMutabilityPostProcess());
-        KOTLIN_METHOD.setSpecialProcessor(LocalsProcessor.class, new KotlinLocalsProcessor());
-
         DECOMPILERS.put(Language.JAVA, JAVA);
         DECOMPILERS.put(Language.KOTLIN, KOTLIN);
         DECOMPILERS.put(Language.ANY, WILD);
     }
 
+    /**
+     * Creates a new method decompiler with the standard java processing
+     * pipeline for the given engine.
+     */
+    public static MethodDecompiler createJavaMethodDecompiler(DespectorEngine engine) {
+        MethodDecompiler decompiler = new MethodDecompiler(engine);
+        decompiler.addGraphProducer(new JumpGraphProducerStep());
+        decompiler.addGraphProducer(new SwitchGraphProducerStep());
+        decompiler.addGraphProducer(new TryCatchGraphProducerStep());
+        decompiler.addCleanupOperation(new JumpSeparateOperation());
+        decompiler.addCleanupOperation(new BlockTargetOperation());
+        decompiler.addCleanupOperation(new TernaryPrePassOperation());
+        decompiler.addCleanupOperation(new BreakPrePassOperation());
+        decompiler.addProcessor(new TryCatchBlockProcessor());
+        decompiler.addProcessor(new InternalBlockProcessor());
+        decompiler.addProcessor(new SwitchBlockProcessor());
+        decompiler.addProcessor(new SubRegionBlockProcessor());
+        decompiler.addRegionProcessor(new ChildRegionProcessor());
+        decompiler.addRegionProcessor(new DoWhileRegionProcessor());
+        decompiler.addRegionProcessor(new WhileRegionProcessor());
+        decompiler.addRegionProcessor(new IfBlockRegionProcessor());
+        decompiler.addPostProcessor(new IfCombiningPostProcessor());
+        decompiler.addPostProcessor(new ForFromWhilePostProcessor());
+        decompiler.addPostProcessor(new ForEachPostProcessor());
+        return decompiler;
+    }
+
+    /**
+     * Creates a new method decompiler with the standard kotlin processing
+     * pipeline for the given engine.
+     */
+    public static MethodDecompiler createKotlinMethodDecompiler(DespectorEngine engine) {
+        MethodDecompiler decompiler = new MethodDecompiler(engine);
+        decompiler.addGraphProducer(new JumpGraphProducerStep());
+        decompiler.addGraphProducer(new SwitchGraphProducerStep());
+        decompiler.addGraphProducer(new TryCatchGraphProducerStep());
+        decompiler.addGraphProducer(new ElvisGraphProducerStep());
+        decompiler.addCleanupOperation(new JumpSeparateOperation());
+        decompiler.addCleanupOperation(new BlockTargetOperation());
+        decompiler.addCleanupOperation(new BreakPrePassOperation());
+        decompiler.addCleanupOperation(new KotlinTernaryPrePassOperation());
+        decompiler.addProcessor(new TryCatchBlockProcessor());
+        decompiler.addProcessor(new InternalBlockProcessor());
+        decompiler.addProcessor(new SwitchBlockProcessor());
+        decompiler.addProcessor(new SubRegionBlockProcessor());
+        decompiler.addRegionProcessor(new ChildRegionProcessor());
+        decompiler.addRegionProcessor(new DoWhileRegionProcessor());
+        decompiler.addRegionProcessor(new WhileRegionProcessor());
+        decompiler.addRegionProcessor(new IfBlockRegionProcessor());
+        decompiler.addPostProcessor(new IfCombiningPostProcessor());
+        decompiler.addPostProcessor(new ForEachPostProcessor());
+        decompiler.addPostProcessor(new KotlinLocalsMutabilityPostProcess());
+        decompiler.setSpecialProcessor(LocalsProcessor.class, new KotlinLocalsProcessor());
+        return decompiler;
+    }
+
     /**
      * Gets the decompiler for the given language.
      */
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler.ir;
+
+import org.spongepowered.despector.util.DebugUtil;
+
+/**
+ * A string concatenation performed by a {@code StringConcatFactory} dynamic
+ * invoke. The parts hold the constant text of the recipe in order with a null
+ * part in the place of each value popped from the stack.
+ */
+public class StringConcatInsn extends Insn {
+
+    private String desc;
+    private String[] parts;
+
+    public StringConcatInsn(int op, String desc, String[] parts) {
+        super(op);
+        this.desc = desc;
+        this.parts = parts;
+    }
+
+    public String getDescription() {
+        return this.desc;
+    }
+
+    public String[] getParts() {
+        return this.parts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append(DebugUtil.opcodeToString(this.opcode));
+        str.append(" ").append(this.desc);
+        str.append(" [");
+        for (int i = 0; i < this.parts.length; i++) {
+            if (i > 0) {
+                str.append(", ");
+            }
+            str.append(this.parts[i] == null ? "\\1" : "\"" + this.parts[i] + "\"");
+        }
+        str.append("]");
+        return str.toString();
+    }
+
+}
@@ -42,6 +42,7 @@ import org.spongepowered.despector.decompiler.ir.JumpInsn;
 import org.spongepowered.despector.decompiler.ir.LdcInsn;
 import org.spongepowered.despector.decompiler.ir.LongInsn;
 import org.spongepowered.despector.decompiler.ir.OpInsn;
+import org.spongepowered.despector.decompiler.ir.StringConcatInsn;
 import org.spongepowered.despector.decompiler.ir.SwitchInsn;
 import org.spongepowered.despector.decompiler.ir.TypeInsn;
 import org.spongepowered.despector.decompiler.ir.TypeIntInsn;
@@ -58,6 +59,7 @@ import org.spongepowered.despector.decompiler.loader.ClassConstantPool.MethodHan
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool.MethodRefEntry;
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool.StringEntry;
 import org.spongepowered.despector.decompiler.method.PartialMethod.TryCatchRegion;
+import org.spongepowered.despector.util.TypeHelper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -599,6 +601,11 @@ public class BytecodeTranslator {
                 i += 2;
                 InvokeDynamicEntry handle = pool.getInvokeDynamic(index);
                 BootstrapMethod bsm = bootstrap_methods.get(handle.bootstrap_index);
+                MethodRefEntry factory = pool.getMethodRef(bsm.handle.reference_index);
+                if ("java/lang/invoke/StringConcatFactory".equals(factory.cls)) {
+                    block.append(new StringConcatInsn(Insn.STRING_CONCAT, handle.type_name, readConcatRecipe(factory.name, handle.type_name, bsm)));
+                    break;
+                }
                 MethodRefEntry bsmArg = pool.getMethodRef(((MethodHandleEntry) bsm.arguments[1]).reference_index);
                 block.append(new InvokeDynamicInsn(Insn.INVOKEDYNAMIC, "L" + bsmArg.cls + ";", bsmArg.name, bsmArg.type_name, handle.name, handle.type_name,
                         bsmArg.type == ClassConstantPool.EntryType.INTERFACE_METHOD_REF));
@@ -737,6 +744,55 @@ public class BytecodeTranslator {
         return block;
     }
 
+    /**
+     * Splits the recipe of a string concatenation dynamic invoke into its
+     * constant parts, with a null part for each value taken from the stack.
+     */
+    private String[] readConcatRecipe(String factory, String desc, BootstrapMethod bsm) {
+        int arg_count = TypeHelper.paramCount(desc);
+        if (!"makeConcatWithConstants".equals(factory)) {
+            // plain makeConcat simply concatenates all of its arguments
+            return new String[arg_count];
+        }
+        String recipe = ((StringEntry) bsm.arguments[0]).value;
+        List<String> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int next_constant = 1;
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == '\u0001') {
+                if (text.length() > 0) {
+                    parts.add(text.toString());
+                    text.setLength(0);
+                }
+                parts.add(null);
+            } else if (c == '\u0002') {
+                text.append(constantToString(bsm.arguments[next_constant++]));
+            } else {
+                text.append(c);
+            }
+        }
+        if (text.length() > 0) {
+            parts.add(text.toString());
+        }
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    private static String constantToString(Entry entry) {
+        if (entry instanceof StringEntry) {
+            return ((StringEntry) entry).value;
+        } else if (entry instanceof IntEntry) {
+            return String.valueOf(((IntEntry) entry).value);
+        } else if (entry instanceof LongEntry) {
+            return String.valueOf(((LongEntry) entry).value);
+        } else if (entry instanceof FloatEntry) {
+            return String.valueOf(((FloatEntry) entry).value);
+        } else if (entry instanceof DoubleEntry) {
+            return String.valueOf(((DoubleEntry) entry).value);
+        }
+        throw new SourceFormatException("Unsupported string concatenation constant: " + entry);
+    }
+
     private int readInt(byte[] code, int i) {
         int byte1 = code[i++] & 0xFF;
         int byte2 = code[i++] & 0xFF;
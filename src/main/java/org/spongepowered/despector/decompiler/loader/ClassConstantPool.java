@@ -280,6 +280,20 @@ public class ClassConstantPool {
         return ((Utf8Entry) this.values[index - 1]).value;
     }
 
+    /**
+     * Gets the utf8 entry at the given index as an interned string. The
+     * interned value replaces the entry's value so each entry is interned at
+     * most once.
+     */
+    public String getInternedUtf8(int index) {
+        Utf8Entry entry = (Utf8Entry) this.values[index - 1];
+        if (!entry.interned) {
+            entry.value = entry.value.intern();
+            entry.interned = true;
+        }
+        return entry.value;
+    }
+
     public int getInt(int index) {
         return ((IntEntry) this.values[index - 1]).value;
     }
@@ -332,6 +346,7 @@ public class ClassConstantPool {
     public static class Utf8Entry extends Entry {
 
         public String value;
+        boolean interned;
     }
 
     public static class IntEntry extends Entry {
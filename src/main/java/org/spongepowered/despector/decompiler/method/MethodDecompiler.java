@@ -26,11 +26,11 @@ package org.spongepowered.despector.decompiler.method;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.spongepowered.despector.DespectorEngine;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.var.LocalAccess;
 import org.spongepowered.despector.ast.stmt.StatementBlock;
 import org.spongepowered.despector.ast.type.MethodEntry;
-import org.spongepowered.despector.config.LibraryConfiguration;
 import org.spongepowered.despector.decompiler.ir.InsnBlock;
 import org.spongepowered.despector.decompiler.ir.JumpInsn;
 import org.spongepowered.despector.decompiler.ir.SwitchInsn;
@@ -48,13 +48,11 @@ import org.spongepowered.despector.decompiler.method.special.SpecialMethodProces
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.Nullable;
 
@@ -72,6 +70,26 @@ public class MethodDecompiler {
     private final List<StatementPostProcessor> post_processors = new ArrayList<>();
     private final Map<Class<?>, SpecialMethodProcessor> special_processors = new HashMap<>();
 
+    private final DespectorEngine engine;
+
+    public MethodDecompiler() {
+        this(DespectorEngine.global());
+    }
+
+    /**
+     * Creates a new method decompiler owned by the given engine.
+     */
+    public MethodDecompiler(DespectorEngine engine) {
+        this.engine = checkNotNull(engine, "engine");
+    }
+
+    /**
+     * Gets the engine which owns this decompiler.
+     */
+    public DespectorEngine getEngine() {
+        return this.engine;
+    }
+
     /**
      * Adds the given {@link GraphProducerStep} to the end of the graph
      * producers.
@@ -202,7 +220,7 @@ public class MethodDecompiler {
             try {
                 post.postprocess(block);
             } catch (Exception e) {
-                if (!LibraryConfiguration.quiet) {
+                if (!this.engine.isQuiet()) {
                     System.err.println("Failed to apply post processor: " + post.getClass().getSimpleName());
                     e.printStackTrace();
                 }
@@ -215,7 +233,7 @@ public class MethodDecompiler {
     private List<OpcodeBlock> makeGraph(PartialMethod partial) {
         InsnBlock instructions = partial.getOpcodes();
 
-        Set<Integer> break_points = new HashSet<>();
+        BitSet break_points = new BitSet(instructions.size());
 
         // queries all graph producers to determine where the instructions
         // should be broken up to form the graph
@@ -223,31 +241,24 @@ public class MethodDecompiler {
             step.collectBreakpoints(partial, break_points);
         }
 
-        // Sort the break points
-        List<Integer> sorted_break_points = new ArrayList<>(break_points);
-        sorted_break_points.sort(Comparator.naturalOrder());
-        List<OpcodeBlock> block_list = new ArrayList<>();
+        List<OpcodeBlock> block_list = new ArrayList<>(break_points.cardinality() + 1);
 
         // turn all blocks to the basic body opcode block, the various
-        // processors will then replace these with the specialized opcode blocks
+        // processors will then replace these with the specialized opcode
+        // blocks. The opcodes of each block are a view of the instructions
+        // which is only copied if a block is modified.
         int last_brk = 0;
-        for (int brk : sorted_break_points) {
-            // accumulate the opcodes beween the next breakpoint and the last
-            // breakpoint.
+        for (int brk = break_points.nextSetBit(0); brk >= 0; brk = break_points.nextSetBit(brk + 1)) {
             OpcodeBlock block = new BodyOpcodeBlock(last_brk, brk);
+            block.setOpcodes(instructions, last_brk, brk + 1);
             block_list.add(block);
-            for (int i = last_brk; i <= brk; i++) {
-                block.getOpcodes().add(instructions.get(i));
-            }
             last_brk = brk + 1;
         }
 
         if (last_brk < instructions.size()) {
             OpcodeBlock block = new BodyOpcodeBlock(last_brk, instructions.size() - 1);
+            block.setOpcodes(instructions, last_brk, instructions.size());
             block_list.add(block);
-            for (int i = last_brk; i < instructions.size(); i++) {
-                block.getOpcodes().add(instructions.get(i));
-            }
         }
 
         for (int i = 0; i < block_list.size() - 1; i++) {
@@ -259,7 +270,7 @@ public class MethodDecompiler {
 
         // form the edges of the graph
         for (GraphProducerStep step : this.graph_producers) {
-            step.formEdges(partial, sorted_break_points, block_list);
+            step.formEdges(partial, break_points, block_list);
         }
 
         return block_list;
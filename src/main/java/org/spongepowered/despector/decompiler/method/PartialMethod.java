@@ -32,7 +32,9 @@ import org.spongepowered.despector.decompiler.method.graph.data.block.BlockSecti
 import org.spongepowered.despector.decompiler.method.graph.data.opcode.OpcodeBlock;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A structure of intermediate data of a method which is in the process of being
@@ -46,6 +48,7 @@ public class PartialMethod {
     private StatementBlock block;
     private List<OpcodeBlock> graph;
     private List<BlockSection> final_blocks = new ArrayList<>();
+    private final Map<List<OpcodeBlock>, Map<OpcodeBlock, Integer>> block_indices = new IdentityHashMap<>();
 
     public PartialMethod(MethodDecompiler decompiler, MethodEntry method) {
         this.decompiler = decompiler;
@@ -116,6 +119,32 @@ public class PartialMethod {
         return this.final_blocks;
     }
 
+    /**
+     * Gets the index of the given block in the given list, or -1 if the list
+     * does not contain it. The positions of the blocks of a list are indexed
+     * by the first query against the list and reindexed only if the list has
+     * since been modified.
+     */
+    public int indexOf(List<OpcodeBlock> blocks, OpcodeBlock block) {
+        Map<OpcodeBlock, Integer> index = this.block_indices.get(blocks);
+        if (index != null) {
+            Integer i = index.get(block);
+            if (i != null && i < blocks.size() && blocks.get(i) == block) {
+                return i;
+            }
+            if (blocks.indexOf(block) == -1) {
+                return -1;
+            }
+        }
+        index = new IdentityHashMap<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            index.putIfAbsent(blocks.get(i), i);
+        }
+        this.block_indices.put(blocks, index);
+        Integer i = index.get(block);
+        return i == null ? -1 : i;
+    }
+
     public static class TryCatchRegion {
 
         private int start_pc;
@@ -42,6 +42,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
 import org.spongepowered.despector.ast.insn.op.OperatorType;
@@ -74,13 +75,17 @@ import org.spongepowered.despector.decompiler.ir.InvokeDynamicInsn;
 import org.spongepowered.despector.decompiler.ir.InvokeInsn;
 import org.spongepowered.despector.decompiler.ir.LdcInsn;
 import org.spongepowered.despector.decompiler.ir.LongInsn;
+import org.spongepowered.despector.decompiler.ir.StringConcatInsn;
 import org.spongepowered.despector.decompiler.ir.TypeInsn;
 import org.spongepowered.despector.decompiler.ir.TypeIntInsn;
 import org.spongepowered.despector.decompiler.ir.VarIntInsn;
 import org.spongepowered.despector.decompiler.method.graph.data.opcode.OpcodeBlock;
 import org.spongepowered.despector.util.TypeHelper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
 
 /**
  * A utility for forming non-control flow opcodes into statements.
@@ -136,7 +141,9 @@ public final class StatementBuilder {
                 Instruction val = stack.pop();
                 Local local = locals.getLocal(var.getValue());
                 LocalInstance instance = local.getInstance(label_index);
-                if (!local.isParameter() && local.getParameterInstance() != null) {
+                if (instance.getType() == null) {
+                    // no local variable table entry, type the local from its
+                    // first stored value
                     instance.setType(val.inferType());
                 }
                 block.append(new LocalAssignment(instance, val));
@@ -163,7 +170,7 @@ public final class StatementBuilder {
                     if (array.getInitializer() == null) {
                         array.setInitialValues(new Instruction[((IntConstant) array.getSize()).getConstant()]);
                     }
-                    array.getInitializer()[((IntConstant) index_arg).getConstant()] = val;
+                    array.setInitialValue(((IntConstant) index_arg).getConstant(), val);
                     break;
                 }
                 block.append(new ArrayAssignment(var, index_arg, val));
@@ -416,6 +423,13 @@ public final class StatementBuilder {
                 if (!owner.startsWith("[")) {
                     owner = "L" + owner + ";";
                 }
+                if (args.length == 0 && "toString".equals(method.getName()) && "Ljava/lang/StringBuilder;".equals(owner)) {
+                    StringConcat concat = foldStringConcat(callee);
+                    if (concat != null) {
+                        stack.push(concat);
+                        break;
+                    }
+                }
                 InstanceMethodInvoke arg = new InstanceMethodInvoke(method.getType(), method.getName(), method.getDescription(), owner, args, callee);
                 if (ret.equals("V")) {
                     block.append(new InvokeStatement(arg));
@@ -457,6 +471,16 @@ public final class StatementBuilder {
                 }
                 break;
             }
+            case Insn.STRING_CONCAT: {
+                StringConcatInsn concat = (StringConcatInsn) next;
+                String[] parts = concat.getParts();
+                Instruction[] operands = new Instruction[parts.length];
+                for (int i = parts.length - 1; i >= 0; i--) {
+                    operands[i] = parts[i] == null ? stack.pop() : new StringConstant(parts[i]);
+                }
+                stack.push(new StringConcat(operands));
+                break;
+            }
             case Insn.NEW: {
                 TypeSignature type = ClassTypeSignature.of(((TypeInsn) next).getType());
                 stack.push(new New(type, null, null));
@@ -512,6 +536,52 @@ public final class StatementBuilder {
         }
     }
 
+    /**
+     * Folds a chain of {@link StringBuilder} appends ending in the given
+     * callee of a toString call into a single string concatenation. Returns
+     * null if the callee is not such a chain.
+     */
+    private static StringConcat foldStringConcat(Instruction callee) {
+        List<Instruction> operands = new ArrayList<>();
+        Instruction next = callee;
+        while (next instanceof InstanceMethodInvoke) {
+            InstanceMethodInvoke append = (InstanceMethodInvoke) next;
+            if (append.getParameters().length != 1 || !"append".equals(append.getMethodName())
+                    || !"Ljava/lang/StringBuilder;".equals(append.getOwner())) {
+                return null;
+            }
+            operands.add(append.getParameters()[0]);
+            next = append.getCallee();
+        }
+        if (!(next instanceof New) || !"Ljava/lang/StringBuilder;".equals(((New) next).getType().getDescriptor())) {
+            return null;
+        }
+        New ref = (New) next;
+        if (ref.getParameters() != null && ref.getParameters().length == 1) {
+            if (!"(Ljava/lang/String;)V".equals(ref.getCtorDescription()) && !"(Ljava/lang/CharSequence;)V".equals(ref.getCtorDescription())) {
+                // the initial capacity constructor
+                return null;
+            }
+            Instruction initial = ref.getParameters()[0];
+            if (initial instanceof StaticMethodInvoke) {
+                // older compilers wrap the first value in a String.valueOf
+                StaticMethodInvoke valueof = (StaticMethodInvoke) initial;
+                if ("valueOf".equals(valueof.getMethodName()) && "Ljava/lang/String;".equals(valueof.getOwner())
+                        && ClassTypeSignature.STRING.equals(valueof.getParameters()[0].inferType())) {
+                    initial = valueof.getParameters()[0];
+                }
+            }
+            operands.add(initial);
+        } else if (ref.getParameters() != null && ref.getParameters().length != 0) {
+            return null;
+        }
+        if (operands.isEmpty()) {
+            return null;
+        }
+        Collections.reverse(operands);
+        return new StringConcat(operands.toArray(new Instruction[operands.size()]));
+    }
+
     private StatementBuilder() {
     }
 
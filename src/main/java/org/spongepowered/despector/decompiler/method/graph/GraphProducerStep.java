@@ -27,8 +27,8 @@ package org.spongepowered.despector.decompiler.method.graph;
 import org.spongepowered.despector.decompiler.method.PartialMethod;
 import org.spongepowered.despector.decompiler.method.graph.data.opcode.OpcodeBlock;
 
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * A producer for dividing up the opcodes into blocks and joining them together
@@ -37,17 +37,39 @@ import java.util.Set;
 public interface GraphProducerStep {
 
     /**
-     * Adds the indices of any opcodes that the opcode list should be split
-     * after to the break_points set.
+     * Sets the indices of any opcodes that the opcode list should be split
+     * after in the break_points set.
      */
-    void collectBreakpoints(PartialMethod partial, Set<Integer> break_points);
+    void collectBreakpoints(PartialMethod partial, BitSet break_points);
 
     /**
      * Forms edges between blocks in the graph.
      */
-    void formEdges(PartialMethod partial, List<Integer> sorted_break_points, List<OpcodeBlock> block_list);
+    void formEdges(PartialMethod partial, BitSet break_points, List<OpcodeBlock> block_list);
 
+    /**
+     * Finds the block containing the given instruction index. The blocks
+     * partition the instructions in order until markers are inserted, so the
+     * block is found by a binary search over the block starts and only a list
+     * which is no longer ordered is scanned.
+     */
     static OpcodeBlock find(List<OpcodeBlock> blocks, int op) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (blocks.get(mid).getStart() <= op) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high >= 0) {
+            OpcodeBlock block = blocks.get(high);
+            if (block.getStart() <= op && block.getEnd() >= op) {
+                return block;
+            }
+        }
         for (OpcodeBlock block : blocks) {
             if (block.getStart() <= op && block.getEnd() >= op) {
                 return block;
@@ -35,8 +35,15 @@ import org.spongepowered.despector.decompiler.method.graph.data.TryCatchMarkerTy
 import org.spongepowered.despector.decompiler.method.graph.data.opcode.OpcodeBlock;
 import org.spongepowered.despector.decompiler.method.graph.data.opcode.TryCatchMarkerOpcodeBlock;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
 /**
  * A graph producer that creates opcode blocks for try-catch statements. It
@@ -46,40 +53,56 @@ import java.util.Set;
 public class TryCatchGraphProducerStep implements GraphProducerStep {
 
     @Override
-    public void collectBreakpoints(PartialMethod partial, Set<Integer> break_points) {
+    public void collectBreakpoints(PartialMethod partial, BitSet break_points) {
         InsnBlock instructions = partial.getOpcodes();
         Locals locals = partial.getLocals();
+        List<TryCatchRegion> regions = instructions.getCatchRegions();
+        if (regions.isEmpty()) {
+            return;
+        }
+        LocalStarts starts = new LocalStarts(locals);
 
-        for (TryCatchRegion tc : partial.getOpcodes().getCatchRegions()) {
+        for (TryCatchRegion tc : regions) {
             if (tc.getStart() > 0) {
-                break_points.add(tc.getStart() - 1);
+                break_points.set(tc.getStart() - 1);
             }
-            break_points.add(tc.getEnd());
-            break_points.add(tc.getCatch());
+            break_points.set(tc.getEnd());
+            break_points.set(tc.getCatch());
 
+            // the exception local is the first local after the handler start
+            // of the caught type, or of a common supertype if no local of the
+            // exact type exists
+            String type = "L" + tc.getException() + ";";
+            int start = Math.min(starts.next(type, tc.getCatch()), Math.min(starts.next("Ljava/lang/RuntimeException;", tc.getCatch()),
+                    starts.next("Ljava/lang/Exception;", tc.getCatch())));
             LocalInstance local = null;
-            for (int i = tc.getCatch() + 1; i < instructions.size(); i++) {
-                local = locals.findLocal(i, "L" + tc.getException() + ";");
+            if (start < instructions.size()) {
+                local = locals.findLocal(start, type);
                 if (local == null) {
-                    local = locals.findLocal(i, "Ljava/lang/RuntimeException;");
+                    local = locals.findLocal(start, "Ljava/lang/RuntimeException;");
                     if (local == null) {
-                        local = locals.findLocal(i, "Ljava/lang/Exception;");
+                        local = locals.findLocal(start, "Ljava/lang/Exception;");
                     }
                 }
-                if (local != null) {
-                    break;
-                }
             }
             if (local != null && local.getEnd() < instructions.size() - 1) {
-                break_points.add(local.getEnd());
+                break_points.set(local.getEnd());
             }
         }
     }
 
     @Override
-    public void formEdges(PartialMethod partial, List<Integer> sorted_break_points, List<OpcodeBlock> block_list) {
-        for (int i = partial.getOpcodes().getCatchRegions().size() - 1; i >= 0; i--) {
-            TryCatchRegion tc = partial.getOpcodes().getCatchRegions().get(i);
+    public void formEdges(PartialMethod partial, BitSet break_points, List<OpcodeBlock> block_list) {
+        List<TryCatchRegion> regions = partial.getOpcodes().getCatchRegions();
+        if (regions.isEmpty()) {
+            return;
+        }
+        // the markers of all regions are collected before any is inserted so
+        // that the blocks can be found by their instruction index, the
+        // markers before each block are in the order they are created
+        Map<OpcodeBlock, List<OpcodeBlock>> markers = new IdentityHashMap<>();
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            TryCatchRegion tc = regions.get(i);
             TryCatchMarkerOpcodeBlock start_marker = new TryCatchMarkerOpcodeBlock(TryCatchMarkerType.START, tc);
             TryCatchMarkerOpcodeBlock end_marker = new TryCatchMarkerOpcodeBlock(TryCatchMarkerType.END, tc);
             TryCatchMarkerOpcodeBlock handler_marker = new TryCatchMarkerOpcodeBlock(TryCatchMarkerType.CATCH, tc);
@@ -87,21 +110,84 @@ public class TryCatchGraphProducerStep implements GraphProducerStep {
             end_marker.setStartMarker(start_marker);
             handler_marker.setStartMarker(start_marker);
             handler_marker.setEndMarker(end_marker);
-            OpcodeBlock start;
-            if (tc.getStart() == 0) {
-                start = GraphProducerStep.find(block_list, 0);
-            } else {
-                start = GraphProducerStep.find(block_list, tc.getStart());
-            }
-            OpcodeBlock end = block_list.get(block_list.indexOf(GraphProducerStep.find(block_list, tc.getEnd())));
+            OpcodeBlock start = GraphProducerStep.find(block_list, tc.getStart());
+            OpcodeBlock end = GraphProducerStep.find(block_list, tc.getEnd());
             OpcodeBlock handler = GraphProducerStep.find(block_list, tc.getCatch());
             if (end.getEnd() == tc.getEnd() && end.getLast().getOpcode() == Insn.ARETURN) {
-                end = block_list.get(block_list.indexOf(GraphProducerStep.find(block_list, tc.getEnd() + 1)));
+                end = GraphProducerStep.find(block_list, tc.getEnd() + 1);
+            }
+            markers.computeIfAbsent(start, (k) -> new ArrayList<>()).add(start_marker);
+            markers.computeIfAbsent(end, (k) -> new ArrayList<>()).add(end_marker);
+            markers.computeIfAbsent(handler, (k) -> new ArrayList<>()).add(handler_marker);
+        }
+        List<OpcodeBlock> blocks = new ArrayList<>(block_list.size() + regions.size() * 3);
+        for (OpcodeBlock block : block_list) {
+            List<OpcodeBlock> before = markers.get(block);
+            if (before != null) {
+                blocks.addAll(before);
+            }
+            blocks.add(block);
+        }
+        block_list.clear();
+        block_list.addAll(blocks);
+    }
+
+    /**
+     * The start indices of the local instances of a method by type, which
+     * finds the next instance of a type after an instruction without a scan
+     * over the remaining instructions. Untyped instances match any type.
+     */
+    private static class LocalStarts {
+
+        private final Map<String, int[]> by_type = new HashMap<>();
+        private final int[] untyped;
+
+        LocalStarts(Locals locals) {
+            Map<String, List<Integer>> typed = new HashMap<>();
+            List<Integer> untyped = new ArrayList<>();
+            for (int i = 0; i < locals.getLocalCount(); i++) {
+                for (LocalInstance instance : locals.getLocal(i).getInstances()) {
+                    if (instance.getType() == null) {
+                        untyped.add(instance.getStart());
+                    } else {
+                        typed.computeIfAbsent(instance.getType().getDescriptor(), (k) -> new ArrayList<>()).add(instance.getStart());
+                    }
+                }
             }
-            block_list.add(block_list.indexOf(start), start_marker);
-            block_list.add(block_list.indexOf(end), end_marker);
-            block_list.add(block_list.indexOf(handler), handler_marker);
+            for (Map.Entry<String, List<Integer>> e : typed.entrySet()) {
+                this.by_type.put(e.getKey(), toSortedArray(e.getValue()));
+            }
+            this.untyped = toSortedArray(untyped);
         }
+
+        private static int[] toSortedArray(List<Integer> values) {
+            int[] array = new int[values.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = values.get(i);
+            }
+            Arrays.sort(array);
+            return array;
+        }
+
+        /**
+         * Gets the first start after the given index of an instance which
+         * matches the given type, or {@link Integer#MAX_VALUE} if there is none.
+         */
+        int next(String type, int index) {
+            return Math.min(next(this.by_type.get(type), index), next(this.untyped, index));
+        }
+
+        private static int next(@Nullable int[] starts, int index) {
+            if (starts == null) {
+                return Integer.MAX_VALUE;
+            }
+            int i = Arrays.binarySearch(starts, index + 1);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < starts.length ? starts[i] : Integer.MAX_VALUE;
+        }
+
     }
 
 }
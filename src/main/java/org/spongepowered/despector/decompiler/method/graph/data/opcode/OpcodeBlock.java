@@ -25,10 +25,10 @@
 package org.spongepowered.despector.decompiler.method.graph.data.opcode;
 
 import org.spongepowered.despector.decompiler.ir.Insn;
+import org.spongepowered.despector.decompiler.ir.InsnBlock;
 import org.spongepowered.despector.decompiler.method.graph.data.block.BlockSection;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -42,10 +42,10 @@ public abstract class OpcodeBlock {
 
     protected int start_pc;
     protected int end_pc;
-    protected final List<Insn> opcodes = new ArrayList<>();
+    protected List<Insn> opcodes = new ArrayList<>();
     protected OpcodeBlock target;
 
-    protected Set<OpcodeBlock> targetted_by = new HashSet<>();
+    protected Set<OpcodeBlock> targetted_by = new OpcodeBlockSet();
     protected boolean exclude_from_ternary_check = false;
 
     public OpcodeBlock(int start, int end) {
@@ -78,6 +78,23 @@ public abstract class OpcodeBlock {
         return this.opcodes;
     }
 
+    /**
+     * Sets the opcodes of this block to a view of the given instructions from
+     * start inclusive to end exclusive. The view is copied the first time it
+     * is modified.
+     */
+    public void setOpcodes(InsnBlock instructions, int start, int end) {
+        this.opcodes = new OpcodeRangeList(instructions.getInstructions(), start, end);
+    }
+
+    /**
+     * Takes the opcodes of the given block as the opcodes of this block, the
+     * given block is expected to be discarded.
+     */
+    public void takeOpcodes(OpcodeBlock block) {
+        this.opcodes = block.opcodes;
+    }
+
     public Insn getLast() {
         return this.opcodes.get(this.opcodes.size() - 1);
     }
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler.method.graph.data.opcode;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact set of blocks backed by an array. Blocks are compared by
+ * identity, most blocks are only targeted by one or two others so this
+ * avoids the per entry nodes of a hash set.
+ */
+class OpcodeBlockSet extends AbstractSet<OpcodeBlock> {
+
+    private static final OpcodeBlock[] EMPTY = new OpcodeBlock[0];
+
+    private OpcodeBlock[] blocks = EMPTY;
+    private int size;
+    private int mod_count;
+
+    OpcodeBlockSet() {
+    }
+
+    private int indexOf(Object o) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.blocks[i] == o) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    @Override
+    public boolean add(OpcodeBlock block) {
+        if (indexOf(block) != -1) {
+            return false;
+        }
+        if (this.size == this.blocks.length) {
+            this.blocks = Arrays.copyOf(this.blocks, Math.max(2, this.size * 2));
+        }
+        this.blocks[this.size++] = block;
+        this.mod_count++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index == -1) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    void removeAt(int index) {
+        System.arraycopy(this.blocks, index + 1, this.blocks, index, this.size - index - 1);
+        this.blocks[--this.size] = null;
+        this.mod_count++;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.blocks, 0, this.size, null);
+        this.size = 0;
+        this.mod_count++;
+    }
+
+    @Override
+    public Iterator<OpcodeBlock> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<OpcodeBlock> {
+
+        private int next = 0;
+        private int last = -1;
+        private int expected_mod_count = OpcodeBlockSet.this.mod_count;
+
+        Itr() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < OpcodeBlockSet.this.size;
+        }
+
+        @Override
+        public OpcodeBlock next() {
+            if (this.expected_mod_count != OpcodeBlockSet.this.mod_count) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.next >= OpcodeBlockSet.this.size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            return OpcodeBlockSet.this.blocks[this.last];
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            if (this.expected_mod_count != OpcodeBlockSet.this.mod_count) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expected_mod_count = OpcodeBlockSet.this.mod_count;
+        }
+
+    }
+
+}
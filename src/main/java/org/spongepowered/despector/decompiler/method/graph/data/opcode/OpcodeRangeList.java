@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.decompiler.method.graph.data.opcode;
+
+import org.spongepowered.despector.decompiler.ir.Insn;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The opcodes of a block as a view over a range of the method instructions.
+ * The range is only copied into a list of its own the first time the block's
+ * opcodes are modified.
+ */
+class OpcodeRangeList extends AbstractList<Insn> implements RandomAccess {
+
+    private List<Insn> backing;
+    private int offset;
+    private int size;
+    private List<Insn> copy;
+
+    OpcodeRangeList(List<Insn> backing, int start, int end) {
+        this.backing = backing;
+        this.offset = start;
+        this.size = end - start;
+    }
+
+    private List<Insn> materialize() {
+        if (this.copy == null) {
+            this.copy = new ArrayList<>(this.size + 4);
+            for (int i = 0; i < this.size; i++) {
+                this.copy.add(this.backing.get(this.offset + i));
+            }
+            this.backing = null;
+        }
+        this.modCount++;
+        return this.copy;
+    }
+
+    @Override
+    public Insn get(int index) {
+        if (this.copy != null) {
+            return this.copy.get(index);
+        }
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return this.backing.get(this.offset + index);
+    }
+
+    @Override
+    public int size() {
+        return this.copy != null ? this.copy.size() : this.size;
+    }
+
+    @Override
+    public Insn set(int index, Insn element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, Insn element) {
+        materialize().add(index, element);
+    }
+
+    @Override
+    public Insn remove(int index) {
+        return materialize().remove(index);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+}
@@ -24,8 +24,6 @@
  */
 package org.spongepowered.despector.decompiler.method.graph.process;
 
-import org.spongepowered.despector.config.ConfigManager;
-import org.spongepowered.despector.config.LibraryConfiguration;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.decompiler.method.PartialMethod;
 import org.spongepowered.despector.decompiler.method.graph.GraphProcessor;
@@ -122,7 +120,7 @@ public class SubRegionBlockProcessor implements GraphProcessor {
         try {
             final_blocks.add(partial.getDecompiler().processRegion(partial, region, last, targeted_in_future ? 0 : 1));
         } catch (Exception e) {
-            if (ConfigManager.getConfig().print_opcodes_on_error) {
+            if (partial.getDecompiler().getEngine().getConfig().print_opcodes_on_error) {
                 List<String> comment = new ArrayList<>();
                 for (OpcodeBlock op : region) {
                     comment.add(op.getDebugHeader());
@@ -138,7 +136,7 @@ public class SubRegionBlockProcessor implements GraphProcessor {
                     }
                 }
                 final_blocks.add(new CommentBlockSection(comment));
-                if (!LibraryConfiguration.quiet) {
+                if (!partial.getDecompiler().getEngine().isQuiet()) {
                     System.err.println("Error decompiling subregion of " + partial.getEntry());
                     e.printStackTrace();
                 }
@@ -24,7 +24,6 @@
  */
 package org.spongepowered.despector.decompiler.method.graph.process;
 
-import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.decompiler.ir.JumpInsn;
 import org.spongepowered.despector.decompiler.ir.SwitchInsn;
@@ -110,7 +109,7 @@ public class SwitchBlockProcessor implements GraphProcessor {
                 try {
                     partial.getDecompiler().flattenGraph(partial, case_region, case_region.size(), cs.getBody());
                 } catch (Throwable e) {
-                    if (ConfigManager.getConfig().print_opcodes_on_error) {
+                    if (partial.getDecompiler().getEngine().getConfig().print_opcodes_on_error) {
                         List<String> comment = new ArrayList<>();
                         for (OpcodeBlock op : case_region) {
                             comment.add(op.getDebugHeader());
@@ -155,7 +154,7 @@ public class SwitchBlockProcessor implements GraphProcessor {
                 try {
                     partial.getDecompiler().flattenGraph(partial, case_region, case_region.size(), cs.getBody());
                 } catch (Exception e) {
-                    if (ConfigManager.getConfig().print_opcodes_on_error) {
+                    if (partial.getDecompiler().getEngine().getConfig().print_opcodes_on_error) {
                         List<String> comment = new ArrayList<>();
                         for (OpcodeBlock op : case_region) {
                             comment.add(op.getDebugHeader());
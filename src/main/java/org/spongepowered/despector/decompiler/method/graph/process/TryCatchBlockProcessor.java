@@ -27,10 +27,10 @@ package org.spongepowered.despector.decompiler.method.graph.process;
 import static com.google.common.base.Preconditions.checkState;
 
 import org.spongepowered.despector.ast.Locals;
-import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.decompiler.ir.IntInsn;
 import org.spongepowered.despector.decompiler.method.PartialMethod;
+import org.spongepowered.despector.decompiler.method.PartialMethod.TryCatchRegion;
 import org.spongepowered.despector.decompiler.method.graph.GraphProcessor;
 import org.spongepowered.despector.decompiler.method.graph.data.TryCatchMarkerType;
 import org.spongepowered.despector.decompiler.method.graph.data.block.BlockSection;
@@ -43,8 +43,10 @@ import org.spongepowered.despector.decompiler.method.graph.data.opcode.TryCatchM
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A graph processor to process try-catch blocks.
@@ -59,7 +61,7 @@ public class TryCatchBlockProcessor implements GraphProcessor {
             List<OpcodeBlock> body = new ArrayList<>();
             List<TryCatchMarkerOpcodeBlock> all_ends = new ArrayList<>();
 
-            for (int l = blocks.indexOf(marker.getEndMarker()); l < blocks.size(); l++) {
+            for (int l = partial.indexOf(blocks, marker.getEndMarker()); l < blocks.size(); l++) {
                 OpcodeBlock next_end = blocks.get(l);
                 if (!(next_end instanceof TryCatchMarkerOpcodeBlock)) {
                     break;
@@ -73,17 +75,18 @@ public class TryCatchBlockProcessor implements GraphProcessor {
             }
             TryCatchMarkerOpcodeBlock last_start = all_ends.get(all_ends.size() - 1).getStartMarker();
             TryCatchMarkerOpcodeBlock first_end = all_ends.get(0);
-            for (int end = blocks.indexOf(last_start) + 1; end < blocks.indexOf(first_end); end++) {
+            int body_end = partial.indexOf(blocks, first_end);
+            for (int end = partial.indexOf(blocks, last_start) + 1; end < body_end; end++) {
                 OpcodeBlock next = blocks.get(end);
                 body.add(next);
             }
-            int end = blocks.indexOf(all_ends.get(all_ends.size() - 1)) + 1;
+            int end = partial.indexOf(blocks, all_ends.get(all_ends.size() - 1)) + 1;
             OpcodeBlock next = blocks.get(end);
             OpcodeBlock end_of_catch = null;
             int last_block = -1;
             if (next instanceof GotoOpcodeBlock) {
                 end_of_catch = next.getTarget();
-                last_block = blocks.indexOf(end_of_catch);
+                last_block = partial.indexOf(blocks, end_of_catch);
                 if (last_block > 1) {
                     OpcodeBlock prev = blocks.get(last_block - 1);
                     if (prev instanceof TryCatchMarkerOpcodeBlock && ((TryCatchMarkerOpcodeBlock) prev).getType() == TryCatchMarkerType.START) {
@@ -97,7 +100,7 @@ public class TryCatchBlockProcessor implements GraphProcessor {
             try {
                 partial.getDecompiler().flattenGraph(partial, body, body.size(), try_section.getBody());
             } catch (Exception e) {
-                if (ConfigManager.getConfig().print_opcodes_on_error) {
+                if (partial.getDecompiler().getEngine().getConfig().print_opcodes_on_error) {
                     List<String> comment = new ArrayList<>();
                     for (OpcodeBlock op : body) {
                         comment.add(op.getDebugHeader());
@@ -110,7 +113,12 @@ public class TryCatchBlockProcessor implements GraphProcessor {
                     throw e;
                 }
             }
-            while (!all_ends.isEmpty()) {
+            // the regions whose catch blocks have not yet been found
+            Set<TryCatchRegion> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (TryCatchMarkerOpcodeBlock end_marker : all_ends) {
+                pending.add(end_marker.getAsmNode());
+            }
+            while (!pending.isEmpty()) {
                 end++;
                 next = blocks.get(end);
                 if (next instanceof TryCatchMarkerOpcodeBlock) {
@@ -121,16 +129,7 @@ public class TryCatchBlockProcessor implements GraphProcessor {
                         OpcodeBlock cnext = blocks.get(end++);
                         if (cnext instanceof TryCatchMarkerOpcodeBlock) {
                             TryCatchMarkerOpcodeBlock cnext_marker = (TryCatchMarkerOpcodeBlock) cnext;
-                            boolean found = false;
-                            for (Iterator<TryCatchMarkerOpcodeBlock> it = all_ends.iterator(); it.hasNext();) {
-                                TryCatchMarkerOpcodeBlock t = it.next();
-                                if (cnext_marker.getAsmNode() == t.getAsmNode()) {
-                                    found = true;
-                                    it.remove();
-                                    break;
-                                }
-                            }
-                            checkState(found);
+                            checkState(pending.remove(cnext_marker.getAsmNode()));
                             extra_exceptions.add(cnext_marker.getAsmNode().getException());
                         } else {
                             end--;
@@ -169,7 +168,7 @@ public class TryCatchBlockProcessor implements GraphProcessor {
                             if (cnext instanceof GotoOpcodeBlock && cnext.getTarget() == end_of_catch) {
                                 break;
                             } else if (cnext == end_of_catch) {
-                                all_ends.clear();
+                                pending.clear();
                                 break;
                             }
                         }
@@ -186,14 +185,14 @@ public class TryCatchBlockProcessor implements GraphProcessor {
                             catch_body.add(cnext);
                         }
 
-                        last_block = blocks.indexOf(catch_body.get(catch_body.size() - 1));
+                        last_block = partial.indexOf(blocks, catch_body.get(catch_body.size() - 1));
                         stop_index = catch_body.size();
                     }
                     CatchBlockSection cblock = new CatchBlockSection(extra_exceptions, local);
                     try {
                         partial.getDecompiler().flattenGraph(partial, catch_body, stop_index, cblock.getBody());
                     } catch (Exception e) {
-                        if (ConfigManager.getConfig().print_opcodes_on_error) {
+                        if (partial.getDecompiler().getEngine().getConfig().print_opcodes_on_error) {
                             List<String> comment = new ArrayList<>();
                             for (OpcodeBlock op : catch_body) {
                                 comment.add(op.getDebugHeader());
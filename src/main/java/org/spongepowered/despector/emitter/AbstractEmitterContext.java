@@ -31,6 +31,8 @@ import org.spongepowered.despector.ast.stmt.Statement;
 import org.spongepowered.despector.ast.type.FieldEntry;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.config.ConfigManager;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
@@ -40,6 +42,7 @@ import javax.annotation.Nullable;
 public abstract class AbstractEmitterContext {
 
     protected EmitterSet set;
+    protected ConfigBase config;
 
     protected TypeEntry type = null;
     protected TypeEntry outer_type = null;
@@ -62,6 +65,24 @@ public abstract class AbstractEmitterContext {
         this.set = checkNotNull(set, "set");
     }
 
+    /**
+     * Gets the configuration for this context, this is the global
+     * configuration unless one has been set explicitly.
+     */
+    public ConfigBase getConfig() {
+        if (this.config == null) {
+            return ConfigManager.getConfig();
+        }
+        return this.config;
+    }
+
+    /**
+     * Sets the configuration for this context.
+     */
+    public void setConfig(ConfigBase config) {
+        this.config = checkNotNull(config, "config");
+    }
+
     /**
      * Gets the current type being emitted.
      */
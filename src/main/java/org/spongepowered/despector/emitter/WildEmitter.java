@@ -24,6 +24,8 @@
  */
 package org.spongepowered.despector.emitter;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import org.spongepowered.despector.Language;
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
@@ -33,6 +35,22 @@ import org.spongepowered.despector.emitter.java.JavaEmitterContext;
  */
 public class WildEmitter implements Emitter<JavaEmitterContext> {
 
+    private final Emitter<JavaEmitterContext> java;
+    private final Emitter<JavaEmitterContext> kotlin;
+
+    public WildEmitter() {
+        this(Emitters.JAVA, Emitters.KOTLIN);
+    }
+
+    /**
+     * Creates a new emitter which delegates to the given java and kotlin
+     * emitters.
+     */
+    public WildEmitter(Emitter<JavaEmitterContext> java, Emitter<JavaEmitterContext> kotlin) {
+        this.java = checkNotNull(java, "java");
+        this.kotlin = checkNotNull(kotlin, "kotlin");
+    }
+
     @Override
     public void setup(JavaEmitterContext ctx) {
     }
@@ -40,9 +58,9 @@ public class WildEmitter implements Emitter<JavaEmitterContext> {
     @Override
     public void emit(JavaEmitterContext ctx, TypeEntry type) {
         if (type.getLanguage() == Language.KOTLIN) {
-            Emitters.KOTLIN.emit(ctx, type);
+            this.kotlin.emit(ctx, type);
         } else {
-            Emitters.JAVA.emit(ctx, type);
+            this.java.emit(ctx, type);
         }
     }
 
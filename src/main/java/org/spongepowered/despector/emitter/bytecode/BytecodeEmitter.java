@@ -24,15 +24,31 @@
  */
 package org.spongepowered.despector.emitter.bytecode;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.Emitter;
+import org.spongepowered.despector.emitter.EmitterSet;
 import org.spongepowered.despector.emitter.Emitters;
 
 public class BytecodeEmitter implements Emitter<BytecodeEmitterContext> {
 
+    private final EmitterSet set;
+
+    public BytecodeEmitter() {
+        this(Emitters.BYTECODE_SET);
+    }
+
+    /**
+     * Creates a new emitter which emits using the given {@link EmitterSet}.
+     */
+    public BytecodeEmitter(EmitterSet set) {
+        this.set = checkNotNull(set, "set");
+    }
+
     @Override
     public void setup(BytecodeEmitterContext ctx) {
-        ctx.setEmitterSet(Emitters.BYTECODE_SET);
+        ctx.setEmitterSet(this.set);
     }
 
     @Override
@@ -37,10 +37,13 @@ import org.objectweb.asm.util.Printer;
 import org.objectweb.asm.util.Textifier;
 import org.objectweb.asm.util.TraceMethodVisitor;
 import org.spongepowered.despector.ast.AstEntry;
+import org.spongepowered.despector.ast.SourceSet;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.condition.Condition;
 import org.spongepowered.despector.ast.stmt.Statement;
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.ast.type.InterfaceEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.AbstractEmitterContext;
 import org.spongepowered.despector.emitter.AstEmitter;
@@ -52,6 +55,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -61,6 +65,7 @@ public class BytecodeEmitterContext extends AbstractEmitterContext {
     private static final boolean DUMP_INSTRUCTIONS_AFTER_WRITE = Boolean.getBoolean("despect.bytecode.dump_instructions");
 
     private final OutputStream out;
+    private boolean verify = VERIFY_EMITTED_BYTECODE;
 
     private ClassVisitor cw;
     private MethodVisitor mv;
@@ -72,6 +77,17 @@ public class BytecodeEmitterContext extends AbstractEmitterContext {
         this.out = out;
     }
 
+    /**
+     * Gets if emitted classes are checked by a {@link CheckClassAdapter}.
+     */
+    public boolean isVerifying() {
+        return this.verify;
+    }
+
+    public void setVerifying(boolean state) {
+        this.verify = state;
+    }
+
     public void resetMaxs() {
         this.maxs = 0;
     }
@@ -87,9 +103,9 @@ public class BytecodeEmitterContext extends AbstractEmitterContext {
 
     @SuppressWarnings("unchecked")
     public <T extends TypeEntry> void emitOuterType(T ast) {
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        ClassWriter writer = new SourceSetClassWriter(ast.getSource());
         this.cw = writer;
-        if (VERIFY_EMITTED_BYTECODE) {
+        if (this.verify) {
             this.cw = new CheckClassAdapter(this.cw);
         }
         AstEmitter<AbstractEmitterContext, T> emitter = (AstEmitter<AbstractEmitterContext, T>) this.set.getAstEmitter(ast.getClass());
@@ -201,4 +217,65 @@ public class BytecodeEmitterContext extends AbstractEmitterContext {
         this.mv = mv;
     }
 
+    /**
+     * A class writer which resolves common super classes for frame
+     * computation from the source set before falling back to loading the
+     * classes.
+     */
+    private static class SourceSetClassWriter extends ClassWriter {
+
+        private final SourceSet source;
+
+        SourceSetClassWriter(SourceSet source) {
+            super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+            this.source = source;
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            if (this.source != null) {
+                List<String> supers1 = collectSupers(type1);
+                List<String> supers2 = collectSupers(type2);
+                if (supers1 == null || supers2 == null) {
+                    return "java/lang/Object";
+                }
+                // the chains may be cut short by types missing from the
+                // source set but the first shared type is still the closest
+                for (String type : supers2) {
+                    if (supers1.contains(type)) {
+                        return type;
+                    }
+                }
+            }
+            try {
+                return super.getCommonSuperClass(type1, type2);
+            } catch (RuntimeException e) {
+                return "java/lang/Object";
+            }
+        }
+
+        /**
+         * Gets the given type followed by its super classes as far as they
+         * are known to the source set, or null if the type is an interface.
+         */
+        private List<String> collectSupers(String type) {
+            List<String> supers = new ArrayList<>();
+            String next = type;
+            while (next != null) {
+                supers.add(next);
+                TypeEntry entry = this.source.get(next);
+                if (entry instanceof InterfaceEntry) {
+                    return null;
+                }
+                if (entry instanceof ClassEntry && !"java/lang/Object".equals(next)) {
+                    next = ((ClassEntry) entry).getSuperclassName();
+                } else {
+                    next = null;
+                }
+            }
+            return supers;
+        }
+
+    }
+
 }
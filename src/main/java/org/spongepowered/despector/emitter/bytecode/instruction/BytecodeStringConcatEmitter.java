@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.emitter.bytecode.instruction;
+
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.spongepowered.despector.ast.generic.TypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
+import org.spongepowered.despector.emitter.InstructionEmitter;
+import org.spongepowered.despector.emitter.bytecode.BytecodeEmitterContext;
+
+public class BytecodeStringConcatEmitter implements InstructionEmitter<BytecodeEmitterContext, StringConcat> {
+
+    @Override
+    public void emit(BytecodeEmitterContext ctx, StringConcat arg, TypeSignature type) {
+        MethodVisitor mv = ctx.getMethodVisitor();
+        mv.visitTypeInsn(Opcodes.NEW, "java/lang/StringBuilder");
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false);
+        ctx.updateStack(1);
+        for (Instruction operand : arg.getOperands()) {
+            ctx.emitInstruction(operand, null);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                    "(" + getAppendType(operand.inferType()) + ")Ljava/lang/StringBuilder;", false);
+            ctx.updateStack(-1);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+    }
+
+    private static String getAppendType(TypeSignature type) {
+        if (type == null) {
+            return "Ljava/lang/Object;";
+        }
+        String desc = type.getDescriptor();
+        switch (desc) {
+        case "Z":
+        case "C":
+        case "I":
+        case "J":
+        case "F":
+        case "D":
+        case "Ljava/lang/String;":
+            return desc;
+        case "B":
+        case "S":
+            return "I";
+        default:
+            return "Ljava/lang/Object;";
+        }
+    }
+
+}
@@ -83,6 +83,11 @@ public class BytecodeMethodEntryEmitter implements AstEmitter<BytecodeEmitterCon
         }
         MethodVisitor mv = ctx.getClassWriter().visitMethod(acc, ast.getName(), ast.getDescription(), null, null);
         ctx.setMethodVisitor(mv);
+        if (ast.isAbstract() || ast.isNative()) {
+            mv.visitEnd();
+            return true;
+        }
+        ctx.setMethod(ast);
         mv.visitCode();
         Label start = new Label();
         mv.visitLabel(start);
@@ -106,6 +111,7 @@ public class BytecodeMethodEntryEmitter implements AstEmitter<BytecodeEmitterCon
         }
         mv.visitMaxs(ctx.getMaxs(), maxLocal);
         mv.visitEnd();
+        ctx.setMethod(null);
         return true;
     }
 
@@ -46,6 +46,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -80,6 +81,7 @@ public class ImportManager {
     private final List<String> implicit_imports = new ArrayList<>();
     private final Set<String> imports = new HashSet<>();
     private final Set<TypeEntry> checked = new HashSet<>();
+    private int generation;
 
     public ImportManager() {
         addImplicitImport("java/lang/");
@@ -91,6 +93,15 @@ public class ImportManager {
     public void reset() {
         this.imports.clear();
         this.checked.clear();
+        this.generation++;
+    }
+
+    /**
+     * Gets a counter which changes whenever the imports of this manager
+     * change.
+     */
+    public int getGeneration() {
+        return this.generation;
     }
 
     /**
@@ -103,6 +114,7 @@ public class ImportManager {
     public void addImplicitImport(String i) {
         if (!this.implicit_imports.contains(i)) {
             this.implicit_imports.add(i);
+            this.generation++;
         }
     }
 
@@ -163,7 +175,9 @@ public class ImportManager {
                 return;
             }
         }
-        this.imports.add(type);
+        if (this.imports.add(type)) {
+            this.generation++;
+        }
     }
 
     private void check(Annotation anno) {
@@ -260,6 +274,7 @@ public class ImportManager {
             String i = it.next();
             if (i.equals(ctx.getOuterType().getName())) {
                 it.remove();
+                this.generation++;
             }
         }
         List<String> imports = Lists.newArrayList(this.imports);
@@ -393,6 +408,10 @@ public class ImportManager {
         public void visitStaticMethodInvoke(StaticMethodInvoke insn) {
         }
 
+        @Override
+        public void visitStringConcat(StringConcat insn) {
+        }
+
         @Override
         public void visitStringConstant(StringConstant insn) {
         }
@@ -24,8 +24,11 @@
  */
 package org.spongepowered.despector.emitter.java;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.Emitter;
+import org.spongepowered.despector.emitter.EmitterSet;
 import org.spongepowered.despector.emitter.Emitters;
 import org.spongepowered.despector.parallel.Timing;
 
@@ -34,10 +37,23 @@ import org.spongepowered.despector.parallel.Timing;
  */
 public class JavaEmitter implements Emitter<JavaEmitterContext> {
 
+    private final EmitterSet set;
+
+    public JavaEmitter() {
+        this(Emitters.JAVA_SET);
+    }
+
+    /**
+     * Creates a new emitter which emits using the given {@link EmitterSet}.
+     */
+    public JavaEmitter(EmitterSet set) {
+        this.set = checkNotNull(set, "set");
+    }
+
     @Override
     public void setup(JavaEmitterContext ctx) {
         ctx.setSemicolons(true);
-        ctx.setEmitterSet(Emitters.JAVA_SET);
+        ctx.setEmitterSet(this.set);
     }
 
     @Override
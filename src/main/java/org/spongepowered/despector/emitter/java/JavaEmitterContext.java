@@ -63,7 +63,9 @@ import org.spongepowered.despector.util.TypeHelper;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -89,6 +91,13 @@ public class JavaEmitterContext extends AbstractEmitterContext {
 
     private final Set<Class<? extends Statement>> block_statements = new HashSet<>();
 
+    // rendered type names, valid for the imports and outer type they were
+    // rendered against
+    private final Map<String, String> type_names = new HashMap<>();
+    private final Map<String, String> desc_type_names = new HashMap<>();
+    private int type_names_generation = -1;
+    private TypeEntry type_names_outer;
+
     public JavaEmitterContext(Writer output, EmitterFormat format) {
         this.output = output;
         this.format = format;
@@ -368,7 +377,30 @@ public class JavaEmitterContext extends AbstractEmitterContext {
      * account.
      */
     public String getType(String name) {
-        return getTypeName(TypeHelper.descToType(name));
+        checkTypeNames();
+        String rendered = this.desc_type_names.get(name);
+        if (rendered == null) {
+            rendered = getTypeName(TypeHelper.descToType(name));
+            this.desc_type_names.put(name, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Clears the rendered type names if the imports or the outer type have
+     * changed since they were rendered. A rendered name only depends on the
+     * package and outer name of the current type so the names are kept while
+     * moving between a type and its inner types.
+     */
+    private void checkTypeNames() {
+        int generation = this.import_manager.getGeneration();
+        TypeEntry outer = this.outer_type != null ? this.outer_type : this.type;
+        if (generation != this.type_names_generation || outer != this.type_names_outer) {
+            this.type_names.clear();
+            this.desc_type_names.clear();
+            this.type_names_generation = generation;
+            this.type_names_outer = outer;
+        }
     }
 
     /**
@@ -376,6 +408,16 @@ public class JavaEmitterContext extends AbstractEmitterContext {
      * account.
      */
     public String getTypeName(String name) {
+        checkTypeNames();
+        String rendered = this.type_names.get(name);
+        if (rendered == null) {
+            rendered = renderTypeName(name);
+            this.type_names.put(name, rendered);
+        }
+        return rendered;
+    }
+
+    private String renderTypeName(String name) {
         if (name.endsWith("[]")) {
             String n = getTypeName(name.substring(0, name.length() - 2));
             if (this.format.insert_space_before_opening_bracket_in_array_type_reference) {
@@ -428,7 +470,7 @@ public class JavaEmitterContext extends AbstractEmitterContext {
      * Emits the given type descriptor taking imports into account.
      */
     public JavaEmitterContext emitType(String name) {
-        emitTypeName(TypeHelper.descToType(name));
+        printString(getType(name));
         return this;
     }
 
@@ -38,7 +38,7 @@ public class CastEmitter implements InstructionEmitter<JavaEmitterContext, Cast>
     @Override
     public void emit(JavaEmitterContext ctx, Cast arg, TypeSignature type) {
         TypeSignature inferred = arg.getValue().inferType();
-        if (inferred.equals(arg.getType())) {
+        if (arg.getType().equals(inferred)) {
             ctx.emit(arg.getValue(), arg.getType());
             return;
         }
@@ -43,7 +43,7 @@ public class DynamicInvokeEmitter implements InstructionEmitter<JavaEmitterConte
 
     @Override
     public void emit(JavaEmitterContext ctx, Lambda arg, TypeSignature type) {
-        TypeEntry owner = ctx.getType().getSource().get(TypeHelper.descToType(arg.getLambdaOwner()));
+        TypeEntry owner = ctx.getType().getSource().getMembers().getType(TypeHelper.descToType(arg.getLambdaOwner()));
         MethodEntry method = owner.getStaticMethod(arg.getLambdaMethod());
         if (method == null) {
             method = owner.getMethod(arg.getLambdaMethod());
@@ -24,24 +24,17 @@
  */
 package org.spongepowered.despector.emitter.java.instruction;
 
-import com.google.common.collect.Lists;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
-import org.spongepowered.despector.ast.insn.cst.StringConstant;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.var.LocalAccess;
 import org.spongepowered.despector.ast.stmt.invoke.InstanceMethodInvoke;
-import org.spongepowered.despector.ast.stmt.invoke.New;
-import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
 import org.spongepowered.despector.ast.type.MethodEntry;
-import org.spongepowered.despector.ast.type.TypeEntry;
-import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.emitter.InstructionEmitter;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
-import org.spongepowered.despector.util.TypeHelper;
 
-import java.util.List;
 
 /**
  * An emitter for instance method invoke instructions.
@@ -50,11 +43,6 @@ public class InstanceMethodInvokeEmitter implements InstructionEmitter<JavaEmitt
 
     @Override
     public void emit(JavaEmitterContext ctx, InstanceMethodInvoke arg, TypeSignature type) {
-        if (arg.getOwner().equals("Ljava/lang/StringBuilder;") && arg.getMethodName().equals("toString")) {
-            if (replaceStringConcat(ctx, arg)) {
-                return;
-            }
-        }
         if (arg.getMethodName().equals("<init>")) {
             if (ctx.getType() != null) {
                 if (arg.getOwnerName().equals(ctx.getType().getName())) {
@@ -71,7 +59,7 @@ public class InstanceMethodInvokeEmitter implements InstructionEmitter<JavaEmitt
                 if (local.getLocal().getIndex() == 0) {
                     if (ctx.getType() != null && !arg.getOwnerName().equals(ctx.getType().getName())) {
                         ctx.printString("super.");
-                    } else if (ConfigManager.getConfig().emitter.emit_this_for_methods) {
+                    } else if (ctx.getConfig().emitter.emit_this_for_methods) {
                         ctx.printString("this.");
                     }
                 } else {
@@ -79,24 +67,26 @@ public class InstanceMethodInvokeEmitter implements InstructionEmitter<JavaEmitt
                     ctx.markWrapPoint();
                     ctx.printString(".");
                 }
+            } else if (arg.getCallee() instanceof StringConcat) {
+                ctx.printString("(");
+                ctx.emit(arg.getCallee(), ClassTypeSignature.STRING);
+                ctx.printString(")");
+                ctx.markWrapPoint();
+                ctx.printString(".");
             } else {
-                ctx.emit(arg.getCallee(), ClassTypeSignature.of(arg.getOwner()));
+                ctx.emit(arg.getCallee(), arg.getOwnerType());
                 ctx.markWrapPoint();
                 ctx.printString(".");
             }
             ctx.printString(arg.getMethodName());
         }
         boolean is_varargs = false;
-        TypeEntry target = ctx.getType().getSource().get(arg.getOwnerName());
-        if (target != null) {
-            MethodEntry mth = target.getMethod(arg.getMethodName(), arg.getMethodDescription());
-            // TODO need to search up superclasses if not found
-            if (mth != null) {
-                is_varargs = mth.isVarargs();
-            }
+        MethodEntry mth = ctx.getType().getSource().getMembers().resolveMethod(arg.getOwnerName(), arg.getMethodName(),
+                arg.getMethodDescription());
+        if (mth != null) {
+            is_varargs = mth.isVarargs();
         }
         ctx.printString("(");
-        List<String> param_types = TypeHelper.splitSig(arg.getMethodDescription());
         for (int i = 0; i < arg.getParameters().length; i++) {
             Instruction param = arg.getParameters()[i];
             if (is_varargs && i == arg.getParameters().length - 1 && param instanceof NewArray) {
@@ -112,7 +102,7 @@ public class InstanceMethodInvokeEmitter implements InstructionEmitter<JavaEmitt
                     break;
                 }
             }
-            ctx.emit(param, ClassTypeSignature.of(param_types.get(i)));
+            ctx.emit(param, arg.getParameterType(i));
             if (i < arg.getParameters().length - 1) {
                 ctx.printString(", ");
                 ctx.markWrapPoint();
@@ -121,65 +111,4 @@ public class InstanceMethodInvokeEmitter implements InstructionEmitter<JavaEmitt
         ctx.printString(")");
     }
 
-    protected boolean replaceStringConcat(JavaEmitterContext ctx, InstanceMethodInvoke arg) {
-        // We detect and collapse string builder chains used to perform
-        // string concatentation into simple "foo" + "bar" form
-        boolean valid = true;
-        Instruction callee = arg.getCallee();
-        List<Instruction> constants = Lists.newArrayList();
-        // We add all the constants to the front of this list as we have to
-        // replay them in the reverse of the ordering that we will encounter
-        // them in
-        while (callee != null) {
-            if (callee instanceof InstanceMethodInvoke) {
-                InstanceMethodInvoke call = (InstanceMethodInvoke) callee;
-                if (call.getParameters().length == 1) {
-                    constants.add(0, call.getParameters()[0]);
-                    callee = call.getCallee();
-                    continue;
-                }
-            } else if (callee instanceof New) {
-                New ref = (New) callee;
-                if ("Ljava/lang/StringBuilder;".equals(ref.getType().getDescriptor())) {
-                    if (ref.getParameters().length == 1) {
-                        Instruction initial = ref.getParameters()[0];
-                        if (initial instanceof StaticMethodInvoke) {
-                            StaticMethodInvoke valueof = (StaticMethodInvoke) initial;
-                            if (valueof.getMethodName().equals("valueOf") && valueof.getOwner().equals("Ljava/lang/String;")) {
-                                Instruction internal = valueof.getParameters()[0];
-                                if (internal instanceof StringConstant) {
-                                    initial = internal;
-                                } else if (internal instanceof LocalAccess) {
-                                    LocalAccess local = (LocalAccess) internal;
-                                    if (local.getLocal().getType() == ClassTypeSignature.STRING) {
-                                        initial = local;
-                                    }
-                                }
-                            }
-                        }
-                        constants.add(0, initial);
-                    }
-                    break;
-                }
-                valid = false;
-                break;
-            } else if (callee instanceof LocalAccess) {
-                valid = false;
-                break;
-            }
-            valid = false;
-        }
-        if (valid) {
-            for (int i = 0; i < constants.size(); i++) {
-                ctx.emit(constants.get(i), ClassTypeSignature.STRING);
-                if (i < constants.size() - 1) {
-                    ctx.markWrapPoint();
-                    ctx.printString(" + ");
-                }
-            }
-            return true;
-        }
-        return false;
-    }
-
 }
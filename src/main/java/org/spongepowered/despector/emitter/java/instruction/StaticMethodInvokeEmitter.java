@@ -24,7 +24,6 @@
  */
 package org.spongepowered.despector.emitter.java.instruction;
 
-import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.generic.VoidTypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
@@ -41,9 +40,7 @@ import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.InstructionEmitter;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
-import org.spongepowered.despector.util.TypeHelper;
 
-import java.util.List;
 
 /**
  * An emitter for static method invoke instructions.
@@ -52,7 +49,7 @@ public class StaticMethodInvokeEmitter implements InstructionEmitter<JavaEmitter
 
     @Override
     public void emit(JavaEmitterContext ctx, StaticMethodInvoke arg, TypeSignature type) {
-        String owner = TypeHelper.descToType(arg.getOwner());
+        String owner = arg.getOwnerName();
         if (arg.getMethodName().startsWith("access$") && ctx.getType() != null) {
             if (replaceSyntheticAccessor(ctx, arg, owner)) {
                 return;
@@ -63,15 +60,12 @@ public class StaticMethodInvokeEmitter implements InstructionEmitter<JavaEmitter
             ctx.printString(".");
         }
         boolean is_varargs = false;
-        TypeEntry target = ctx.getType().getSource().get(arg.getOwnerName());
-        if (target != null) {
-            MethodEntry mth = target.getStaticMethod(arg.getMethodName(), arg.getMethodDescription());
-            if (mth != null) {
-                is_varargs = mth.isVarargs();
-            }
+        MethodEntry mth = ctx.getType().getSource().getMembers().resolveStaticMethod(arg.getOwnerName(), arg.getMethodName(),
+                arg.getMethodDescription());
+        if (mth != null) {
+            is_varargs = mth.isVarargs();
         }
         ctx.printString(arg.getMethodName());
-        List<String> param_types = TypeHelper.splitSig(arg.getMethodDescription());
         ctx.printString("(");
         for (int i = 0; i < arg.getParameters().length; i++) {
             Instruction param = arg.getParameters()[i];
@@ -88,7 +82,7 @@ public class StaticMethodInvokeEmitter implements InstructionEmitter<JavaEmitter
                     break;
                 }
             }
-            ctx.emit(param, ClassTypeSignature.of(param_types.get(i)));
+            ctx.emit(param, arg.getParameterType(i));
             if (i < arg.getParameters().length - 1) {
                 ctx.printString(", ");
                 ctx.markWrapPoint();
@@ -100,7 +94,7 @@ public class StaticMethodInvokeEmitter implements InstructionEmitter<JavaEmitter
     protected boolean replaceSyntheticAccessor(JavaEmitterContext ctx, StaticMethodInvoke arg, String owner) {
         // synthetic accessor
         // we resolve these to the field that they are accessing directly
-        TypeEntry owner_type = ctx.getType().getSource().get(owner);
+        TypeEntry owner_type = ctx.getType().getSource().getMembers().getType(owner);
         if (owner_type != null) {
             MethodEntry accessor = owner_type.getStaticMethod(arg.getMethodName());
             if (accessor.getReturnType().equals(VoidTypeSignature.VOID)) {
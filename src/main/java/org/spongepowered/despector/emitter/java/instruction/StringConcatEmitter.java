@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.emitter.java.instruction;
+
+import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.generic.TypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.cst.StringConstant;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
+import org.spongepowered.despector.ast.insn.misc.Ternary;
+import org.spongepowered.despector.ast.insn.op.Operator;
+import org.spongepowered.despector.ast.insn.op.OperatorType;
+import org.spongepowered.despector.emitter.InstructionEmitter;
+import org.spongepowered.despector.emitter.java.JavaEmitterContext;
+
+/**
+ * An emitter for string concatenations.
+ */
+public class StringConcatEmitter implements InstructionEmitter<JavaEmitterContext, StringConcat> {
+
+    @Override
+    public void emit(JavaEmitterContext ctx, StringConcat arg, TypeSignature type) {
+        Instruction[] operands = arg.getOperands();
+        boolean prefixed = !isString(operands[0]) && (operands.length == 1 || !isString(operands[1]));
+        if (prefixed) {
+            // neither of the first two operands is a string so an empty string
+            // is needed to keep the addition a string concatenation
+            ctx.printString("\"\"");
+            ctx.markWrapPoint();
+            ctx.printString(" + ");
+        }
+        for (int i = 0; i < operands.length; i++) {
+            Instruction next = operands[i];
+            boolean parens = needsParens(next, i == 0 && !prefixed);
+            if (parens) {
+                ctx.printString("(");
+            }
+            ctx.emit(next, ClassTypeSignature.STRING);
+            if (parens) {
+                ctx.printString(")");
+            }
+            if (i < operands.length - 1) {
+                ctx.markWrapPoint();
+                ctx.printString(" + ");
+            }
+        }
+    }
+
+    private static boolean isString(Instruction insn) {
+        if (insn instanceof StringConstant || insn instanceof StringConcat) {
+            return true;
+        }
+        TypeSignature type = insn.inferType();
+        return type == null || ClassTypeSignature.STRING.equals(type);
+    }
+
+    private static boolean needsParens(Instruction insn, boolean first) {
+        if (insn instanceof Ternary) {
+            return true;
+        }
+        if (insn instanceof Operator) {
+            int precedence = ((Operator) insn).getOperator().getPrecedence();
+            // the concatenation is left associative so only the first operand
+            // may be an addition without changing its meaning
+            return first ? precedence < OperatorType.ADD.getPrecedence() : precedence <= OperatorType.ADD.getPrecedence();
+        }
+        return false;
+    }
+
+}
@@ -26,7 +26,6 @@ package org.spongepowered.despector.emitter.java.instruction;
 
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.cst.StringConstant;
-import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.emitter.InstructionEmitter;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
 
@@ -69,7 +68,7 @@ public class StringConstantEmitter implements InstructionEmitter<JavaEmitterCont
 
     @Override
     public void emit(JavaEmitterContext ctx, StringConstant arg, TypeSignature type) {
-        if (arg.getConstant().contains("\n") && ConfigManager.getConfig().kotlin.replace_mulit_line_strings) {
+        if (arg.getConstant().contains("\n") && ctx.getConfig().kotlin.replace_mulit_line_strings) {
             ctx.printString("\"\"\"");
             String[] lines = arg.getConstant().split("\n");
             for (int i = 0; i < lines.length; i++) {
@@ -24,21 +24,14 @@
  */
 package org.spongepowered.despector.emitter.java.statement;
 
-import com.google.common.collect.Maps;
+import org.spongepowered.despector.ast.SwitchMapIndex;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
-import org.spongepowered.despector.ast.insn.cst.IntConstant;
 import org.spongepowered.despector.ast.insn.var.ArrayAccess;
-import org.spongepowered.despector.ast.insn.var.FieldAccess;
 import org.spongepowered.despector.ast.insn.var.StaticFieldAccess;
-import org.spongepowered.despector.ast.stmt.Statement;
-import org.spongepowered.despector.ast.stmt.assign.ArrayAssignment;
 import org.spongepowered.despector.ast.stmt.branch.Switch;
 import org.spongepowered.despector.ast.stmt.branch.Switch.Case;
-import org.spongepowered.despector.ast.stmt.branch.TryCatch;
 import org.spongepowered.despector.ast.stmt.invoke.InstanceMethodInvoke;
 import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
-import org.spongepowered.despector.ast.type.MethodEntry;
-import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.StatementEmitter;
 import org.spongepowered.despector.emitter.format.EmitterFormat.BracePosition;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
@@ -50,30 +43,6 @@ import java.util.Map;
  */
 public class SwitchEmitter implements StatementEmitter<JavaEmitterContext, Switch> {
 
-    private Map<Integer, String> buildSwitchTable(MethodEntry mth, String field) {
-        Map<Integer, String> table = Maps.newHashMap();
-
-        for (Statement stmt : mth.getInstructions().getStatements()) {
-            if (stmt instanceof TryCatch) {
-                TryCatch next = (TryCatch) stmt;
-                ArrayAssignment assign = (ArrayAssignment) next.getTryBlock().getStatements().get(0);
-                int jump_index = ((IntConstant) assign.getValue()).getConstant();
-                InstanceMethodInvoke ordinal = (InstanceMethodInvoke) assign.getIndex();
-                StaticFieldAccess callee = (StaticFieldAccess) ordinal.getCallee();
-                if (field == null) {
-                    table.put(jump_index, callee.getFieldName());
-                } else {
-                    FieldAccess fld = (FieldAccess) assign.getArray();
-                    if (fld.getFieldName().equals(field)) {
-                        table.put(jump_index, callee.getFieldName());
-                    }
-                }
-            }
-        }
-
-        return table;
-    }
-
     @Override
     public void emit(JavaEmitterContext ctx, Switch tswitch, boolean semicolon) {
         Map<Integer, String> table = null;
@@ -85,8 +54,8 @@ public class SwitchEmitter implements StatementEmitter<JavaEmitterContext, Switc
             if (var.getArrayVar() instanceof StaticMethodInvoke) {
                 StaticMethodInvoke arg = (StaticMethodInvoke) var.getArrayVar();
                 if (arg.getMethodName().contains("$SWITCH_TABLE$") && ctx.getType() != null) {
-                    MethodEntry mth = ctx.getType().getStaticMethod(arg.getMethodName(), arg.getMethodDescription());
-                    table = buildSwitchTable(mth, null);
+                    SwitchMapIndex index = ctx.getType().getSource().getSwitchMaps();
+                    table = index.getTable(ctx.getType().getName(), arg.getMethodName(), arg.getMethodName());
                     String enum_type = arg.getMethodName().substring("$SWITCH_TABLE$".length()).replace('$', '/');
                     ctx.emit(((InstanceMethodInvoke) var.getIndex()).getCallee(), ClassTypeSignature.of("L" + enum_type + ";"));
                     synthetic = true;
@@ -94,9 +63,8 @@ public class SwitchEmitter implements StatementEmitter<JavaEmitterContext, Switc
             } else if (var.getArrayVar() instanceof StaticFieldAccess) {
                 StaticFieldAccess arg = (StaticFieldAccess) var.getArrayVar();
                 if (arg.getFieldName().startsWith("$SwitchMap") && ctx.getType() != null) {
-                    TypeEntry owner = ctx.getType().getSource().get(arg.getOwnerName());
-                    MethodEntry mth = owner.getStaticMethod("<clinit>");
-                    table = buildSwitchTable(mth, arg.getFieldName());
+                    SwitchMapIndex index = ctx.getType().getSource().getSwitchMaps();
+                    table = index.getTable(arg.getOwnerName(), "<clinit>", arg.getFieldName());
                     String enum_type = arg.getFieldName().substring("$SwitchMap/".length()).replace('$', '/');
                     ctx.emit(((InstanceMethodInvoke) var.getIndex()).getCallee(), ClassTypeSignature.of("L" + enum_type + ";"));
                     synthetic = true;
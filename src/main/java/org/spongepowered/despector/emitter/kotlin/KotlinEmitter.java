@@ -24,8 +24,11 @@
  */
 package org.spongepowered.despector.emitter.kotlin;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.emitter.Emitter;
+import org.spongepowered.despector.emitter.EmitterSet;
 import org.spongepowered.despector.emitter.Emitters;
 import org.spongepowered.despector.emitter.java.ImportManager;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
@@ -35,10 +38,23 @@ import org.spongepowered.despector.emitter.java.JavaEmitterContext;
  */
 public class KotlinEmitter implements Emitter<JavaEmitterContext> {
 
+    private final EmitterSet set;
+
+    public KotlinEmitter() {
+        this(Emitters.KOTLIN_SET);
+    }
+
+    /**
+     * Creates a new emitter which emits using the given {@link EmitterSet}.
+     */
+    public KotlinEmitter(EmitterSet set) {
+        this.set = checkNotNull(set, "set");
+    }
+
     @Override
     public void setup(JavaEmitterContext ctx) {
         ctx.setSemicolons(false);
-        ctx.setEmitterSet(Emitters.KOTLIN_SET);
+        ctx.setEmitterSet(this.set);
         ImportManager imports = ctx.getImportManager();
         imports.addImplicitImport("kotlin/");
         imports.addImplicitImport("kotlin/annotation/");
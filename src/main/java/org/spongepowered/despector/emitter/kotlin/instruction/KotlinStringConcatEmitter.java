@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.emitter.kotlin.instruction;
+
+import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.generic.TypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.cst.StringConstant;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
+import org.spongepowered.despector.ast.insn.var.LocalAccess;
+import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
+import org.spongepowered.despector.emitter.InstructionEmitter;
+import org.spongepowered.despector.emitter.java.JavaEmitterContext;
+
+/**
+ * An emitter for kotlin string concatenations which emits them as string
+ * templates where possible.
+ */
+public class KotlinStringConcatEmitter implements InstructionEmitter<JavaEmitterContext, StringConcat> {
+
+    @Override
+    public void emit(JavaEmitterContext ctx, StringConcat arg, TypeSignature type) {
+        Instruction[] operands = arg.getOperands();
+        boolean in_string = false;
+        for (int i = 0; i < operands.length; i++) {
+            Instruction next = operands[i];
+            if (next instanceof StringConstant) {
+                if (!in_string) {
+                    if (i == 0) {
+                        ctx.printString("\"");
+                    } else {
+                        ctx.printString(" + \"");
+                    }
+                    in_string = true;
+                }
+                // TODO escape string
+                ctx.printString(((StringConstant) next).getConstant());
+                continue;
+            } else if (next instanceof LocalAccess) {
+                if (!in_string && i < operands.length - 1 && operands[i + 1] instanceof StringConstant) {
+                    in_string = true;
+                    ctx.printString("\"");
+                }
+                if (in_string) {
+                    ctx.printString("$");
+                    ctx.printString(((LocalAccess) next).getLocal().getName());
+                } else {
+                    ctx.markWrapPoint();
+                    ctx.printString(" + ");
+                    ctx.printString(((LocalAccess) next).getLocal().getName());
+                    if (i < operands.length - 1) {
+                        ctx.markWrapPoint();
+                        ctx.printString(" + ");
+                    }
+                }
+                continue;
+            } else if (next instanceof StaticMethodInvoke) {
+                StaticMethodInvoke mth = (StaticMethodInvoke) next;
+                if ("Lkotlin/text/StringsKt;".equals(mth.getOwner()) && "replace$default".equals(mth.getMethodName())) {
+                    if (!in_string) {
+                        if (i == 0) {
+                            ctx.printString("\"");
+                        } else {
+                            ctx.markWrapPoint();
+                            ctx.printString(" + \"");
+                        }
+                        in_string = true;
+                    }
+                    ctx.printString("${");
+                    ctx.emit(mth.getParameters()[0], ClassTypeSignature.STRING);
+                    ctx.printString(".replace(");
+                    ctx.emit(mth.getParameters()[1], ClassTypeSignature.STRING);
+                    ctx.printString(", ");
+                    ctx.emit(mth.getParameters()[2], ClassTypeSignature.STRING);
+                    ctx.printString(")}");
+                    continue;
+                }
+            }
+            if (in_string) {
+                ctx.printString("\"");
+                ctx.markWrapPoint();
+                ctx.printString(" + ");
+                in_string = false;
+            }
+            ctx.emit(operands[i], ClassTypeSignature.STRING);
+            if (i < operands.length - 1) {
+                ctx.markWrapPoint();
+                ctx.printString(" + ");
+            }
+        }
+        if (in_string) {
+            ctx.printString("\"");
+        }
+    }
+
+}
@@ -24,7 +24,6 @@
  */
 package org.spongepowered.despector.emitter.kotlin.instruction.method;
 
-import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
 import org.spongepowered.despector.ast.insn.Instruction;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
@@ -32,45 +31,37 @@ import org.spongepowered.despector.ast.insn.var.LocalAccess;
 import org.spongepowered.despector.ast.stmt.invoke.InstanceMethodInvoke;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
 import org.spongepowered.despector.emitter.java.instruction.InstanceMethodInvokeEmitter;
-import org.spongepowered.despector.util.TypeHelper;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import org.spongepowered.despector.util.MemberMap;
 
 /**
  * An emitter for kotlin instance method invoke instructions.
  */
 public class KotlinInstanceMethodInvokeEmitter extends InstanceMethodInvokeEmitter {
 
-    private static final Set<String> NO_CALLEE = new HashSet<>();
-    private static final Set<String> NO_PARAMS = new HashSet<>();
-    private static final Map<String, SpecialMethodEmitter<InstanceMethodInvoke>> SPECIAL = new HashMap<>();
+    private static final MemberMap<Boolean> NO_CALLEE = new MemberMap<>();
+    private static final MemberMap<Boolean> NO_PARAMS = new MemberMap<>();
+    private static final MemberMap<SpecialMethodEmitter<InstanceMethodInvoke>> SPECIAL = new MemberMap<>();
 
     static {
-        NO_CALLEE.add("Ljava/io/PrintStream;println");
-        NO_CALLEE.add("Ljava/io/PrintStream;print");
+        NO_CALLEE.put("Ljava/io/PrintStream;", "println", true);
+        NO_CALLEE.put("Ljava/io/PrintStream;", "print", true);
 
-        NO_PARAMS.add("Ljava/lang/String;length");
+        NO_PARAMS.put("Ljava/lang/String;", "length", true);
 
-        SPECIAL.put("Ljava/lang/StringBuilder;toString", new StringConcatEmitter());
-        SPECIAL.put("Ljava/util/List;contains", new ListContainsEmitter());
+        SPECIAL.put("Ljava/util/List;", "contains", new ListContainsEmitter());
         MapGetEmitter map_get = new MapGetEmitter();
-        SPECIAL.put("Ljava/util/Map;get", map_get);
-        SPECIAL.put("Ljava/util/HashMap;get", map_get);
-        SPECIAL.put("Ljava/lang/String;charAt", map_get);
+        SPECIAL.put("Ljava/util/Map;", "get", map_get);
+        SPECIAL.put("Ljava/util/HashMap;", "get", map_get);
+        SPECIAL.put("Ljava/lang/String;", "charAt", map_get);
         // TODO operator overloading, any get method can be simplified in this way
         MapPutEmitter map_put = new MapPutEmitter();
-        SPECIAL.put("Ljava/util/Map;put", map_put);
-        SPECIAL.put("Ljava/util/HashMap;put", map_put);
+        SPECIAL.put("Ljava/util/Map;", "put", map_put);
+        SPECIAL.put("Ljava/util/HashMap;", "put", map_put);
     }
 
     @Override
     public void emit(JavaEmitterContext ctx, InstanceMethodInvoke arg, TypeSignature type) {
-        String key = arg.getOwner() + arg.getMethodName();
-        SpecialMethodEmitter<InstanceMethodInvoke> special = SPECIAL.get(key);
+        SpecialMethodEmitter<InstanceMethodInvoke> special = SPECIAL.get(arg.getOwner(), arg.getMethodName());
         if (special != null && special.emit(ctx, arg, type)) {
             return;
         }
@@ -85,7 +76,7 @@ public class KotlinInstanceMethodInvokeEmitter extends InstanceMethodInvokeEmitt
                 ctx.printString("super");
             }
         } else {
-            if (!NO_CALLEE.contains(key)) {
+            if (!NO_CALLEE.contains(arg.getOwner(), arg.getMethodName())) {
                 if (arg.getCallee() instanceof LocalAccess && ctx.getMethod() != null && !ctx.getMethod().isStatic()) {
                     LocalAccess local = (LocalAccess) arg.getCallee();
                     if (local.getLocal().getIndex() == 0) {
@@ -97,17 +88,16 @@ public class KotlinInstanceMethodInvokeEmitter extends InstanceMethodInvokeEmitt
                         ctx.printString(".");
                     }
                 } else {
-                    ctx.emit(arg.getCallee(), ClassTypeSignature.of(arg.getOwner()));
+                    ctx.emit(arg.getCallee(), arg.getOwnerType());
                     ctx.printString(".");
                 }
             }
             ctx.printString(arg.getMethodName());
         }
-        if (NO_PARAMS.contains(key)) {
+        if (NO_PARAMS.contains(arg.getOwner(), arg.getMethodName())) {
             return;
         }
         ctx.printString("(");
-        List<String> param_types = TypeHelper.splitSig(arg.getMethodDescription());
         for (int i = 0; i < arg.getParameters().length; i++) {
             Instruction param = arg.getParameters()[i];
             if (i == arg.getParameters().length - 1 && param instanceof NewArray) {
@@ -121,7 +111,7 @@ public class KotlinInstanceMethodInvokeEmitter extends InstanceMethodInvokeEmitt
                 }
                 break;
             }
-            ctx.emit(param, ClassTypeSignature.of(param_types.get(i)));
+            ctx.emit(param, arg.getParameterType(i));
             if (i < arg.getParameters().length - 1) {
                 ctx.printString(", ");
                 ctx.markWrapPoint();
@@ -32,12 +32,9 @@ import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
 import org.spongepowered.despector.emitter.java.instruction.StaticMethodInvokeEmitter;
-import org.spongepowered.despector.util.TypeHelper;
+import org.spongepowered.despector.util.MemberMap;
 
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -45,33 +42,32 @@ import java.util.Set;
  */
 public class KotlinStaticMethodInvokeEmitter extends StaticMethodInvokeEmitter {
 
-    private static final Set<String> IGNORED_METHODS = new HashSet<>();
+    private static final MemberMap<Boolean> IGNORED_METHODS = new MemberMap<>();
     private static final Set<String> NO_CALLEE = new HashSet<>();
-    private static final Map<String, SpecialMethodEmitter<StaticMethodInvoke>> SPECIAL = new HashMap<>();
+    private static final MemberMap<SpecialMethodEmitter<StaticMethodInvoke>> SPECIAL = new MemberMap<>();
 
     static {
-        IGNORED_METHODS.add("Ljava/lang/Integer;valueOf");
-        IGNORED_METHODS.add("Ljava/lang/String;valueOf");
+        IGNORED_METHODS.put("Ljava/lang/Integer;", "valueOf", true);
+        IGNORED_METHODS.put("Ljava/lang/String;", "valueOf", true);
 
         NO_CALLEE.add("Lkotlin/collections/CollectionsKt;");
         NO_CALLEE.add("Lkotlin/collections/MapsKt;");
 
-        SPECIAL.put("Lkotlin/TuplesKt;to", new TupleToEmitter());
-        SPECIAL.put("Lkotlin/jvm/internal/Intrinsics;areEqual", new EqualityEmitter());
+        SPECIAL.put("Lkotlin/TuplesKt;", "to", new TupleToEmitter());
+        SPECIAL.put("Lkotlin/jvm/internal/Intrinsics;", "areEqual", new EqualityEmitter());
     }
 
     @Override
     public void emit(JavaEmitterContext ctx, StaticMethodInvoke arg, TypeSignature type) {
-        String key = arg.getOwner() + arg.getMethodName();
-        SpecialMethodEmitter<StaticMethodInvoke> special = SPECIAL.get(key);
+        SpecialMethodEmitter<StaticMethodInvoke> special = SPECIAL.get(arg.getOwner(), arg.getMethodName());
         if (special != null && special.emit(ctx, arg, type)) {
             return;
         }
-        if (IGNORED_METHODS.contains(key) && arg.getParameters().length == 1) {
+        if (IGNORED_METHODS.contains(arg.getOwner(), arg.getMethodName()) && arg.getParameters().length == 1) {
             ctx.emit(arg.getParameters()[0], ClassTypeSignature.of(arg.getReturnType()));
             return;
         }
-        String owner = TypeHelper.descToType(arg.getOwner());
+        String owner = arg.getOwnerName();
         if (arg.getMethodName().startsWith("access$") && ctx.getType() != null) {
             if (replaceSyntheticAccessor(ctx, arg, owner)) {
                 return;
@@ -86,7 +82,6 @@ public class KotlinStaticMethodInvokeEmitter extends StaticMethodInvokeEmitter {
             ctx.printString(".");
         }
         ctx.printString(arg.getMethodName());
-        List<String> param_types = TypeHelper.splitSig(arg.getMethodDescription());
         ctx.printString("(");
         for (int i = 0; i < arg.getParameters().length; i++) {
             Instruction param = arg.getParameters()[i];
@@ -101,7 +96,7 @@ public class KotlinStaticMethodInvokeEmitter extends StaticMethodInvokeEmitter {
                 }
                 break;
             }
-            ctx.emit(param, ClassTypeSignature.of(param_types.get(i)));
+            ctx.emit(param, arg.getParameterType(i));
             if (i < arg.getParameters().length - 1) {
                 ctx.printString(", ");
                 ctx.markWrapPoint();
@@ -122,7 +117,6 @@ public class KotlinStaticMethodInvokeEmitter extends StaticMethodInvokeEmitter {
         ctx.emit(callee, null);
         ctx.printString(".");
         ctx.printString(call.getMethodName().substring(0, call.getMethodName().length() - 8));
-        List<String> param_types = TypeHelper.splitSig(call.getMethodDescription());
         ctx.printString("(");
         boolean first = true;
         for (int i = 0; i < total_args; i++) {
@@ -146,7 +140,7 @@ public class KotlinStaticMethodInvokeEmitter extends StaticMethodInvokeEmitter {
                 }
                 break;
             }
-            ctx.emit(param, ClassTypeSignature.of(param_types.get(i)));
+            ctx.emit(param, call.getParameterType(i));
         }
         ctx.printString(")");
     }
@@ -39,7 +39,6 @@ import org.spongepowered.despector.ast.stmt.branch.If;
 import org.spongepowered.despector.ast.stmt.misc.Return;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
-import org.spongepowered.despector.config.ConfigManager;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
 import org.spongepowered.despector.emitter.java.special.GenericsEmitter;
 import org.spongepowered.despector.emitter.java.type.MethodEntryEmitter;
@@ -97,7 +96,7 @@ public class KotlinMethodEntryEmitter extends MethodEntryEmitter {
                     start++;
                 }
                 // only need one less as we can ignore the return at the end
-                if (start == method.getInstructions().getStatements().size() - 1 && !ConfigManager.getConfig().emitter.emit_synthetics) {
+                if (start == method.getInstructions().getStatements().size() - 1 && !ctx.getConfig().emitter.emit_synthetics) {
                     return false;
                 }
             }
@@ -119,7 +118,7 @@ public class KotlinMethodEntryEmitter extends MethodEntryEmitter {
             return true;
         }
         if ("<init>".equals(method.getName()) && method.getAccessModifier() == AccessModifier.PUBLIC && method.getParamTypes().isEmpty()
-                && method.getInstructions().getStatements().size() == 2 && !ConfigManager.getConfig().emitter.emit_synthetics) {
+                && method.getInstructions().getStatements().size() == 2 && !ctx.getConfig().emitter.emit_synthetics) {
             return false;
         }
         ctx.printIndentation();
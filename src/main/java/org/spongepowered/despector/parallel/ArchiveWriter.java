@@ -0,0 +1,288 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.parallel;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes a zip archive where the entries are compressed in parallel on worker
+ * threads. Entries are always written in the order they were added and with
+ * a fixed timestamp so that the same input produces the same archive.
+ *
+ * <p>Entries may also be stored uncompressed for the fastest writes.</p>
+ */
+public class ArchiveWriter implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+    private static final int VERSION = 20;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    // 1980-01-01 00:00, the earliest representable dos date
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1;
+
+    private final OutputStream out;
+    private final boolean compress;
+    private final Executor executor;
+    private final ExecutorService owned_executor;
+    private final int max_pending;
+
+    private final Deque<FutureTask<CompressedEntry>> pending = new ArrayDeque<>();
+    private final ByteArrayOutputStream central = new ByteArrayOutputStream();
+    private long offset = 0;
+    private int entry_count = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a new archive writer compressing on its own worker threads.
+     */
+    public ArchiveWriter(OutputStream out, boolean compress, int workers) {
+        this(out, compress, null, workers);
+    }
+
+    /**
+     * Creates a new archive writer compressing on the given executor, or on
+     * its own worker threads if the executor is null.
+     */
+    public ArchiveWriter(OutputStream out, boolean compress, @Nullable Executor executor, int workers) {
+        this.out = checkNotNull(out, "out");
+        this.compress = compress;
+        if (workers <= 0) {
+            workers = 1;
+        }
+        if (executor == null && compress && workers > 1) {
+            this.owned_executor = Executors.newFixedThreadPool(workers, (r) -> {
+                Thread thread = new Thread(r, "despector-archive");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = this.owned_executor;
+        } else {
+            this.owned_executor = null;
+            this.executor = executor;
+        }
+        this.max_pending = workers * 4;
+    }
+
+    /**
+     * Gets if entries are compressed.
+     */
+    public boolean isCompressed() {
+        return this.compress;
+    }
+
+    /**
+     * Adds a text entry encoded as UTF-8.
+     */
+    public void add(String name, String text) throws IOException {
+        add(name, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds an entry with the given data. The entry is compressed
+     * asynchronously and written once all entries before it are written.
+     */
+    public void add(String name, byte[] data) throws IOException {
+        checkNotNull(name, "name");
+        checkNotNull(data, "data");
+        checkState(!this.closed, "Archive writer closed");
+        FutureTask<CompressedEntry> task = new FutureTask<>(() -> compress(name, data));
+        this.pending.add(task);
+        if (this.executor != null && this.compress) {
+            this.executor.execute(task);
+        } else {
+            task.run();
+        }
+        while (!this.pending.isEmpty() && (this.pending.size() > this.max_pending || this.pending.peek().isDone())) {
+            write(this.pending.poll());
+        }
+    }
+
+    /**
+     * Writes all remaining entries and the central directory. The underlying
+     * stream is closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            while (!this.pending.isEmpty()) {
+                write(this.pending.poll());
+            }
+            if (this.entry_count > 0xFFFF || this.offset > 0xFFFFFFFFL || this.central.size() + this.offset > 0xFFFFFFFFL) {
+                throw new IOException("Archive too large, zip64 archives are not supported");
+            }
+            long central_offset = this.offset;
+            this.central.writeTo(this.out);
+            ByteArrayOutputStream end = new ByteArrayOutputStream(22);
+            writeInt(end, END_OF_CENTRAL_DIRECTORY);
+            writeShort(end, 0);
+            writeShort(end, 0);
+            writeShort(end, this.entry_count);
+            writeShort(end, this.entry_count);
+            writeInt(end, this.central.size());
+            writeInt(end, (int) central_offset);
+            writeShort(end, 0);
+            end.writeTo(this.out);
+        } finally {
+            if (this.owned_executor != null) {
+                this.owned_executor.shutdownNow();
+            }
+            this.out.close();
+        }
+    }
+
+    private CompressedEntry compress(String name, byte[] data) {
+        CompressedEntry entry = new CompressedEntry();
+        entry.name = name.getBytes(StandardCharsets.UTF_8);
+        entry.size = data.length;
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        entry.crc = (int) crc.getValue();
+        if (!this.compress) {
+            entry.method = METHOD_STORED;
+            entry.data = data;
+            entry.data_length = data.length;
+            return entry;
+        }
+        entry.method = METHOD_DEFLATED;
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, data.length + (data.length >> 3) + 64)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    byte[] larger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            entry.data = buffer;
+            entry.data_length = length;
+        } finally {
+            deflater.end();
+        }
+        return entry;
+    }
+
+    private void write(FutureTask<CompressedEntry> task) throws IOException {
+        CompressedEntry entry;
+        try {
+            entry = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing archive entry", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error compressing archive entry", e.getCause());
+        }
+        ByteArrayOutputStream header = new ByteArrayOutputStream(30 + entry.name.length);
+        writeInt(header, LOCAL_HEADER);
+        writeShort(header, VERSION);
+        writeEntryInfo(header, entry);
+        writeShort(header, entry.name.length);
+        writeShort(header, 0);
+        header.write(entry.name);
+        header.writeTo(this.out);
+        this.out.write(entry.data, 0, entry.data_length);
+
+        writeInt(this.central, CENTRAL_HEADER);
+        writeShort(this.central, VERSION);
+        writeShort(this.central, VERSION);
+        writeEntryInfo(this.central, entry);
+        writeShort(this.central, entry.name.length);
+        writeShort(this.central, 0);
+        writeShort(this.central, 0);
+        writeShort(this.central, 0);
+        writeShort(this.central, 0);
+        writeInt(this.central, 0);
+        writeInt(this.central, (int) this.offset);
+        this.central.write(entry.name);
+
+        this.offset += header.size() + entry.data_length;
+        this.entry_count++;
+    }
+
+    private static void writeEntryInfo(ByteArrayOutputStream out, CompressedEntry entry) {
+        writeShort(out, FLAG_UTF8);
+        writeShort(out, entry.method);
+        writeShort(out, DOS_TIME);
+        writeShort(out, DOS_DATE);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.data_length);
+        writeInt(out, entry.size);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        writeShort(out, value & 0xFFFF);
+        writeShort(out, (value >>> 16) & 0xFFFF);
+    }
+
+    private static class CompressedEntry {
+
+        byte[] name;
+        int method;
+        int crc;
+        int size;
+        byte[] data;
+        int data_length;
+
+        CompressedEntry() {
+        }
+    }
+
+}
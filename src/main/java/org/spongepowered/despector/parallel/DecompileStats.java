@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.parallel;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per method statistics of the decompilers of an engine. Unlike
+ * {@link Timing} the statistics are owned by a single engine and are safe to
+ * record into from the worker threads.
+ */
+public class DecompileStats {
+
+    private final AtomicLong class_count = new AtomicLong();
+    private final AtomicLong method_count = new AtomicLong();
+    private final AtomicLong failure_count = new AtomicLong();
+    private final AtomicLong loading_time = new AtomicLong();
+    private final AtomicLong method_time = new AtomicLong();
+
+    private long[] latencies = new long[1024];
+    private int latency_count = 0;
+
+    /**
+     * Records that a class was loaded in the given number of nanoseconds.
+     */
+    public void recordClass(long nanos) {
+        this.class_count.incrementAndGet();
+        this.loading_time.addAndGet(nanos);
+    }
+
+    /**
+     * Records that a method body was decompiled in the given number of
+     * nanoseconds. A failed method is one which fell back to an error comment.
+     */
+    public void recordMethod(long nanos, boolean failed) {
+        this.method_count.incrementAndGet();
+        this.method_time.addAndGet(nanos);
+        if (failed) {
+            this.failure_count.incrementAndGet();
+        }
+        synchronized (this) {
+            if (this.latency_count == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+            }
+            this.latencies[this.latency_count++] = nanos;
+        }
+    }
+
+    public long getClassCount() {
+        return this.class_count.get();
+    }
+
+    public long getMethodCount() {
+        return this.method_count.get();
+    }
+
+    public long getFailureCount() {
+        return this.failure_count.get();
+    }
+
+    /**
+     * Gets the total time spent loading classes in nanoseconds.
+     */
+    public long getLoadingTime() {
+        return this.loading_time.get();
+    }
+
+    /**
+     * Gets the total time spent decompiling method bodies in nanoseconds,
+     * summed across all worker threads.
+     */
+    public long getMethodTime() {
+        return this.method_time.get();
+    }
+
+    /**
+     * Gets the given percentile, between 0 and 100, of the method latencies
+     * in nanoseconds.
+     */
+    public synchronized long getLatencyPercentile(double percentile) {
+        if (this.latency_count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(this.latencies, this.latency_count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Clears all recorded statistics.
+     */
+    public synchronized void reset() {
+        this.class_count.set(0);
+        this.method_count.set(0);
+        this.failure_count.set(0);
+        this.loading_time.set(0);
+        this.method_time.set(0);
+        this.latency_count = 0;
+    }
+
+}
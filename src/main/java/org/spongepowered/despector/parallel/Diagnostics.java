@@ -0,0 +1,308 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.parallel;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the diagnostic messages of an engine. Reporting never blocks on
+ * console output: messages are placed on a queue which is printed by a
+ * background thread.
+ *
+ * <p>Every report is counted by its kind. Warnings and errors are also
+ * deduplicated by their message and only the first few of each kind are
+ * printed, the rest are only included in the {@link #printSummary summary}.
+ * Info and debug messages are printed without limits if enabled.</p>
+ */
+public class Diagnostics {
+
+    public static final String KIND_PROGRESS = "progress";
+    public static final String KIND_UNKNOWN_ATTRIBUTE = "unknown-attribute";
+    public static final String KIND_METHOD_FAILURE = "method-failure";
+    public static final String KIND_ENUM_CONSTANTS = "enum-constants";
+    public static final String KIND_VERIFICATION = "verification";
+    public static final String KIND_RECOMPILE_FAILURE = "recompile-failure";
+    public static final String KIND_CONFIG = "config";
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    private static final int MAX_SEEN = 16384;
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private volatile Level level = Level.INFO;
+    private volatile int limit = DEFAULT_LIMIT;
+
+    private final Map<String, Kind> kinds = new ConcurrentHashMap<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread drainer;
+
+    public Diagnostics() {
+        this(System.out, System.err);
+    }
+
+    /**
+     * Creates a new diagnostics sink printing info and debug messages to the
+     * first stream and warnings and errors to the second.
+     */
+    public Diagnostics(PrintStream out, PrintStream err) {
+        this.out = checkNotNull(out, "out");
+        this.err = checkNotNull(err, "err");
+    }
+
+    /**
+     * Gets the lowest level of messages which are printed.
+     */
+    public Level getLevel() {
+        return this.level;
+    }
+
+    public void setLevel(Level level) {
+        this.level = checkNotNull(level, "level");
+    }
+
+    /**
+     * Gets the number of distinct warnings and errors of each kind which are
+     * printed before further reports of the kind are only counted.
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Gets if messages of the given level are printed.
+     */
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= this.level.ordinal();
+    }
+
+    /**
+     * Reports a message of the given level and kind.
+     */
+    public void report(Level level, String kind, String message) {
+        report(level, kind, message, null);
+    }
+
+    /**
+     * Reports a message of the given level and kind with the exception which
+     * caused it.
+     */
+    public void report(Level level, String kind, String message, @Nullable Throwable cause) {
+        Kind counter = count(level, kind);
+        if (!isEnabled(level)) {
+            counter.suppressed.incrementAndGet();
+            return;
+        }
+        if (level.ordinal() >= Level.WARNING.ordinal()) {
+            if (this.seen.size() < MAX_SEEN && !this.seen.add(kind + '\0' + message)) {
+                counter.suppressed.incrementAndGet();
+                return;
+            }
+            if (counter.printed.incrementAndGet() > this.limit) {
+                counter.suppressed.incrementAndGet();
+                return;
+            }
+        }
+        this.pending.incrementAndGet();
+        this.queue.add(new Event(level, message, cause));
+        Thread thread = this.drainer;
+        if (thread == null) {
+            thread = startDrainer();
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Counts a report of the given level and kind without printing anything.
+     */
+    public void record(Level level, String kind) {
+        count(level, kind).suppressed.incrementAndGet();
+    }
+
+    private Kind count(Level level, String kind) {
+        Kind counter = this.kinds.get(kind);
+        if (counter == null) {
+            counter = this.kinds.computeIfAbsent(kind, (k) -> new Kind());
+        }
+        counter.count.incrementAndGet();
+        Level current = counter.level;
+        if (current == null || level.ordinal() > current.ordinal()) {
+            counter.level = level;
+        }
+        return counter;
+    }
+
+    /**
+     * Gets the number of reports of the given kind.
+     */
+    public long getCount(String kind) {
+        Kind counter = this.kinds.get(kind);
+        return counter == null ? 0 : counter.count.get();
+    }
+
+    /**
+     * Gets the number of reports of the given kind which were not printed.
+     */
+    public long getSuppressedCount(String kind) {
+        Kind counter = this.kinds.get(kind);
+        return counter == null ? 0 : counter.suppressed.get();
+    }
+
+    /**
+     * Waits until all queued messages have been printed.
+     */
+    public void flush() {
+        while (this.pending.get() > 0) {
+            Thread thread = this.drainer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        this.out.flush();
+        this.err.flush();
+    }
+
+    /**
+     * Prints the number of warnings and errors of each kind, and how many of
+     * them were not printed, after flushing any queued messages.
+     */
+    public void printSummary(PrintStream stream) {
+        flush();
+        Map<String, Kind> sorted = new TreeMap<>(this.kinds);
+        boolean header = false;
+        for (Map.Entry<String, Kind> e : sorted.entrySet()) {
+            Kind counter = e.getValue();
+            if (counter.level.ordinal() < Level.WARNING.ordinal()) {
+                continue;
+            }
+            if (!header) {
+                stream.println("Diagnostics summary:");
+                header = true;
+            }
+            stream.print("  " + counter.level.name().toLowerCase() + " " + e.getKey() + ": " + counter.count.get());
+            if (counter.suppressed.get() > 0) {
+                stream.print(" (" + counter.suppressed.get() + " not shown)");
+            }
+            stream.println();
+        }
+    }
+
+    /**
+     * Clears all counters and the set of seen messages.
+     */
+    public void reset() {
+        flush();
+        this.kinds.clear();
+        this.seen.clear();
+    }
+
+    private synchronized Thread startDrainer() {
+        if (this.drainer == null) {
+            Thread thread = new Thread(this::drain, "despector-diagnostics");
+            thread.setDaemon(true);
+            thread.start();
+            this.drainer = thread;
+        }
+        return this.drainer;
+    }
+
+    private void drain() {
+        while (true) {
+            Event next = this.queue.poll();
+            if (next == null) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            PrintStream stream = next.level.ordinal() >= Level.WARNING.ordinal() ? this.err : this.out;
+            try {
+                stream.println(next.message);
+                if (next.cause != null) {
+                    next.cause.printStackTrace(stream);
+                }
+            } catch (Throwable t) {
+                // a failing stream must not stop the drainer or flush would
+                // wait forever for the remaining messages
+            } finally {
+                this.pending.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The severity of a diagnostic message.
+     */
+    public static enum Level {
+        DEBUG,
+        INFO,
+        WARNING,
+        ERROR,
+    }
+
+    private static class Kind {
+
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+        final AtomicInteger printed = new AtomicInteger();
+        volatile Level level;
+
+        Kind() {
+        }
+    }
+
+    private static class Event {
+
+        final Level level;
+        final String message;
+        final Throwable cause;
+
+        Event(Level level, String message, @Nullable Throwable cause) {
+            this.level = level;
+            this.message = message;
+            this.cause = cause;
+        }
+    }
+
+}
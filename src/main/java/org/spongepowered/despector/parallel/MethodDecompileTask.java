@@ -24,9 +24,11 @@
  */
 package org.spongepowered.despector.parallel;
 
-import org.spongepowered.despector.Language;
+import org.spongepowered.despector.DespectorEngine;
 import org.spongepowered.despector.ast.Annotation;
 import org.spongepowered.despector.ast.Locals.Local;
+import org.spongepowered.despector.ast.StructuralHash;
+import org.spongepowered.despector.ast.SwitchMapIndex;
 import org.spongepowered.despector.ast.generic.MethodSignature;
 import org.spongepowered.despector.ast.insn.cst.StringConstant;
 import org.spongepowered.despector.ast.stmt.Statement;
@@ -37,16 +39,14 @@ import org.spongepowered.despector.ast.stmt.misc.Comment;
 import org.spongepowered.despector.ast.type.EnumEntry;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
-import org.spongepowered.despector.config.ConfigManager;
-import org.spongepowered.despector.config.LibraryConfiguration;
 import org.spongepowered.despector.decompiler.BaseDecompiler;
-import org.spongepowered.despector.decompiler.Decompilers;
 import org.spongepowered.despector.decompiler.BaseDecompiler.BootstrapMethod;
 import org.spongepowered.despector.decompiler.BaseDecompiler.UnfinishedMethod;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.decompiler.loader.BytecodeTranslator;
 import org.spongepowered.despector.decompiler.loader.ClassConstantPool;
 import org.spongepowered.despector.decompiler.method.MethodDecompiler;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -57,14 +57,16 @@ import java.util.Set;
 
 public class MethodDecompileTask implements Runnable {
 
+    private final DespectorEngine engine;
     private final TypeEntry entry;
     private final ClassConstantPool pool;
     private final List<UnfinishedMethod> unfinished_methods;
     private final BytecodeTranslator bytecode;
     private final List<BootstrapMethod> bootstrap_methods;
 
-    public MethodDecompileTask(TypeEntry entry, ClassConstantPool pool, List<UnfinishedMethod> unfinished_methods, BytecodeTranslator bytecode,
-            List<BootstrapMethod> bootstrap_methods) {
+    public MethodDecompileTask(DespectorEngine engine, TypeEntry entry, ClassConstantPool pool, List<UnfinishedMethod> unfinished_methods,
+            BytecodeTranslator bytecode, List<BootstrapMethod> bootstrap_methods) {
+        this.engine = engine;
         this.entry = entry;
         this.pool = pool;
         this.unfinished_methods = unfinished_methods;
@@ -79,75 +81,133 @@ public class MethodDecompileTask implements Runnable {
     @Override
     public void run() {
         for (UnfinishedMethod unfinished : this.unfinished_methods) {
-            if (unfinished.code == null) {
-                continue;
+            decompile(unfinished);
+        }
+    }
+
+    /**
+     * Defers the decompilation of each method body until it is first
+     * accessed. Bodies excluded by the filter and enum initializers, which
+     * the enum constants are recovered from, are decompiled immediately.
+     */
+    public void defer() {
+        for (UnfinishedMethod unfinished : this.unfinished_methods) {
+            if (unfinished.excluded || (this.entry instanceof EnumEntry && unfinished.mth.getName().equals("<clinit>"))) {
+                decompile(unfinished);
+            } else if (unfinished.code != null) {
+                unfinished.mth.setPendingBody(() -> decompile(unfinished));
             }
-            MethodEntry mth = unfinished.mth;
-            try {
-                mth.setIR(this.bytecode.createIR(mth.getMethodSignature(), unfinished.code, mth.getLocals(), unfinished.catch_regions, this.pool,
-                        this.bootstrap_methods));
-
-                if (unfinished.parameter_annotations != null) {
-                    for (Map.Entry<Integer, List<Annotation>> e : unfinished.parameter_annotations.entrySet()) {
-                        Local loc = mth.getLocals().getLocal(e.getKey());
-                        loc.getInstance(0).getAnnotations().addAll(e.getValue());
-                    }
-                }
+        }
+    }
 
-                if (BaseDecompiler.DUMP_IR_ON_LOAD) {
-                    System.out.println("Instructions of " + mth.getName() + " " + mth.getDescription());
-                    System.out.println(mth.getIR());
-                }
-                MethodDecompiler mth_decomp = Decompilers.JAVA_METHOD;
-                if (this.entry.getLanguage() == Language.KOTLIN) {
-                    mth_decomp = Decompilers.KOTLIN_METHOD;
+    /**
+     * Decompiles the body of the given method in its own modification scope,
+     * see {@link StructuralHash}.
+     */
+    public void decompile(UnfinishedMethod unfinished) {
+        // changes made while building the body only invalidate the hashes
+        // cached for this body
+        StructuralHash.Scope previous = StructuralHash.enterScope();
+        try {
+            DecompileStats stats = this.engine.getStats();
+            if (stats == null || unfinished.excluded || unfinished.code == null) {
+                decompileBody(unfinished);
+                return;
+            }
+            long start = System.nanoTime();
+            boolean success = decompileBody(unfinished);
+            stats.recordMethod(System.nanoTime() - start, !success);
+        } finally {
+            StructuralHash.exitScope(previous);
+        }
+    }
+
+    /**
+     * Decompiles the body of the given method, returns false if an error
+     * comment was emitted in place of the body.
+     */
+    private boolean decompileBody(UnfinishedMethod unfinished) {
+        MethodEntry mth = unfinished.mth;
+        if (unfinished.excluded) {
+            mth.getLocals().bakeInstances(new MethodSignature(), Collections.emptyList());
+            StatementBlock insns = new StatementBlock(StatementBlock.Type.METHOD);
+            insns.append(new Comment("Method body excluded by filter"));
+            mth.setInstructions(insns);
+            return true;
+        }
+        if (unfinished.code == null) {
+            return true;
+        }
+        try {
+            mth.setIR(this.bytecode.createIR(mth.getMethodSignature(), unfinished.code, mth.getLocals(), unfinished.catch_regions, this.pool,
+                    this.bootstrap_methods));
+
+            if (unfinished.parameter_annotations != null) {
+                for (Map.Entry<Integer, List<Annotation>> e : unfinished.parameter_annotations.entrySet()) {
+                    Local loc = mth.getLocals().getLocal(e.getKey());
+                    loc.getInstance(0).getAnnotations().addAll(e.getValue());
                 }
-                StatementBlock block = mth_decomp.decompile(mth);
-                mth.setInstructions(block);
-
-                if (this.entry instanceof EnumEntry && mth.getName().equals("<clinit>")) {
-                    EnumEntry e = (EnumEntry) this.entry;
-                    Set<String> names = new HashSet<>(e.getEnumConstants());
-                    e.getEnumConstants().clear();
-                    for (Statement stmt : block) {
-                        if (names.isEmpty() || !(stmt instanceof StaticFieldAssignment)) {
-                            break;
-                        }
-                        StaticFieldAssignment assign = (StaticFieldAssignment) stmt;
-                        if (!names.remove(assign.getFieldName())) {
-                            break;
-                        }
-                        New val = (New) assign.getValue();
-                        StringConstant cst = (StringConstant) val.getParameters()[0];
-                        e.addEnumConstant(cst.getConstant());
+            }
+
+            if (BaseDecompiler.DUMP_IR_ON_LOAD) {
+                System.out.println("Instructions of " + mth.getName() + " " + mth.getDescription());
+                System.out.println(mth.getIR());
+            }
+            MethodDecompiler mth_decomp = this.engine.getMethodDecompiler(this.entry.getLanguage());
+            StatementBlock block = mth_decomp.decompile(mth);
+            mth.setInstructions(block);
+
+            if (SwitchMapIndex.isSwitchMapInitializer(mth)) {
+                this.entry.getSource().getSwitchMaps().index(this.entry.getName(), mth);
+            }
+
+            if (this.entry instanceof EnumEntry && mth.getName().equals("<clinit>")) {
+                EnumEntry e = (EnumEntry) this.entry;
+                Set<String> names = new HashSet<>(e.getEnumConstants());
+                e.getEnumConstants().clear();
+                for (Statement stmt : block) {
+                    if (names.isEmpty() || !(stmt instanceof StaticFieldAssignment)) {
+                        break;
                     }
-                    if (!names.isEmpty()) {
-                        System.err.println("Warning: Failed to find names for all enum constants in " + this.entry.getName());
+                    StaticFieldAssignment assign = (StaticFieldAssignment) stmt;
+                    if (!names.remove(assign.getFieldName())) {
+                        break;
                     }
+                    New val = (New) assign.getValue();
+                    StringConstant cst = (StringConstant) val.getParameters()[0];
+                    e.addEnumConstant(cst.getConstant());
                 }
-
-            } catch (Exception ex) {
-                if (!LibraryConfiguration.quiet) {
-                    System.err.println("Error decompiling method body for " + this.entry.getName() + " " + mth.toString());
-                    ex.printStackTrace();
+                if (!names.isEmpty()) {
+                    this.engine.getDiagnostics().report(Level.WARNING, Diagnostics.KIND_ENUM_CONSTANTS,
+                            "Failed to find names for all enum constants in " + this.entry.getName());
                 }
-                StatementBlock insns = new StatementBlock(StatementBlock.Type.METHOD);
-                if (ConfigManager.getConfig().print_opcodes_on_error) {
-                    List<String> text = new ArrayList<>();
-                    text.add("Error decompiling block");
-                    if (mth.getIR() != null) {
-                        for (Insn next : mth.getIR()) {
-                            text.add(next.toString());
-                        }
-                    } else {
-                        mth.getLocals().bakeInstances(new MethodSignature(), Collections.emptyList());
+            }
+            return true;
+
+        } catch (Exception ex) {
+            if (this.engine.isQuiet()) {
+                this.engine.getDiagnostics().record(Level.ERROR, Diagnostics.KIND_METHOD_FAILURE);
+            } else {
+                this.engine.getDiagnostics().report(Level.ERROR, Diagnostics.KIND_METHOD_FAILURE,
+                        "Error decompiling method body for " + this.entry.getName() + " " + mth.toString(), ex);
+            }
+            StatementBlock insns = new StatementBlock(StatementBlock.Type.METHOD);
+            if (this.engine.getConfig().print_opcodes_on_error) {
+                List<String> text = new ArrayList<>();
+                text.add("Error decompiling block");
+                if (mth.getIR() != null) {
+                    for (Insn next : mth.getIR()) {
+                        text.add(next.toString());
                     }
-                    insns.append(new Comment(text));
                 } else {
-                    insns.append(new Comment("Error decompiling block"));
+                    mth.getLocals().bakeInstances(new MethodSignature(), Collections.emptyList());
                 }
-                mth.setInstructions(insns);
+                insns.append(new Comment(text));
+            } else {
+                insns.append(new Comment("Error decompiling block"));
             }
+            mth.setInstructions(insns);
+            return false;
         }
     }
 
@@ -26,6 +26,7 @@ package org.spongepowered.despector.parallel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -34,18 +35,29 @@ public class Scheduler<T extends Runnable> {
     private static final int PARALLEL_THRESHOLD = 100;
 
     private final Worker<T>[] workers;
+    private final Executor executor;
     private final List<T> tasks = new ArrayList<>();
 
     private ReentrantLock lock = new ReentrantLock();
     private Condition finished = this.lock.newCondition();
     private int finished_count;
 
-    @SuppressWarnings("unchecked")
     public Scheduler(int workers) {
+        this(workers, null);
+    }
+
+    /**
+     * Creates a new scheduler which runs its workers on the given executor
+     * rather than on dedicated threads. This allows several schedulers to
+     * share a single worker pool.
+     */
+    @SuppressWarnings("unchecked")
+    public Scheduler(int workers, Executor executor) {
         if (workers <= 0) {
             workers = 1;
         }
         this.workers = new Worker[workers];
+        this.executor = executor;
     }
 
     public void add(T task) {
@@ -73,11 +85,17 @@ public class Scheduler<T extends Runnable> {
         }
         this.finished_count = 0;
         for (Worker<T> worker : this.workers) {
-            worker.start();
+            if (this.executor != null) {
+                this.executor.execute(worker);
+            } else {
+                new Thread(worker).start();
+            }
         }
         try {
             this.lock.lock();
-            this.finished.await();
+            while (this.finished_count < this.workers.length) {
+                this.finished.await();
+            }
         } catch (InterruptedException e) {
             e.printStackTrace();
         } finally {
@@ -104,7 +122,7 @@ public class Scheduler<T extends Runnable> {
         }
     }
 
-    private class Worker<R> extends Thread {
+    private class Worker<R> implements Runnable {
 
         private final List<T> tasks = new ArrayList<>();
 
@@ -117,10 +135,13 @@ public class Scheduler<T extends Runnable> {
 
         @Override
         public void run() {
-            for (T task : this.tasks) {
-                task.run();
+            try {
+                for (T task : this.tasks) {
+                    task.run();
+                }
+            } finally {
+                Scheduler.this.markWorkerDone();
             }
-            Scheduler.this.markWorkerDone();
         }
 
     }
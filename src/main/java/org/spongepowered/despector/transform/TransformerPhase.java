@@ -0,0 +1,235 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.transform;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.config.ConfigBase.CleanupConfigSection;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
+import org.spongepowered.despector.parallel.Scheduler;
+import org.spongepowered.despector.transform.cleanup.CleanupOperations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A sequence of type transformers applied to every type of a source set, and
+ * of transformers applied only to specific target types.
+ *
+ * <p>The transformers applied to all types are split into stages. Each run of
+ * consecutive {@link TypeTransformer#isTypeLocal() type local} transformers
+ * forms one stage which is run across types on the worker pool, applying the
+ * transformers to each type in order. Every other transformer forms a stage of
+ * its own which is run on one type at a time with no other stage running, so
+ * it sees a consistent view of the source set. The targeted transformers of a
+ * type run after all other stages, on the worker pool if they are all type
+ * local.</p>
+ */
+public class TransformerPhase {
+
+    private final List<TypeTransformer> transformers = new ArrayList<>();
+    private final Map<String, List<TypeTransformer>> targeted = new HashMap<>();
+
+    /**
+     * Adds a transformer to be applied to all types.
+     */
+    public TransformerPhase add(TypeTransformer transformer) {
+        this.transformers.add(checkNotNull(transformer, "transformer"));
+        return this;
+    }
+
+    /**
+     * Adds a transformer to be applied to the type with the given name. A
+     * transformer is applied at most once to each target.
+     */
+    public TransformerPhase addTargeted(String target, TypeTransformer transformer) {
+        checkNotNull(transformer, "transformer");
+        List<TypeTransformer> trans = this.targeted.computeIfAbsent(checkNotNull(target, "target"), (k) -> new ArrayList<>());
+        if (!trans.contains(transformer)) {
+            trans.add(transformer);
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return this.transformers.isEmpty() && this.targeted.isEmpty();
+    }
+
+    /**
+     * Applies this phase to all non stub types of the given source set using
+     * the worker pool of the given engine. The member references cached by
+     * the source set are dropped afterwards as the transformers may have
+     * changed the members of types.
+     */
+    public void apply(SourceSet source, DespectorEngine engine) {
+        if (isEmpty()) {
+            return;
+        }
+        try {
+            applyStages(source, engine);
+        } finally {
+            source.getMembers().invalidate();
+        }
+    }
+
+    private void applyStages(SourceSet source, DespectorEngine engine) {
+        // library types resolved by the loader are not transformed, the
+        // list is copied as transformers may resolve further types
+        List<TypeEntry> types = new ArrayList<>();
+        for (TypeEntry type : source.getAllClasses()) {
+            if (!type.isStub()) {
+                types.add(type);
+            }
+        }
+        int workers = engine.isParallel() ? engine.getWorkerCount() : 1;
+        for (int i = 0; i < this.transformers.size();) {
+            int end = i;
+            while (end < this.transformers.size() && this.transformers.get(end).isTypeLocal()) {
+                end++;
+            }
+            if (end > i) {
+                List<TypeTransformer> stage = this.transformers.subList(i, end);
+                runParallel(types, stage, engine, workers);
+                i = end;
+            } else {
+                TypeTransformer transformer = this.transformers.get(i++);
+                for (TypeEntry type : types) {
+                    transformer.transform(type);
+                }
+            }
+        }
+        if (this.targeted.isEmpty()) {
+            return;
+        }
+        List<TypeEntry> local_types = new ArrayList<>();
+        List<TypeEntry> shared_types = new ArrayList<>();
+        for (TypeEntry type : types) {
+            List<TypeTransformer> trans = this.targeted.get(type.getName());
+            if (trans == null) {
+                continue;
+            }
+            boolean local = true;
+            for (TypeTransformer transformer : trans) {
+                local &= transformer.isTypeLocal();
+            }
+            (local ? local_types : shared_types).add(type);
+        }
+        if (!local_types.isEmpty()) {
+            runParallel(local_types, null, engine, workers);
+        }
+        for (TypeEntry type : shared_types) {
+            for (TypeTransformer transformer : this.targeted.get(type.getName())) {
+                transformer.transform(type);
+            }
+        }
+    }
+
+    /**
+     * Runs the given transformers, or the targeted transformers of each type
+     * if null, over the given types on the worker pool.
+     */
+    private void runParallel(List<TypeEntry> types, List<TypeTransformer> stage, DespectorEngine engine, int workers) {
+        completeBodies(types);
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+        Scheduler<Runnable> scheduler = new Scheduler<>(workers, engine.getWorkerPool());
+        for (TypeEntry type : types) {
+            List<TypeTransformer> trans = stage != null ? stage : this.targeted.getOrDefault(type.getName(), Collections.emptyList());
+            scheduler.add(() -> {
+                try {
+                    for (TypeTransformer transformer : trans) {
+                        transformer.transform(type);
+                    }
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+        }
+        scheduler.execute();
+        if (error.get() != null) {
+            throw error.get();
+        }
+    }
+
+    /**
+     * Decompiles the deferred method bodies of the given types on the calling
+     * thread, as decompiling a body may upgrade and load further types of the
+     * source set.
+     */
+    private static void completeBodies(List<TypeEntry> types) {
+        for (TypeEntry type : types) {
+            for (MethodEntry mth : type.getMethods()) {
+                if (mth.hasPendingBody()) {
+                    mth.getInstructions();
+                }
+            }
+            for (MethodEntry mth : type.getStaticMethods()) {
+                if (mth.hasPendingBody()) {
+                    mth.getInstructions();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the phase for the cleanup operations of the given
+     * configuration. Unknown operations are reported to the given diagnostics
+     * and ignored.
+     */
+    public static TransformerPhase fromConfig(ConfigBase config, Diagnostics diagnostics) {
+        TransformerPhase phase = new TransformerPhase();
+        for (String operation : config.cleanup.operations) {
+            TypeTransformer transformer = CleanupOperations.getOperation(operation);
+            if (transformer == null) {
+                diagnostics.report(Level.WARNING, Diagnostics.KIND_CONFIG, "Unknown cleanup operation: " + operation);
+            } else {
+                phase.add(transformer);
+            }
+        }
+        for (CleanupConfigSection section : config.cleanup_sections) {
+            for (String operation : section.operations) {
+                TypeTransformer transformer = CleanupOperations.getOperation(operation);
+                if (transformer == null) {
+                    diagnostics.report(Level.WARNING, Diagnostics.KIND_CONFIG, "Unknown cleanup operation: " + operation);
+                    continue;
+                }
+                for (String target : section.targets) {
+                    phase.addTargeted(target, transformer);
+                }
+            }
+        }
+        return phase;
+    }
+
+}
@@ -36,4 +36,14 @@ public interface TypeTransformer {
      */
     void transform(TypeEntry type);
 
+    /**
+     * Gets if this transformer only reads and modifies the type it is given,
+     * in which case it may be run on several types at once. Transformers
+     * which access other types of the source set must return false so that
+     * they are run on one type at a time.
+     */
+    default boolean isTypeLocal() {
+        return false;
+    }
+
 }
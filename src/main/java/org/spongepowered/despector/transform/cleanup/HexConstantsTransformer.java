@@ -39,6 +39,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -60,6 +61,11 @@ import org.spongepowered.despector.transform.TypeTransformer;
  */
 public class HexConstantsTransformer implements TypeTransformer {
 
+    @Override
+    public boolean isTypeLocal() {
+        return true;
+    }
+
     @Override
     public void transform(TypeEntry type) {
         Walker walker = new Walker();
@@ -164,6 +170,10 @@ public class HexConstantsTransformer implements TypeTransformer {
         public void visitStaticMethodInvoke(StaticMethodInvoke insn) {
         }
 
+        @Override
+        public void visitStringConcat(StringConcat insn) {
+        }
+
         @Override
         public void visitStringConstant(StringConstant insn) {
         }
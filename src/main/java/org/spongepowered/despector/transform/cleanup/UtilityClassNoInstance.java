@@ -36,6 +36,11 @@ import org.spongepowered.despector.transform.TypeTransformer;
  */
 public class UtilityClassNoInstance implements TypeTransformer {
 
+    @Override
+    public boolean isTypeLocal() {
+        return true;
+    }
+
     @Override
     public void transform(TypeEntry type) {
         if (!(type instanceof ClassEntry)) {
@@ -47,8 +52,8 @@ public class UtilityClassNoInstance implements TypeTransformer {
         if (type.getMethodCount() != 1) {
             return;
         }
-        MethodEntry ctor = type.getMethod("<init>");
-        if (!ctor.getParamTypes().isEmpty() || ctor.getInstructions().getStatements().size() != 2) {
+        MethodEntry ctor = type.getSource().getMembers().resolveMethod(type.getName(), "<init>", "()V");
+        if (ctor == null || ctor.getInstructions().getStatements().size() != 2) {
             return;
         }
         ctor.setAccessModifier(AccessModifier.PRIVATE);
@@ -35,6 +35,7 @@ import org.spongepowered.despector.transform.matcher.instruction.LocalAccessMatc
 import org.spongepowered.despector.transform.matcher.instruction.NullConstantMatcher;
 import org.spongepowered.despector.transform.matcher.instruction.StaticFieldAccessMatcher;
 import org.spongepowered.despector.transform.matcher.instruction.StaticInvokeMatcher;
+import org.spongepowered.despector.transform.matcher.instruction.StringConcatMatcher;
 import org.spongepowered.despector.transform.matcher.instruction.StringConstantMatcher;
 
 import javax.annotation.Nullable;
@@ -108,6 +109,10 @@ public interface InstructionMatcher<T extends Instruction> {
         return new NullConstantMatcher.Builder();
     }
 
+    public static StringConcatMatcher.Builder stringConcat() {
+        return new StringConcatMatcher.Builder();
+    }
+
     /**
      * An instruction matcher that matches any instruction.
      */
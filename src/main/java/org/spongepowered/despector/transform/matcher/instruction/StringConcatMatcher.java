@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.transform.matcher.instruction;
+
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
+import org.spongepowered.despector.transform.matcher.InstructionMatcher;
+import org.spongepowered.despector.transform.matcher.MatchContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A matcher for string concatenation instructions.
+ */
+public class StringConcatMatcher implements InstructionMatcher<StringConcat> {
+
+    private int count;
+    private Map<Integer, InstructionMatcher<?>> operands;
+
+    StringConcatMatcher(int count, Map<Integer, InstructionMatcher<?>> operands) {
+        this.count = count;
+        this.operands = operands;
+    }
+
+    @Override
+    public StringConcat match(MatchContext ctx, Instruction insn) {
+        if (!(insn instanceof StringConcat)) {
+            return null;
+        }
+        StringConcat concat = (StringConcat) insn;
+        Instruction[] values = concat.getOperands();
+        if (this.count != -1 && this.count != values.length) {
+            return null;
+        }
+        for (Map.Entry<Integer, InstructionMatcher<?>> e : this.operands.entrySet()) {
+            if (e.getKey() >= values.length) {
+                return null;
+            }
+            if (!e.getValue().matches(ctx, values[e.getKey()])) {
+                return null;
+            }
+        }
+        return concat;
+    }
+
+    /**
+     * A matcher builder.
+     */
+    public static class Builder {
+
+        private int count;
+        private Map<Integer, InstructionMatcher<?>> operands = new HashMap<>();
+
+        public Builder() {
+            reset();
+        }
+
+        public Builder count(int count) {
+            this.count = count;
+            return this;
+        }
+
+        public Builder operand(int index, InstructionMatcher<?> matcher) {
+            this.operands.put(index, matcher);
+            return this;
+        }
+
+        /**
+         * Resets this builder.
+         */
+        public Builder reset() {
+            this.count = -1;
+            this.operands.clear();
+            return this;
+        }
+
+        public StringConcatMatcher build() {
+            return new StringConcatMatcher(this.count, new HashMap<>(this.operands));
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.transform.verify;
+
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
+import org.spongepowered.despector.parallel.Scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link VerifyVisitor} over the decompiled types of a source set on
+ * the worker pool of an engine.
+ *
+ * <p>Only a percentage of types may be verified to bound the cost of
+ * verification. Failures do not stop the phase, each is reported to the
+ * diagnostics of the engine and counted. The totals are reported once the
+ * phase is done.</p>
+ */
+public class VerificationPhase {
+
+    private int percent = 100;
+
+    private final AtomicInteger verified_count = new AtomicInteger();
+    private final AtomicInteger failure_count = new AtomicInteger();
+
+    /**
+     * Gets the percentage of types which are verified.
+     */
+    public int getPercent() {
+        return this.percent;
+    }
+
+    public void setPercent(int percent) {
+        this.percent = VerifySample.checkPercent(percent);
+    }
+
+    /**
+     * Gets the number of types verified by the last run.
+     */
+    public int getVerifiedCount() {
+        return this.verified_count.get();
+    }
+
+    /**
+     * Gets the number of failures found by the last run.
+     */
+    public int getFailureCount() {
+        return this.failure_count.get();
+    }
+
+    /**
+     * Gets if the type with the given name is verified.
+     */
+    public boolean shouldVerify(String name) {
+        return VerifySample.includes(name, this.percent);
+    }
+
+    /**
+     * Verifies the sampled non stub types of the given source set using the
+     * worker pool of the given engine.
+     */
+    public void apply(SourceSet source, DespectorEngine engine) {
+        this.verified_count.set(0);
+        this.failure_count.set(0);
+        if (this.percent == 0) {
+            return;
+        }
+        Diagnostics diagnostics = engine.getDiagnostics();
+        int workers = engine.isParallel() ? engine.getWorkerCount() : 1;
+        Scheduler<Runnable> scheduler = new Scheduler<>(workers, engine.getWorkerPool());
+        for (TypeEntry type : source.getAllClasses()) {
+            if (type.isStub() || !shouldVerify(type.getName())) {
+                continue;
+            }
+            scheduler.add(() -> {
+                VerifyVisitor visitor = new VerifyVisitor();
+                visitor.verify(type, (failure) -> {
+                    this.failure_count.incrementAndGet();
+                    diagnostics.report(Level.WARNING, Diagnostics.KIND_VERIFICATION, failure.getMessage());
+                });
+                this.verified_count.incrementAndGet();
+            });
+        }
+        scheduler.execute();
+        if (!engine.isQuiet()) {
+            diagnostics.report(Level.INFO, Diagnostics.KIND_PROGRESS,
+                    "Verified " + this.verified_count.get() + " classes, found " + this.failure_count.get() + " failures");
+        }
+    }
+
+}
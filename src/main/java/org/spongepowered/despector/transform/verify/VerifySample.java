@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.transform.verify;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Selects the sample of types which are verified. The sample is derived from
+ * the type names so that repeated runs verify the same types.
+ */
+public final class VerifySample {
+
+    /**
+     * Checks that the given verify percentage is between 0 and 100.
+     */
+    public static int checkPercent(int percent) {
+        checkArgument(percent >= 0 && percent <= 100, "Verify percent must be between 0 and 100");
+        return percent;
+    }
+
+    /**
+     * Gets if the type with the given name is part of a sample of the given
+     * percentage of all types.
+     */
+    public static boolean includes(String name, int percent) {
+        return (name.hashCode() & 0x7FFFFFFF) % 100 < percent;
+    }
+
+    private VerifySample() {
+    }
+
+}
@@ -25,6 +25,7 @@
 package org.spongepowered.despector.transform.verify;
 
 import org.spongepowered.despector.ast.Annotation;
+import org.spongepowered.despector.ast.Locals;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
 import org.spongepowered.despector.ast.generic.TypeSignature;
@@ -41,6 +42,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -84,31 +86,66 @@ import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
 import org.spongepowered.despector.ast.type.TypeVisitor;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class VerifyVisitor implements TypeVisitor, StatementVisitor, InstructionVisitor {
 
     private static boolean isNumber(TypeSignature sig) {
-        return sig == ClassTypeSignature.INT || sig == ClassTypeSignature.LONG || sig == ClassTypeSignature.FLOAT || sig == ClassTypeSignature.DOUBLE
-                || sig == ClassTypeSignature.BYTE || sig == ClassTypeSignature.SHORT;
+        return ClassTypeSignature.INT.equals(sig) || ClassTypeSignature.LONG.equals(sig) || ClassTypeSignature.FLOAT.equals(sig)
+                || ClassTypeSignature.DOUBLE.equals(sig) || ClassTypeSignature.BYTE.equals(sig) || ClassTypeSignature.SHORT.equals(sig);
     }
 
     private TypeEntry type;
     private MethodEntry mth;
     private int line;
-    private Set<LocalInstance> defined_locals = new HashSet<>();
+    private Set<LocalInstance> defined_locals = Collections.newSetFromMap(new IdentityHashMap<>());
 
     private void check(boolean state, String msg) {
         if (!state) {
-            String header = "Verification in " + this.type.getName();
-            if (this.mth != null) {
-                header += "#" + this.mth.getName() + this.mth.getDescription();
-                header += " (line: " + this.line + ")";
-            }
-            header += ": ";
-            throw new VerificationFailedException(header + msg);
+            throw new VerificationFailedException(getHeader() + msg);
+        }
+    }
+
+    private String getHeader() {
+        String header = "Verification in " + this.type.getName();
+        if (this.mth != null) {
+            header += "#" + this.mth.getName() + this.mth.getDescription();
+            header += " (line: " + this.line + ")";
+        }
+        return header + ": ";
+    }
+
+    /**
+     * Verifies the given type passing each failure to the given consumer.
+     * Every method is verified separately so a failure only ends the
+     * verification of the method it was found in.
+     */
+    public void verify(TypeEntry type, Consumer<VerificationFailedException> failures) {
+        this.type = type;
+        if (type instanceof ClassEntry && ((ClassEntry) type).getSuperclass() == null) {
+            failures.accept(new VerificationFailedException(getHeader() + "Class supertype cannot be null"));
+        }
+        for (MethodEntry method : type.getMethods()) {
+            verify(method, failures);
         }
+        for (MethodEntry method : type.getStaticMethods()) {
+            verify(method, failures);
+        }
+        this.type = null;
+    }
+
+    private void verify(MethodEntry method, Consumer<VerificationFailedException> failures) {
+        try {
+            method.accept(this);
+        } catch (VerificationFailedException e) {
+            failures.accept(e);
+        } catch (RuntimeException e) {
+            failures.accept(new VerificationFailedException(getHeader() + "Error verifying method: " + e, e));
+        }
+        this.mth = null;
     }
 
     @Override
@@ -156,7 +193,7 @@ public class VerifyVisitor implements TypeVisitor, StatementVisitor, Instruction
 
     @Override
     public void visitLocalAccess(LocalAccess insn) {
-        check(this.defined_locals.contains(insn.getLocal()), "Access local not yet definde");
+        check(this.defined_locals.contains(insn.getLocal()), "Access to local not yet defined: " + insn.getLocal());
     }
 
     @Override
@@ -215,6 +252,10 @@ public class VerifyVisitor implements TypeVisitor, StatementVisitor, Instruction
 
     }
 
+    @Override
+    public void visitStringConcat(StringConcat insn) {
+    }
+
     @Override
     public void visitStringConstant(StringConstant insn) {
     }
@@ -242,7 +283,9 @@ public class VerifyVisitor implements TypeVisitor, StatementVisitor, Instruction
 
     @Override
     public void visitCatchBlock(CatchBlock stmt) {
-
+        if (stmt.getExceptionLocal() != null) {
+            this.defined_locals.add(stmt.getExceptionLocal());
+        }
     }
 
     @Override
@@ -271,7 +314,7 @@ public class VerifyVisitor implements TypeVisitor, StatementVisitor, Instruction
 
     @Override
     public void visitForEach(ForEach forLoop) {
-
+        this.defined_locals.add(forLoop.getValueAssignment());
     }
 
     @Override
@@ -358,6 +401,14 @@ public class VerifyVisitor implements TypeVisitor, StatementVisitor, Instruction
     @Override
     public void visitMethod(MethodEntry mth) {
         this.mth = mth;
+        this.defined_locals.clear();
+        Locals locals = mth.getLocals();
+        for (int i = 0; i < locals.getLocalCount(); i++) {
+            LocalInstance param = locals.getLocal(i).getParameterInstance();
+            if (param != null) {
+                this.defined_locals.add(param);
+            }
+        }
     }
 
     @Override
@@ -40,6 +40,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -55,6 +56,7 @@ import org.spongepowered.despector.ast.stmt.invoke.New;
 import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
 import org.spongepowered.despector.decompiler.ir.Insn;
 import org.spongepowered.despector.decompiler.ir.InvokeInsn;
+import org.spongepowered.despector.decompiler.ir.StringConcatInsn;
 import org.spongepowered.despector.decompiler.ir.TypeIntInsn;
 
 import java.util.List;
@@ -148,6 +150,8 @@ public final class AstUtil {
             TypeIntInsn array = (TypeIntInsn) next;
             return array.getValue();
         }
+        case Insn.STRING_CONCAT:
+            return TypeHelper.paramCount(((StringConcatInsn) next).getDescription());
         default:
             System.err.println("Unsupported opcode: " + next.getOpcode());
             throw new IllegalStateException();
@@ -201,6 +205,7 @@ public final class AstUtil {
         case Insn.CMP:
         case Insn.INVOKEDYNAMIC:
         case Insn.MULTINEWARRAY:
+        case Insn.STRING_CONCAT:
             return 1;
         case Insn.NOOP:
         case Insn.IINC:
@@ -402,6 +407,10 @@ public final class AstUtil {
         public void visitStaticMethodInvoke(StaticMethodInvoke insn) {
         }
 
+        @Override
+        public void visitStringConcat(StringConcat insn) {
+        }
+
         @Override
         public void visitStringConstant(StringConstant insn) {
         }
@@ -79,6 +79,7 @@ public class DebugUtil {
 
         opcodes[Insn.IINC] = "IINC";
         opcodes[Insn.CMP] = "CMP";
+        opcodes[Insn.STRING_CONCAT] = "STRING_CONCAT";
 
         opcodes[Insn.IFEQ] = "IFEQ";
         opcodes[Insn.IFNE] = "IFNE";
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A map keyed by the owner and name of a member which is looked up without
+ * building a combined key.
+ */
+public class MemberMap<V> {
+
+    private final Map<String, Map<String, V>> members = new HashMap<>();
+
+    /**
+     * Sets the value for the member with the given owner and name.
+     */
+    public void put(String owner, String name, V value) {
+        this.members.computeIfAbsent(checkNotNull(owner, "owner"), (k) -> new HashMap<>()).put(checkNotNull(name, "name"), value);
+    }
+
+    /**
+     * Gets the value for the member with the given owner and name, or null if
+     * there is none.
+     */
+    @Nullable
+    public V get(String owner, String name) {
+        Map<String, V> named = this.members.get(owner);
+        if (named == null) {
+            return null;
+        }
+        return named.get(name);
+    }
+
+    public boolean contains(String owner, String name) {
+        return get(owner, name) != null;
+    }
+
+}
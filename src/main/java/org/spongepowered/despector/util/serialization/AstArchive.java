@@ -0,0 +1,278 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.despector.util.serialization;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.parallel.Scheduler;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A random access archive of serialized types. Each type is stored as an
+ * independent record with its own string and signature tables and a trailing
+ * index maps type names to the offset and length of their record.
+ *
+ * <p>The archive is memory mapped when opened and acts as a
+ * {@link SourceSet.Loader} so that types are only deserialized the first time
+ * they are requested from the source set.</p>
+ */
+public class AstArchive implements SourceSet.Loader, AutoCloseable {
+
+    /**
+     * The magic number at the end of every archive.
+     */
+    public static final int MAGIC = 0x44535041;
+
+    private static final int TRAILER_LENGTH = 12;
+    // archives are mapped as a single buffer, which is limited to 2GB
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * Writes all types in the given source set to an archive at the given
+     * path.
+     */
+    public static void write(SourceSet set, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(set, out);
+        }
+    }
+
+    /**
+     * Writes all types in the given source set as an archive to the given
+     * output stream.
+     */
+    public static void write(SourceSet set, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        Map<String, long[]> index = new LinkedHashMap<>();
+        MessagePacker record = new MessagePacker().enableTables();
+        long offset = 0;
+        for (TypeEntry type : set.getAllClasses()) {
+            record.reset();
+            type.writeTo(record);
+            record.writeTo(out);
+            index.put(type.getName(), new long[] {offset, record.size()});
+            offset += record.size();
+            if (offset > MAX_SIZE) {
+                throw new IOException("Ast archive would be larger than 2GB");
+            }
+        }
+        MessagePacker pack = new MessagePacker(out);
+        pack.startMap(2);
+        pack.writeString("version").writeInt(AstSerializer.VERSION);
+        pack.writeString("types").startArray(index.size());
+        for (Map.Entry<String, long[]> e : index.entrySet()) {
+            pack.startMap(3);
+            pack.writeString("name").writeString(e.getKey());
+            pack.writeString("offset").writeInt(e.getValue()[0]);
+            pack.writeString("length").writeInt(e.getValue()[1]);
+            pack.endMap();
+        }
+        pack.endArray();
+        pack.endMap();
+        out.writeLong(offset);
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final Map<String, long[]> index = new LinkedHashMap<>();
+
+    /**
+     * Opens the archive at the given path, only the index is read.
+     */
+    public AstArchive(Path path) throws IOException {
+        this.channel = FileChannel.open(checkNotNull(path, "path"), StandardOpenOption.READ);
+        try {
+            long size = this.channel.size();
+            if (size < TRAILER_LENGTH) {
+                throw new IOException("Not an ast archive: " + path);
+            }
+            if (size > MAX_SIZE) {
+                throw new IOException("Ast archive is larger than 2GB: " + path);
+            }
+            this.data = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int limit = (int) size - TRAILER_LENGTH;
+            long index_offset = this.data.getLong(limit);
+            if (this.data.getInt(limit + 8) != MAGIC || index_offset < 0 || index_offset > limit) {
+                throw new IOException("Not an ast archive: " + path);
+            }
+            MessageUnpacker unpack = new MessageUnpacker(slice((int) index_offset, limit - (int) index_offset));
+            unpack.readMap();
+            String key = unpack.readString();
+            if (!"version".equals(key)) {
+                throw new IllegalStateException("Expected key version but was " + key);
+            }
+            int version = unpack.readInt();
+            // archives were introduced along with the version 2 string tables
+            if (version < 2 || version > AstSerializer.VERSION) {
+                throw new IllegalStateException("Unsupported ast archive version " + version);
+            }
+            unpack.readString();
+            int types = unpack.readArray();
+            for (int i = 0; i < types; i++) {
+                unpack.readMap();
+                unpack.readString();
+                String name = unpack.readString();
+                unpack.readString();
+                long offset = unpack.readLong();
+                unpack.readString();
+                long length = unpack.readLong();
+                if (offset < 0 || length < 0 || offset + length > index_offset) {
+                    throw new IOException("Corrupt index entry for " + name + " in ast archive: " + path);
+                }
+                this.index.put(name, new long[] {offset, length});
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the names of all types contained in this archive.
+     */
+    public Set<String> getTypeNames() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    /**
+     * Gets if this archive contains the given type.
+     */
+    public boolean contains(String name) {
+        return this.index.containsKey(name);
+    }
+
+    /**
+     * Deserializes the type with the given name into the given source set
+     * without adding it, returns null if the type is not in this archive.
+     */
+    public TypeEntry read(String name, SourceSet set) throws IOException {
+        long[] entry = this.index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        MessageUnpacker unpack = new MessageUnpacker(slice((int) entry[0], (int) entry[1]));
+        unpack.enableTables();
+        return AstLoader.loadType(unpack, set);
+    }
+
+    /**
+     * Deserializes every type in this archive and adds it to the given source
+     * set.
+     */
+    public void loadAll(SourceSet set) throws IOException {
+        for (String name : this.index.keySet()) {
+            set.add(read(name, set));
+        }
+    }
+
+    /**
+     * Deserializes every type in this archive using the given number of
+     * worker threads and adds them to the given source set. Types are added
+     * in archive order once all workers have finished.
+     */
+    public void loadAll(SourceSet set, int workers) throws IOException {
+        Scheduler<LoadTask> scheduler = new Scheduler<>(workers);
+        for (String name : this.index.keySet()) {
+            scheduler.add(new LoadTask(name, set));
+        }
+        scheduler.execute();
+        for (LoadTask task : scheduler.getTasks()) {
+            if (task.error instanceof IOException) {
+                throw (IOException) task.error;
+            } else if (task.error != null) {
+                throw new IllegalStateException("Error loading type " + task.name, task.error);
+            }
+            set.add(task.result);
+        }
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer buf = this.data.duplicate();
+        buf.position(offset);
+        buf.limit(offset + length);
+        return buf.slice();
+    }
+
+    @Override
+    public InputStream find(String name) {
+        // the archive only holds deserialized types, see load
+        return null;
+    }
+
+    @Override
+    public TypeEntry load(String name, SourceSet set) throws IOException {
+        return read(name, set);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * A task deserializing a single type from the archive.
+     */
+    private class LoadTask implements Runnable {
+
+        final String name;
+        final SourceSet set;
+        TypeEntry result;
+        Exception error;
+
+        LoadTask(String name, SourceSet set) {
+            this.name = name;
+            this.set = set;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.result = read(this.name, this.set);
+            } catch (Exception e) {
+                this.error = e;
+            }
+        }
+
+    }
+
+}
@@ -64,6 +64,7 @@ import org.spongepowered.despector.ast.insn.misc.InstanceOf;
 import org.spongepowered.despector.ast.insn.misc.MultiNewArray;
 import org.spongepowered.despector.ast.insn.misc.NewArray;
 import org.spongepowered.despector.ast.insn.misc.NumberCompare;
+import org.spongepowered.despector.ast.insn.misc.StringConcat;
 import org.spongepowered.despector.ast.insn.misc.Ternary;
 import org.spongepowered.despector.ast.insn.op.NegativeOperator;
 import org.spongepowered.despector.ast.insn.op.Operator;
@@ -108,11 +109,8 @@ import org.spongepowered.despector.decompiler.BaseDecompiler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 
 public class AstLoader {
 
@@ -135,17 +133,25 @@ public class AstLoader {
         startMap(unpack, 2);
         expectKey(unpack, "version");
         int version = unpack.readInt();
-        if (version != AstSerializer.VERSION) {
+        if (version < AstSerializer.MIN_SUPPORTED_VERSION || version > AstSerializer.VERSION) {
             throw new IllegalStateException("Unsupported ast version " + version);
         }
+        if (version >= 2) {
+            unpack.enableTables();
+        }
         expectKey(unpack, "classes");
         int classes = unpack.readArray();
+        LoadContext ctx = new LoadContext(set);
         for (int i = 0; i < classes; i++) {
-            set.add(loadType(unpack, set));
+            set.add(loadType(ctx, unpack));
         }
     }
 
     public static TypeEntry loadType(MessageUnpacker unpack, SourceSet set) throws IOException {
+        return loadType(new LoadContext(set), unpack);
+    }
+
+    private static TypeEntry loadType(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         TypeEntry entry = null;
         unpack.readMap();
         expectKey(unpack, "id");
@@ -155,13 +161,13 @@ public class AstLoader {
         expectKey(unpack, "name");
         String name = unpack.readString();
         if (id == AstSerializer.ENTRY_ID_CLASS) {
-            entry = new ClassEntry(set, lang, name);
+            entry = new ClassEntry(ctx.set, lang, name);
         } else if (id == AstSerializer.ENTRY_ID_ENUM) {
-            entry = new EnumEntry(set, lang, name);
+            entry = new EnumEntry(ctx.set, lang, name);
         } else if (id == AstSerializer.ENTRY_ID_INTERFACE) {
-            entry = new InterfaceEntry(set, lang, name);
+            entry = new InterfaceEntry(ctx.set, lang, name);
         } else if (id == AstSerializer.ENTRY_ID_ANNOTATIONTYPE) {
-            entry = new AnnotationEntry(set, lang, name);
+            entry = new AnnotationEntry(ctx.set, lang, name);
         }
         expectKey(unpack, "access");
         entry.setAccessModifier(AccessModifier.values()[unpack.readInt()]);
@@ -177,22 +183,22 @@ public class AstLoader {
         expectKey(unpack, "staticfields");
         int staticfields = unpack.readArray();
         for (int i = 0; i < staticfields; i++) {
-            entry.addField(loadField(unpack, set));
+            entry.addField(loadField(ctx, unpack));
         }
         expectKey(unpack, "fields");
         int fields = unpack.readArray();
         for (int i = 0; i < fields; i++) {
-            entry.addField(loadField(unpack, set));
+            entry.addField(loadField(ctx, unpack));
         }
         expectKey(unpack, "staticmethods");
         int staticmethods = unpack.readArray();
         for (int i = 0; i < staticmethods; i++) {
-            entry.addMethod(loadMethod(unpack, set));
+            entry.addMethod(loadMethod(ctx, unpack));
         }
         expectKey(unpack, "methods");
         int methods = unpack.readArray();
         for (int i = 0; i < methods; i++) {
-            entry.addMethod(loadMethod(unpack, set));
+            entry.addMethod(loadMethod(ctx, unpack));
         }
         String key = unpack.readString();
         if ("signature".equals(key)) {
@@ -206,7 +212,7 @@ public class AstLoader {
         }
         int annotations = unpack.readArray();
         for (int i = 0; i < annotations; i++) {
-            entry.addAnnotation(loadAnnotation(unpack, set));
+            entry.addAnnotation(loadAnnotation(ctx, unpack));
         }
         expectKey(unpack, "inner_classes");
         int innerclasses = unpack.readArray();
@@ -292,13 +298,17 @@ public class AstLoader {
     }
 
     public static FieldEntry loadField(MessageUnpacker unpack, SourceSet set) throws IOException {
+        return loadField(new LoadContext(set), unpack);
+    }
+
+    private static FieldEntry loadField(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         startMap(unpack, 12);
         expectKey(unpack, "id");
         int id = unpack.readInt();
         if (id != AstSerializer.ENTRY_ID_FIELD) {
             throw new IllegalStateException("Expected field");
         }
-        FieldEntry entry = new FieldEntry(set);
+        FieldEntry entry = new FieldEntry(ctx.set);
         expectKey(unpack, "access");
         entry.setAccessModifier(AccessModifier.values()[unpack.readInt()]);
         expectKey(unpack, "name");
@@ -322,19 +332,23 @@ public class AstLoader {
         expectKey(unpack, "annotations");
         int annotations = unpack.readArray();
         for (int i = 0; i < annotations; i++) {
-            entry.addAnnotation(loadAnnotation(unpack, set));
+            entry.addAnnotation(loadAnnotation(ctx, unpack));
         }
         return entry;
     }
 
     public static MethodEntry loadMethod(MessageUnpacker unpack, SourceSet set) throws IOException {
+        return loadMethod(new LoadContext(set), unpack);
+    }
+
+    private static MethodEntry loadMethod(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         startMap(unpack, 18);
         expectKey(unpack, "id");
         int id = unpack.readInt();
         if (id != AstSerializer.ENTRY_ID_METHOD) {
             throw new IllegalStateException("Expected method");
         }
-        MethodEntry entry = new MethodEntry(set);
+        MethodEntry entry = new MethodEntry(ctx.set);
         expectKey(unpack, "access");
         entry.setAccessModifier(AccessModifier.values()[unpack.readInt()]);
         expectKey(unpack, "owner");
@@ -364,25 +378,29 @@ public class AstLoader {
         expectKey(unpack, "methodsignature");
         entry.setMethodSignature(loadMethodSignature(unpack));
         expectKey(unpack, "locals");
-        Locals locals = loadLocals(unpack, entry, set);
-        method_locals = locals;
+        Locals locals = loadLocals(ctx, unpack, entry);
+        ctx.method_locals = locals;
         entry.setLocals(locals);
         expectKey(unpack, "instructions");
         if (unpack.peekType() == MessageType.NIL) {
             unpack.readNil();
         } else {
-            StatementBlock block = loadBlock(unpack, StatementBlock.Type.METHOD);
+            StatementBlock block = loadBlock(ctx, unpack, StatementBlock.Type.METHOD);
             entry.setInstructions(block);
         }
         expectKey(unpack, "annotations");
         int annotations = unpack.readArray();
         for (int i = 0; i < annotations; i++) {
-            entry.addAnnotation(loadAnnotation(unpack, set));
+            entry.addAnnotation(loadAnnotation(ctx, unpack));
         }
         return entry;
     }
 
     public static Locals loadLocals(MessageUnpacker unpack, MethodEntry method, SourceSet set) throws IOException {
+        return loadLocals(new LoadContext(set), unpack, method);
+    }
+
+    private static Locals loadLocals(LoadContext ctx, MessageUnpacker unpack, MethodEntry method) throws IOException {
         int size = unpack.readArray();
         Locals locals = new Locals(method);
 
@@ -410,7 +428,7 @@ public class AstLoader {
                 expectKey(unpack, "annotations");
                 int annotations = unpack.readArray();
                 for (int k = 0; k < annotations; k++) {
-                    insn.getAnnotations().add(loadAnnotation(unpack, set));
+                    insn.getAnnotations().add(loadAnnotation(ctx, unpack));
                 }
                 loc.addInstance(insn);
             }
@@ -419,7 +437,7 @@ public class AstLoader {
         return locals;
     }
 
-    private static StatementBlock loadBlock(MessageUnpacker unpack, StatementBlock.Type type) throws IOException {
+    private static StatementBlock loadBlock(LoadContext ctx, MessageUnpacker unpack, StatementBlock.Type type) throws IOException {
         if (unpack.peekType() == MessageType.NIL) {
             unpack.readNil();
             return null;
@@ -427,12 +445,12 @@ public class AstLoader {
         int statements = unpack.readArray();
         StatementBlock block = new StatementBlock(type);
         for (int i = 0; i < statements; i++) {
-            block.append(loadStatement(unpack));
+            block.append(loadStatement(ctx, unpack));
         }
         return block;
     }
 
-    private static Statement loadStatement(MessageUnpacker unpack) throws IOException {
+    private static Statement loadStatement(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         if (unpack.peekType() == MessageType.NIL) {
             unpack.readNil();
             return null;
@@ -440,11 +458,14 @@ public class AstLoader {
         unpack.readMap();
         expectKey(unpack, "id");
         int id = unpack.readInt();
-        Function<MessageUnpacker, Statement> loader = statement_loaders.get(id);
-        return loader.apply(unpack);
+        NodeLoader<Statement> loader = id >= 0 && id < ID_LIMIT ? statement_loaders[id] : null;
+        if (loader == null) {
+            throw new IllegalStateException("Unknown statement id " + id);
+        }
+        return loader.load(ctx, unpack);
     }
 
-    private static Instruction loadInstruction(MessageUnpacker unpack) throws IOException {
+    private static Instruction loadInstruction(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         if (unpack.peekType() == MessageType.NIL) {
             unpack.readNil();
             return null;
@@ -452,11 +473,14 @@ public class AstLoader {
         unpack.readMap();
         expectKey(unpack, "id");
         int id = unpack.readInt();
-        Function<MessageUnpacker, Instruction> loader = instruction_loaders.get(id);
-        return loader.apply(unpack);
+        NodeLoader<Instruction> loader = id >= 0 && id < ID_LIMIT ? instruction_loaders[id] : null;
+        if (loader == null) {
+            throw new IllegalStateException("Unknown instruction id " + id);
+        }
+        return loader.load(ctx, unpack);
     }
 
-    private static Condition loadCondition(MessageUnpacker unpack) throws IOException {
+    private static Condition loadCondition(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         if (unpack.peekType() == MessageType.NIL) {
             unpack.readNil();
             return null;
@@ -464,11 +488,18 @@ public class AstLoader {
         unpack.readMap();
         expectKey(unpack, "id");
         int id = unpack.readInt();
-        Function<MessageUnpacker, Condition> loader = condition_loaders.get(id);
-        return loader.apply(unpack);
+        NodeLoader<Condition> loader = id >= 0 && id < ID_LIMIT ? condition_loaders[id] : null;
+        if (loader == null) {
+            throw new IllegalStateException("Unknown condition id " + id);
+        }
+        return loader.load(ctx, unpack);
     }
 
     public static Annotation loadAnnotation(MessageUnpacker unpack, SourceSet set) throws IOException {
+        return loadAnnotation(new LoadContext(set), unpack);
+    }
+
+    private static Annotation loadAnnotation(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         startMap(unpack, 4);
         expectKey(unpack, "id");
         int id = unpack.readInt();
@@ -477,7 +508,7 @@ public class AstLoader {
         }
         expectKey(unpack, "typename");
         String typename = unpack.readString();
-        AnnotationType type = set.getAnnotationType(typename);
+        AnnotationType type = ctx.set.getAnnotationType(typename);
         Annotation anno = new Annotation(type);
         expectKey(unpack, "runtime");
         type.setRuntimeVisible(unpack.readBool());
@@ -492,22 +523,25 @@ public class AstLoader {
             Class<?> cls = null;
             try {
                 cls = Class.forName(cl);
-                type.setType(key, cls);
             } catch (ClassNotFoundException e) {
                 Throwables.propagate(e);
             }
             expectKey(unpack, "default");
-            Object def = loadAnnotationObject(unpack, set);
-            type.setDefault(key, def);
+            Object def = loadAnnotationObject(ctx, unpack);
             expectKey(unpack, "value");
-            Object val = loadAnnotationObject(unpack, set);
-            anno.setValue(key, val);
+            Object val = loadAnnotationObject(ctx, unpack);
+            // annotation types are shared by all types in the source set
+            synchronized (type) {
+                type.setType(key, cls);
+                type.setDefault(key, def);
+                anno.setValue(key, val);
+            }
         }
         return anno;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static Object loadAnnotationObject(MessageUnpacker unpack, SourceSet set) throws IOException {
+    private static Object loadAnnotationObject(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         startMap(unpack, 2);
         expectKey(unpack, "typename");
         String cl = unpack.readString();
@@ -536,12 +570,12 @@ public class AstLoader {
             int sz = unpack.readArray();
             List lst = new ArrayList();
             for (int i = 0; i < sz; i++) {
-                lst.add(loadAnnotationObject(unpack, set));
+                lst.add(loadAnnotationObject(ctx, unpack));
             }
         } else if (type == ClassTypeSignature.class) {
             return loadTypeSignature(unpack);
         } else if (type == Annotation.class) {
-            return loadAnnotation(unpack, set);
+            return loadAnnotation(ctx, unpack);
         } else if (type == EnumConstant.class) {
             unpack.readMap();
             expectKey(unpack, "enumtype");
@@ -639,18 +673,26 @@ public class AstLoader {
     }
 
     public static TypeSignature loadTypeSignature(MessageUnpacker unpack) throws IOException {
-        if (unpack.peekType() == MessageType.NIL) {
+        MessageType next = unpack.peekType();
+        if (next == MessageType.NIL) {
             unpack.readNil();
             return null;
+        } else if (next == MessageType.EXT) {
+            // signatures are mutable so each reference gets its own copy
+            ClassTypeSignature ref = unpack.readReference();
+            return ClassTypeSignature.of(ref.getType());
         }
         unpack.readMap();
         expectKey(unpack, "id");
         int id = unpack.readInt();
-        Function<MessageUnpacker, TypeSignature> loader = signature_loaders.get(id);
-        return loader.apply(unpack);
+        SignatureLoader loader = id >= 0 && id < ID_LIMIT ? signature_loaders[id] : null;
+        if (loader == null) {
+            throw new IllegalStateException("Unknown signature id " + id);
+        }
+        return loader.load(unpack);
     }
 
-    private static LocalInstance loadLocal(MessageUnpacker unpack) throws IOException {
+    private static LocalInstance loadLocal(LoadContext ctx, MessageUnpacker unpack) throws IOException {
         startMap(unpack, 3);
         expectKey(unpack, "local");
         int index = unpack.readInt();
@@ -663,770 +705,600 @@ public class AstLoader {
         } else {
             unpack.readNil();
         }
-        Local loc = method_locals.getLocal(index);
+        Local loc = ctx.method_locals.getLocal(index);
         return loc.find(start, type);
     }
 
-    private static final Map<Integer, Function<MessageUnpacker, Statement>> statement_loaders;
-    private static final Map<Integer, Function<MessageUnpacker, Instruction>> instruction_loaders;
-    private static final Map<Integer, Function<MessageUnpacker, Condition>> condition_loaders;
-    private static final Map<Integer, Function<MessageUnpacker, TypeSignature>> signature_loaders;
+    private static final int ID_LIMIT = 0x100;
 
-    private static final Map<Integer, Breakable> breakables = new HashMap<>();
-    private static Locals method_locals;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final NodeLoader<Statement>[] statement_loaders = new NodeLoader[ID_LIMIT];
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final NodeLoader<Instruction>[] instruction_loaders = new NodeLoader[ID_LIMIT];
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final NodeLoader<Condition>[] condition_loaders = new NodeLoader[ID_LIMIT];
+    private static final SignatureLoader[] signature_loaders = new SignatureLoader[ID_LIMIT];
 
     static {
-        statement_loaders = new HashMap<>();
-        instruction_loaders = new HashMap<>();
-        condition_loaders = new HashMap<>();
-        signature_loaders = new HashMap<>();
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_ARRAY_ACCESS, (unpack) -> {
-            try {
-                expectKey(unpack, "array");
-                Instruction array = loadInstruction(unpack);
-                expectKey(unpack, "index");
-                Instruction index = loadInstruction(unpack);
-                ArrayAccess stmt = new ArrayAccess(array, index);
-                return stmt;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_ARRAY_ASSIGN, (unpack) -> {
-            try {
-                expectKey(unpack, "array");
-                Instruction array = loadInstruction(unpack);
-                expectKey(unpack, "index");
-                Instruction index = loadInstruction(unpack);
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                ArrayAssignment stmt = new ArrayAssignment(array, index, val);
-                return stmt;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_BREAK, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                Break.Type type = Break.Type.values()[unpack.readInt()];
-                expectKey(unpack, "nested");
-                boolean nested = unpack.readBool();
-                expectKey(unpack, "break_id");
-                int key = unpack.readInt();
-                Breakable brk = breakables.get(key);
-                return new Break(brk, type, nested);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_CAST, (unpack) -> {
-            try {
-                expectKey(unpack, "value");
-                Instruction val = loadInstruction(unpack);
-                expectKey(unpack, "type");
-                TypeSignature type = loadTypeSignature(unpack);
-                return new Cast(type, val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_COMMENT, (unpack) -> {
-            try {
-                expectKey(unpack, "comment");
-                int size = unpack.readArray();
-                List<String> text = new ArrayList<>(size);
-                for (int i = 0; i < size; i++) {
-                    text.add(unpack.readString());
-                }
-                return new Comment(text);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_DO_WHILE, (unpack) -> {
-            try {
-                expectKey(unpack, "condition");
-                Condition cond = loadCondition(unpack);
-                DoWhile loop = new DoWhile(cond, new StatementBlock(StatementBlock.Type.WHILE));
-                expectKey(unpack, "breakpoints");
-                int brk_size = unpack.readArray();
-                for (int i = 0; i < brk_size; i++) {
-                    breakables.put(unpack.readInt(), loop);
-                }
-                expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.WHILE);
-                loop.setBody(body);
-                for (Iterator<Map.Entry<Integer, Breakable>> it = breakables.entrySet().iterator(); it.hasNext();) {
-                    Map.Entry<Integer, Breakable> n = it.next();
-                    if (n.getValue() == loop) {
-                        it.remove();
-                    }
-                }
-                return loop;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_DOUBLE_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new DoubleConstant(unpack.readDouble());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_DYNAMIC_INVOKE, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "method");
-                String method = unpack.readString();
-                expectKey(unpack, "desc");
-                String desc = unpack.readString();
-                return new Lambda(owner, method, desc, type, name);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_FLOAT_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new FloatConstant(unpack.readFloat());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_FOR, (unpack) -> {
-            try {
-                expectKey(unpack, "init");
-                Statement init = loadStatement(unpack);
-                expectKey(unpack, "condition");
-                Condition condition = loadCondition(unpack);
-                expectKey(unpack, "incr");
-                Statement incr = loadStatement(unpack);
-                For loop = new For(init, condition, incr, new StatementBlock(StatementBlock.Type.WHILE));
-                expectKey(unpack, "breakpoints");
-                int brk_size = unpack.readArray();
-                for (int i = 0; i < brk_size; i++) {
-                    breakables.put(unpack.readInt(), loop);
-                }
-                expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.WHILE);
-                loop.setBody(body);
-                for (Iterator<Map.Entry<Integer, Breakable>> it = breakables.entrySet().iterator(); it.hasNext();) {
-                    Map.Entry<Integer, Breakable> n = it.next();
-                    if (n.getValue() == loop) {
-                        it.remove();
-                    }
-                }
-                return loop;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_FOREACH, (unpack) -> {
-            try {
-                expectKey(unpack, "local");
-                LocalInstance loc = loadLocal(unpack);
-                expectKey(unpack, "collection");
-                Instruction col = loadInstruction(unpack);
-                ForEach loop = new ForEach(col, loc, new StatementBlock(StatementBlock.Type.WHILE));
-                expectKey(unpack, "breakpoints");
-                int brk_size = unpack.readArray();
-                for (int i = 0; i < brk_size; i++) {
-                    breakables.put(unpack.readInt(), loop);
-                }
-                expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.WHILE);
-                loop.setBody(body);
-                for (Iterator<Map.Entry<Integer, Breakable>> it = breakables.entrySet().iterator(); it.hasNext();) {
-                    Map.Entry<Integer, Breakable> n = it.next();
-                    if (n.getValue() == loop) {
-                        it.remove();
-                    }
-                }
-                return loop;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_IF, (unpack) -> {
-            try {
+        instruction_loaders[AstSerializer.STATEMENT_ID_ARRAY_ACCESS] = (ctx, unpack) -> {
+            expectKey(unpack, "array");
+            Instruction array = loadInstruction(ctx, unpack);
+            expectKey(unpack, "index");
+            Instruction index = loadInstruction(ctx, unpack);
+            ArrayAccess stmt = new ArrayAccess(array, index);
+            return stmt;
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_ARRAY_ASSIGN] = (ctx, unpack) -> {
+            expectKey(unpack, "array");
+            Instruction array = loadInstruction(ctx, unpack);
+            expectKey(unpack, "index");
+            Instruction index = loadInstruction(ctx, unpack);
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            ArrayAssignment stmt = new ArrayAssignment(array, index, val);
+            return stmt;
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_BREAK] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            Break.Type type = Break.Type.values()[unpack.readInt()];
+            expectKey(unpack, "nested");
+            boolean nested = unpack.readBool();
+            expectKey(unpack, "break_id");
+            int key = unpack.readInt();
+            Breakable brk = ctx.getBreakable(key);
+            return new Break(brk, type, nested);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_CAST] = (ctx, unpack) -> {
+            expectKey(unpack, "value");
+            Instruction val = loadInstruction(ctx, unpack);
+            expectKey(unpack, "type");
+            TypeSignature type = loadTypeSignature(unpack);
+            return new Cast(type, val);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_COMMENT] = (ctx, unpack) -> {
+            expectKey(unpack, "comment");
+            int size = unpack.readArray();
+            List<String> text = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                text.add(unpack.readString());
+            }
+            return new Comment(text);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_DO_WHILE] = (ctx, unpack) -> {
+            expectKey(unpack, "condition");
+            Condition cond = loadCondition(ctx, unpack);
+            DoWhile loop = new DoWhile(cond, new StatementBlock(StatementBlock.Type.WHILE));
+            expectKey(unpack, "breakpoints");
+            int[] breaks = ctx.pushBreakables(unpack, loop);
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.WHILE);
+            loop.setBody(body);
+            ctx.popBreakables(breaks);
+            return loop;
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_DOUBLE_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new DoubleConstant(unpack.readDouble());
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_DYNAMIC_INVOKE] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "method");
+            String method = unpack.readString();
+            expectKey(unpack, "desc");
+            String desc = unpack.readString();
+            return new Lambda(owner, method, desc, type, name);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_FLOAT_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new FloatConstant(unpack.readFloat());
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_FOR] = (ctx, unpack) -> {
+            expectKey(unpack, "init");
+            Statement init = loadStatement(ctx, unpack);
+            expectKey(unpack, "condition");
+            Condition condition = loadCondition(ctx, unpack);
+            expectKey(unpack, "incr");
+            Statement incr = loadStatement(ctx, unpack);
+            For loop = new For(init, condition, incr, new StatementBlock(StatementBlock.Type.WHILE));
+            expectKey(unpack, "breakpoints");
+            int[] breaks = ctx.pushBreakables(unpack, loop);
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.WHILE);
+            loop.setBody(body);
+            ctx.popBreakables(breaks);
+            return loop;
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_FOREACH] = (ctx, unpack) -> {
+            expectKey(unpack, "local");
+            LocalInstance loc = loadLocal(ctx, unpack);
+            expectKey(unpack, "collection");
+            Instruction col = loadInstruction(ctx, unpack);
+            ForEach loop = new ForEach(col, loc, new StatementBlock(StatementBlock.Type.WHILE));
+            expectKey(unpack, "breakpoints");
+            int[] breaks = ctx.pushBreakables(unpack, loop);
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.WHILE);
+            loop.setBody(body);
+            ctx.popBreakables(breaks);
+            return loop;
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_IF] = (ctx, unpack) -> {
+            expectKey(unpack, "condition");
+            Condition cond = loadCondition(ctx, unpack);
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.IF);
+            If iif = new If(cond, body);
+            expectKey(unpack, "elif");
+            int sz = unpack.readArray();
+            for (int i = 0; i < sz; i++) {
+                startMap(unpack, 2);
                 expectKey(unpack, "condition");
-                Condition cond = loadCondition(unpack);
+                Condition elif_cond = loadCondition(ctx, unpack);
                 expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.IF);
-                If iif = new If(cond, body);
-                expectKey(unpack, "elif");
-                int sz = unpack.readArray();
-                for (int i = 0; i < sz; i++) {
-                    startMap(unpack, 2);
-                    expectKey(unpack, "condition");
-                    Condition elif_cond = loadCondition(unpack);
-                    expectKey(unpack, "body");
-                    StatementBlock elif_body = loadBlock(unpack, StatementBlock.Type.IF);
-                    iif.new Elif(elif_cond, elif_body);
-                }
-                expectKey(unpack, "else");
-                StatementBlock else_body = loadBlock(unpack, StatementBlock.Type.IF);
-                if (else_body != null) {
-                    iif.new Else(else_body);
-                }
-                return iif;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_INCREMENT, (unpack) -> {
-            try {
-                expectKey(unpack, "local");
-                LocalInstance loc = loadLocal(unpack);
-                expectKey(unpack, "increment");
-                int incr = unpack.readInt();
-                return new Increment(loc, incr);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_INSTANCE_FIELD_ACCESS, (unpack) -> {
-            try {
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "desc");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "owner_val");
-                Instruction oval = loadInstruction(unpack);
-                return new InstanceFieldAccess(name, type, owner, oval);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_INSTANCE_FIELD_ASSIGN, (unpack) -> {
-            try {
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "type");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "owner_val");
-                Instruction oval = loadInstruction(unpack);
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                return new InstanceFieldAssignment(name, type, owner, oval, val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_INSTANCE_INVOKE, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                InstanceMethodInvoke.Type t = InstanceMethodInvoke.Type.values()[unpack.readInt()];
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "desc");
-                String desc = unpack.readString();
-                expectKey(unpack, "params");
-                int sz = unpack.readArray();
-                Instruction[] args = new Instruction[sz];
-                for (int i = 0; i < sz; i++) {
-                    args[i] = loadInstruction(unpack);
-                }
-                expectKey(unpack, "callee");
-                Instruction callee = loadInstruction(unpack);
-                return new InstanceMethodInvoke(t, name, desc, owner, args, callee);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_INSTANCE_OF, (unpack) -> {
-            try {
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                expectKey(unpack, "type");
-                String type = unpack.readString();
-                return new InstanceOf(val, ClassTypeSignature.of(type));
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_INT_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new IntConstant(unpack.readInt());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_INVOKE, (unpack) -> {
-            try {
-                expectKey(unpack, "inner");
-                Instruction inner = loadInstruction(unpack);
-                return new InvokeStatement(inner);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_LOCAL_ACCESS, (unpack) -> {
-            try {
-                expectKey(unpack, "local");
-                LocalInstance loc = loadLocal(unpack);
-                return new LocalAccess(loc);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_LOCAL_ASSIGN, (unpack) -> {
-            try {
-                expectKey(unpack, "local");
-                LocalInstance loc = loadLocal(unpack);
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                return new LocalAssignment(loc, val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_LONG_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new LongConstant(unpack.readLong());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_MULTI_NEW_ARRAY, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                String type = unpack.readString();
-                expectKey(unpack, "sizes");
-                int sz = unpack.readArray();
-                Instruction[] sizes = new Instruction[sz];
-                for (int i = 0; i < sz; i++) {
-                    sizes[i] = loadInstruction(unpack);
-                }
-                return new MultiNewArray(ClassTypeSignature.of(type), sizes);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_NEGATIVE_OPERATOR, (unpack) -> {
-            try {
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                return new NegativeOperator(val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
+                StatementBlock elif_body = loadBlock(ctx, unpack, StatementBlock.Type.IF);
+                iif.new Elif(elif_cond, elif_body);
+            }
+            expectKey(unpack, "else");
+            StatementBlock else_body = loadBlock(ctx, unpack, StatementBlock.Type.IF);
+            if (else_body != null) {
+                iif.new Else(else_body);
+            }
+            return iif;
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_INCREMENT] = (ctx, unpack) -> {
+            expectKey(unpack, "local");
+            LocalInstance loc = loadLocal(ctx, unpack);
+            expectKey(unpack, "increment");
+            int incr = unpack.readInt();
+            return new Increment(loc, incr);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_INSTANCE_FIELD_ACCESS] = (ctx, unpack) -> {
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "desc");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "owner_val");
+            Instruction oval = loadInstruction(ctx, unpack);
+            return new InstanceFieldAccess(name, type, owner, oval);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_INSTANCE_FIELD_ASSIGN] = (ctx, unpack) -> {
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "type");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "owner_val");
+            Instruction oval = loadInstruction(ctx, unpack);
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            return new InstanceFieldAssignment(name, type, owner, oval, val);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_INSTANCE_INVOKE] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            InstanceMethodInvoke.Type t = InstanceMethodInvoke.Type.values()[unpack.readInt()];
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "desc");
+            String desc = unpack.readString();
+            expectKey(unpack, "params");
+            int sz = unpack.readArray();
+            Instruction[] args = new Instruction[sz];
+            for (int i = 0; i < sz; i++) {
+                args[i] = loadInstruction(ctx, unpack);
+            }
+            expectKey(unpack, "callee");
+            Instruction callee = loadInstruction(ctx, unpack);
+            return new InstanceMethodInvoke(t, name, desc, owner, args, callee);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_INSTANCE_OF] = (ctx, unpack) -> {
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            expectKey(unpack, "type");
+            String type = unpack.readString();
+            return new InstanceOf(val, ClassTypeSignature.of(type));
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_INT_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new IntConstant(unpack.readInt());
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_INVOKE] = (ctx, unpack) -> {
+            expectKey(unpack, "inner");
+            Instruction inner = loadInstruction(ctx, unpack);
+            return new InvokeStatement(inner);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_LOCAL_ACCESS] = (ctx, unpack) -> {
+            expectKey(unpack, "local");
+            LocalInstance loc = loadLocal(ctx, unpack);
+            return new LocalAccess(loc);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_LOCAL_ASSIGN] = (ctx, unpack) -> {
+            expectKey(unpack, "local");
+            LocalInstance loc = loadLocal(ctx, unpack);
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            return new LocalAssignment(loc, val);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_LONG_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new LongConstant(unpack.readLong());
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_MULTI_NEW_ARRAY] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            String type = unpack.readString();
+            expectKey(unpack, "sizes");
+            int sz = unpack.readArray();
+            Instruction[] sizes = new Instruction[sz];
+            for (int i = 0; i < sz; i++) {
+                sizes[i] = loadInstruction(ctx, unpack);
+            }
+            return new MultiNewArray(ClassTypeSignature.of(type), sizes);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_NEGATIVE_OPERATOR] = (ctx, unpack) -> {
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            return new NegativeOperator(val);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_NEW] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "ctor");
+            String ctor = unpack.readString();
+            expectKey(unpack, "params");
+            int sz = unpack.readArray();
+            Instruction[] params = new Instruction[sz];
+            for (int i = 0; i < sz; i++) {
+                params[i] = loadInstruction(ctx, unpack);
             }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_NEW, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "ctor");
-                String ctor = unpack.readString();
-                expectKey(unpack, "params");
+            return new New(type, ctor, params);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_NEW_ARRAY] = (ctx, unpack) -> {
+            expectKey(unpack, "type");
+            String type = unpack.readString();
+            expectKey(unpack, "size");
+            Instruction size = loadInstruction(ctx, unpack);
+            Instruction[] values = null;
+            expectKey(unpack, "values");
+            if (unpack.peekType() == MessageType.NIL) {
+                unpack.readNil();
+            } else {
                 int sz = unpack.readArray();
-                Instruction[] params = new Instruction[sz];
+                values = new Instruction[sz];
                 for (int i = 0; i < sz; i++) {
-                    params[i] = loadInstruction(unpack);
+                    values[i] = loadInstruction(ctx, unpack);
                 }
-                return new New(type, ctor, params);
-            } catch (IOException e) {
-                Throwables.propagate(e);
             }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_NEW_ARRAY, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                String type = unpack.readString();
-                expectKey(unpack, "size");
-                Instruction size = loadInstruction(unpack);
-                Instruction[] values = null;
-                expectKey(unpack, "values");
-                if (unpack.peekType() == MessageType.NIL) {
-                    unpack.readNil();
-                } else {
-                    int sz = unpack.readArray();
-                    values = new Instruction[sz];
-                    for (int i = 0; i < sz; i++) {
-                        values[i] = loadInstruction(unpack);
-                    }
-                }
-                return new NewArray(ClassTypeSignature.of(type), size, values);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_NULL_CONSTANT, (unpack) -> {
+            return new NewArray(ClassTypeSignature.of(type), size, values);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_NULL_CONSTANT] = (ctx, unpack) -> {
             return NullConstant.NULL;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_NUMBER_COMPARE, (unpack) -> {
-            try {
-                expectKey(unpack, "left");
-                Instruction left = loadInstruction(unpack);
-                expectKey(unpack, "right");
-                Instruction right = loadInstruction(unpack);
-                return new NumberCompare(left, right);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_OPERATOR, (unpack) -> {
-            try {
-                expectKey(unpack, "left");
-                Instruction left = loadInstruction(unpack);
-                expectKey(unpack, "right");
-                Instruction right = loadInstruction(unpack);
-                expectKey(unpack, "operator");
-                OperatorType op = OperatorType.values()[unpack.readInt()];
-                return new Operator(op, left, right);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_RETURN, (unpack) -> {
-            try {
-                expectKey(unpack, "value");
-                Instruction val = null;
-                if (unpack.peekType() == MessageType.NIL) {
-                    unpack.readNil();
-                } else {
-                    val = loadInstruction(unpack);
-                }
-                return new Return(val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_STATIC_FIELD_ACCESS, (unpack) -> {
-            try {
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "desc");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                return new StaticFieldAccess(name, type, owner);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_STATIC_FIELD_ASSIGN, (unpack) -> {
-            try {
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "type");
-                TypeSignature type = loadTypeSignature(unpack);
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                return new StaticFieldAssignment(name, type, owner, val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_STATIC_INVOKE, (unpack) -> {
-            try {
-                expectKey(unpack, "name");
-                String name = unpack.readString();
-                expectKey(unpack, "owner");
-                String owner = unpack.readString();
-                expectKey(unpack, "desc");
-                String desc = unpack.readString();
-                expectKey(unpack, "params");
-                int sz = unpack.readArray();
-                Instruction[] args = new Instruction[sz];
-                for (int i = 0; i < sz; i++) {
-                    args[i] = loadInstruction(unpack);
-                }
-                return new StaticMethodInvoke(name, desc, owner, args);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_STRING_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new StringConstant(unpack.readString());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_SWITCH, (unpack) -> {
-            try {
-                expectKey(unpack, "var");
-                Instruction var = loadInstruction(unpack);
-                expectKey(unpack, "cases");
-                int sz = unpack.readArray();
-                Switch sw = new Switch(var);
-                for (int i = 0; i < sz; i++) {
-                    unpack.readMap();
-                    expectKey(unpack, "body");
-                    StatementBlock body = loadBlock(unpack, StatementBlock.Type.SWITCH);
-                    expectKey(unpack, "breaks");
-                    boolean breaks = unpack.readBool();
-                    expectKey(unpack, "default");
-                    boolean is_def = unpack.readBool();
-                    expectKey(unpack, "indices");
-                    List<Integer> index = new ArrayList<>();
-                    int s = unpack.readArray();
-                    for (int k = 0; k < s; k++) {
-                        index.add(unpack.readInt());
-                    }
-                    sw.new Case(body, breaks, is_def, index);
-                }
-                return sw;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_TERNARY, (unpack) -> {
-            try {
-                expectKey(unpack, "condition");
-                Condition cond = loadCondition(unpack);
-                expectKey(unpack, "true");
-                Instruction tr = loadInstruction(unpack);
-                expectKey(unpack, "false");
-                Instruction fl = loadInstruction(unpack);
-                return new Ternary(cond, tr, fl);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_THROW, (unpack) -> {
-            try {
-                expectKey(unpack, "ex");
-                Instruction tr = loadInstruction(unpack);
-                return new Throw(tr);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_TRY_CATCH, (unpack) -> {
-            try {
-                expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.TRY);
-                expectKey(unpack, "catch");
-                int catches = unpack.readArray();
-                TryCatch tr = new TryCatch(body);
-                for (int i = 0; i < catches; i++) {
-                    unpack.readMap();
-                    expectKey(unpack, "exceptions");
-                    int ex = unpack.readArray();
-                    List<String> exceptions = new ArrayList<>();
-                    for (int k = 0; k < ex; k++) {
-                        exceptions.add(unpack.readString());
-                    }
-                    expectKey(unpack, "block");
-                    StatementBlock catch_body = loadBlock(unpack, StatementBlock.Type.CATCH);
-                    String k = unpack.readString();
-                    if ("local".equals(k)) {
-                        LocalInstance loc = loadLocal(unpack);
-                        tr.new CatchBlock(loc, exceptions, catch_body);
-                    } else if ("dummy_name".equals(k)) {
-                        String dummy = unpack.readString();
-                        tr.new CatchBlock(dummy, exceptions, catch_body);
-                    } else {
-                        throw new IllegalStateException("Expected key local or dummy_name but was " + k);
-                    }
-                }
-                return tr;
-            } catch (IOException e) {
-                Throwables.propagate(e);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_NUMBER_COMPARE] = (ctx, unpack) -> {
+            expectKey(unpack, "left");
+            Instruction left = loadInstruction(ctx, unpack);
+            expectKey(unpack, "right");
+            Instruction right = loadInstruction(ctx, unpack);
+            return new NumberCompare(left, right);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_OPERATOR] = (ctx, unpack) -> {
+            expectKey(unpack, "left");
+            Instruction left = loadInstruction(ctx, unpack);
+            expectKey(unpack, "right");
+            Instruction right = loadInstruction(ctx, unpack);
+            expectKey(unpack, "operator");
+            OperatorType op = OperatorType.values()[unpack.readInt()];
+            return new Operator(op, left, right);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_RETURN] = (ctx, unpack) -> {
+            expectKey(unpack, "value");
+            Instruction val = null;
+            if (unpack.peekType() == MessageType.NIL) {
+                unpack.readNil();
+            } else {
+                val = loadInstruction(ctx, unpack);
             }
-            return null;
-        });
-        instruction_loaders.put(AstSerializer.STATEMENT_ID_TYPE_CONSTANT, (unpack) -> {
-            try {
-                expectKey(unpack, "cst");
-                return new TypeConstant(ClassTypeSignature.of(unpack.readString()));
-            } catch (IOException e) {
-                Throwables.propagate(e);
+            return new Return(val);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_STATIC_FIELD_ACCESS] = (ctx, unpack) -> {
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "desc");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            return new StaticFieldAccess(name, type, owner);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_STATIC_FIELD_ASSIGN] = (ctx, unpack) -> {
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "type");
+            TypeSignature type = loadTypeSignature(unpack);
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            return new StaticFieldAssignment(name, type, owner, val);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_STATIC_INVOKE] = (ctx, unpack) -> {
+            expectKey(unpack, "name");
+            String name = unpack.readString();
+            expectKey(unpack, "owner");
+            String owner = unpack.readString();
+            expectKey(unpack, "desc");
+            String desc = unpack.readString();
+            expectKey(unpack, "params");
+            int sz = unpack.readArray();
+            Instruction[] args = new Instruction[sz];
+            for (int i = 0; i < sz; i++) {
+                args[i] = loadInstruction(ctx, unpack);
             }
-            return null;
-        });
-        statement_loaders.put(AstSerializer.STATEMENT_ID_WHILE, (unpack) -> {
-            try {
-                expectKey(unpack, "condition");
-                Condition condition = loadCondition(unpack);
-                While loop = new While(condition, new StatementBlock(StatementBlock.Type.WHILE));
-                expectKey(unpack, "breakpoints");
-                int brk_size = unpack.readArray();
-                for (int i = 0; i < brk_size; i++) {
-                    breakables.put(unpack.readInt(), loop);
-                }
+            return new StaticMethodInvoke(name, desc, owner, args);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_STRING_CONCAT] = (ctx, unpack) -> {
+            expectKey(unpack, "operands");
+            int sz = unpack.readArray();
+            Instruction[] operands = new Instruction[sz];
+            for (int i = 0; i < sz; i++) {
+                operands[i] = loadInstruction(ctx, unpack);
+            }
+            return new StringConcat(operands);
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_STRING_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new StringConstant(unpack.readString());
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_SWITCH] = (ctx, unpack) -> {
+            expectKey(unpack, "var");
+            Instruction var = loadInstruction(ctx, unpack);
+            expectKey(unpack, "cases");
+            int sz = unpack.readArray();
+            Switch sw = new Switch(var);
+            for (int i = 0; i < sz; i++) {
+                unpack.readMap();
                 expectKey(unpack, "body");
-                StatementBlock body = loadBlock(unpack, StatementBlock.Type.WHILE);
-                loop.setBody(body);
-                for (Iterator<Map.Entry<Integer, Breakable>> it = breakables.entrySet().iterator(); it.hasNext();) {
-                    Map.Entry<Integer, Breakable> n = it.next();
-                    if (n.getValue() == loop) {
-                        it.remove();
-                    }
+                StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.SWITCH);
+                expectKey(unpack, "breaks");
+                boolean breaks = unpack.readBool();
+                expectKey(unpack, "default");
+                boolean is_def = unpack.readBool();
+                expectKey(unpack, "indices");
+                List<Integer> index = new ArrayList<>();
+                int s = unpack.readArray();
+                for (int k = 0; k < s; k++) {
+                    index.add(unpack.readInt());
                 }
-                return loop;
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        condition_loaders.put(AstSerializer.CONDITION_ID_AND, (unpack) -> {
-            try {
-                expectKey(unpack, "args");
-                int sz = unpack.readArray();
-                Condition[] args = new Condition[sz];
-                for (int i = 0; i < sz; i++) {
-                    args[i] = loadCondition(unpack);
+                sw.new Case(body, breaks, is_def, index);
+            }
+            return sw;
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_TERNARY] = (ctx, unpack) -> {
+            expectKey(unpack, "condition");
+            Condition cond = loadCondition(ctx, unpack);
+            expectKey(unpack, "true");
+            Instruction tr = loadInstruction(ctx, unpack);
+            expectKey(unpack, "false");
+            Instruction fl = loadInstruction(ctx, unpack);
+            return new Ternary(cond, tr, fl);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_THROW] = (ctx, unpack) -> {
+            expectKey(unpack, "ex");
+            Instruction tr = loadInstruction(ctx, unpack);
+            return new Throw(tr);
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_TRY_CATCH] = (ctx, unpack) -> {
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.TRY);
+            expectKey(unpack, "catch");
+            int catches = unpack.readArray();
+            TryCatch tr = new TryCatch(body);
+            for (int i = 0; i < catches; i++) {
+                unpack.readMap();
+                expectKey(unpack, "exceptions");
+                int ex = unpack.readArray();
+                List<String> exceptions = new ArrayList<>();
+                for (int k = 0; k < ex; k++) {
+                    exceptions.add(unpack.readString());
                 }
-                return new AndCondition(args);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        condition_loaders.put(AstSerializer.CONDITION_ID_BOOL, (unpack) -> {
-            try {
-                expectKey(unpack, "val");
-                Instruction val = loadInstruction(unpack);
-                expectKey(unpack, "inverse");
-                boolean inv = unpack.readBool();
-                return new BooleanCondition(val, inv);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        condition_loaders.put(AstSerializer.CONDITION_ID_COMPARE, (unpack) -> {
-            try {
-                expectKey(unpack, "left");
-                Instruction left = loadInstruction(unpack);
-                expectKey(unpack, "right");
-                Instruction right = loadInstruction(unpack);
-                expectKey(unpack, "op");
-                CompareOperator op = CompareOperator.values()[unpack.readInt()];
-                return new CompareCondition(left, right, op);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        condition_loaders.put(AstSerializer.CONDITION_ID_INVERSE, (unpack) -> {
-            try {
-                expectKey(unpack, "val");
-                Condition val = loadCondition(unpack);
-                return new InverseCondition(val);
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        condition_loaders.put(AstSerializer.CONDITION_ID_OR, (unpack) -> {
-            try {
-                expectKey(unpack, "args");
-                int sz = unpack.readArray();
-                Condition[] args = new Condition[sz];
-                for (int i = 0; i < sz; i++) {
-                    args[i] = loadCondition(unpack);
+                expectKey(unpack, "block");
+                StatementBlock catch_body = loadBlock(ctx, unpack, StatementBlock.Type.CATCH);
+                String k = unpack.readString();
+                if ("local".equals(k)) {
+                    LocalInstance loc = loadLocal(ctx, unpack);
+                    tr.new CatchBlock(loc, exceptions, catch_body);
+                } else if ("dummy_name".equals(k)) {
+                    String dummy = unpack.readString();
+                    tr.new CatchBlock(dummy, exceptions, catch_body);
+                } else {
+                    throw new IllegalStateException("Expected key local or dummy_name but was " + k);
                 }
-                return new OrCondition(args);
-            } catch (IOException e) {
-                Throwables.propagate(e);
             }
-            return null;
-        });
-        signature_loaders.put(AstSerializer.SIGNATURE_ID_TYPECLASS, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                return ClassTypeSignature.of(unpack.readString());
-            } catch (IOException e) {
-                Throwables.propagate(e);
+            return tr;
+        };
+        instruction_loaders[AstSerializer.STATEMENT_ID_TYPE_CONSTANT] = (ctx, unpack) -> {
+            expectKey(unpack, "cst");
+            return new TypeConstant(ClassTypeSignature.of(unpack.readString()));
+        };
+        statement_loaders[AstSerializer.STATEMENT_ID_WHILE] = (ctx, unpack) -> {
+            expectKey(unpack, "condition");
+            Condition condition = loadCondition(ctx, unpack);
+            While loop = new While(condition, new StatementBlock(StatementBlock.Type.WHILE));
+            expectKey(unpack, "breakpoints");
+            int[] breaks = ctx.pushBreakables(unpack, loop);
+            expectKey(unpack, "body");
+            StatementBlock body = loadBlock(ctx, unpack, StatementBlock.Type.WHILE);
+            loop.setBody(body);
+            ctx.popBreakables(breaks);
+            return loop;
+        };
+        condition_loaders[AstSerializer.CONDITION_ID_AND] = (ctx, unpack) -> {
+            expectKey(unpack, "args");
+            int sz = unpack.readArray();
+            Condition[] args = new Condition[sz];
+            for (int i = 0; i < sz; i++) {
+                args[i] = loadCondition(ctx, unpack);
+            }
+            return new AndCondition(args);
+        };
+        condition_loaders[AstSerializer.CONDITION_ID_BOOL] = (ctx, unpack) -> {
+            expectKey(unpack, "val");
+            Instruction val = loadInstruction(ctx, unpack);
+            expectKey(unpack, "inverse");
+            boolean inv = unpack.readBool();
+            return new BooleanCondition(val, inv);
+        };
+        condition_loaders[AstSerializer.CONDITION_ID_COMPARE] = (ctx, unpack) -> {
+            expectKey(unpack, "left");
+            Instruction left = loadInstruction(ctx, unpack);
+            expectKey(unpack, "right");
+            Instruction right = loadInstruction(ctx, unpack);
+            expectKey(unpack, "op");
+            CompareOperator op = CompareOperator.values()[unpack.readInt()];
+            return new CompareCondition(left, right, op);
+        };
+        condition_loaders[AstSerializer.CONDITION_ID_INVERSE] = (ctx, unpack) -> {
+            expectKey(unpack, "val");
+            Condition val = loadCondition(ctx, unpack);
+            return new InverseCondition(val);
+        };
+        condition_loaders[AstSerializer.CONDITION_ID_OR] = (ctx, unpack) -> {
+            expectKey(unpack, "args");
+            int sz = unpack.readArray();
+            Condition[] args = new Condition[sz];
+            for (int i = 0; i < sz; i++) {
+                args[i] = loadCondition(ctx, unpack);
             }
-            return null;
-        });
-        signature_loaders.put(AstSerializer.SIGNATURE_ID_TYPEVOID, (unpack) -> {
+            return new OrCondition(args);
+        };
+        signature_loaders[AstSerializer.SIGNATURE_ID_TYPECLASS] = (unpack) -> {
+            expectKey(unpack, "type");
+            String type = unpack.readString();
+            unpack.registerReference(ClassTypeSignature.of(type));
+            return ClassTypeSignature.of(type);
+        };
+        signature_loaders[AstSerializer.SIGNATURE_ID_TYPEVOID] = (unpack) -> {
             return VoidTypeSignature.VOID;
-        });
-        signature_loaders.put(AstSerializer.SIGNATURE_ID_TYPEVAR, (unpack) -> {
-            try {
-                expectKey(unpack, "identifier");
-                return new TypeVariableSignature(unpack.readString());
-            } catch (IOException e) {
-                Throwables.propagate(e);
-            }
-            return null;
-        });
-        signature_loaders.put(AstSerializer.SIGNATURE_ID_TYPEGENERIC, (unpack) -> {
-            try {
-                expectKey(unpack, "type");
-                GenericClassTypeSignature sig = new GenericClassTypeSignature(unpack.readString());
-                expectKey(unpack, "args");
-                int sz = unpack.readArray();
-                for (int i = 0; i < sz; i++) {
-                    startMap(unpack, 3);
-                    expectKey(unpack, "id");
-                    int id = unpack.readInt();
-                    if (id != AstSerializer.SIGNATURE_ID_ARG) {
-                        throw new IllegalStateException("Expected type argument");
-                    }
-                    expectKey(unpack, "wildcard");
-                    WildcardType wild = WildcardType.values()[unpack.readInt()];
-                    expectKey(unpack, "signature");
-                    TypeSignature arg = loadTypeSignature(unpack);
-                    sig.getArguments().add(new TypeArgument(wild, arg));
+        };
+        signature_loaders[AstSerializer.SIGNATURE_ID_TYPEVAR] = (unpack) -> {
+            expectKey(unpack, "identifier");
+            return new TypeVariableSignature(unpack.readString());
+        };
+        signature_loaders[AstSerializer.SIGNATURE_ID_TYPEGENERIC] = (unpack) -> {
+            expectKey(unpack, "type");
+            GenericClassTypeSignature sig = new GenericClassTypeSignature(unpack.readString());
+            expectKey(unpack, "args");
+            int sz = unpack.readArray();
+            for (int i = 0; i < sz; i++) {
+                startMap(unpack, 3);
+                expectKey(unpack, "id");
+                int id = unpack.readInt();
+                if (id != AstSerializer.SIGNATURE_ID_ARG) {
+                    throw new IllegalStateException("Expected type argument");
+                }
+                expectKey(unpack, "wildcard");
+                WildcardType wild = WildcardType.values()[unpack.readInt()];
+                expectKey(unpack, "signature");
+                TypeSignature arg = loadTypeSignature(unpack);
+                sig.getArguments().add(new TypeArgument(wild, arg));
+            }
+            return sig;
+        };
+    }
+
+    /**
+     * Loads a node of the ast from the unpacker, the id key has already been
+     * read.
+     */
+    @FunctionalInterface
+    private static interface NodeLoader<T> {
+
+        T load(LoadContext ctx, MessageUnpacker unpack) throws IOException;
+
+    }
+
+    /**
+     * Loads a type signature from the unpacker, the id key has already been
+     * read.
+     */
+    @FunctionalInterface
+    private static interface SignatureLoader {
+
+        TypeSignature load(MessageUnpacker unpack) throws IOException;
+
+    }
+
+    /**
+     * The state of a single load, each load gets its own context so that any
+     * number of loads may run concurrently.
+     */
+    private static class LoadContext {
+
+        final SourceSet set;
+        // the open breakables sorted by key, so that break lookups do not box
+        // their key
+        int[] breakable_keys = new int[8];
+        Breakable[] breakables = new Breakable[8];
+        int breakable_count;
+        Locals method_locals;
+
+        LoadContext(SourceSet set) {
+            this.set = set;
+        }
+
+        Breakable getBreakable(int key) {
+            int index = Arrays.binarySearch(this.breakable_keys, 0, this.breakable_count, key);
+            return index < 0 ? null : this.breakables[index];
+        }
+
+        int[] pushBreakables(MessageUnpacker unpack, Breakable loop) throws IOException {
+            int size = unpack.readArray();
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = unpack.readInt();
+                putBreakable(keys[i], loop);
+            }
+            return keys;
+        }
+
+        void popBreakables(int[] keys) {
+            for (int key : keys) {
+                int index = Arrays.binarySearch(this.breakable_keys, 0, this.breakable_count, key);
+                if (index >= 0) {
+                    int moved = --this.breakable_count - index;
+                    System.arraycopy(this.breakable_keys, index + 1, this.breakable_keys, index, moved);
+                    System.arraycopy(this.breakables, index + 1, this.breakables, index, moved);
+                    this.breakables[this.breakable_count] = null;
                 }
-                return sig;
-            } catch (IOException e) {
-                Throwables.propagate(e);
             }
-            return null;
-        });
+        }
+
+        private void putBreakable(int key, Breakable loop) {
+            int index = Arrays.binarySearch(this.breakable_keys, 0, this.breakable_count, key);
+            if (index >= 0) {
+                this.breakables[index] = loop;
+                return;
+            }
+            index = -index - 1;
+            if (this.breakable_count == this.breakable_keys.length) {
+                this.breakable_keys = Arrays.copyOf(this.breakable_keys, this.breakable_count * 2);
+                this.breakables = Arrays.copyOf(this.breakables, this.breakable_count * 2);
+            }
+            int moved = this.breakable_count - index;
+            System.arraycopy(this.breakable_keys, index, this.breakable_keys, index + 1, moved);
+            System.arraycopy(this.breakables, index, this.breakables, index + 1, moved);
+            this.breakable_keys[index] = key;
+            this.breakables[index] = loop;
+            this.breakable_count++;
+        }
+
     }
 
 }
@@ -29,7 +29,15 @@ package org.spongepowered.despector.util.serialization;
  */
 public final class AstSerializer {
 
-    public static final int VERSION = 1;
+    /**
+     * The current serialization version. Version 2 enables the string and
+     * signature tables for everything after the version header.
+     */
+    public static final int VERSION = 2;
+    /**
+     * The oldest serialization version which can still be loaded.
+     */
+    public static final int MIN_SUPPORTED_VERSION = 1;
 
     public static final int ENTRY_ID_CLASS = 0x00;
     public static final int ENTRY_ID_ENUM = 0x01;
@@ -82,6 +90,7 @@ public final class AstSerializer {
     public static final int STATEMENT_ID_BREAK = 0x36;
     public static final int STATEMENT_ID_MULTI_NEW_ARRAY = 0x37;
     public static final int STATEMENT_ID_METHOD_REF = 0x38;
+    public static final int STATEMENT_ID_STRING_CONCAT = 0x39;
 
     public static final int SIGNATURE_ID_TYPEVOID = 0x80;
     public static final int SIGNATURE_ID_TYPECLASS = 0x81;
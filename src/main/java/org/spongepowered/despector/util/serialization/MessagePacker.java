@@ -28,14 +28,21 @@ import static org.spongepowered.despector.util.serialization.MessageType.*;
 
 import com.google.common.base.Charsets;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
 /**
  * A serializer for writing files using the messagepack format.
+ *
+ * <p>Values are encoded into a growable byte array. If the packer was created
+ * with an output stream the array is written to the stream whenever a top
+ * level value is complete, when it grows past a threshold and when the packer
+ * is flushed or closed.</p>
  */
 public class MessagePacker implements AutoCloseable {
 
@@ -46,21 +53,114 @@ public class MessagePacker implements AutoCloseable {
     private static final int SHORT_MASK = 0xFFFF;
     private static final int MAX_FIXSTRING_LENGTH = 31;
 
-    private final DataOutputStream stream;
-    private final Deque<Frame> frames = new ArrayDeque<>();
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    @Nullable private final OutputStream stream;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+
+    // the remaining values of each open frame, the root frame accepts a
+    // single value
+    private int[] frame_remaining = new int[16];
+    private boolean[] frame_map = new boolean[16];
+    private int depth;
+
+    private Map<String, Integer> string_table;
+    private Map<Object, Integer> reference_table;
+
+    /**
+     * Creates a new packer which keeps the encoded data in memory, see
+     * {@link #toByteArray()} and {@link #writeTo(OutputStream)}.
+     */
+    public MessagePacker() {
+        this.stream = null;
+        this.frame_remaining[0] = 1;
+        this.frame_map[0] = true;
+    }
 
+    /**
+     * Creates a new packer which writes the encoded data to the given stream.
+     */
     public MessagePacker(OutputStream str) {
-        if (str instanceof DataOutputStream) {
-            this.stream = (DataOutputStream) str;
-        } else {
-            this.stream = new DataOutputStream(str);
-        }
-        this.frames.push(new Frame(FrameType.MAP, 1));
+        this.stream = str;
+        this.frame_remaining[0] = 1;
+        this.frame_map[0] = true;
     }
 
     @Override
     public void close() throws IOException {
-        this.stream.close();
+        flush();
+        if (this.stream != null) {
+            this.stream.close();
+        }
+    }
+
+    /**
+     * Writes any buffered data to the output stream of this packer. Does
+     * nothing if the packer has no output stream.
+     */
+    public void flush() throws IOException {
+        if (this.stream != null) {
+            this.stream.write(this.buffer, 0, this.position);
+            this.position = 0;
+            this.stream.flush();
+        }
+    }
+
+    /**
+     * Gets the number of bytes which are buffered.
+     */
+    public int size() {
+        return this.position;
+    }
+
+    /**
+     * Gets a copy of the buffered data.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.position);
+    }
+
+    /**
+     * Writes the buffered data to the given stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(this.buffer, 0, this.position);
+    }
+
+    /**
+     * Discards the buffered data and clears the string and value reference
+     * tables if they are enabled, so that the packer can be reused for a new
+     * top level value.
+     */
+    public MessagePacker reset() {
+        this.position = 0;
+        this.depth = 0;
+        this.frame_remaining[0] = 1;
+        if (this.string_table != null) {
+            this.string_table.clear();
+            this.reference_table.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Enables the string and value reference tables. Once enabled each string
+     * is written in full only the first time it is seen and as a varint index
+     * into the table every time after that.
+     */
+    public MessagePacker enableTables() {
+        this.string_table = new HashMap<>();
+        this.reference_table = new HashMap<>();
+        return this;
+    }
+
+    /**
+     * Gets if the string and value reference tables are enabled.
+     */
+    public boolean hasTables() {
+        return this.string_table != null;
     }
 
     /**
@@ -68,8 +168,9 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeNil() throws IOException {
         decreaseFrame();
-        this.stream.writeByte(TYPE_NIL);
-        return this;
+        ensure(1);
+        this.buffer[this.position++] = (byte) TYPE_NIL;
+        return complete();
     }
 
     /**
@@ -77,8 +178,9 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeBool(boolean val) throws IOException {
         decreaseFrame();
-        this.stream.writeByte(val ? TYPE_BOOL_TRUE : TYPE_BOOL_FALSE);
-        return this;
+        ensure(1);
+        this.buffer[this.position++] = (byte) (val ? TYPE_BOOL_TRUE : TYPE_BOOL_FALSE);
+        return complete();
     }
 
     /**
@@ -86,24 +188,25 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeInt(long val) throws IOException {
         decreaseFrame();
+        ensure(9);
         if (val >= 0 && val <= MAX_POSITIVE_FIXINT) {
-            this.stream.writeByte((int) (val & MAX_POSITIVE_FIXINT));
+            this.buffer[this.position++] = (byte) val;
         } else if (val < 0 && val >= MIN_NEGATUVE_FIXINT) {
-            this.stream.writeByte((int) val);
+            this.buffer[this.position++] = (byte) val;
         } else if (val <= Byte.MAX_VALUE && val >= Byte.MIN_VALUE) {
-            this.stream.writeByte(TYPE_INT8);
-            this.stream.writeByte((int) (val & BYTE_MASK));
+            this.buffer[this.position++] = (byte) TYPE_INT8;
+            this.buffer[this.position++] = (byte) val;
         } else if (val <= Short.MAX_VALUE && val >= Short.MIN_VALUE) {
-            this.stream.writeByte(TYPE_INT16);
-            this.stream.writeShort((int) (val & SHORT_MASK));
+            this.buffer[this.position++] = (byte) TYPE_INT16;
+            putShort((int) val);
         } else if (val <= Integer.MAX_VALUE && val >= Integer.MIN_VALUE) {
-            this.stream.writeByte(TYPE_INT32);
-            this.stream.writeInt((int) val);
+            this.buffer[this.position++] = (byte) TYPE_INT32;
+            putInt((int) val);
         } else {
-            this.stream.writeByte(TYPE_INT64);
-            this.stream.writeLong(val);
+            this.buffer[this.position++] = (byte) TYPE_INT64;
+            putLong(val);
         }
-        return this;
+        return complete();
     }
 
     /**
@@ -111,22 +214,23 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeUnsignedInt(long val) throws IOException {
         decreaseFrame();
+        ensure(9);
         if (val <= MAX_POSITIVE_FIXINT) {
-            this.stream.writeByte((int) (val & MAX_POSITIVE_FIXINT));
+            this.buffer[this.position++] = (byte) (val & MAX_POSITIVE_FIXINT);
         } else if (val <= BYTE_MASK) {
-            this.stream.writeByte(TYPE_UINT8);
-            this.stream.writeByte((int) (val & BYTE_MASK));
+            this.buffer[this.position++] = (byte) TYPE_UINT8;
+            this.buffer[this.position++] = (byte) val;
         } else if (val <= SHORT_MASK) {
-            this.stream.writeByte(TYPE_UINT16);
-            this.stream.writeShort((int) (val & SHORT_MASK));
+            this.buffer[this.position++] = (byte) TYPE_UINT16;
+            putShort((int) val);
         } else if (val <= 0xFFFFFFFF) {
-            this.stream.writeByte(TYPE_UINT32);
-            this.stream.writeInt((int) (val & 0xFFFFFFFF));
+            this.buffer[this.position++] = (byte) TYPE_UINT32;
+            putInt((int) val);
         } else {
-            this.stream.writeByte(TYPE_UINT64);
-            this.stream.writeLong(val);
+            this.buffer[this.position++] = (byte) TYPE_UINT64;
+            putLong(val);
         }
-        return this;
+        return complete();
     }
 
     /**
@@ -134,9 +238,10 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeFloat(float val) throws IOException {
         decreaseFrame();
-        this.stream.writeByte(TYPE_FLOAT);
-        this.stream.writeFloat(val);
-        return this;
+        ensure(5);
+        this.buffer[this.position++] = (byte) TYPE_FLOAT;
+        putInt(Float.floatToIntBits(val));
+        return complete();
     }
 
     /**
@@ -144,9 +249,10 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeDouble(double val) throws IOException {
         decreaseFrame();
-        this.stream.writeByte(TYPE_DOUBLE);
-        this.stream.writeDouble(val);
-        return this;
+        ensure(9);
+        this.buffer[this.position++] = (byte) TYPE_DOUBLE;
+        putLong(Double.doubleToLongBits(val));
+        return complete();
     }
 
     /**
@@ -154,22 +260,96 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeString(String val) throws IOException {
         decreaseStringFrame();
-        byte[] chars = val.getBytes(Charsets.UTF_8);
-        int len = chars.length;
+        if (this.string_table != null) {
+            Integer index = this.string_table.get(val);
+            if (index != null) {
+                writeTableIndex(EXT_STRING_REF, index);
+                return complete();
+            }
+            this.string_table.put(val, this.string_table.size());
+        }
+        // the chars are copied directly as long as the string is ascii, in
+        // which case its length in bytes is its number of chars
+        int len = val.length();
+        ensure(len + 5);
+        int start = this.position;
+        writeStringHeader(len);
+        byte[] buf = this.buffer;
+        int pos = this.position;
+        for (int i = 0; i < len; i++) {
+            char c = val.charAt(i);
+            if (c >= 0x80) {
+                this.position = start;
+                byte[] chars = val.getBytes(Charsets.UTF_8);
+                writeStringHeader(chars.length);
+                ensure(chars.length);
+                System.arraycopy(chars, 0, this.buffer, this.position, chars.length);
+                this.position += chars.length;
+                return complete();
+            }
+            buf[pos + i] = (byte) c;
+        }
+        this.position = pos + len;
+        return complete();
+    }
+
+    private void writeStringHeader(int len) throws IOException {
+        ensure(5);
         if (len <= MAX_FIXSTRING_LENGTH) {
-            this.stream.writeByte(TYPE_STR5_MASK | len);
+            this.buffer[this.position++] = (byte) (TYPE_STR5_MASK | len);
         } else if (len < BYTE_MASK) {
-            this.stream.writeByte(TYPE_STR8);
-            this.stream.writeByte(len);
+            this.buffer[this.position++] = (byte) TYPE_STR8;
+            this.buffer[this.position++] = (byte) len;
         } else if (len < SHORT_MASK) {
-            this.stream.writeByte(TYPE_STR16);
-            this.stream.writeShort(len);
+            this.buffer[this.position++] = (byte) TYPE_STR16;
+            putShort(len);
         } else {
-            this.stream.writeByte(TYPE_STR32);
-            this.stream.writeInt(len);
+            this.buffer[this.position++] = (byte) TYPE_STR32;
+            putInt(len);
         }
-        this.stream.write(chars);
-        return this;
+    }
+
+    /**
+     * Writes a reference to the value previously registered with the given
+     * key and returns true. If no value has been registered with this key
+     * then it is registered and false is returned, the caller must then write
+     * the value in full. Always returns false if the tables are not enabled.
+     */
+    public boolean writeReference(Object key) throws IOException {
+        if (this.reference_table == null) {
+            return false;
+        }
+        Integer index = this.reference_table.get(key);
+        if (index == null) {
+            this.reference_table.put(key, this.reference_table.size());
+            return false;
+        }
+        decreaseFrame();
+        writeTableIndex(EXT_VALUE_REF, index);
+        complete();
+        return true;
+    }
+
+    private void writeTableIndex(int ext, int index) throws IOException {
+        int len = 1;
+        for (int i = index >>> 7; i != 0; i >>>= 7) {
+            len++;
+        }
+        ensure(len + 3);
+        if (len == 1) {
+            this.buffer[this.position++] = (byte) TYPE_FIXEXT1;
+        } else if (len == 2) {
+            this.buffer[this.position++] = (byte) TYPE_FIXEXT2;
+        } else {
+            this.buffer[this.position++] = (byte) TYPE_EXT8;
+            this.buffer[this.position++] = (byte) len;
+        }
+        this.buffer[this.position++] = (byte) ext;
+        while ((index & ~0x7F) != 0) {
+            this.buffer[this.position++] = (byte) ((index & 0x7F) | 0x80);
+            index >>>= 7;
+        }
+        this.buffer[this.position++] = (byte) index;
     }
 
     /**
@@ -177,18 +357,20 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker writeBin(byte[] data) throws IOException {
         decreaseFrame();
+        ensure(data.length + 5);
         if (data.length < BYTE_MASK) {
-            this.stream.writeByte(TYPE_BIN8);
-            this.stream.writeByte(data.length);
+            this.buffer[this.position++] = (byte) TYPE_BIN8;
+            this.buffer[this.position++] = (byte) data.length;
         } else if (data.length < SHORT_MASK) {
-            this.stream.writeByte(TYPE_BIN16);
-            this.stream.writeShort(data.length);
+            this.buffer[this.position++] = (byte) TYPE_BIN16;
+            putShort(data.length);
         } else {
-            this.stream.writeByte(TYPE_BIN32);
-            this.stream.writeInt(data.length);
+            this.buffer[this.position++] = (byte) TYPE_BIN32;
+            putInt(data.length);
         }
-        this.stream.write(data);
-        return this;
+        System.arraycopy(data, 0, this.buffer, this.position, data.length);
+        this.position += data.length;
+        return complete();
     }
 
     /**
@@ -196,28 +378,23 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker startArray(int len) throws IOException {
         decreaseFrame();
+        ensure(5);
         if (len < NIBBLE_MASK) {
-            this.stream.writeByte(TYPE_ARRAY8_MASK | len);
+            this.buffer[this.position++] = (byte) (TYPE_ARRAY8_MASK | len);
         } else if (len < SHORT_MASK) {
-            this.stream.writeByte(TYPE_ARRAY16);
-            this.stream.writeShort(len);
+            this.buffer[this.position++] = (byte) TYPE_ARRAY16;
+            putShort(len);
         } else {
-            this.stream.writeByte(TYPE_ARRAY32);
-            this.stream.writeInt(len);
+            this.buffer[this.position++] = (byte) TYPE_ARRAY32;
+            putInt(len);
         }
-        this.frames.push(new Frame(FrameType.ARRAY, len));
+        pushFrame(false, len);
         return this;
     }
 
-    public MessagePacker endArray() {
-        Frame f = this.frames.pop();
-        if (f.type != FrameType.ARRAY) {
-            throw new IllegalStateException("Attempted to end map frame as array");
-        }
-        if (f.remaining != 0) {
-            throw new IllegalStateException("Frame underflow");
-        }
-        return this;
+    public MessagePacker endArray() throws IOException {
+        popFrame(false);
+        return complete();
     }
 
     /**
@@ -225,65 +402,104 @@ public class MessagePacker implements AutoCloseable {
      */
     public MessagePacker startMap(int len) throws IOException {
         decreaseFrame();
+        ensure(5);
         if (len < NIBBLE_MASK) {
-            this.stream.writeByte(TYPE_MAP8_MASK | len);
+            this.buffer[this.position++] = (byte) (TYPE_MAP8_MASK | len);
         } else if (len < SHORT_MASK) {
-            this.stream.writeByte(TYPE_MAP16);
-            this.stream.writeShort(len);
+            this.buffer[this.position++] = (byte) TYPE_MAP16;
+            putShort(len);
         } else {
-            this.stream.writeByte(TYPE_MAP32);
-            this.stream.writeInt(len);
+            this.buffer[this.position++] = (byte) TYPE_MAP32;
+            putInt(len);
         }
-        this.frames.push(new Frame(FrameType.MAP, len * 2));
+        pushFrame(true, len * 2);
         return this;
     }
 
-    public MessagePacker endMap() {
-        Frame f = this.frames.pop();
-        if (f.type != FrameType.MAP) {
-            throw new IllegalStateException("Attempted to end array frame as map");
+    public MessagePacker endMap() throws IOException {
+        popFrame(true);
+        return complete();
+    }
+
+    private void pushFrame(boolean map, int remaining) {
+        if (++this.depth == this.frame_remaining.length) {
+            this.frame_remaining = Arrays.copyOf(this.frame_remaining, this.depth * 2);
+            this.frame_map = Arrays.copyOf(this.frame_map, this.depth * 2);
+        }
+        this.frame_remaining[this.depth] = remaining;
+        this.frame_map[this.depth] = map;
+    }
+
+    private void popFrame(boolean map) {
+        if (this.depth == 0 || this.frame_map[this.depth] != map) {
+            throw new IllegalStateException(map ? "Attempted to end array frame as map" : "Attempted to end map frame as array");
         }
-        if (f.remaining != 0) {
+        if (this.frame_remaining[this.depth] != 0) {
             throw new IllegalStateException("Frame underflow");
         }
-        return this;
+        this.depth--;
     }
 
     private void decreaseFrame() {
-        Frame f = this.frames.peek();
-        if (f.type == FrameType.MAP && f.remaining % 2 == 0) {
+        if (this.frame_map[this.depth] && this.frame_remaining[this.depth] % 2 == 0) {
             throw new IllegalStateException("Expected map key");
         }
-        f.remaining--;
-        if (f.remaining < 0) {
-            throw new IllegalStateException("Frame " + f.type.name() + " overflowed");
+        if (--this.frame_remaining[this.depth] < 0) {
+            throw new IllegalStateException("Frame " + frameName() + " overflowed");
         }
     }
 
     private void decreaseStringFrame() {
-        Frame f = this.frames.peek();
-        f.remaining--;
-        if (f.remaining < 0) {
-            throw new IllegalStateException("Frame " + f.type.name() + " overflowed");
+        if (--this.frame_remaining[this.depth] < 0) {
+            throw new IllegalStateException("Frame " + frameName() + " overflowed");
         }
     }
 
-    // TODO support EXT
-
-    private static class Frame {
+    private String frameName() {
+        return this.frame_map[this.depth] ? "MAP" : "ARRAY";
+    }
 
-        public FrameType type;
-        public int remaining;
+    /**
+     * Writes the buffered data to the output stream once a top level value
+     * is complete.
+     */
+    private MessagePacker complete() throws IOException {
+        if (this.depth == 0 && this.stream != null) {
+            this.stream.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+        return this;
+    }
 
-        public Frame(FrameType type, int len) {
-            this.type = type;
-            this.remaining = len;
+    private void ensure(int len) throws IOException {
+        if (this.position + len <= this.buffer.length) {
+            return;
         }
+        if (this.stream != null && this.position >= FLUSH_THRESHOLD) {
+            this.stream.write(this.buffer, 0, this.position);
+            this.position = 0;
+            if (len <= this.buffer.length) {
+                return;
+            }
+        }
+        this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.position + len));
+    }
+
+    private void putShort(int val) {
+        this.buffer[this.position++] = (byte) (val >>> 8);
+        this.buffer[this.position++] = (byte) val;
+    }
+
+    private void putInt(int val) {
+        this.buffer[this.position++] = (byte) (val >>> 24);
+        this.buffer[this.position++] = (byte) (val >>> 16);
+        this.buffer[this.position++] = (byte) (val >>> 8);
+        this.buffer[this.position++] = (byte) val;
     }
 
-    private static enum FrameType {
-        ARRAY,
-        MAP,
+    private void putLong(long val) {
+        putInt((int) (val >>> 32));
+        putInt((int) val);
     }
 
 }
@@ -41,7 +41,11 @@ public class MessagePrinter {
         return str.toString();
     }
 
-    private static void printNext(MessageUnpacker unpack, StringBuilder out, int indent) throws IOException {
+    /**
+     * Prints the next value and returns it, or null if the value is a
+     * container or binary.
+     */
+    private static Object printNext(MessageUnpacker unpack, StringBuilder out, int indent) throws IOException {
         for (int i = 0; i < indent; i++) {
             out.append("  ");
         }
@@ -62,28 +66,34 @@ public class MessagePrinter {
         case BOOL:
             boolean zval = unpack.readBool();
             out.append(zval).append("\n");
-            break;
+            return zval;
         case DOUBLE:
             double dval = unpack.readDouble();
             out.append(dval).append("\n");
-            break;
+            return dval;
         case FLOAT:
             float fval = unpack.readFloat();
             out.append(fval).append("\n");
-            break;
+            return fval;
         case INT:
             int ival = unpack.readInt();
             out.append(ival).append("\n");
-            break;
+            return ival;
         case LONG:
             long lval = unpack.readLong();
             out.append(lval).append("\n");
-            break;
+            return lval;
         case MAP:
             int map_sz = unpack.readMap();
             out.append("(entryies = ").append(map_sz).append(")\n");
-            for (int i = 0; i < map_sz * 2; i++) {
-                printNext(unpack, out, indent + 1);
+            for (int i = 0; i < map_sz; i++) {
+                Object key = printNext(unpack, out, indent + 1);
+                Object value = printNext(unpack, out, indent + 1);
+                // the string and reference tables follow the version of the
+                // root map, matching AstLoader
+                if (indent == 0 && "version".equals(key) && value instanceof Number && ((Number) value).intValue() >= 2) {
+                    unpack.enableTables();
+                }
             }
             break;
         case NIL:
@@ -93,18 +103,29 @@ public class MessagePrinter {
         case STRING:
             String str = unpack.readString();
             out.append("\"").append(str).append("\"").append("\n");
-            break;
+            return str;
         case UINT:
             long uival = unpack.readUnsignedInt();
             out.append(uival).append("\n");
-            break;
+            return uival;
         case ULONG:
             long ulval = unpack.readUnsignedLong();
             out.append(ulval).append("\n");
-            break;
+            return ulval;
+        case EXT:
+            if (unpack.peekReference()) {
+                // the referenced values are only known to the loader
+                int ref = unpack.readReferenceIndex();
+                out.append("ref #").append(ref).append("\n");
+                return null;
+            }
+            String ref_str = unpack.readString();
+            out.append("\"").append(ref_str).append("\"").append("\n");
+            return ref_str;
         default:
             throw new IllegalStateException("Unsupported message type: " + type.name());
         }
+        return null;
     }
 
 }
@@ -40,7 +40,8 @@ public enum MessageType {
     STRING,
     BIN,
     ARRAY,
-    MAP;
+    MAP,
+    EXT;
 
     private static final int FIXINT_MASK = 0x80;
     private static final int SHORTSTRING_MASK = 0xE0;
@@ -82,6 +83,15 @@ public enum MessageType {
     public static final int TYPE_EXT16 = 0xC8;
     public static final int TYPE_EXT32 = 0xC9;
 
+    /**
+     * The extension type of a reference into the string table.
+     */
+    public static final int EXT_STRING_REF = 0x01;
+    /**
+     * The extension type of a reference into the value reference table.
+     */
+    public static final int EXT_VALUE_REF = 0x02;
+
     /**
      * Gets the {@link MessageType} of the next value.
      */
@@ -107,6 +117,9 @@ public enum MessageType {
             return MAP;
         } else if (next == TYPE_NIL) {
             return NIL;
+        } else if (next == TYPE_FIXEXT1 || next == TYPE_FIXEXT2 || next == TYPE_FIXEXT4 || next == TYPE_FIXEXT8 || next == TYPE_FIXEXT16
+                || next == TYPE_EXT8 || next == TYPE_EXT16 || next == TYPE_EXT32) {
+            return EXT;
         }
         throw new IllegalArgumentException("Unsupported messagepack type: 0x" + Integer.toHexString(next));
     }
@@ -28,13 +28,23 @@ import static com.google.common.base.Preconditions.checkState;
 import static org.spongepowered.despector.util.serialization.MessageType.*;
 
 import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
 
-import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
 
 /**
  * A deserializer for data using the messagepack format.
+ *
+ * <p>Values are read from a byte buffer with a cursor, a heap buffer or a
+ * slice of a mapped file. Peeking at the next value reads the buffer without
+ * moving the cursor and strings are decoded directly from the buffer.</p>
  */
 public class MessageUnpacker implements AutoCloseable {
 
@@ -46,30 +56,119 @@ public class MessageUnpacker implements AutoCloseable {
     private static final int SHORTARRAY_MASK = 0xF0;
     private static final int NIBBLE_MASK = 0xF;
 
-    private final DataInputStream stream;
+    private final ByteBuffer buffer;
+    @Nullable private final InputStream stream;
 
-    public MessageUnpacker(InputStream str) {
-        if (str instanceof DataInputStream) {
-            this.stream = (DataInputStream) str;
-        } else {
-            this.stream = new DataInputStream(str);
-        }
-        checkState(this.stream.markSupported());
+    private List<String> string_table;
+    private List<Object> reference_table;
+
+    /**
+     * Creates a new unpacker reading the remaining data of the given buffer.
+     * The position of the given buffer is not changed.
+     */
+    public MessageUnpacker(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+        this.stream = null;
+    }
+
+    public MessageUnpacker(byte[] data) {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Creates a new unpacker reading from the given stream, the stream is
+     * read fully into memory.
+     */
+    public MessageUnpacker(InputStream str) throws IOException {
+        this.buffer = ByteBuffer.wrap(ByteStreams.toByteArray(str));
+        this.stream = str;
     }
 
     @Override
     public void close() throws IOException {
-        this.stream.close();
+        if (this.stream != null) {
+            this.stream.close();
+        }
+    }
+
+    /**
+     * Enables the string and value reference tables, this must match the
+     * state of the {@link MessagePacker} which wrote the data.
+     */
+    public MessageUnpacker enableTables() {
+        this.string_table = new ArrayList<>();
+        this.reference_table = new ArrayList<>();
+        return this;
+    }
+
+    /**
+     * Gets if the string and value reference tables are enabled.
+     */
+    public boolean hasTables() {
+        return this.string_table != null;
     }
 
     /**
      * Peeks at the next type in the input.
      */
     public MessageType peekType() throws IOException {
-        this.stream.mark(1);
-        int next = this.stream.readUnsignedByte();
-        this.stream.reset();
-        return MessageType.of(next);
+        require(1);
+        return MessageType.of(this.buffer.get(this.buffer.position()) & 0xFF);
+    }
+
+    /**
+     * Peeks at whether the next value in the input is a reference into the
+     * value reference table.
+     */
+    public boolean peekReference() throws IOException {
+        require(1);
+        int pos = this.buffer.position();
+        int next = this.buffer.get(pos) & 0xFF;
+        int ext = -1;
+        if (next == TYPE_FIXEXT1 || next == TYPE_FIXEXT2) {
+            require(2);
+            ext = this.buffer.get(pos + 1) & 0xFF;
+        } else if (next == TYPE_EXT8) {
+            require(3);
+            ext = this.buffer.get(pos + 2) & 0xFF;
+        }
+        return ext == EXT_VALUE_REF;
+    }
+
+    private void require(int len) throws EOFException {
+        if (this.buffer.remaining() < len) {
+            throw new EOFException();
+        }
+    }
+
+    private int readRawUnsignedByte() throws EOFException {
+        require(1);
+        return this.buffer.get() & 0xFF;
+    }
+
+    private int readRawUnsignedShort() throws EOFException {
+        require(2);
+        return this.buffer.getShort() & 0xFFFF;
+    }
+
+    private byte readRawByte() throws EOFException {
+        require(1);
+        return this.buffer.get();
+    }
+
+    private short readRawShort() throws EOFException {
+        require(2);
+        return this.buffer.getShort();
+    }
+
+    private int readRawInt() throws EOFException {
+        require(4);
+        return this.buffer.getInt();
+    }
+
+    private long readRawLong() throws EOFException {
+        require(8);
+        return this.buffer.getLong();
     }
 
     private void expectType(MessageType type) throws IOException {
@@ -84,14 +183,14 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public void readNil() throws IOException {
         expectType(MessageType.NIL);
-        this.stream.skipBytes(1);
+        this.buffer.get();
     }
 
     /**
      * Reads a boolean value from the input.
      */
     public boolean readBool() throws IOException {
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if (next == TYPE_BOOL_TRUE) {
             return true;
         } else if (next == TYPE_BOOL_FALSE) {
@@ -105,13 +204,13 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public byte readByte() throws IOException {
         expectType(MessageType.INT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if ((next & TYPE_NEGINT_MASK) == TYPE_NEGINT_MASK) {
             return (byte) (NEGATIVE_FIXINT_MASK | next);
         } else if (next == TYPE_INT8) {
-            return this.stream.readByte();
+            return readRawByte();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected INT");
     }
@@ -121,15 +220,15 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public short readShort() throws IOException {
         expectType(MessageType.INT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if ((next & TYPE_NEGINT_MASK) == TYPE_NEGINT_MASK) {
             return (byte) (NEGATIVE_FIXINT_MASK | next);
         } else if (next == TYPE_INT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_INT16) {
-            return this.stream.readShort();
+            return readRawShort();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected INT");
     }
@@ -139,17 +238,17 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public int readInt() throws IOException {
         expectType(MessageType.INT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if ((next & TYPE_NEGINT_MASK) == TYPE_NEGINT_MASK) {
             return (byte) (NEGATIVE_FIXINT_MASK | next);
         } else if (next == TYPE_INT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_INT16) {
-            return this.stream.readShort();
+            return readRawShort();
         } else if (next == TYPE_INT32) {
-            return this.stream.readInt();
+            return readRawInt();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected INT");
     }
@@ -159,19 +258,19 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public long readLong() throws IOException {
         expectType(MessageType.INT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if ((next & TYPE_NEGINT_MASK) == TYPE_NEGINT_MASK) {
             return (byte) (NEGATIVE_FIXINT_MASK | next);
         } else if (next == TYPE_INT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_INT16) {
-            return this.stream.readShort();
+            return readRawShort();
         } else if (next == TYPE_INT32) {
-            return this.stream.readInt();
+            return readRawInt();
         } else if (next == TYPE_INT64) {
-            return this.stream.readLong();
+            return readRawLong();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected INT");
     }
@@ -181,11 +280,11 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public int readUnsignedByte() throws IOException {
         expectType(MessageType.UINT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (next & FIXINT_MASK);
         } else if (next == TYPE_UINT8) {
-            return this.stream.readByte();
+            return readRawByte();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected UINT");
     }
@@ -195,13 +294,13 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public int readUnsignedShort() throws IOException {
         expectType(MessageType.UINT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if (next == TYPE_UINT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_UINT16) {
-            return this.stream.readShort();
+            return readRawShort();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected UINT");
     }
@@ -211,15 +310,15 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public long readUnsignedInt() throws IOException {
         expectType(MessageType.UINT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if (next == TYPE_UINT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_UINT16) {
-            return this.stream.readShort();
+            return readRawShort();
         } else if (next == TYPE_UINT32) {
-            return this.stream.readInt();
+            return readRawInt();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected UINT");
     }
@@ -229,17 +328,17 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public long readUnsignedLong() throws IOException {
         expectType(MessageType.UINT);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         if ((next & FIXINT_TYPE_MASK) == 0) {
             return (byte) (next & FIXINT_MASK);
         } else if (next == TYPE_UINT8) {
-            return this.stream.readByte();
+            return readRawByte();
         } else if (next == TYPE_UINT16) {
-            return this.stream.readShort();
+            return readRawShort();
         } else if (next == TYPE_UINT32) {
-            return this.stream.readInt();
+            return readRawInt();
         } else if (next == TYPE_UINT64) {
-            return this.stream.readLong();
+            return readRawLong();
         }
         throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected UINT");
     }
@@ -249,8 +348,9 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public float readFloat() throws IOException {
         expectType(MessageType.FLOAT);
-        this.stream.skipBytes(1);
-        return this.stream.readFloat();
+        require(5);
+        this.buffer.get();
+        return this.buffer.getFloat();
     }
 
     /**
@@ -258,29 +358,96 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public double readDouble() throws IOException {
         expectType(MessageType.DOUBLE);
-        this.stream.skipBytes(1);
-        return this.stream.readDouble();
+        require(9);
+        this.buffer.get();
+        return this.buffer.getDouble();
     }
 
     /**
      * Reads a string value from the input.
      */
     public String readString() throws IOException {
+        if (this.string_table != null && peekType() == MessageType.EXT) {
+            return this.string_table.get(readTableIndex(EXT_STRING_REF));
+        }
         expectType(MessageType.STRING);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         int len = -1;
         if ((next & SHORTSTRING_TYPE_MASK) == TYPE_STR5_MASK) {
             len = next & SHORTSTRING_MASK;
         } else if (next == TYPE_STR8) {
-            len = this.stream.readUnsignedByte();
+            len = readRawUnsignedByte();
         } else if (next == TYPE_STR16) {
-            len = this.stream.readUnsignedShort();
+            len = readRawUnsignedShort();
         } else if (next == TYPE_STR32) {
-            len = this.stream.readInt();
+            len = readRawInt();
         }
-        byte[] data = new byte[len];
-        this.stream.read(data);
-        return new String(data, Charsets.UTF_8);
+        require(len);
+        String str;
+        if (this.buffer.hasArray()) {
+            int pos = this.buffer.position();
+            str = new String(this.buffer.array(), this.buffer.arrayOffset() + pos, len, Charsets.UTF_8);
+            this.buffer.position(pos + len);
+        } else {
+            byte[] data = new byte[len];
+            this.buffer.get(data);
+            str = new String(data, Charsets.UTF_8);
+        }
+        if (this.string_table != null) {
+            this.string_table.add(str);
+        }
+        return str;
+    }
+
+    /**
+     * Reads a reference to a value in the value reference table.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T readReference() throws IOException {
+        checkState(this.reference_table != null, "Reference tables not enabled");
+        return (T) this.reference_table.get(readTableIndex(EXT_VALUE_REF));
+    }
+
+    /**
+     * Reads the index of a reference into the value reference table without
+     * resolving the referenced value.
+     */
+    public int readReferenceIndex() throws IOException {
+        return readTableIndex(EXT_VALUE_REF);
+    }
+
+    /**
+     * Registers a value which was read in full into the value reference
+     * table so that later references to it can be resolved. Does nothing if
+     * the tables are not enabled.
+     */
+    public void registerReference(Object value) {
+        if (this.reference_table != null) {
+            this.reference_table.add(value);
+        }
+    }
+
+    private int readTableIndex(int expected_ext) throws IOException {
+        int next = readRawUnsignedByte();
+        int len = -1;
+        if (next == TYPE_FIXEXT1) {
+            len = 1;
+        } else if (next == TYPE_FIXEXT2) {
+            len = 2;
+        } else if (next == TYPE_EXT8) {
+            len = readRawUnsignedByte();
+        } else {
+            throw new IllegalStateException("Unexpected type " + MessageType.of(next).name() + " but expected EXT");
+        }
+        int ext = readRawUnsignedByte();
+        if (ext != expected_ext) {
+            throw new IllegalStateException("Unexpected extension type " + ext + " but expected " + expected_ext);
+        }
+        int index = 0;
+        for (int i = 0; i < len; i++) {
+            index |= (readRawUnsignedByte() & 0x7F) << (7 * i);
+        }
+        return index;
     }
 
     /**
@@ -288,17 +455,18 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public byte[] readBinary() throws IOException {
         expectType(MessageType.BIN);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         int len = -1;
         if (next == TYPE_BIN8) {
-            len = this.stream.readUnsignedByte();
+            len = readRawUnsignedByte();
         } else if (next == TYPE_BIN16) {
-            len = this.stream.readUnsignedShort();
+            len = readRawUnsignedShort();
         } else if (next == TYPE_BIN32) {
-            len = this.stream.readInt();
+            len = readRawInt();
         }
+        require(len);
         byte[] data = new byte[len];
-        this.stream.read(data);
+        this.buffer.get(data);
         return data;
     }
 
@@ -308,14 +476,14 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public int readArray() throws IOException {
         expectType(MessageType.ARRAY);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         int len = -1;
         if ((next & SHORTARRAY_MASK) == TYPE_ARRAY8_MASK) {
             len = next & NIBBLE_MASK;
         } else if (next == TYPE_ARRAY16) {
-            len = this.stream.readUnsignedShort();
+            len = readRawUnsignedShort();
         } else if (next == TYPE_ARRAY32) {
-            len = this.stream.readInt();
+            len = readRawInt();
         }
         return len;
     }
@@ -326,14 +494,14 @@ public class MessageUnpacker implements AutoCloseable {
      */
     public int readMap() throws IOException {
         expectType(MessageType.MAP);
-        int next = this.stream.readUnsignedByte();
+        int next = readRawUnsignedByte();
         int len = -1;
         if ((next & SHORTARRAY_MASK) == TYPE_MAP8_MASK) {
             len = next & NIBBLE_MASK;
         } else if (next == TYPE_MAP16) {
-            len = this.stream.readUnsignedShort();
+            len = readRawUnsignedShort();
         } else if (next == TYPE_MAP32) {
-            len = this.stream.readInt();
+            len = readRawInt();
         }
         return len;
     }
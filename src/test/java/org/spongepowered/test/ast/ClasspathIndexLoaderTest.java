@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.decompiler.ClasspathIndexLoader;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ClasspathIndexLoaderTest {
+
+    private static void writeJar(Path path, boolean stored, Class<?>... classes) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path); ZipOutputStream out = new ZipOutputStream(file)) {
+            for (Class<?> cls : classes) {
+                byte[] data = TestHelper.classData(cls);
+                ZipEntry entry = new ZipEntry(cls.getName().replace('.', '/') + ".class");
+                if (stored) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(data.length);
+                    entry.setCrc(crc.getValue());
+                }
+                out.putNextEntry(entry);
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        Path dir = Files.createTempDirectory("despector-classpath");
+        Path deflated = dir.resolve("a.jar");
+        Path stored = dir.resolve("b.jar");
+        writeJar(deflated, false, First.class);
+        writeJar(stored, true, Second.class, First.class);
+        try (ClasspathIndexLoader loader = new ClasspathIndexLoader(ClasspathIndexLoader.expand(Collections.singletonList(dir)))) {
+            String first = First.class.getName().replace('.', '/');
+            String second = Second.class.getName().replace('.', '/');
+            assertTrue(loader.contains(first));
+            assertTrue(loader.contains(second));
+            assertEquals(2, loader.getTypeNames().size());
+            assertArrayEquals(TestHelper.classData(First.class), TestHelper.readAll(loader.find(first)));
+            assertArrayEquals(TestHelper.classData(Second.class), TestHelper.readAll(loader.find(second)));
+            assertNull(loader.find("java/lang/Missing"));
+
+            SourceSet set = new SourceSet();
+            set.setLoader(loader);
+            TypeEntry type = set.get(second);
+            assertNotNull(type);
+            assertTrue(type.isStub());
+        } finally {
+            for (Path path : Arrays.asList(deflated, stored, dir)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path dir = Files.createTempDirectory("despector-classpath");
+        Path cache = dir.resolve("cache");
+        Path jar = dir.resolve("a.jar");
+        writeJar(jar, false, First.class);
+        String first = First.class.getName().replace('.', '/');
+        try {
+            try (ClasspathIndexLoader loader = new ClasspathIndexLoader(Collections.singletonList(jar), cache)) {
+                assertTrue(loader.contains(first));
+            }
+            assertEquals(1, cache.toFile().list().length);
+            try (ClasspathIndexLoader loader = new ClasspathIndexLoader(Collections.singletonList(jar), cache)) {
+                assertArrayEquals(TestHelper.classData(First.class), TestHelper.readAll(loader.find(first)));
+            }
+
+            // a changed jar invalidates its cached index
+            writeJar(jar, true, Second.class);
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 2000));
+            try (ClasspathIndexLoader loader = new ClasspathIndexLoader(Collections.singletonList(jar), cache)) {
+                assertFalse(loader.contains(first));
+                assertArrayEquals(TestHelper.classData(Second.class), TestHelper.readAll(loader.find(Second.class.getName().replace('.', '/'))));
+            }
+        } finally {
+            for (String name : cache.toFile().list()) {
+                Files.delete(cache.resolve(name));
+            }
+            Files.delete(cache);
+            Files.delete(jar);
+            Files.delete(dir);
+        }
+    }
+
+    public static class First {
+
+        public int value() {
+            return 1;
+        }
+
+    }
+
+    public static class Second {
+
+        public String value() {
+            return "second";
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.Locals;
+import org.spongepowered.despector.ast.Locals.Local;
+import org.spongepowered.despector.ast.Locals.LocalInstance;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.generic.MethodSignature;
+import org.spongepowered.despector.ast.type.MethodEntry;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class LocalsTest {
+
+    private static final List<Integer> LABELS = Arrays.asList(0, 2, 4, 6, 8, 10, 12);
+
+    private static Locals createLocals() {
+        MethodEntry mth = new MethodEntry(new SourceSet());
+        mth.setStatic(true);
+        mth.setDescription("()V");
+        mth.setMethodSignature(new MethodSignature());
+        Locals locals = new Locals(mth);
+        Local local = locals.getLocal(1);
+        local.addLVT(4, 6, "a", "I");
+        local.addLVT(0, 12, "b", "Ljava/lang/String;");
+        locals.bakeInstances(new MethodSignature(), LABELS);
+        return locals;
+    }
+
+    @Test
+    public void testOverlappingInstances() {
+        Local local = createLocals().getLocal(1);
+        LocalInstance a = local.getInstances().get(0);
+        LocalInstance b = local.getInstances().get(1);
+        assertEquals(1, a.getStart());
+        assertEquals(5, a.getEnd());
+        assertEquals(-1, b.getStart());
+        assertEquals(6, b.getEnd());
+        assertSame(a, local.getInstance(0));
+        assertSame(a, local.getInstance(5));
+        assertSame(b, local.getInstance(-2));
+        assertSame(b, local.getInstance(6));
+    }
+
+    @Test
+    public void testFallbackInstance() {
+        Local local = createLocals().getLocal(1);
+        LocalInstance fallback = local.getInstance(7);
+        assertEquals("param1", fallback.getName());
+        assertEquals(3, local.getInstances().size());
+        assertSame(fallback, local.getInstance(100));
+        assertSame(local.getInstances().get(0), local.getInstance(3));
+        assertSame(local.getInstances().get(1), local.getInstance(6));
+    }
+
+    @Test
+    public void testFind() {
+        Local local = createLocals().getLocal(1);
+        assertSame(local.getInstances().get(0), local.find(1, "I"));
+        assertNull(local.find(1, "J"));
+        assertSame(local.getInstances().get(1), local.find(-1, "Ljava/lang/String;"));
+        assertNull(local.find(2, "I"));
+        assertEquals("a", local.getLVT(4).name);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingLVT() {
+        createLocals().getLocal(1).getLVT(2);
+    }
+
+    @Test
+    public void testRepeatedLabels() {
+        MethodEntry mth = new MethodEntry(new SourceSet());
+        mth.setStatic(true);
+        mth.setDescription("()V");
+        mth.setMethodSignature(new MethodSignature());
+        Locals locals = new Locals(mth);
+        locals.getLocal(0).addLVT(2, 2, "x", "I");
+        locals.bakeInstances(new MethodSignature(), Arrays.asList(0, 2, 2, 4, 4));
+        LocalInstance x = locals.getLocal(0).getInstances().get(0);
+        assertEquals(0, x.getStart());
+        assertEquals(3, x.getEnd());
+    }
+
+    @Test
+    public void testNonConflictingName() {
+        Locals locals = createLocals();
+        assertEquals("a1", locals.getNonConflictingName("a", 3));
+        assertEquals("a", locals.getNonConflictingName("a", 6));
+        assertEquals("b1", locals.getNonConflictingName("b", 6));
+        assertEquals("c", locals.getNonConflictingName("c", 3));
+        locals.getLocal(1).getInstances().get(0).setName("c");
+        assertEquals("a", locals.getNonConflictingName("a", 3));
+        assertEquals("c1", locals.getNonConflictingName("c", 3));
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.MemberResolver;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.FieldEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+
+public class MemberResolverTest {
+
+    private static final String BASE = MemberResolverTest.class.getName().replace('.', '/') + "$Base";
+    private static final String SUB = MemberResolverTest.class.getName().replace('.', '/') + "$Sub";
+    private static final String IFACE = MemberResolverTest.class.getName().replace('.', '/') + "$Iface";
+
+    private static SourceSet createSet() {
+        String path = MemberResolverTest.class.getProtectionDomain().getCodeSource().getLocation().getPath();
+        SourceSet set = new SourceSet();
+        set.setLoader((name) -> {
+            File file = new File(path, name + ".class");
+            if (!file.exists()) {
+                return null;
+            }
+            try {
+                return new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+        });
+        return set;
+    }
+
+    @Test
+    public void testSuperclassMethod() {
+        SourceSet set = createSet();
+        MemberResolver members = set.getMembers();
+        MethodEntry mth = members.resolveMethod(SUB, "join", "([Ljava/lang/String;)Ljava/lang/String;");
+        assertNotNull(mth);
+        assertEquals(BASE, mth.getOwnerName());
+        assertTrue(mth.isVarargs());
+        assertSame(mth, members.resolveMethod(SUB, "join", "([Ljava/lang/String;)Ljava/lang/String;"));
+    }
+
+    @Test
+    public void testInterfaceMethod() {
+        SourceSet set = createSet();
+        MethodEntry mth = set.getMembers().resolveMethod(SUB, "name", "()Ljava/lang/String;");
+        assertNotNull(mth);
+        assertEquals(IFACE, mth.getOwnerName());
+    }
+
+    @Test
+    public void testOverride() {
+        SourceSet set = createSet();
+        MethodEntry mth = set.getMembers().resolveMethod(SUB, "size", "()I");
+        assertNotNull(mth);
+        assertEquals(SUB, mth.getOwnerName());
+    }
+
+    @Test
+    public void testStaticAndFields() {
+        SourceSet set = createSet();
+        MemberResolver members = set.getMembers();
+        MethodEntry mth = members.resolveStaticMethod(SUB, "create", "()L" + BASE + ";");
+        assertNotNull(mth);
+        assertEquals(BASE, mth.getOwnerName());
+        FieldEntry fld = members.resolveField(SUB, "count");
+        assertNotNull(fld);
+        assertEquals(BASE, fld.getOwnerName());
+        assertNotNull(members.resolveStaticField(SUB, "PREFIX"));
+    }
+
+    @Test
+    public void testMissing() {
+        SourceSet set = createSet();
+        MemberResolver members = set.getMembers();
+        assertNull(members.resolveMethod(SUB, "missing", "()V"));
+        assertNull(members.resolveField(SUB, "missing"));
+        // constructors are not inherited
+        assertNull(members.resolveMethod(SUB, "<init>", "(I)V"));
+        assertNotNull(members.resolveMethod(BASE, "<init>", "(I)V"));
+        assertNull(members.getType("does/not/Exist"));
+        int size = members.size();
+        assertNull(members.resolveMethod(SUB, "missing", "()V"));
+        assertEquals(size, members.size());
+        members.invalidate();
+        assertEquals(0, members.size());
+    }
+
+    public static interface Iface {
+
+        default String name() {
+            return "iface";
+        }
+    }
+
+    public static class Base {
+
+        public static final String PREFIX = "base";
+
+        public static Base create() {
+            return new Base(0);
+        }
+
+        protected int count;
+
+        public Base(int count) {
+            this.count = count;
+        }
+
+        public int size() {
+            return this.count;
+        }
+
+        public String join(String... parts) {
+            return PREFIX + String.join(",", parts);
+        }
+    }
+
+    public static class Sub extends Base implements Iface {
+
+        public Sub() {
+            super(1);
+        }
+
+        @Override
+        public int size() {
+            return 2;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.cst.IntConstant;
+import org.spongepowered.despector.ast.stmt.invoke.StaticMethodInvoke;
+import org.spongepowered.despector.util.MemberMap;
+
+public class MethodInvokeTest {
+
+    @Test
+    public void testDerivedTypes() {
+        Instruction[] args = new Instruction[] {new IntConstant(1), new IntConstant(2)};
+        StaticMethodInvoke invoke = new StaticMethodInvoke("max", "(II)I", "Ljava/lang/Math;", args);
+        assertEquals("java/lang/Math", invoke.getOwnerName());
+        assertSame(invoke.getOwnerName(), invoke.getOwnerName());
+        assertEquals(ClassTypeSignature.of("Ljava/lang/Math;"), invoke.getOwnerType());
+        assertSame(ClassTypeSignature.INT, invoke.getParameterType(1));
+
+        invoke.setOwner("Ljava/lang/StrictMath;");
+        invoke.setMethodDescription("(JJ)J");
+        assertEquals("java/lang/StrictMath", invoke.getOwnerName());
+        assertEquals(ClassTypeSignature.of("Ljava/lang/StrictMath;"), invoke.getOwnerType());
+        assertSame(ClassTypeSignature.LONG, invoke.getParameterType(0));
+    }
+
+    @Test
+    public void testMemberMap() {
+        MemberMap<String> map = new MemberMap<>();
+        map.put("Ljava/util/Map;", "get", "a");
+        map.put("Ljava/util/Map;", "put", "b");
+        assertEquals("a", map.get("Ljava/util/Map;", "get"));
+        assertEquals("b", map.get("Ljava/util/Map;", "put"));
+        assertNull(map.get("Ljava/util/List;", "get"));
+        assertNull(map.get("Ljava/util/Map;", "remove"));
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.StructuralHash;
+import org.spongepowered.despector.ast.insn.condition.AndCondition;
+import org.spongepowered.despector.ast.insn.condition.CompareCondition;
+import org.spongepowered.despector.ast.insn.condition.CompareCondition.CompareOperator;
+import org.spongepowered.despector.ast.insn.cst.IntConstant;
+import org.spongepowered.despector.ast.insn.op.Operator;
+import org.spongepowered.despector.ast.insn.op.OperatorType;
+import org.spongepowered.despector.ast.stmt.Statement;
+import org.spongepowered.despector.ast.stmt.StatementBlock;
+import org.spongepowered.despector.ast.stmt.branch.If;
+import org.spongepowered.despector.ast.stmt.misc.Return;
+
+import java.util.Iterator;
+
+public class StructuralHashTest {
+
+    private static CompareCondition compare(int left, int right) {
+        return new CompareCondition(new Operator(OperatorType.ADD, new IntConstant(left), new IntConstant(1)), new IntConstant(right),
+                CompareOperator.LESS);
+    }
+
+    private static StatementBlock body(int value) {
+        StatementBlock block = new StatementBlock(StatementBlock.Type.IF);
+        block.append(new Return(new IntConstant(value)));
+        return block;
+    }
+
+    @Test
+    public void testEqualStructures() {
+        If a = new If(new AndCondition(compare(1, 2), compare(3, 4)), body(5));
+        If b = new If(new AndCondition(compare(1, 2), compare(3, 4)), body(5));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.hashCode(), a.hashCode());
+    }
+
+    @Test
+    public void testNestedMutation() {
+        CompareCondition cmp = compare(1, 2);
+        If a = new If(new AndCondition(cmp, compare(3, 4)), body(5));
+        If b = new If(new AndCondition(compare(1, 2), compare(3, 4)), body(5));
+        int hash = a.hashCode();
+        ((IntConstant) ((Operator) cmp.getLeft()).getLeftOperand()).setConstant(7);
+        assertNotEquals(a, b);
+        assertNotEquals(hash, a.hashCode());
+        ((IntConstant) ((Operator) cmp.getLeft()).getLeftOperand()).setConstant(1);
+        assertEquals(hash, a.hashCode());
+    }
+
+    @Test
+    public void testListMutation() {
+        StatementBlock block = body(5);
+        If a = new If(compare(1, 2), block);
+        int hash = a.hashCode();
+        block.getStatements().add(new Return(new IntConstant(6)));
+        int appended = a.hashCode();
+        assertNotEquals(hash, appended);
+        Iterator<Statement> it = block.getStatements().iterator();
+        it.next();
+        it.next();
+        it.remove();
+        assertEquals(hash, a.hashCode());
+        block.getStatements().subList(0, 1).set(0, new Return(new IntConstant(6)));
+        assertEquals(body(6).hashCode(), block.hashCode());
+    }
+
+    @Test
+    public void testOperandMutation() {
+        AndCondition and = new AndCondition(compare(1, 2), compare(3, 4), compare(5, 6));
+        If a = new If(and, body(5));
+        int hash = a.hashCode();
+        and.getOperands().remove(2);
+        assertNotEquals(hash, a.hashCode());
+        assertEquals(new If(new AndCondition(compare(1, 2), compare(3, 4)), body(5)).hashCode(), a.hashCode());
+    }
+
+    @Test
+    public void testScopedMutation() {
+        StructuralHash.Scope previous = StructuralHash.enterScope();
+        try {
+            IntConstant value = new IntConstant(5);
+            StatementBlock block = new StatementBlock(StatementBlock.Type.IF);
+            block.append(new Return(value));
+            If a = new If(compare(1, 2), block);
+            int hash = a.hashCode();
+            value.setConstant(6);
+            assertNotEquals(hash, a.hashCode());
+        } finally {
+            StructuralHash.exitScope(previous);
+        }
+    }
+
+    @Test
+    public void testMutationAfterScope() {
+        IntConstant value = new IntConstant(5);
+        StatementBlock block = new StatementBlock(StatementBlock.Type.IF);
+        block.append(new Return(value));
+        If a = new If(compare(1, 2), block);
+        StructuralHash.Scope previous = StructuralHash.enterScope();
+        int hash;
+        try {
+            hash = a.hashCode();
+        } finally {
+            StructuralHash.exitScope(previous);
+        }
+        value.setConstant(6);
+        assertNotEquals(hash, a.hashCode());
+        value.setConstant(5);
+        assertEquals(hash, a.hashCode());
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.EnumEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.test.formatting.FormattingTestClass;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+
+public class StubLoadingTest {
+
+    private static SourceSet createSet() {
+        String path = StubLoadingTest.class.getProtectionDomain().getCodeSource().getLocation().getPath();
+        SourceSet set = new SourceSet();
+        set.setLoader((name) -> {
+            File file = new File(path, name + ".class");
+            if (!file.exists()) {
+                return null;
+            }
+            try {
+                return new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+        });
+        return set;
+    }
+
+    @Test
+    public void testStub() {
+        SourceSet set = createSet();
+        TypeEntry type = set.get(FormattingTestClass.class.getName().replace('.', '/'));
+        assertNotNull(type);
+        assertTrue(type.isStub());
+        assertEquals(2, type.getFieldCount());
+        MethodEntry foo = type.getMethod("foo", "()I");
+        assertNotNull(foo);
+        assertNull(foo.getIR());
+        assertEquals(1, foo.getMethodSignature().getThrowsSignature().size());
+    }
+
+    @Test
+    public void testUpgrade() {
+        SourceSet set = createSet();
+        TypeEntry type = set.get(FormattingTestClass.class.getName().replace('.', '/'));
+        MethodEntry foo = type.getMethod("foo", "()I");
+        assertNotNull(foo.getInstructions());
+        assertFalse(type.isStub());
+        assertNotNull(foo.getIR());
+        assertNotNull(type.getStaticMethod("main").getInstructions());
+    }
+
+    @Test
+    public void testEnumUpgrade() {
+        SourceSet set = createSet();
+        EnumEntry type = (EnumEntry) set.get(FormattingTestClass.Noo.class.getName().replace('.', '/'));
+        assertTrue(type.isStub());
+        set.upgrade(type);
+        assertFalse(type.isStub());
+        assertEquals(FormattingTestClass.Noo.values().length, type.getEnumConstants().size());
+    }
+
+}
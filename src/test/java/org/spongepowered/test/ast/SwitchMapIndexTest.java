@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.SwitchMapIndex;
+import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.insn.Instruction;
+import org.spongepowered.despector.ast.insn.cst.IntConstant;
+import org.spongepowered.despector.ast.insn.var.StaticFieldAccess;
+import org.spongepowered.despector.ast.stmt.StatementBlock;
+import org.spongepowered.despector.ast.stmt.assign.ArrayAssignment;
+import org.spongepowered.despector.ast.stmt.branch.TryCatch;
+import org.spongepowered.despector.ast.stmt.invoke.InstanceMethodInvoke;
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+
+import java.util.Map;
+
+public class SwitchMapIndexTest {
+
+    private static final String HOLDER = "test/Outer$1";
+    private static final String ENUM = "test/Color";
+
+    private static TryCatch entry(String map, String constant, int index) {
+        Instruction array = new StaticFieldAccess(map, ClassTypeSignature.of("[I"), HOLDER);
+        Instruction value = new StaticFieldAccess(constant, ClassTypeSignature.of("L" + ENUM + ";"), ENUM);
+        Instruction ordinal = new InstanceMethodInvoke(InstanceMethodInvoke.Type.VIRTUAL, "ordinal", "()I", ENUM, new Instruction[0], value);
+        StatementBlock body = new StatementBlock(StatementBlock.Type.TRY);
+        body.append(new ArrayAssignment(array, ordinal, new IntConstant(index)));
+        return new TryCatch(body);
+    }
+
+    private static SourceSet create() {
+        SourceSet set = new SourceSet();
+        ClassEntry holder = new ClassEntry(set, Language.JAVA, HOLDER);
+        MethodEntry clinit = new MethodEntry(set);
+        clinit.setOwner(HOLDER);
+        clinit.setName("<clinit>");
+        clinit.setDescription("()V");
+        clinit.setStatic(true);
+        StatementBlock block = new StatementBlock(StatementBlock.Type.METHOD);
+        block.append(entry("$SwitchMap$test$Color", "RED", 1));
+        block.append(entry("$SwitchMap$test$Color", "GREEN", 2));
+        block.append(entry("$SwitchMap$test$Shape", "SQUARE", 1));
+        clinit.setInstructions(block);
+        holder.addMethod(clinit);
+        set.add(holder);
+        return set;
+    }
+
+    @Test
+    public void testTables() {
+        SwitchMapIndex index = new SwitchMapIndex(create());
+        Map<Integer, String> colors = index.getTable(HOLDER, "<clinit>", "$SwitchMap$test$Color");
+        assertEquals(2, colors.size());
+        assertEquals("RED", colors.get(1));
+        assertEquals("GREEN", colors.get(2));
+        Map<Integer, String> shapes = index.getTable(HOLDER, "<clinit>", "$SwitchMap$test$Shape");
+        assertEquals(1, shapes.size());
+        assertEquals("SQUARE", shapes.get(1));
+    }
+
+    @Test
+    public void testMisses() {
+        SwitchMapIndex index = new SwitchMapIndex(create());
+        assertNull(index.getTable(HOLDER, "<clinit>", "$SwitchMap$test$Missing"));
+        assertNull(index.getTable(HOLDER, "missing", "$SwitchMap$test$Color"));
+        assertNull(index.getTable("test/Missing", "<clinit>", "$SwitchMap$test$Color"));
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+
+public class TypeEntryTest {
+
+    private static MethodEntry method(ClassEntry type, String name, String desc, boolean is_static) {
+        MethodEntry mth = new MethodEntry(type.getSource());
+        mth.setOwner(type.getName());
+        mth.setName(name);
+        mth.setDescription(desc);
+        mth.setStatic(is_static);
+        type.addMethod(mth);
+        return mth;
+    }
+
+    private static ClassEntry create() {
+        return new ClassEntry(new SourceSet(), Language.JAVA, "test/Type");
+    }
+
+    @Test
+    public void testOverloads() {
+        ClassEntry type = create();
+        MethodEntry a = method(type, "foo", "(I)V", false);
+        MethodEntry b = method(type, "foo", "(J)V", false);
+        assertSame(a, type.getMethod("foo", "(I)V"));
+        assertSame(b, type.getMethod("foo", "(J)V"));
+        assertNull(type.getMethod("foo", "()V"));
+        assertNull(type.getMethod("bar", "(I)V"));
+        assertEquals(2, type.getMethodCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAmbiguousName() {
+        ClassEntry type = create();
+        method(type, "foo", "(I)V", false);
+        method(type, "foo", "(J)V", false);
+        type.getMethod("foo");
+    }
+
+    @Test
+    public void testStaticCollision() {
+        ClassEntry type = create();
+        MethodEntry inst = method(type, "foo", "()V", false);
+        MethodEntry stat = method(type, "foo", "()V", true);
+        assertSame(inst, type.getMethod("foo", "()V"));
+        assertSame(stat, type.getStaticMethod("foo", "()V"));
+        assertSame(inst, type.getMethod("foo"));
+        assertSame(stat, type.getStaticMethod("foo"));
+        assertNull(type.getStaticMethod("foo", "(I)V"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicate() {
+        ClassEntry type = create();
+        method(type, "foo", "()V", false);
+        method(type, "foo", "()V", false);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMethodsUnmodifiable() {
+        ClassEntry type = create();
+        method(type, "foo", "()V", false);
+        type.getMethods().clear();
+    }
+
+}
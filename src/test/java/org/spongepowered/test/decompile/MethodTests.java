@@ -29,6 +29,7 @@ import static org.objectweb.asm.Opcodes.*;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.spongepowered.despector.config.LibraryConfiguration;
@@ -144,4 +145,91 @@ public class MethodTests {
         String good = "int[][] a = new int[5][6];";
         Assert.assertEquals(good, insn);
     }
+
+    @Test
+    public void testStringBuilderConcat() {
+        TestMethodBuilder builder = new TestMethodBuilder("test_mth", "(Ljava/lang/String;I)V");
+        MethodVisitor mv = builder.getGenerator();
+        Label start = new Label();
+        Label l1 = new Label();
+        Label end = new Label();
+        mv.visitLabel(start);
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitLdcInsn(" ");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IADD);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitLabel(l1);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+        mv.visitLocalVariable("s", "Ljava/lang/String;", null, start, end, 0);
+        mv.visitLocalVariable("i", "I", null, start, end, 1);
+        mv.visitLocalVariable("a", "Ljava/lang/String;", null, l1, end, 2);
+
+        String insn = TestHelper.getAsString(builder.finish(), "test_mth");
+        String good = "String a = s + \" \" + (i + 1);";
+        Assert.assertEquals(good, insn);
+    }
+
+    @Test
+    public void testIndyStringConcat() {
+        TestMethodBuilder builder = new TestMethodBuilder("test_mth", "(I)V");
+        MethodVisitor mv = builder.getGenerator();
+        Label start = new Label();
+        Label l1 = new Label();
+        Label end = new Label();
+        mv.visitLabel(start);
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitVarInsn(ILOAD, 0);
+        Handle bsm = new Handle(H_INVOKESTATIC, "java/lang/invoke/StringConcatFactory", "makeConcatWithConstants",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/String;[Ljava/lang/Object;)"
+                        + "Ljava/lang/invoke/CallSite;");
+        mv.visitInvokeDynamicInsn("makeConcatWithConstants", "(II)Ljava/lang/String;", bsm, "\u0001\u0001 = \u0002", "sum");
+        mv.visitVarInsn(ASTORE, 1);
+        mv.visitLabel(l1);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+        mv.visitLocalVariable("i", "I", null, start, end, 0);
+        mv.visitLocalVariable("a", "Ljava/lang/String;", null, l1, end, 1);
+
+        String insn = TestHelper.getAsString(builder.finish(), "test_mth");
+        String good = "String a = \"\" + i + i + \" = sum\";";
+        Assert.assertEquals(good, insn);
+    }
+
+    @Test
+    public void testIndyStringConcatAdditiveFirst() {
+        TestMethodBuilder builder = new TestMethodBuilder("test_mth", "(I)V");
+        MethodVisitor mv = builder.getGenerator();
+        Label start = new Label();
+        Label l1 = new Label();
+        Label end = new Label();
+        mv.visitLabel(start);
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IADD);
+        mv.visitVarInsn(ILOAD, 0);
+        Handle bsm = new Handle(H_INVOKESTATIC, "java/lang/invoke/StringConcatFactory", "makeConcatWithConstants",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/String;[Ljava/lang/Object;)"
+                        + "Ljava/lang/invoke/CallSite;");
+        mv.visitInvokeDynamicInsn("makeConcatWithConstants", "(II)Ljava/lang/String;", bsm, "\u0001\u0001");
+        mv.visitVarInsn(ASTORE, 1);
+        mv.visitLabel(l1);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+        mv.visitLocalVariable("i", "I", null, start, end, 0);
+        mv.visitLocalVariable("a", "Ljava/lang/String;", null, l1, end, 1);
+
+        String insn = TestHelper.getAsString(builder.finish(), "test_mth");
+        String good = "String a = \"\" + (i + 1) + i;";
+        Assert.assertEquals(good, insn);
+    }
 }
@@ -276,4 +276,40 @@ public class TryCatchTests {
                 + "}";
         Assert.assertEquals(good, insn);
     }
+
+    @Test
+    public void testManyCatchBlocks() {
+        TestMethodBuilder builder = new TestMethodBuilder("test_mth", "()V");
+        MethodVisitor mv = builder.getGenerator();
+        Label l0 = new Label();
+        Label l1 = new Label();
+        Label end = new Label();
+        Label[] handlers = new Label[200];
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = new Label();
+            mv.visitTryCatchBlock(l0, l1, handlers[i], "java/lang/NullPointerException");
+        }
+        mv.visitLabel(l0);
+        mv.visitMethodInsn(INVOKESTATIC, THIS_TYPE.getInternalName(), "body", "()V", false);
+        mv.visitLabel(l1);
+        mv.visitJumpInsn(GOTO, end);
+        StringBuilder good = new StringBuilder("try {\n    org.spongepowered.test.decompile.TryCatchTests.body();\n");
+        for (int i = 0; i < handlers.length; i++) {
+            mv.visitLabel(handlers[i]);
+            mv.visitVarInsn(ASTORE, 2);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/NullPointerException", "printStackTrace", "()V", false);
+            if (i < handlers.length - 1) {
+                mv.visitJumpInsn(GOTO, end);
+            }
+            mv.visitLocalVariable("e", "Ljava/lang/NullPointerException;", null, handlers[i], i < handlers.length - 1 ? handlers[i + 1] : end, 2);
+            good.append("} catch (NullPointerException e) {\n    e.printStackTrace();\n");
+        }
+        good.append("}");
+        mv.visitLabel(end);
+        mv.visitInsn(RETURN);
+
+        String insn = TestHelper.getAsString(builder.finish(), "test_mth");
+        Assert.assertEquals(good.toString(), insn);
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.spongepowered.despector.parallel.ArchiveWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ArchiveWriterTest {
+
+    private static byte[] write(boolean compress, int workers) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArchiveWriter writer = new ArchiveWriter(out, compress, workers)) {
+            for (int i = 0; i < 200; i++) {
+                StringBuilder text = new StringBuilder();
+                for (int j = 0; j < i * 10; j++) {
+                    text.append("line ").append(j).append('\n');
+                }
+                writer.add("com/example/Type" + i + ".java", text.toString());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void check(byte[] archive, int expected_method) throws IOException {
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            for (int i = 0; i < 200; i++) {
+                ZipEntry entry = in.getNextEntry();
+                assertEquals("com/example/Type" + i + ".java", entry.getName());
+                assertEquals(expected_method, entry.getMethod());
+                ByteArrayOutputStream data = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int len;
+                while ((len = in.read(buffer)) != -1) {
+                    data.write(buffer, 0, len);
+                }
+                String text = new String(data.toByteArray(), StandardCharsets.UTF_8);
+                assertEquals(i * 10, text.isEmpty() ? 0 : text.split("\n").length);
+            }
+            assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        check(write(true, 4), ZipEntry.DEFLATED);
+    }
+
+    @Test
+    public void testStored() throws IOException {
+        check(write(false, 4), ZipEntry.STORED);
+    }
+
+    @Test
+    public void testDeterministic() throws IOException {
+        assertArrayEquals(write(true, 1), write(true, 8));
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.generic.GenericClassTypeSignature;
+import org.spongepowered.despector.ast.type.FieldEntry;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.decompiler.AttributeProfile;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AttributeProfileTest {
+
+    private static DespectorEngine createEngine(AttributeProfile profile) {
+        DespectorEngine engine = TestHelper.createEngine();
+        engine.setAttributeProfile(profile);
+        return engine;
+    }
+
+    @Test
+    public void testFull() throws IOException {
+        DespectorEngine engine = createEngine(AttributeProfile.FULL);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        FieldEntry names = type.getField("names");
+        assertEquals(1, names.getAnnotations().size());
+        assertTrue(names.getType() instanceof GenericClassTypeSignature);
+        String out = engine.emitToString(type);
+        assertTrue(out, out.contains("count = 0"));
+    }
+
+    @Test
+    public void testNoAnnotations() throws IOException {
+        DespectorEngine engine = createEngine(AttributeProfile.NO_ANNOTATIONS);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        FieldEntry names = type.getField("names");
+        assertTrue(names.getAnnotations().isEmpty());
+        assertTrue(names.getType() instanceof GenericClassTypeSignature);
+        String out = engine.emitToString(type);
+        assertTrue(out, out.contains("count = 0"));
+        assertEquals(0, engine.getDiagnostics().getCount(Diagnostics.KIND_UNKNOWN_ATTRIBUTE));
+    }
+
+    @Test
+    public void testNoDebugInfo() throws IOException {
+        DespectorEngine engine = createEngine(AttributeProfile.NO_DEBUG_INFO);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        assertEquals(1, type.getField("names").getAnnotations().size());
+        String out = engine.emitToString(type);
+        assertFalse(out, out.contains("count = 0"));
+    }
+
+    @Test
+    public void testSignaturesOnly() throws IOException {
+        DespectorEngine engine = createEngine(AttributeProfile.SIGNATURES_ONLY);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        FieldEntry names = type.getField("names");
+        assertTrue(names.getAnnotations().isEmpty());
+        assertTrue(names.getType() instanceof GenericClassTypeSignature);
+        MethodEntry count = type.getMethod("countNames");
+        assertNull(count.getIR());
+        assertEquals(0, count.getInstructions().getStatementCount());
+        MethodEntry append = type.getMethod("appendName");
+        assertEquals(0, append.getInstructions().getStatementCount());
+        String out = engine.emitToString(type);
+        assertFalse(out, out.contains("count = 0"));
+        assertFalse(out, out.contains("names.add"));
+        assertTrue(out, out.contains("public int countNames() {"));
+        assertTrue(out, out.contains("public void appendName(String"));
+    }
+
+    @Test
+    public void testCustomHandler() throws IOException {
+        DespectorEngine engine = createEngine(AttributeProfile.FULL);
+        List<String> sources = new ArrayList<>();
+        engine.getDecompiler(Language.ANY).getAttributes(AttributeProfile.FULL).type.register("SourceFile",
+                (ctx, data, pool, length) -> sources.add(pool.getUtf8(data.readUnsignedShort())));
+        TestHelper.load(engine, Holder.class);
+        assertEquals(1, sources.size());
+        assertEquals("AttributeProfileTest.java", sources.get(0));
+    }
+
+    @Test
+    public void testFromName() {
+        assertEquals(AttributeProfile.NO_DEBUG_INFO, AttributeProfile.fromName("no-debug-info"));
+        assertEquals(AttributeProfile.SIGNATURES_ONLY, AttributeProfile.fromName("Signatures-Only"));
+        assertNull(AttributeProfile.fromName("none"));
+    }
+
+    public static class Holder {
+
+        @Deprecated
+        public List<String> names = new ArrayList<>();
+
+        public int countNames() {
+            int count = 0;
+            for (String name : this.names) {
+                count += name.length();
+            }
+            return count;
+        }
+
+        public void appendName(String name) {
+            this.names.add(name);
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorBenchmark;
+import org.spongepowered.despector.parallel.DecompileStats;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class BenchmarkTest {
+
+    @Test
+    public void testLatencyPercentiles() {
+        DecompileStats stats = new DecompileStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.recordMethod(i, i % 10 == 0);
+        }
+        assertEquals(100, stats.getMethodCount());
+        assertEquals(10, stats.getFailureCount());
+        assertEquals(50, stats.getLatencyPercentile(50));
+        assertEquals(99, stats.getLatencyPercentile(99));
+        assertEquals(100, stats.getLatencyPercentile(100));
+    }
+
+    @Test
+    public void testBaselineComparison() throws IOException {
+        DespectorBenchmark.Report base = new DespectorBenchmark.Report();
+        base.iterations = 1;
+        base.classes = 1000;
+        base.methods = 10000;
+        base.wall_time = 1000000000L;
+        base.emit_time = 100000000L;
+        Path file = Files.createTempFile("despector-baseline", ".json");
+        try {
+            Files.write(file, base.toJson().getBytes(StandardCharsets.UTF_8));
+            Map<String, Double> baseline = DespectorBenchmark.readReport(file);
+            assertEquals(1000.0, baseline.get("classes_per_sec"), 0.001);
+
+            DespectorBenchmark.Report current = new DespectorBenchmark.Report();
+            current.iterations = 1;
+            current.classes = 1000;
+            current.methods = 10000;
+            current.wall_time = 1500000000L;
+            current.emit_time = 100000000L;
+            List<String> regressions = DespectorBenchmark.compare(baseline, current.toValues(), 10);
+            assertEquals(regressions.toString(), 2, regressions.size());
+            assertTrue(regressions.get(0), regressions.get(0).startsWith("classes_per_sec"));
+            assertTrue(DespectorBenchmark.compare(baseline, base.toValues(), 10).isEmpty());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testZeroBaselineFailures() {
+        DespectorBenchmark.Report base = new DespectorBenchmark.Report();
+        base.iterations = 1;
+        base.classes = 1000;
+        base.methods = 10000;
+        base.wall_time = 1000000000L;
+        DespectorBenchmark.Report current = new DespectorBenchmark.Report();
+        current.iterations = 1;
+        current.classes = 1000;
+        current.methods = 10000;
+        current.wall_time = 1000000000L;
+        current.failures = 3;
+        List<String> regressions = DespectorBenchmark.compare(base.toValues(), current.toValues(), 10);
+        assertEquals(regressions.toString(), 1, regressions.size());
+        assertTrue(regressions.get(0), regressions.get(0).startsWith("failures"));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorDaemon;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.emitter.format.EmitterFormat;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class DaemonTest {
+
+    @Test
+    public void testRequests() throws IOException {
+        Class<?> cls = EngineTest.FieldHolder.class;
+        byte[] data = TestHelper.classData(cls);
+
+        StringBuilder requests = new StringBuilder();
+        requests.append("1 ping\n");
+        requests.append("2 decompile base64:").append(Base64.getEncoder().encodeToString(data)).append('\n');
+        requests.append("3 decompile does/not/exist.class\n");
+        requests.append("4 frobnicate\n");
+        requests.append("5 shutdown\n");
+
+        DespectorDaemon daemon = new DespectorDaemon(new ConfigBase(), EmitterFormat.defaults(), 2);
+        StringWriter out = new StringWriter();
+        daemon.serve(new BufferedReader(new StringReader(requests.toString())), out);
+        daemon.shutdown();
+
+        String response = out.toString();
+        assertTrue(response, response.contains("1 pong\n"));
+        assertTrue(response, response.contains("2 source org/spongepowered/test/engine/EngineTest$FieldHolder "));
+        assertTrue(response, response.contains("return this.value;"));
+        assertTrue(response, response.contains("2 done 1\n"));
+        assertTrue(response, response.contains("3 error Unknown source"));
+        assertTrue(response, response.contains("4 error Unknown command: frobnicate\n"));
+        assertTrue(response, response.endsWith("5 bye\n"));
+    }
+
+    @Test
+    public void testQuotedPaths() throws IOException {
+        Class<?> cls = EngineTest.FieldHolder.class;
+        byte[] data = TestHelper.classData(cls);
+
+        Path dir = Files.createTempDirectory("despector daemon");
+        try {
+            Path input = dir.resolve("field holder.class");
+            Files.write(input, data);
+            Path output = dir.resolve("out dir");
+
+            StringBuilder requests = new StringBuilder();
+            requests.append("1 decompile \"").append(input.toString().replace("\\", "\\\\")).append("\" out=\"")
+                    .append(output.toString().replace("\\", "\\\\")).append("\"\n");
+            requests.append("2 decompile \"unterminated.class\n");
+            requests.append("3 shutdown\n");
+
+            DespectorDaemon daemon = new DespectorDaemon(new ConfigBase(), EmitterFormat.defaults(), 1);
+            StringWriter out = new StringWriter();
+            daemon.serve(new BufferedReader(new StringReader(requests.toString())), out);
+            daemon.shutdown();
+
+            String response = out.toString();
+            Path written = output.resolve("org/spongepowered/test/engine/EngineTest$FieldHolder.java");
+            assertTrue(response, response.contains("1 wrote " + written.toAbsolutePath() + "\n"));
+            assertTrue(response, response.contains("1 done 1\n"));
+            assertTrue(response, response.contains("2 error Unterminated quote\n"));
+            assertTrue(new String(Files.readAllBytes(written), StandardCharsets.UTF_8).contains("return this.value;"));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.parallel.Diagnostics.Level;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DiagnosticsTest {
+
+    @Test
+    public void testDeduplicate() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Diagnostics diagnostics = new Diagnostics(new PrintStream(out), new PrintStream(err));
+        for (int i = 0; i < 100; i++) {
+            diagnostics.report(Level.WARNING, Diagnostics.KIND_UNKNOWN_ATTRIBUTE, "Skipping unknown class attribute: NestMembers");
+        }
+        diagnostics.report(Level.INFO, Diagnostics.KIND_PROGRESS, "Decompiling class A");
+        diagnostics.flush();
+        assertEquals("Skipping unknown class attribute: NestMembers" + System.lineSeparator(), err.toString());
+        assertEquals("Decompiling class A" + System.lineSeparator(), out.toString());
+        assertEquals(100, diagnostics.getCount(Diagnostics.KIND_UNKNOWN_ATTRIBUTE));
+        assertEquals(99, diagnostics.getSuppressedCount(Diagnostics.KIND_UNKNOWN_ATTRIBUTE));
+    }
+
+    @Test(timeout = 10000)
+    public void testFailingStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream err = new PrintStream(new ByteArrayOutputStream()) {
+
+            @Override
+            public void println(String message) {
+                throw new IllegalStateException("closed");
+            }
+        };
+        Diagnostics diagnostics = new Diagnostics(new PrintStream(out), err);
+        diagnostics.report(Level.WARNING, Diagnostics.KIND_VERIFICATION, "Lost warning");
+        diagnostics.report(Level.INFO, Diagnostics.KIND_PROGRESS, "Decompiling class A");
+        diagnostics.flush();
+        assertEquals("Decompiling class A" + System.lineSeparator(), out.toString());
+    }
+
+    @Test
+    public void testLimitAndSummary() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Diagnostics diagnostics = new Diagnostics(new PrintStream(new ByteArrayOutputStream()), new PrintStream(err));
+        diagnostics.setLimit(3);
+        for (int i = 0; i < 10; i++) {
+            diagnostics.report(Level.ERROR, Diagnostics.KIND_METHOD_FAILURE, "Error decompiling method " + i, new IllegalStateException());
+        }
+        diagnostics.record(Level.ERROR, Diagnostics.KIND_METHOD_FAILURE);
+        diagnostics.flush();
+        String printed = err.toString();
+        assertTrue(printed.contains("Error decompiling method 2"));
+        assertFalse(printed.contains("Error decompiling method 3"));
+        assertTrue(printed.contains("IllegalStateException"));
+
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        diagnostics.printSummary(new PrintStream(summary, true));
+        assertEquals("Diagnostics summary:" + System.lineSeparator() + "  error method-failure: 11 (8 not shown)" + System.lineSeparator(),
+                summary.toString());
+
+        diagnostics.reset();
+        assertEquals(0, diagnostics.getCount(Diagnostics.KIND_METHOD_FAILURE));
+    }
+
+    @Test
+    public void testLevel() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Diagnostics diagnostics = new Diagnostics(new PrintStream(out), new PrintStream(new ByteArrayOutputStream()));
+        diagnostics.report(Level.DEBUG, "trace", "hidden");
+        diagnostics.setLevel(Level.DEBUG);
+        diagnostics.report(Level.DEBUG, "trace", "shown");
+        diagnostics.flush();
+        assertEquals("shown" + System.lineSeparator(), out.toString());
+        assertEquals(2, diagnostics.getCount("trace"));
+        assertEquals(1, diagnostics.getSuppressedCount("trace"));
+    }
+
+    @Test
+    public void testConcurrentReports() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Diagnostics diagnostics = new Diagnostics(new PrintStream(out), new PrintStream(new ByteArrayOutputStream()));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    diagnostics.report(Level.INFO, Diagnostics.KIND_PROGRESS, "Decompiling class " + id + "/" + i);
+                    diagnostics.report(Level.WARNING, Diagnostics.KIND_UNKNOWN_ATTRIBUTE, "Skipping unknown class attribute: Record");
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        diagnostics.flush();
+        assertEquals(1000, out.toString().split(System.lineSeparator()).length);
+        assertEquals(1000, diagnostics.getCount(Diagnostics.KIND_UNKNOWN_ATTRIBUTE));
+        assertEquals(999, diagnostics.getSuppressedCount(Diagnostics.KIND_UNKNOWN_ATTRIBUTE));
+    }
+
+}
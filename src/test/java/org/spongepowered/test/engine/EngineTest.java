@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.decompiler.Decompilers;
+import org.spongepowered.despector.emitter.Emitters;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.IOException;
+
+public class EngineTest {
+
+    @Test
+    public void testIsolatedConfig() throws IOException {
+        ConfigBase with_this = new ConfigBase();
+        with_this.emitter.emit_this_for_fields = true;
+        ConfigBase without_this = new ConfigBase();
+        without_this.emitter.emit_this_for_fields = false;
+
+        DespectorEngine a = new DespectorEngine(with_this);
+        a.setQuiet(true);
+        DespectorEngine b = TestHelper.createEngine(without_this);
+
+        String out_a = a.emitToString(TestHelper.load(a, FieldHolder.class));
+        String out_b = b.emitToString(TestHelper.load(b, FieldHolder.class));
+        assertTrue(out_a, out_a.contains("return this.value;"));
+        assertTrue(out_b, out_b.contains("return value;"));
+    }
+
+    @Test
+    public void testOwnedComponents() {
+        DespectorEngine a = new DespectorEngine(new ConfigBase());
+        DespectorEngine b = new DespectorEngine(new ConfigBase());
+        assertNotSame(a.getDecompiler(Language.ANY), b.getDecompiler(Language.ANY));
+        assertNotSame(a.getEmitterSet(Language.JAVA), b.getEmitterSet(Language.JAVA));
+        assertNotSame(a.getEmitterSet(Language.JAVA), Emitters.JAVA_SET);
+        assertSame(a, a.getMethodDecompiler(Language.KOTLIN).getEngine());
+        assertFalse(a.isGlobal());
+    }
+
+    @Test
+    public void testGlobal() {
+        DespectorEngine global = DespectorEngine.global();
+        assertTrue(global.isGlobal());
+        assertSame(Decompilers.WILD, global.getDecompiler(Language.ANY));
+        assertSame(Emitters.KOTLIN_SET, global.getEmitterSet(Language.KOTLIN));
+        assertSame(global, Decompilers.JAVA_METHOD.getEngine());
+    }
+
+    public static class FieldHolder {
+
+        private int value;
+
+        public int get() {
+            return this.value;
+        }
+
+    }
+
+}
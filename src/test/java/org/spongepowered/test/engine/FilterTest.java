@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.ast.stmt.StatementBlock;
+import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.decompiler.DecompilerFilter;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.IOException;
+
+public class FilterTest {
+
+    @Test
+    public void testGlobs() {
+        DecompilerFilter filter = new DecompilerFilter().include("com.example.*").exclude("com/example/Hidden");
+        assertTrue(filter.includesType("com/example/Shown"));
+        assertFalse(filter.includesType("com/example/Hidden"));
+        assertFalse(filter.includesType("com/example/sub/Shown"));
+        assertFalse(filter.includesType("org/example/Shown"));
+
+        filter = new DecompilerFilter().include("com.**");
+        assertTrue(filter.includesType("com/example/sub/Shown"));
+        assertTrue(new DecompilerFilter().isEmpty());
+    }
+
+    @Test
+    public void testMethodGlobs() {
+        DecompilerFilter filter = new DecompilerFilter().include("com.example.Shown#get*").exclude("**#<clinit>");
+        assertTrue(filter.includesType("com/example/Shown"));
+        assertFalse(filter.includesType("com/example/Other"));
+        assertTrue(filter.includesMethod("com/example/Shown", "getValue"));
+        assertFalse(filter.includesMethod("com/example/Shown", "setValue"));
+        assertFalse(filter.includesMethod("com/example/Shown", "<clinit>"));
+        assertTrue(filter.includesMethod("com/example/Other", "setValue"));
+    }
+
+    @Test
+    public void testExcludedType() throws IOException {
+        DespectorEngine engine = TestHelper.createEngine();
+        engine.setFilter(new DecompilerFilter().exclude("**$Holder"));
+        assertNull(TestHelper.load(engine, Holder.class));
+    }
+
+    @Test
+    public void testExcludedMethod() throws IOException {
+        DespectorEngine engine = TestHelper.createEngine();
+        engine.setFilter(new DecompilerFilter().include("**$Holder#get*"));
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        assertNotNull(type);
+        String out = engine.emitToString(type);
+        assertTrue(out, out.contains("return this.value;"));
+        assertTrue(out, out.contains("Method body excluded by filter"));
+        assertTrue(out, out.contains("public void setValue(int value)"));
+    }
+
+    @Test
+    public void testLazy() throws IOException {
+        DespectorEngine engine = TestHelper.createEngine();
+        engine.setLazy(true);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        MethodEntry getter = type.getMethod("getValue");
+        assertTrue(getter.hasPendingBody());
+        assertNotNull(getter.getInstructions());
+        assertFalse(getter.hasPendingBody());
+        assertTrue(type.getMethod("setValue").hasPendingBody());
+        String out = engine.emitToString(type);
+        assertTrue(out, out.contains("this.value = value;"));
+    }
+
+    @Test
+    public void testLazyReplacedBody() throws IOException {
+        DespectorEngine engine = TestHelper.createEngine();
+        engine.setLazy(true);
+        TypeEntry type = TestHelper.load(engine, Holder.class);
+        MethodEntry setter = type.getMethod("setValue");
+        StatementBlock block = new StatementBlock(StatementBlock.Type.METHOD);
+        setter.setInstructions(block);
+        assertFalse(setter.hasPendingBody());
+        assertSame(block, setter.getInstructions());
+    }
+
+    public static class Holder {
+
+        private int value;
+
+        public int getValue() {
+            return this.value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.DespectorRecompiler;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+public class RecompilerTest {
+
+    private static Map<String, byte[]> recompile(DespectorRecompiler recompiler, Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(jar)) {
+            for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(e.getKey()));
+                out.write(e.getValue());
+                out.closeEntry();
+            }
+        }
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        recompiler.recompile(new ByteArrayInputStream(jar.toByteArray()), result);
+        Map<String, byte[]> output = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(result.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                output.put(entry.getName(), TestHelper.readAll(in));
+            }
+        }
+        return output;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DespectorEngine engine = new DespectorEngine(new ConfigBase());
+        engine.setQuiet(true);
+        DespectorRecompiler recompiler = new DespectorRecompiler(engine);
+        recompiler.setVerifyPercent(0);
+        String name = Holder.class.getName().replace('.', '/') + ".class";
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+        entries.put(name, TestHelper.classData(Holder.class));
+
+        Map<String, byte[]> output = recompile(recompiler, entries);
+        assertEquals(1, recompiler.getRecompiledCount());
+        assertArrayEquals(entries.keySet().toArray(), output.keySet().toArray());
+        assertArrayEquals(entries.get("META-INF/MANIFEST.MF"), output.get("META-INF/MANIFEST.MF"));
+
+        byte[] data = output.get(name);
+        Class<?> cls = new ClassLoader(RecompilerTest.class.getClassLoader()) {
+
+            Class<?> define() {
+                return defineClass(Holder.class.getName(), data, 0, data.length);
+            }
+        }.define();
+        Object holder = cls.getDeclaredConstructor().newInstance();
+        assertEquals(42, cls.getMethod("answer").invoke(holder));
+        assertEquals("value", cls.getMethod("echo", String.class).invoke(holder, "value"));
+    }
+
+    @Test
+    public void testVerifySample() {
+        DespectorRecompiler recompiler = new DespectorRecompiler(new DespectorEngine(new ConfigBase()));
+        recompiler.setVerifyPercent(0);
+        assertFalse(recompiler.shouldVerify("a/b/C.class"));
+        recompiler.setVerifyPercent(100);
+        assertTrue(recompiler.shouldVerify("a/b/C.class"));
+        recompiler.setVerifyPercent(50);
+        int verified = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (recompiler.shouldVerify("a/b/C" + i + ".class")) {
+                verified++;
+            }
+        }
+        assertTrue(verified > 350 && verified < 650);
+    }
+
+    public static class Holder {
+
+        public int answer() {
+            return 42;
+        }
+
+        public String echo(String value) {
+            String result = value;
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.transform.TransformerPhase;
+import org.spongepowered.despector.transform.TypeTransformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransformerPhaseTest {
+
+    private static final int TYPE_COUNT = 300;
+
+    private static SourceSet createSet() {
+        SourceSet set = new SourceSet();
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            set.add(new ClassEntry(set, Language.JAVA, "test/Type" + i));
+        }
+        return set;
+    }
+
+    private static DespectorEngine createEngine() {
+        DespectorEngine engine = new DespectorEngine(new ConfigBase(), null, 4);
+        engine.setQuiet(true);
+        return engine;
+    }
+
+    private static class Recorder implements TypeTransformer {
+
+        final String id;
+        final boolean local;
+        final Map<String, List<String>> log;
+
+        Recorder(String id, boolean local, Map<String, List<String>> log) {
+            this.id = id;
+            this.local = local;
+            this.log = log;
+        }
+
+        @Override
+        public boolean isTypeLocal() {
+            return this.local;
+        }
+
+        @Override
+        public void transform(TypeEntry type) {
+            this.log.computeIfAbsent(type.getName(), (k) -> Collections.synchronizedList(new ArrayList<>())).add(this.id);
+        }
+
+    }
+
+    @Test
+    public void testStageOrder() {
+        Map<String, List<String>> log = new ConcurrentHashMap<>();
+        AtomicInteger active = new AtomicInteger();
+        SourceSet set = createSet();
+        TypeTransformer cross = new TypeTransformer() {
+
+            @Override
+            public void transform(TypeEntry type) {
+                assertEquals(1, active.incrementAndGet());
+                // every type has completed the earlier stages
+                for (TypeEntry other : set.getAllClasses()) {
+                    assertEquals(Arrays.asList("a", "b"), log.get(other.getName()).subList(0, 2));
+                }
+                log.get(type.getName()).add("c");
+                active.decrementAndGet();
+            }
+        };
+        TransformerPhase phase = new TransformerPhase()
+                .add(new Recorder("a", true, log))
+                .add(new Recorder("b", true, log))
+                .add(cross)
+                .add(new Recorder("d", true, log))
+                .addTargeted("test/Type5", new Recorder("t", true, log))
+                .addTargeted("test/Type7", new Recorder("s", false, log));
+        phase.apply(set, createEngine());
+        assertEquals(TYPE_COUNT, log.size());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), log.get("test/Type0"));
+        assertEquals(Arrays.asList("a", "b", "c", "d", "t"), log.get("test/Type5"));
+        assertEquals(Arrays.asList("a", "b", "c", "d", "s"), log.get("test/Type7"));
+    }
+
+    @Test
+    public void testTargetedOnce() {
+        Map<String, List<String>> log = new ConcurrentHashMap<>();
+        Recorder t = new Recorder("t", true, log);
+        new TransformerPhase().addTargeted("test/Type1", t).addTargeted("test/Type1", t).apply(createSet(), createEngine());
+        assertEquals(1, log.size());
+        assertEquals(Arrays.asList("t"), log.get("test/Type1"));
+    }
+
+    @Test
+    public void testErrorPropagated() {
+        TypeTransformer failing = new TypeTransformer() {
+
+            @Override
+            public boolean isTypeLocal() {
+                return true;
+            }
+
+            @Override
+            public void transform(TypeEntry type) {
+                if (type.getName().equals("test/Type42")) {
+                    throw new IllegalStateException("Type42");
+                }
+            }
+        };
+        try {
+            new TransformerPhase().add(failing).apply(createSet(), createEngine());
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("Type42"));
+        }
+    }
+
+    @Test
+    public void testMembersInvalidated() {
+        SourceSet set = createSet();
+        set.getMembers().getType("test/Type0");
+        assertTrue(set.getMembers().size() > 0);
+        new TransformerPhase().add(new Recorder("a", true, new ConcurrentHashMap<>())).apply(set, createEngine());
+        assertEquals(0, set.getMembers().size());
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Despector <https://despector.voxelgenesis.com>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.test.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.spongepowered.despector.DespectorEngine;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.type.ClassEntry;
+import org.spongepowered.despector.config.ConfigBase;
+import org.spongepowered.despector.parallel.Diagnostics;
+import org.spongepowered.despector.transform.verify.VerificationPhase;
+import org.spongepowered.test.util.TestHelper;
+
+import java.io.IOException;
+import java.util.List;
+
+public class VerificationPhaseTest {
+
+    private static final int TYPE_COUNT = 300;
+
+    private static DespectorEngine createEngine() {
+        DespectorEngine engine = new DespectorEngine(new ConfigBase(), null, 4);
+        engine.setQuiet(true);
+        engine.getDiagnostics().setLevel(Diagnostics.Level.ERROR);
+        return engine;
+    }
+
+    /**
+     * Creates a source set of classes without a supertype, each of which
+     * fails verification.
+     */
+    private static SourceSet createSet() {
+        SourceSet set = new SourceSet();
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            set.add(new ClassEntry(set, Language.JAVA, "test/Type" + i));
+        }
+        return set;
+    }
+
+    @Test
+    public void testFailuresAggregated() {
+        DespectorEngine engine = createEngine();
+        VerificationPhase phase = new VerificationPhase();
+        phase.apply(createSet(), engine);
+        assertEquals(TYPE_COUNT, phase.getVerifiedCount());
+        assertEquals(TYPE_COUNT, phase.getFailureCount());
+        assertEquals(TYPE_COUNT, engine.getDiagnostics().getCount(Diagnostics.KIND_VERIFICATION));
+    }
+
+    @Test
+    public void testSampled() {
+        VerificationPhase phase = new VerificationPhase();
+        phase.setPercent(25);
+        int expected = 0;
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            if (phase.shouldVerify("test/Type" + i)) {
+                expected++;
+            }
+        }
+        phase.apply(createSet(), createEngine());
+        assertEquals(expected, phase.getVerifiedCount());
+        assertEquals(expected, phase.getFailureCount());
+
+        phase.setPercent(0);
+        phase.apply(createSet(), createEngine());
+        assertEquals(0, phase.getVerifiedCount());
+    }
+
+    @Test
+    public void testDecompiledType() throws IOException {
+        DespectorEngine engine = TestHelper.createEngine();
+        SourceSet set = engine.createSourceSet();
+        TestHelper.load(engine, set, Holder.class);
+        VerificationPhase phase = new VerificationPhase();
+        phase.apply(set, engine);
+        assertEquals(1, phase.getVerifiedCount());
+        assertEquals(0, phase.getFailureCount());
+    }
+
+    public static class Holder {
+
+        public int sum(List<String> names, int[] values) {
+            int total = 0;
+            for (String name : names) {
+                total += name.length();
+            }
+            for (int i = 0; i < values.length; i++) {
+                total += values[i];
+            }
+            try {
+                total /= values.length;
+            } catch (ArithmeticException e) {
+                total = -e.hashCode();
+            }
+            return total;
+        }
+
+    }
+
+}
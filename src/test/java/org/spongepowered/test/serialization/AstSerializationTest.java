@@ -26,19 +26,35 @@ package org.spongepowered.test.serialization;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.spongepowered.despector.Language;
+import org.spongepowered.despector.ast.AccessModifier;
 import org.spongepowered.despector.ast.Locals;
 import org.spongepowered.despector.ast.Locals.Local;
 import org.spongepowered.despector.ast.Locals.LocalInstance;
 import org.spongepowered.despector.ast.SourceSet;
+import org.spongepowered.despector.ast.generic.ClassSignature;
 import org.spongepowered.despector.ast.generic.ClassTypeSignature;
+import org.spongepowered.despector.ast.type.ClassEntry;
 import org.spongepowered.despector.ast.type.MethodEntry;
+import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.LibraryConfiguration;
+import org.spongepowered.despector.decompiler.Decompilers;
+import org.spongepowered.despector.emitter.Emitters;
+import org.spongepowered.despector.emitter.format.EmitterFormat;
+import org.spongepowered.despector.emitter.java.JavaEmitterContext;
+import org.spongepowered.despector.util.serialization.AstArchive;
 import org.spongepowered.despector.util.serialization.AstLoader;
 import org.spongepowered.despector.util.serialization.MessagePacker;
+import org.spongepowered.despector.util.serialization.MessagePrinter;
 import org.spongepowered.despector.util.serialization.MessageUnpacker;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class AstSerializationTest {
 
@@ -66,4 +82,121 @@ public class AstSerializationTest {
         Assert.assertEquals(b, l.getParameterInstance());
     }
 
+    @Test
+    public void testSourceSet() throws IOException {
+        LibraryConfiguration.parallel = false;
+        InputStream compiled = Thread.currentThread().getContextClassLoader().getResourceAsStream("javaclasses/BasicClass.class.test");
+        SourceSet set = new SourceSet();
+        TypeEntry type = Decompilers.JAVA.decompile(compiled, set);
+        Decompilers.JAVA.flushTasks();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePacker pack = new MessagePacker(out);
+        set.writeTo(pack);
+        SourceSet loaded_set = new SourceSet();
+        AstLoader.loadSources(loaded_set, new ByteArrayInputStream(out.toByteArray()));
+        TypeEntry loaded = loaded_set.get(type.getName());
+
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(emit(type), emit(loaded));
+    }
+
+    @Test
+    public void testPrintSourceSet() throws IOException {
+        LibraryConfiguration.parallel = false;
+        InputStream compiled = Thread.currentThread().getContextClassLoader().getResourceAsStream("javaclasses/BasicClass.class.test");
+        SourceSet set = new SourceSet();
+        TypeEntry type = Decompilers.JAVA.decompile(compiled, set);
+        Decompilers.JAVA.flushTasks();
+
+        MessagePacker pack = new MessagePacker();
+        set.writeTo(pack);
+        String printed = MessagePrinter.print(new MessageUnpacker(pack.toByteArray()));
+        Assert.assertFalse(printed, printed.contains("EOF!"));
+        Assert.assertTrue(printed, printed.contains("\"" + type.getName() + "\""));
+    }
+
+    @Test
+    public void testArchive() throws IOException {
+        LibraryConfiguration.parallel = false;
+        InputStream compiled = Thread.currentThread().getContextClassLoader().getResourceAsStream("javaclasses/BasicClass.class.test");
+        SourceSet set = new SourceSet();
+        TypeEntry type = Decompilers.JAVA.decompile(compiled, set);
+        Decompilers.JAVA.flushTasks();
+
+        Path archive_path = Files.createTempFile("despector", ".ast");
+        try {
+            AstArchive.write(set, archive_path);
+            try (AstArchive archive = new AstArchive(archive_path)) {
+                Assert.assertTrue(archive.contains(type.getName()));
+                SourceSet loaded_set = new SourceSet();
+                loaded_set.setLoader(archive);
+                Assert.assertTrue(loaded_set.getAllClasses().isEmpty());
+                TypeEntry loaded = loaded_set.get(type.getName());
+                Assert.assertNotNull(loaded);
+                Assert.assertEquals(emit(type), emit(loaded));
+                Assert.assertNull(loaded_set.get("java/lang/Missing"));
+            }
+        } finally {
+            Files.delete(archive_path);
+        }
+    }
+
+    @Test
+    public void testArchiveLoadAll() throws IOException {
+        LibraryConfiguration.parallel = false;
+        InputStream compiled = Thread.currentThread().getContextClassLoader().getResourceAsStream("javaclasses/GenericsTestClass.class.test");
+        SourceSet set = new SourceSet();
+        TypeEntry type = Decompilers.JAVA.decompile(compiled, set);
+        Decompilers.JAVA.flushTasks();
+
+        Path archive_path = Files.createTempFile("despector", ".ast");
+        try {
+            AstArchive.write(set, archive_path);
+            try (AstArchive archive = new AstArchive(archive_path)) {
+                SourceSet loaded_set = new SourceSet();
+                archive.loadAll(loaded_set, 4);
+                Assert.assertEquals(set.getAllClasses().size(), loaded_set.getAllClasses().size());
+                Assert.assertEquals(emit(type), emit(loaded_set.get(type.getName())));
+            }
+        } finally {
+            Files.delete(archive_path);
+        }
+    }
+
+    @Test
+    public void testArchiveLoadAllParallel() throws IOException {
+        LibraryConfiguration.parallel = false;
+        SourceSet set = new SourceSet();
+        for (int i = 0; i < 250; i++) {
+            ClassEntry type = new ClassEntry(set, Language.JAVA, "test/Generated" + i);
+            type.setSuperclass("Ljava/lang/Object;");
+            type.setAccessModifier(AccessModifier.PUBLIC);
+            type.setSignature(new ClassSignature());
+            set.add(type);
+        }
+
+        Path archive_path = Files.createTempFile("despector", ".ast");
+        try {
+            AstArchive.write(set, archive_path);
+            try (AstArchive archive = new AstArchive(archive_path)) {
+                SourceSet loaded_set = new SourceSet();
+                archive.loadAll(loaded_set, 4);
+                Assert.assertEquals(250, loaded_set.getAllClasses().size());
+                for (TypeEntry type : set.getAllClasses()) {
+                    Assert.assertEquals(emit(type), emit(loaded_set.get(type.getName())));
+                }
+            }
+        } finally {
+            Files.delete(archive_path);
+        }
+    }
+
+    private static String emit(TypeEntry type) {
+        StringWriter writer = new StringWriter();
+        JavaEmitterContext ctx = new JavaEmitterContext(writer, EmitterFormat.defaults());
+        Emitters.get(Language.JAVA).emit(ctx, type);
+        return writer.toString();
+    }
+
 }
@@ -24,15 +24,21 @@
  */
 package org.spongepowered.test.serialization;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 import org.spongepowered.despector.util.serialization.MessagePacker;
+import org.spongepowered.despector.util.serialization.MessageType;
 import org.spongepowered.despector.util.serialization.MessageUnpacker;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class MessagePackTest {
 
@@ -145,4 +151,94 @@ public class MessagePackTest {
         }
     }
 
+    @Test
+    public void testStringTable() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MessagePacker msg = new MessagePacker(out)) {
+            msg.enableTables();
+            msg.startMap(3);
+            msg.writeString("val1").writeString("java/lang/Object");
+            msg.writeString("val2").writeString("java/lang/Object");
+            msg.writeString("val1").writeString("val2");
+        }
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        try (MessageUnpacker unpack = new MessageUnpacker(in)) {
+            unpack.enableTables();
+            int len = unpack.readMap();
+            assertEquals(3, len);
+            assertEquals("val1", unpack.readString());
+            String first = unpack.readString();
+            assertEquals("java/lang/Object", first);
+            assertEquals("val2", unpack.readString());
+            assertSame(first, unpack.readString());
+            assertEquals("val1", unpack.readString());
+            assertEquals("val2", unpack.readString());
+        }
+    }
+
+    @Test
+    public void testBuffer() throws IOException {
+        StringBuilder long_str = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            long_str.append("long string ");
+        }
+        MessagePacker msg = new MessagePacker();
+        msg.startMap(3);
+        msg.writeString("val1").writeString("\u00fcnicode \u2603");
+        msg.writeString("val2").writeString(long_str.toString());
+        msg.writeString("val3").startArray(2).writeInt(-200).writeDouble(0.25).endArray();
+        msg.endMap();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MessagePacker stream_msg = new MessagePacker(out)) {
+            stream_msg.startMap(3);
+            stream_msg.writeString("val1").writeString("\u00fcnicode \u2603");
+            stream_msg.writeString("val2").writeString(long_str.toString());
+            stream_msg.writeString("val3").startArray(2).writeInt(-200).writeDouble(0.25).endArray();
+            stream_msg.endMap();
+        }
+        assertArrayEquals(out.toByteArray(), msg.toByteArray());
+
+        // the unpacker reads from the position of the buffer
+        ByteBuffer buffer = ByteBuffer.allocate(msg.size() + 3);
+        buffer.position(3);
+        buffer.put(msg.toByteArray());
+        buffer.position(3);
+        MessageUnpacker unpack = new MessageUnpacker(buffer);
+        assertEquals(MessageType.MAP, unpack.peekType());
+        assertEquals(3, unpack.readMap());
+        assertEquals("val1", unpack.readString());
+        assertEquals("\u00fcnicode \u2603", unpack.readString());
+        assertEquals("val2", unpack.readString());
+        assertEquals(long_str.toString(), unpack.readString());
+        assertEquals("val3", unpack.readString());
+        assertEquals(2, unpack.readArray());
+        assertEquals(-200, unpack.readInt());
+        assertEquals(0.25, unpack.readDouble(), 0.001);
+        assertEquals(3, buffer.position());
+        try {
+            unpack.peekType();
+            fail();
+        } catch (EOFException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        MessagePacker msg = new MessagePacker().enableTables();
+        msg.startArray(2).writeString("java/lang/Object").writeString("java/lang/Object").endArray();
+        byte[] first = msg.toByteArray();
+        msg.reset();
+        msg.startArray(2).writeString("java/lang/Object").writeString("java/lang/Object").endArray();
+        assertArrayEquals(first, msg.toByteArray());
+
+        MessageUnpacker unpack = new MessageUnpacker(msg.toByteArray()).enableTables();
+        assertEquals(2, unpack.readArray());
+        assertEquals("java/lang/Object", unpack.readString());
+        assertEquals(MessageType.EXT, unpack.peekType());
+        assertEquals("java/lang/Object", unpack.readString());
+    }
+
 }
@@ -26,15 +26,18 @@ package org.spongepowered.test.util;
 
 import com.google.common.collect.Maps;
 import org.junit.Assert;
+import org.spongepowered.despector.DespectorEngine;
 import org.spongepowered.despector.ast.SourceSet;
 import org.spongepowered.despector.ast.type.MethodEntry;
 import org.spongepowered.despector.ast.type.TypeEntry;
+import org.spongepowered.despector.config.ConfigBase;
 import org.spongepowered.despector.decompiler.Decompilers;
 import org.spongepowered.despector.emitter.Emitters;
 import org.spongepowered.despector.emitter.format.EmitterFormat;
 import org.spongepowered.despector.emitter.java.JavaEmitterContext;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -137,4 +140,48 @@ public class TestHelper {
         }
     }
 
+    public static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] classData(Class<?> cls) throws IOException {
+        try (InputStream in = cls.getResourceAsStream("/" + cls.getName().replace('.', '/') + ".class")) {
+            return readAll(in);
+        }
+    }
+
+    /**
+     * Creates a quiet engine which decompiles on the calling thread.
+     */
+    public static DespectorEngine createEngine() {
+        return createEngine(new ConfigBase());
+    }
+
+    /**
+     * Creates a quiet engine with the given configuration which decompiles on
+     * the calling thread.
+     */
+    public static DespectorEngine createEngine(ConfigBase config) {
+        DespectorEngine engine = new DespectorEngine(config);
+        engine.setQuiet(true);
+        engine.setParallel(false);
+        return engine;
+    }
+
+    public static TypeEntry load(DespectorEngine engine, Class<?> cls) throws IOException {
+        return load(engine, engine.createSourceSet(), cls);
+    }
+
+    public static TypeEntry load(DespectorEngine engine, SourceSet set, Class<?> cls) throws IOException {
+        TypeEntry type = engine.decompile(new ByteArrayInputStream(classData(cls)), set);
+        engine.flushTasks();
+        return type;
+    }
+
 }